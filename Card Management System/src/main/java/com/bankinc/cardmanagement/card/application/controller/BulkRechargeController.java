@@ -0,0 +1,57 @@
+package com.bankinc.cardmanagement.card.application.controller;
+
+import com.bankinc.cardmanagement.card.application.service.BulkRechargeService;
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimited;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@ConditionalOnJpaStorage
+@RequestMapping("/card")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.bulk-recharge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkRechargeController {
+
+    private final BulkRechargeService bulkRechargeService;
+
+    /**
+     * Adds balance to many cards at once from a JSON array of balance requests.
+     *
+     * @param requests the balance requests, one per card recharge
+     * @return a response entity containing the result of every line
+     */
+    @RateLimited("bulk-recharge")
+    @PostMapping(value = "/balance/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkRechargeResponseDTO> addBalances(@RequestBody List<CardBalanceRequestDTO> requests) {
+        return ResponseEntity.ok(bulkRechargeService.addBalances(requests));
+    }
+
+    /**
+     * Adds balance to many cards at once from an uploaded CSV file of {@code cardId,balance} lines.
+     *
+     * @param file the CSV file
+     * @return a response entity containing the result of every line
+     */
+    @RateLimited("bulk-recharge")
+    @PostMapping(value = "/balance/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkRechargeResponseDTO> addBalancesFromFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(bulkRechargeService.addBalancesFromCsv(csv));
+        }
+    }
+}
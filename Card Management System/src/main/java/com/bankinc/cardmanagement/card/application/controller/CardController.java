@@ -5,11 +5,15 @@ import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
 import com.bankinc.cardmanagement.card.application.service.CardService;
+import com.bankinc.cardmanagement.card.application.service.CardStreamService;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimited;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/card")
@@ -17,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class CardController {
 
     private final CardService cardService;
+    private final CardStreamService cardStreamService;
 
     /**
      * Generates a card number for the specified product.
@@ -24,6 +29,7 @@ public class CardController {
      * @param productId the ID of the product for which to generate a card number
      * @return a response entity containing the generated card number
      */
+    @RateLimited("card-number")
     @GetMapping("/{productId}/number")
     public ResponseEntity<CardNumberResponseDTO> generateCardNumber(@PathVariable String productId) {
         CardNumberResponseDTO response = cardService.generateCardNumber(productId);
@@ -36,6 +42,7 @@ public class CardController {
      * @param request the activation request containing necessary details
      * @return a response entity indicating the activation result
      */
+    @RateLimited("enroll")
     @PostMapping("/enroll")
     public ResponseEntity<Void> activateCard(@Valid @RequestBody CardActivationRequestDTO request) {
         cardService.activateCard(request);
@@ -48,8 +55,9 @@ public class CardController {
      * @param cardId the ID of the card to be blocked
      * @return a response entity indicating the blocking result
      */
+    @RateLimited("block")
     @DeleteMapping("/{cardId}")
-    public ResponseEntity<Void> blockCard(@PathVariable Long cardId) {
+    public ResponseEntity<Void> blockCard(@PathVariable long cardId) {
         cardService.blockCard(cardId);
         return ResponseEntity.ok().build();
     }
@@ -60,22 +68,35 @@ public class CardController {
      * @param request the balance request containing the amount to add
      * @return a response entity indicating the result of the addition
      */
+    @RateLimited("recharge")
     @PostMapping("/balance")
     public ResponseEntity<Void> addBalance(@Valid @RequestBody CardBalanceRequestDTO request) {
         cardService.addBalance(request);
         return ResponseEntity.ok().build();
     }
 
-
     /**
      * Retrieves the balance of the card with the specified ID.
      *
      * @param cardId the ID of the card whose balance is to be retrieved
      * @return a response entity containing the card balance
      */
+    @RateLimited("balance")
     @GetMapping("/balance/{cardId}")
-    public ResponseEntity<CardBalanceResponseDTO> getBalance(@PathVariable Long cardId) {
+    public ResponseEntity<CardBalanceResponseDTO> getBalance(@PathVariable long cardId) {
         CardBalanceResponseDTO response = cardService.getBalance(cardId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Opens a server-sent event stream of the balance changes of the card with the specified ID.
+     *
+     * @param cardId the ID of the card to follow
+     * @return the event stream, starting with the current balance
+     */
+    @RateLimited("balance-stream")
+    @GetMapping(value = "/balance/{cardId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalance(@PathVariable long cardId) {
+        return cardStreamService.subscribe(cardId);
+    }
 }
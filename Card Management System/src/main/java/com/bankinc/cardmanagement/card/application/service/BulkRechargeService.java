@@ -0,0 +1,13 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface BulkRechargeService {
+    BulkRechargeResponseDTO addBalances(List<CardBalanceRequestDTO> requests);
+    BulkRechargeResponseDTO addBalancesFromCsv(InputStream csv) throws IOException;
+}
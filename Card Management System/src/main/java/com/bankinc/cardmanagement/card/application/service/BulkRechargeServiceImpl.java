@@ -0,0 +1,257 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
+import com.bankinc.cardmanagement.card.infrastructure.config.BulkRechargeProperties;
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeLineResultDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeLineResultDTO.Status;
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+import com.bankinc.cardmanagement.card.infrastructure.exception.BulkRechargeTooLargeException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.money.AmountOutOfRangeException;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class BulkRechargeServiceImpl implements BulkRechargeService {
+
+    private final CardRepository cardRepository;
+    private final CardDomainService cardDomainService;
+    private final TransactionRepository transactionRepository;
+    private final TransactionFactory transactionFactory;
+    private final ShardRouter shardRouter;
+    private final BulkRechargeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkRechargeServiceImpl(CardRepository cardRepository, CardDomainService cardDomainService,
+                                   TransactionRepository transactionRepository, TransactionFactory transactionFactory,
+                                   ShardRouter shardRouter, BulkRechargeProperties properties,
+                                   PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+        this.cardRepository = cardRepository;
+        this.cardDomainService = cardDomainService;
+        this.transactionRepository = transactionRepository;
+        this.transactionFactory = transactionFactory;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Adds balance to many cards at once.
+     *
+     * @param requests the recharges, one per line of the report
+     * @return the result of every line, in request order
+     */
+    @Override
+    public BulkRechargeResponseDTO addBalances(List<CardBalanceRequestDTO> requests) {
+        checkSize(requests.size());
+        List<Line> lines = new ArrayList<>(requests.size());
+        for (CardBalanceRequestDTO request : requests) {
+            lines.add(new Line(lines.size() + 1, request.getCardId(), request.getBalance()));
+        }
+        return process(lines);
+    }
+
+    /**
+     * Adds balance to many cards at once from a CSV file with one {@code cardId,balance}
+     * line per recharge. An optional header line is skipped.
+     *
+     * @param csv the CSV content
+     * @return the result of every line, numbered as in the file
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public BulkRechargeResponseDTO addBalancesFromCsv(InputStream csv) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String text;
+            int lineNumber = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                text = text.strip();
+                if (text.isEmpty() || (lineNumber == 1 && !Character.isDigit(text.charAt(0)))) {
+                    continue;
+                }
+                checkSize(lines.size() + 1);
+                lines.add(parseCsvLine(lineNumber, text));
+            }
+        }
+        return process(lines);
+    }
+
+    private BulkRechargeResponseDTO process(List<Line> lines) {
+        List<Line> pending = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            if (line.status == null) {
+                pending.add(line);
+            }
+        }
+        // A single global lock order (shard, then card number) means concurrent bulk
+        // recharges touching the same cards queue behind each other instead of deadlocking.
+        pending.sort(Comparator.comparingInt((Line line) -> line.shard).thenComparingLong(line -> line.cardNumber));
+
+        int from = 0;
+        while (from < pending.size()) {
+            int shard = pending.get(from).shard;
+            int to = from;
+            while (to < pending.size() && to - from < properties.getChunkSize() && pending.get(to).shard == shard) {
+                to++;
+            }
+            applyChunk(shard, pending.subList(from, to));
+            from = to;
+        }
+
+        int applied = 0;
+        int rejected = 0;
+        int failed = 0;
+        List<BulkRechargeLineResultDTO> results = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            switch (line.status) {
+                case APPLIED -> applied++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+            results.add(new BulkRechargeLineResultDTO(line.number, line.cardId, line.amount, line.status, line.message));
+        }
+        log.info("Bulk recharge of {} lines: {} applied, {} rejected, {} failed", lines.size(), applied, rejected, failed);
+        return new BulkRechargeResponseDTO(lines.size(), applied, rejected, failed, results);
+    }
+
+    private void applyChunk(int shard, List<Line> chunk) {
+        ShardContext.set(shard);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> cardNumbers = new ArrayList<>(chunk.size());
+                for (Line line : chunk) {
+                    if (cardNumbers.isEmpty() || cardNumbers.get(cardNumbers.size() - 1) != line.cardNumber) {
+                        cardNumbers.add(line.cardNumber);
+                    }
+                }
+                Map<Long, Card> cards = new HashMap<>();
+                for (Card card : cardRepository.findByCardNumberInOrderByCardNumberAsc(cardNumbers)) {
+                    cards.put(card.getCardNumber(), card);
+                }
+
+                List<Transaction> recharges = new ArrayList<>(chunk.size());
+                for (Line line : chunk) {
+                    Card card = cards.get(line.cardNumber);
+                    if (card == null) {
+                        line.finish(Status.REJECTED, "Card not found");
+                        continue;
+                    }
+                    try {
+                        cardDomainService.validateCardForAddingBalance(card, line.amount);
+                    } catch (CardBlockedException | InsufficientBalanceException | AmountOutOfRangeException e) {
+                        line.finish(Status.REJECTED, e.getMessage());
+                        continue;
+                    }
+                    cardDomainService.addBalance(card, line.amount);
+                    Transaction recharge = transactionFactory.createRecharge(card, line.amount);
+                    recharges.add(recharge);
+                    eventPublisher.publishEvent(new CardActivityEvent(card.getCardNumber(), CardActivityEvent.Type.RECHARGE,
+                            card.getBalance(), null, line.amount, recharge.getTransactionDate()));
+                    line.finish(Status.APPLIED, null);
+                }
+
+                cardRepository.saveAll(cards.values());
+                transactionRepository.saveAll(recharges);
+            });
+        } catch (RuntimeException e) {
+            log.error("Bulk recharge chunk of {} lines failed", chunk.size(), e);
+            for (Line line : chunk) {
+                line.finish(Status.FAILED, "Chunk could not be applied, retry the line");
+            }
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private Line parseCsvLine(int lineNumber, String text) {
+        int separator = text.indexOf(',') >= 0 ? text.indexOf(',') : text.indexOf(';');
+        if (separator < 0) {
+            Line line = new Line(lineNumber, text, 0);
+            line.finish(Status.REJECTED, "Line must be cardId,balance");
+            return line;
+        }
+        String cardId = text.substring(0, separator).strip();
+        try {
+            return new Line(lineNumber, cardId, Money.parse(text.substring(separator + 1).strip()));
+        } catch (NumberFormatException e) {
+            Line line = new Line(lineNumber, cardId, 0);
+            line.finish(Status.REJECTED, "Balance must be a number with at most " + Money.SCALE + " decimals");
+            return line;
+        }
+    }
+
+    private void checkSize(int lines) {
+        if (lines > properties.getMaxLines()) {
+            throw new BulkRechargeTooLargeException("Bulk recharge cannot exceed " + properties.getMaxLines() + " lines");
+        }
+    }
+
+    private final class Line {
+        private final int number;
+        private final String cardId;
+        private final long amount;
+        private long cardNumber;
+        private int shard;
+        private Status status;
+        private String message;
+
+        private Line(int number, String cardId, long amount) {
+            this.number = number;
+            this.cardId = cardId;
+            this.amount = amount;
+            if (cardId == null || cardId.length() != CardNumbers.LENGTH) {
+                finish(Status.REJECTED, "Card ID must have " + CardNumbers.LENGTH + " digits");
+                return;
+            }
+            if (amount <= 0) {
+                finish(Status.REJECTED, "Balance must be a positive number");
+                return;
+            }
+            try {
+                this.cardNumber = CardNumbers.parse(cardId);
+                this.shard = shardRouter.shardForCard(cardNumber);
+            } catch (CardNotFoundException e) {
+                finish(Status.REJECTED, "Card not found");
+            }
+        }
+
+        private void finish(Status status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
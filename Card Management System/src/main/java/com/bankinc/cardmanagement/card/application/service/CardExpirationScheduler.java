@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.card-expiration", name = {"enabled", "scheduled"}, havingValue = "true", matchIfMissing = true)
+public class CardExpirationScheduler {
+
+    private final CardExpirationService cardExpirationService;
+
+    /**
+     * Runs the nightly card expiration sweep.
+     */
+    @Scheduled(cron = "${bankinc.card-expiration.cron:0 30 1 * * *}")
+    public void expireCards() {
+        cardExpirationService.expireCards();
+    }
+}
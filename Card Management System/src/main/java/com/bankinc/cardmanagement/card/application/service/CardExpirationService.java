@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardExpirationReportDTO;
+
+public interface CardExpirationService {
+    CardExpirationReportDTO expireCards();
+}
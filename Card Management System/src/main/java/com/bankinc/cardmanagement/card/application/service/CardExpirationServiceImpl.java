@@ -0,0 +1,138 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.CardExpirationCheckpoint;
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardExpirationCheckpointRepository;
+import com.bankinc.cardmanagement.card.domain.repository.CardExpirationRepository;
+import com.bankinc.cardmanagement.card.infrastructure.config.CardExpirationProperties;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardExpirationReportDTO;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deactivates expired cards. Each shard is swept in chunks of consecutive card IDs,
+ * one short READ COMMITTED transaction per chunk that also saves the sweep checkpoint,
+ * with a pause between chunks so replicas never fall far behind. A {@link CardStatusEvent}
+ * is published for every card deactivated, in the transaction of its chunk.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class CardExpirationServiceImpl implements CardExpirationService {
+
+    private final CardExpirationRepository expirationRepository;
+    private final CardExpirationCheckpointRepository checkpointRepository;
+    private final ShardRouter shardRouter;
+    private final CardExpirationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter expiredCounter;
+    private final Counter chunkCounter;
+    private final Timer sweepTimer;
+    private final AtomicLong lastCardId = new AtomicLong();
+
+    public CardExpirationServiceImpl(CardExpirationRepository expirationRepository,
+                                     CardExpirationCheckpointRepository checkpointRepository, ShardRouter shardRouter,
+                                     CardExpirationProperties properties, ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.expirationRepository = expirationRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.expiredCounter = Counter.builder("bankinc.card.expiration.expired")
+                .description("Cards deactivated because their expiration date passed")
+                .register(meterRegistry);
+        this.chunkCounter = Counter.builder("bankinc.card.expiration.chunks")
+                .description("Chunks of cards swept for expiration")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("bankinc.card.expiration.sweep")
+                .description("Duration of the card expiration sweep")
+                .register(meterRegistry);
+        meterRegistry.gauge("bankinc.card.expiration.last.card.id", lastCardId);
+    }
+
+    /**
+     * Deactivates every active card whose expiration date is before today. A sweep that
+     * already finished today is not repeated, and an interrupted one resumes where it stopped.
+     *
+     * @return a summary of the sweep
+     */
+    @Override
+    public CardExpirationReportDTO expireCards() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long[] totals = new long[2];
+        sweepTimer.record(() -> {
+            try {
+                for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                    ShardContext.set(shard);
+                    sweepShard(shard, today, totals);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Card expiration sweep interrupted after {} chunks", totals[0]);
+            } finally {
+                ShardContext.clear();
+            }
+        });
+        log.info("Card expiration sweep of {} finished: {} cards expired in {} chunks", today, totals[1], totals[0]);
+        return new CardExpirationReportDTO(today, startedAt, LocalDateTime.now(), totals[0], totals[1]);
+    }
+
+    private void sweepShard(int shard, LocalDate today, long[] totals) throws InterruptedException {
+        CardExpirationCheckpoint checkpoint = checkpointRepository.findById(CardExpirationCheckpoint.SWEEP)
+                .filter(saved -> today.equals(saved.getSweepDate()))
+                .orElseGet(() -> new CardExpirationCheckpoint(today));
+        if (checkpoint.isFinished()) {
+            return;
+        }
+        if (checkpoint.getLastCardId() > 0) {
+            log.info("Resuming card expiration sweep of shard {} after card ID {}", shard, checkpoint.getLastCardId());
+        }
+
+        long afterCardId = checkpoint.getLastCardId();
+        while (true) {
+            Long chunkEnd = expirationRepository.findChunkEnd(afterCardId, properties.getChunkSize());
+            long from = afterCardId;
+            Integer expired = transactionTemplate.execute(status -> {
+                List<Long> deactivated = chunkEnd != null ? expirationRepository.deactivateExpired(from, chunkEnd, today) : List.of();
+                LocalDateTime expiredAt = LocalDateTime.now();
+                for (long cardNumber : deactivated) {
+                    eventPublisher.publishEvent(new CardStatusEvent(cardNumber, CardStatusEvent.Status.EXPIRED, expiredAt));
+                }
+                checkpoint.setLastCardId(chunkEnd != null ? chunkEnd : from);
+                checkpoint.setFinished(chunkEnd == null);
+                checkpointRepository.save(checkpoint);
+                return deactivated.size();
+            });
+            if (chunkEnd == null) {
+                return;
+            }
+            afterCardId = chunkEnd;
+            lastCardId.set(chunkEnd);
+            chunkCounter.increment();
+            expiredCounter.increment(expired);
+            totals[0]++;
+            totals[1] += expired;
+            Thread.sleep(properties.getThrottle().toMillis());
+        }
+    }
+}
@@ -9,7 +9,7 @@ import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
 public interface CardService {
     CardNumberResponseDTO generateCardNumber(String productId);
     void activateCard(CardActivationRequestDTO request);
-    void blockCard(Long cardId);
+    void blockCard(long cardId);
     void addBalance(CardBalanceRequestDTO request);
-    CardBalanceResponseDTO getBalance(Long cardId);
+    CardBalanceResponseDTO getBalance(long cardId);
 }
@@ -5,24 +5,40 @@ import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
 import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
-import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
 import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
 import com.bankinc.cardmanagement.card.domain.service.CardFactoryService;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.jfr.PipelineTrace;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CardServiceImpl implements CardService {
 
-    private final CardRepository cardRepository;
+    private final CardStore cardStore;
     private final CardFactoryService cardFactoryService;
     private final CardDomainService cardDomainService;
+    private final ShardRouter shardRouter;
+    private final TransactionStore transactionStore;
+    private final TransactionFactory transactionFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Generates a card number for the specified product and saves it to the repository.
@@ -31,14 +47,19 @@ public class CardServiceImpl implements CardService {
      * @return a response DTO containing the generated card number
      */
     @Override
+    @Transactional
     public CardNumberResponseDTO generateCardNumber(String productId) {
-        String cardNumber = String.valueOf(cardFactoryService.generateCardNumber(productId));
-        log.info("Generated card number: {}", cardNumber);
+        CardNumberResponseDTO response = cardFactoryService.generateCardNumber(productId);
+        log.info("Generated card number: {}", response.getCardNumber());
+
+        long cardNumber = CardNumbers.parse(response.getCardNumber());
+        shardRouter.routeByCard(cardNumber);
 
         Card newCard = cardFactoryService.createNewCard(cardNumber);
-        cardRepository.save(newCard);
+        cardStore.save(newCard);
+        eventPublisher.publishEvent(new CardStatusEvent(cardNumber, CardStatusEvent.Status.ISSUED, LocalDateTime.now()));
 
-        return new CardNumberResponseDTO(cardNumber);
+        return response;
     }
 
     /**
@@ -49,13 +70,16 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional
     public void activateCard(CardActivationRequestDTO request) {
-        Card card = cardRepository.findByCardNumber(request.getCardId())
+        long cardNumber = CardNumbers.parse(request.getCardId());
+        shardRouter.routeByCard(cardNumber);
+        Card card = cardStore.findByCardNumber(cardNumber)
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
         cardDomainService.validateCardForActivation(card);
         cardDomainService.activateCard(card);
 
-        cardRepository.save(card);
+        cardStore.save(card);
+        eventPublisher.publishEvent(new CardStatusEvent(cardNumber, CardStatusEvent.Status.ACTIVATED, LocalDateTime.now()));
         log.info("Card {} activated successfully", request.getCardId());
     }
 
@@ -66,33 +90,48 @@ public class CardServiceImpl implements CardService {
      */
     @Override
     @Transactional
-    public void blockCard(Long cardId) {
-        Card card = cardRepository.findByCardNumber(String.valueOf(cardId))
+    public void blockCard(long cardId) {
+        shardRouter.routeByCard(cardId);
+        Card card = cardStore.findByCardNumber(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
         cardDomainService.validateCardForBlocking(card);
         cardDomainService.blockCard(card);
 
-        cardRepository.save(card);
+        cardStore.save(card);
+        eventPublisher.publishEvent(new CardStatusEvent(cardId, CardStatusEvent.Status.BLOCKED, LocalDateTime.now()));
         log.info("Card {} blocked successfully", cardId);
     }
 
     /**
-     * Adds balance to a card based on the provided balance request.
+     * Adds balance to a card based on the provided balance request and records the
+     * recharge as a ledger entry, so the card balance can be reconciled against its transactions.
      *
      * @param request the balance request containing the amount to add
      */
     @Override
     @Transactional
     public void addBalance(CardBalanceRequestDTO request) {
-        Card card = cardRepository.findByCardNumber(request.getCardId())
+        PipelineTrace trace = PipelineTrace.start(PipelineTrace.Operation.RECHARGE, request.getCardId());
+        trace.stage(PipelineTrace.Stage.CARD_LOOKUP);
+        long cardNumber = CardNumbers.parse(request.getCardId());
+        shardRouter.routeByCard(cardNumber);
+        Card card = cardStore.findByCardNumber(cardNumber)
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
+        trace.stage(PipelineTrace.Stage.VALIDATION);
         cardDomainService.validateCardForAddingBalance(card, request.getBalance());
         cardDomainService.addBalance(card, request.getBalance());
 
-        cardRepository.save(card);
-        log.info("Added balance of {} to card {}", request.getBalance(), request.getCardId());
+        trace.stage(PipelineTrace.Stage.BALANCE_SAVE);
+        cardStore.save(card);
+        trace.stage(PipelineTrace.Stage.TRANSACTION_INSERT);
+        Transaction recharge = transactionFactory.createRecharge(card, request.getBalance());
+        transactionStore.save(recharge);
+        trace.stage(PipelineTrace.Stage.COMMIT);
+        eventPublisher.publishEvent(new CardActivityEvent(cardNumber, CardActivityEvent.Type.RECHARGE,
+                card.getBalance(), null, request.getBalance(), recharge.getTransactionDate()));
+        log.info("Added balance of {} to card {}", Money.format(request.getBalance()), request.getCardId());
     }
 
     /**
@@ -102,11 +141,12 @@ public class CardServiceImpl implements CardService {
      * @return a response DTO containing the card balance
      */
     @Override
-    public CardBalanceResponseDTO getBalance(Long cardId) {
-        Card card = cardRepository.findByCardNumber(String.valueOf(cardId))
+    public CardBalanceResponseDTO getBalance(long cardId) {
+        shardRouter.routeByCard(cardId);
+        Card card = cardStore.findByCardNumber(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
-        log.info("Retrieved balance for card {}: {}", cardId, card.getBalance());
+        log.info("Retrieved balance for card {}: {}", cardId, Money.format(card.getBalance()));
         return new CardBalanceResponseDTO(card.getBalance());
     }
 }
@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface CardStreamService {
+    SseEmitter subscribe(long cardId);
+}
@@ -0,0 +1,268 @@
+package com.bankinc.cardmanagement.card.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
+import com.bankinc.cardmanagement.card.infrastructure.config.CardStreamProperties;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardActivityEventDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardStatusEventDTO;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardStreamLimitExceededException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.cluster.CardOwnershipChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out hub pushing committed card activity and status changes to server-sent
+ * event streams. An open stream is only an {@link SseEmitter} and a small bounded queue,
+ * so idle subscribers hold no thread. Writers only enqueue and never wait for a client; a
+ * small dispatcher pool drains the queues, and a subscriber whose queue overflows is
+ * disconnected instead of slowing down anyone else.
+ */
+@Service
+@Slf4j
+public class CardStreamServiceImpl implements CardStreamService {
+
+    private final CardService cardService;
+    private final CardStreamProperties properties;
+    private final ExecutorService dispatcher;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public CardStreamServiceImpl(CardService cardService, CardStreamProperties properties) {
+        this.cardService = cardService;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatcherThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "card-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream of the balance changes of a card. The first event carries the
+     * current balance, followed by every recharge, purchase and annulment committed afterwards.
+     *
+     * @param cardId the ID of the card to follow
+     * @return the emitter of the stream
+     * @throws CardStreamLimitExceededException if this node already serves the maximum number of streams
+     */
+    @Override
+    public SseEmitter subscribe(long cardId) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new CardStreamLimitExceededException("Too many open card streams, retry later");
+        }
+        Subscriber subscriber = new Subscriber(cardId, new SseEmitter(properties.getTimeout().toMillis()));
+        // Registered before the balance is read, so a change committed in between is
+        // delivered as an event rather than lost; every event carries the new balance anyway.
+        subscribers.compute(cardId, (key, cardSubscribers) -> {
+            Set<Subscriber> updated = cardSubscribers != null ? cardSubscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        try {
+            CardBalanceResponseDTO balance = cardService.getBalance(cardId);
+            subscriber.offer(new Message("balance", balance));
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Fans a committed card change out to the streams of that card.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardActivity(CardActivityEvent event) {
+        publish(event.cardNumber(), event.type().name(), () -> new CardActivityEventDTO(
+                CardNumbers.format(event.cardNumber()), event.type(), event.balance(), event.transactionId(),
+                event.amount(), event.occurredAt()));
+    }
+
+    /**
+     * Fans a committed status change, such as an expiry, out to the streams of that card.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardStatus(CardStatusEvent event) {
+        publish(event.cardNumber(), event.status().name(), () -> new CardStatusEventDTO(
+                CardNumbers.format(event.cardNumber()), event.status(), event.occurredAt()));
+    }
+
+    /**
+     * Closes the streams of cards this node no longer owns, so their clients reconnect
+     * and get redirected to the new owner, where the changes are now committed.
+     *
+     * @param event the membership change
+     */
+    @EventListener
+    public void onOwnershipChanged(CardOwnershipChangedEvent event) {
+        List<Subscriber> moved = new ArrayList<>();
+        subscribers.forEach((cardNumber, cardSubscribers) -> {
+            if (event.lostOwnership(CardNumbers.format(cardNumber))) {
+                moved.addAll(cardSubscribers);
+            }
+        });
+        moved.forEach(Subscriber::complete);
+    }
+
+    /**
+     * Sends a heartbeat comment to every idle stream.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.card-stream.heartbeat:30s}').toMillis()}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> cardSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : cardSubscribers) {
+                subscriber.offerHeartbeat();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of open streams on this node.
+     *
+     * @return the open stream count
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> open = new ArrayList<>();
+        subscribers.values().forEach(open::addAll);
+        open.forEach(Subscriber::complete);
+        dispatcher.shutdown();
+    }
+
+    private void publish(long cardNumber, String type, Supplier<Object> data) {
+        Set<Subscriber> cardSubscribers = subscribers.get(cardNumber);
+        if (cardSubscribers == null) {
+            return;
+        }
+        Message message = new Message(type.toLowerCase(Locale.ROOT), data.get());
+        for (Subscriber subscriber : cardSubscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    private record Message(String name, Object data) {
+
+        private static final Message HEARTBEAT = new Message(null, null);
+
+        private SseEmitter.SseEventBuilder toEvent(long retryMillis) {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).reconnectTime(retryMillis).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final long cardNumber;
+        private final SseEmitter emitter;
+        private final Queue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(long cardNumber, SseEmitter emitter) {
+            this.cardNumber = cardNumber;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(properties.getSubscriberQueueCapacity());
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        private void offer(Message message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                log.info("Closing stream of card {}: the client is not keeping up", CardNumbers.format(cardNumber));
+                complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void offerHeartbeat() {
+            // A subscriber with events waiting is not idle; the events double as heartbeat.
+            if (queue.isEmpty()) {
+                offer(Message.HEARTBEAT);
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    emitter.send(message.toEvent(properties.getRetry().toMillis()));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the servlet container reports it through onError as well.
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void complete() {
+            close();
+            emitter.complete();
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribers.computeIfPresent(cardNumber, (key, cardSubscribers) -> {
+                cardSubscribers.remove(this);
+                return cardSubscribers.isEmpty() ? null : cardSubscribers;
+            });
+            queue.clear();
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
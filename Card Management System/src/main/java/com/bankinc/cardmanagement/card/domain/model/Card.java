@@ -16,8 +16,8 @@ public class Card {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long cardId;
 
-    @Column(nullable = false, unique = true, length = 16)
-    private String cardNumber;
+    @Column(nullable = false, unique = true)
+    private long cardNumber;
 
     @Column(length = 100)
     private String holderName;
@@ -30,16 +30,19 @@ public class Card {
     @Column(nullable = false)
     private boolean isBlocked;
 
+    /**
+     * In cents, see {@link com.bankinc.cardmanagement.common.money.Money}.
+     */
     @Column(nullable = false)
-    private double balance;
+    private long balance;
 
-    public Card(String cardNumber, String holderName, LocalDate expirationDate) {
+    public Card(long cardNumber, String holderName, LocalDate expirationDate) {
         this.cardNumber = cardNumber;
         this.holderName = holderName;
         this.expirationDate = expirationDate;
         this.isActive = false;
         this.isBlocked = false;
-        this.balance = 0.0;
+        this.balance = 0;
     }
 
 }
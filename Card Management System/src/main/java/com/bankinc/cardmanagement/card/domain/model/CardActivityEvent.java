@@ -0,0 +1,25 @@
+package com.bankinc.cardmanagement.card.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a change to a card balance is written. Listeners interested in what
+ * actually happened subscribe after commit, so rolled back changes are never seen.
+ *
+ * @param cardNumber    the card number
+ * @param type          what changed the balance
+ * @param balance       the card balance after the change, in cents
+ * @param transactionId the external ID of the purchase or annulled purchase, or null for recharges and fees
+ * @param amount        the amount of the change, in cents
+ * @param occurredAt    when the change was made
+ */
+public record CardActivityEvent(long cardNumber, Type type, long balance, Long transactionId, long amount,
+                                LocalDateTime occurredAt) {
+
+    public enum Type {
+        RECHARGE,
+        PURCHASE,
+        ANNULMENT,
+        FEE
+    }
+}
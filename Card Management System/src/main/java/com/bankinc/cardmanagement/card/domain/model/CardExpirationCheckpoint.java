@@ -0,0 +1,43 @@
+package com.bankinc.cardmanagement.card.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Progress of the expiration sweep in one shard. It is saved in the same transaction as
+ * each chunk, so a sweep interrupted by a crash resumes after the last committed chunk.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "card_expiration_checkpoints")
+public class CardExpirationCheckpoint {
+
+    public static final String SWEEP = "card-expiration";
+
+    @Id
+    @Column(length = 32)
+    private String sweepName;
+
+    @Column(nullable = false)
+    private LocalDate sweepDate;
+
+    @Column(nullable = false)
+    private long lastCardId;
+
+    @Column(nullable = false)
+    private boolean finished;
+
+    public CardExpirationCheckpoint(LocalDate sweepDate) {
+        this.sweepName = SWEEP;
+        this.sweepDate = sweepDate;
+        this.lastCardId = 0;
+        this.finished = false;
+    }
+}
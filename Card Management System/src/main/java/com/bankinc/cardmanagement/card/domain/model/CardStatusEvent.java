@@ -0,0 +1,21 @@
+package com.bankinc.cardmanagement.card.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a card is issued, activated, blocked or deactivated on expiry, in the
+ * transaction that makes the change.
+ *
+ * @param cardNumber the card number
+ * @param status     the new status of the card
+ * @param occurredAt when the change was made
+ */
+public record CardStatusEvent(long cardNumber, Status status, LocalDateTime occurredAt) {
+
+    public enum Status {
+        ISSUED,
+        ACTIVATED,
+        BLOCKED,
+        EXPIRED
+    }
+}
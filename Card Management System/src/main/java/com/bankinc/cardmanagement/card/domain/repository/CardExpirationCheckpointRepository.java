@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.card.domain.repository;
+
+import com.bankinc.cardmanagement.card.domain.model.CardExpirationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CardExpirationCheckpointRepository extends JpaRepository<CardExpirationCheckpoint, String> {
+}
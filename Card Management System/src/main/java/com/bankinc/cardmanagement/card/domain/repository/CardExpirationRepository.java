@@ -0,0 +1,60 @@
+package com.bankinc.cardmanagement.card.domain.repository;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Primary key range reads and updates of {@code cards} for the expiration sweep. Every
+ * statement is bounded to one chunk of consecutive card IDs, so none of them scans or
+ * locks more than a chunk of rows.
+ */
+@Repository
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+public class CardExpirationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds the last card ID of the chunk following the given card ID.
+     *
+     * @param afterCardId the last card ID of the previous chunk, or 0 to start
+     * @param chunkSize   the number of cards in the chunk
+     * @return the last card ID of the chunk, or null if no card follows
+     */
+    public Long findChunkEnd(long afterCardId, int chunkSize) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(card_id) FROM (SELECT card_id FROM cards WHERE card_id > ? ORDER BY card_id LIMIT ?) chunk",
+                Long.class, afterCardId, chunkSize);
+    }
+
+    /**
+     * Deactivates the active cards of a chunk whose expiration date is before the given day.
+     * Must run in a transaction: the cards are locked when read, so the update changes
+     * exactly the cards returned.
+     *
+     * @param afterCardId the last card ID of the previous chunk
+     * @param lastCardId  the last card ID of the chunk
+     * @param today       the day of the sweep
+     * @return the numbers of the cards deactivated
+     */
+    public List<Long> deactivateExpired(long afterCardId, long lastCardId, LocalDate today) {
+        List<Long> cardNumbers = jdbcTemplate.queryForList(
+                "SELECT card_number FROM cards WHERE card_id > ? AND card_id <= ? "
+                        + "AND is_active = true AND expiration_date < ? FOR UPDATE",
+                Long.class, afterCardId, lastCardId, Date.valueOf(today));
+        if (!cardNumbers.isEmpty()) {
+            jdbcTemplate.update(
+                    "UPDATE cards SET is_active = false WHERE card_id > ? AND card_id <= ? "
+                            + "AND is_active = true AND expiration_date < ?",
+                    afterCardId, lastCardId, Date.valueOf(today));
+        }
+        return cardNumbers;
+    }
+}
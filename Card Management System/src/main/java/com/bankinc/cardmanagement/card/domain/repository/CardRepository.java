@@ -1,12 +1,19 @@
 package com.bankinc.cardmanagement.card.domain.repository;
 
 import com.bankinc.cardmanagement.card.domain.model.Card;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
-    Optional<Card> findByCardNumber(String cardNumber);
+    Optional<Card> findByCardNumber(long cardNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Card> findByCardNumberInOrderByCardNumberAsc(Collection<Long> cardNumbers);
 }
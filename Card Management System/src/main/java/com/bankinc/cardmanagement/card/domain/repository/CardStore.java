@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.card.domain.repository;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+
+import java.util.Optional;
+
+/**
+ * Storage of cards used by the card and transaction services, implemented by the engine
+ * selected with {@code bankinc.storage.engine}. Writes made inside a transaction become
+ * visible to other transactions when it commits and are discarded if it rolls back.
+ */
+public interface CardStore {
+
+    Optional<Card> findByCardNumber(long cardNumber);
+
+    /**
+     * Inserts a new card, assigning its ID, or updates an existing one.
+     *
+     * @param card the card
+     * @return the saved card
+     * @throws org.springframework.dao.DataIntegrityViolationException if a new card reuses a card number
+     */
+    Card save(Card card);
+}
@@ -3,6 +3,9 @@ package com.bankinc.cardmanagement.card.domain.service;
 import com.bankinc.cardmanagement.card.domain.model.Card;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardAlreadyActivatedException;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardExpiredException;
+import com.bankinc.cardmanagement.common.money.AmountOutOfRangeException;
+import com.bankinc.cardmanagement.common.money.Money;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +20,7 @@ public class CardDomainService {
      * @param card the card to validate
      * @throws CardAlreadyActivatedException if the card is already active
      * @throws CardBlockedException if the card is blocked
+     * @throws CardExpiredException if the card was deactivated because it expired
      */
     public void validateCardForActivation(Card card) {
         if (card.isActive()) {
@@ -25,6 +29,9 @@ public class CardDomainService {
         if (card.isBlocked()) {
             throw new CardBlockedException("Blocked card cannot be activated");
         }
+        if (card.getExpirationDate() != null && card.getExpirationDate().isBefore(LocalDate.now())) {
+            throw new CardExpiredException("Expired card cannot be activated");
+        }
     }
 
     /**
@@ -66,15 +73,16 @@ public class CardDomainService {
      * Validates whether balance can be added to the card.
      *
      * @param card the card to validate
-     * @param balanceToAdd the amount to add to the card balance
+     * @param balanceToAdd the amount to add to the card balance, in cents
      * @throws CardBlockedException if the card is blocked
      * @throws InsufficientBalanceException if the resulting balance would be negative
+     * @throws AmountOutOfRangeException if the resulting balance would overflow
      */
-    public void validateCardForAddingBalance(Card card, double balanceToAdd) {
+    public void validateCardForAddingBalance(Card card, long balanceToAdd) {
         if (card.isBlocked()) {
             throw new CardBlockedException("Blocked card cannot have balance added");
         }
-        if (card.getBalance() + balanceToAdd < 0) {
+        if (Money.add(card.getBalance(), balanceToAdd) < 0) {
             throw new InsufficientBalanceException("Balance cannot be negative");
         }
     }
@@ -83,9 +91,10 @@ public class CardDomainService {
      * Adds balance to the specified card.
      *
      * @param card the card to add balance to
-     * @param balanceToAdd the amount to add
+     * @param balanceToAdd the amount to add, in cents
+     * @throws AmountOutOfRangeException if the resulting balance would overflow
      */
-    public void addBalance(Card card, double balanceToAdd) {
-        card.setBalance(card.getBalance() + balanceToAdd);
+    public void addBalance(Card card, long balanceToAdd) {
+        card.setBalance(Money.add(card.getBalance(), balanceToAdd));
     }
 }
@@ -2,6 +2,8 @@ package com.bankinc.cardmanagement.card.domain.service;
 
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
 import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.infrastructure.exception.InvalidProductIdException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
 import org.springframework.stereotype.Service;
 
 import java.util.Random;
@@ -17,8 +19,12 @@ public class CardFactoryService {
      *
      * @param productId the product ID to be included in the card number
      * @return a DTO containing the generated card number
+     * @throws InvalidProductIdException if the product ID is not made of six digits
      */
     public CardNumberResponseDTO generateCardNumber(String productId) {
+        if (productId.length() != CardNumbers.PRODUCT_ID_LENGTH || !productId.chars().allMatch(Character::isDigit)) {
+            throw new InvalidProductIdException("Product ID must have " + CardNumbers.PRODUCT_ID_LENGTH + " digits");
+        }
         String cardNumber = productId + String.format("%010d", random.nextInt(1000000000));
         return new CardNumberResponseDTO(cardNumber);
     }
@@ -29,13 +35,13 @@ public class CardFactoryService {
      * @param cardNumber the card number to assign to the new card
      * @return a newly created Card object
      */
-    public Card createNewCard(String cardNumber) {
+    public Card createNewCard(long cardNumber) {
         Card newCard = new Card();
         newCard.setCardNumber(cardNumber);
         newCard.setHolderName(null);
         newCard.setActive(false);
         newCard.setBlocked(false);
-        newCard.setBalance(0.0);
+        newCard.setBalance(0);
         newCard.setExpirationDate(null);
         return newCard;
     }
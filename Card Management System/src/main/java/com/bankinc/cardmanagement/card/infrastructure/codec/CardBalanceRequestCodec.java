@@ -0,0 +1,41 @@
+package com.bankinc.cardmanagement.card.infrastructure.codec;
+
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+import com.bankinc.cardmanagement.common.cbor.CborCodec;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CardBalanceRequestCodec implements CborCodec<CardBalanceRequestDTO> {
+
+    private static final byte[] CARD_ID = CborWriter.encodeKey("cardId");
+    private static final byte[] BALANCE = CborWriter.encodeKey("balance");
+    private static final byte[][] KEYS = {CARD_ID, BALANCE};
+
+    @Override
+    public Class<CardBalanceRequestDTO> type() {
+        return CardBalanceRequestDTO.class;
+    }
+
+    @Override
+    public void write(CardBalanceRequestDTO value, CborWriter writer) {
+        writer.mapHeader(2)
+                .key(CARD_ID).text(value.getCardId())
+                .key(BALANCE).amount(value.getBalance());
+    }
+
+    @Override
+    public CardBalanceRequestDTO read(CborReader reader) {
+        CardBalanceRequestDTO request = new CardBalanceRequestDTO();
+        int entries = reader.readMapHeader();
+        for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+            switch (reader.readKey(KEYS)) {
+                case 0 -> request.setCardId(reader.readText());
+                case 1 -> request.setBalance(reader.readAmount());
+                default -> reader.skip();
+            }
+        }
+        return request;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bankinc.cardmanagement.card.infrastructure.codec;
+
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
+import com.bankinc.cardmanagement.common.cbor.CborCodec;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CardBalanceResponseCodec implements CborCodec<CardBalanceResponseDTO> {
+
+    private static final byte[] BALANCE = CborWriter.encodeKey("balance");
+    private static final byte[][] KEYS = {BALANCE};
+
+    @Override
+    public Class<CardBalanceResponseDTO> type() {
+        return CardBalanceResponseDTO.class;
+    }
+
+    @Override
+    public void write(CardBalanceResponseDTO value, CborWriter writer) {
+        writer.mapHeader(1).key(BALANCE).amount(value.getBalance());
+    }
+
+    @Override
+    public CardBalanceResponseDTO read(CborReader reader) {
+        CardBalanceResponseDTO response = new CardBalanceResponseDTO(0);
+        int entries = reader.readMapHeader();
+        for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+            if (reader.readKey(KEYS) == 0) {
+                response.setBalance(reader.readAmount());
+            } else {
+                reader.skip();
+            }
+        }
+        return response;
+    }
+}
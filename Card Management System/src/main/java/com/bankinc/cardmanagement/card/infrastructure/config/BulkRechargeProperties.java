@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.card.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.bulk-recharge")
+public class BulkRechargeProperties {
+
+    /**
+     * Whether the bulk recharge endpoints are available. Requires the JPA storage engine.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of recharges applied per database transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Maximum number of lines accepted in one bulk recharge.
+     */
+    private int maxLines = 100000;
+}
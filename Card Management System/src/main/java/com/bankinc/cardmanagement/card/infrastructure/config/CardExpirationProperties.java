@@ -0,0 +1,37 @@
+package com.bankinc.cardmanagement.card.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.card-expiration")
+public class CardExpirationProperties {
+
+    /**
+     * Whether expired cards are deactivated. Requires the JPA storage engine.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the expiration sweep runs on its schedule.
+     */
+    private boolean scheduled = true;
+
+    /**
+     * When the scheduled sweep runs.
+     */
+    private String cron = "0 30 1 * * *";
+
+    /**
+     * Number of consecutive card IDs covered per chunk. Each chunk is one short
+     * transaction, which bounds the rows locked and the size of each replicated event.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Pause between chunks, giving replicas time to keep up.
+     */
+    private Duration throttle = Duration.ofMillis(20);
+}
@@ -0,0 +1,44 @@
+package com.bankinc.cardmanagement.card.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.card-stream")
+public class CardStreamProperties {
+
+    /**
+     * Number of threads writing events to subscribers. Idle subscribers hold no thread,
+     * so this only has to cover the subscribers that have events waiting at the same time.
+     */
+    private int dispatcherThreads = 2;
+
+    /**
+     * Maximum number of events waiting to be written to one subscriber. A subscriber
+     * falling further behind is disconnected and has to reconnect for a fresh balance.
+     */
+    private int subscriberQueueCapacity = 64;
+
+    /**
+     * Maximum number of open streams on this node. Subscriptions beyond it are rejected.
+     */
+    private int maxSubscribers = 50000;
+
+    /**
+     * How long a stream stays open before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Interval between heartbeat comments, which keep proxies from closing idle
+     * streams and reveal disconnected clients.
+     */
+    private Duration heartbeat = Duration.ofSeconds(30);
+
+    /**
+     * Reconnection delay suggested to clients.
+     */
+    private Duration retry = Duration.ofSeconds(3);
+}
@@ -0,0 +1,23 @@
+package com.bankinc.cardmanagement.card.infrastructure.dto;
+
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkRechargeLineResultDTO {
+
+    public enum Status {
+        APPLIED,
+        REJECTED,
+        FAILED
+    }
+
+    private int line;
+    private String cardId;
+    @MinorUnits
+    private long balance;
+    private Status status;
+    private String message;
+}
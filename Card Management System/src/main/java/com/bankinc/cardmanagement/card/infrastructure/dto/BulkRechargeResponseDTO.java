@@ -0,0 +1,16 @@
+package com.bankinc.cardmanagement.card.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkRechargeResponseDTO {
+    private int total;
+    private int applied;
+    private int rejected;
+    private int failed;
+    private List<BulkRechargeLineResultDTO> lines;
+}
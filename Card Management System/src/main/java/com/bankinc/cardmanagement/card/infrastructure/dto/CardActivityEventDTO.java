@@ -0,0 +1,21 @@
+package com.bankinc.cardmanagement.card.infrastructure.dto;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CardActivityEventDTO {
+    private String cardId;
+    private CardActivityEvent.Type type;
+    @MinorUnits
+    private long balance;
+    private Long transactionId;
+    @MinorUnits
+    private long amount;
+    private LocalDateTime occurredAt;
+}
@@ -1,10 +1,12 @@
 package com.bankinc.cardmanagement.card.infrastructure.dto;
 
+import com.bankinc.cardmanagement.common.money.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 @Data
 @AllArgsConstructor
 public class CardBalanceResponseDTO {
-    private double balance;
+    @MinorUnits
+    private long balance;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.bankinc.cardmanagement.card.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CardExpirationReportDTO {
+    private LocalDate sweepDate;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long chunks;
+    private long cardsExpired;
+}
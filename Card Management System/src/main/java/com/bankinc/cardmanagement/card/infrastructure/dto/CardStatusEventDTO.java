@@ -0,0 +1,15 @@
+package com.bankinc.cardmanagement.card.infrastructure.dto;
+
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CardStatusEventDTO {
+    private String cardId;
+    private CardStatusEvent.Status status;
+    private LocalDateTime occurredAt;
+}
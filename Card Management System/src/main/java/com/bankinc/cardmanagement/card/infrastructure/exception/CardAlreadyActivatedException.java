@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.card.infrastructure.exception;
 
-public class CardAlreadyActivatedException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class CardAlreadyActivatedException extends BusinessException {
     public CardAlreadyActivatedException(String message) {
         super(message);
     }
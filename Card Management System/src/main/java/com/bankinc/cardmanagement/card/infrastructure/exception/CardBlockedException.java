@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.card.infrastructure.exception;
 
-public class CardBlockedException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class CardBlockedException extends BusinessException {
     public CardBlockedException(String message) {
         super(message);
     }
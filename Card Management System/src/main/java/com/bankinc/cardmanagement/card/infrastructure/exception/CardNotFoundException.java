@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.card.infrastructure.exception;
 
-public class CardNotFoundException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class CardNotFoundException extends BusinessException {
     public CardNotFoundException(String message) {
         super(message);
     }
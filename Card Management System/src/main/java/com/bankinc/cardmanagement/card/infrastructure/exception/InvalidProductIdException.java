@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.card.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class InvalidProductIdException extends BusinessException {
+    public InvalidProductIdException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bankinc.cardmanagement.card.infrastructure.util;
+
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+
+/**
+ * Conversions between the 16-digit card number of the API and the 64-bit key it is
+ * stored and indexed as.
+ */
+public final class CardNumbers {
+
+    public static final int LENGTH = 16;
+    public static final int PRODUCT_ID_LENGTH = 6;
+
+    private static final long ACCOUNT_MODULUS = 10_000_000_000L;
+
+    private CardNumbers() {
+    }
+
+    /**
+     * Parses a card number received through the API without allocating.
+     *
+     * @param cardNumber the card number, 1 to 16 digits
+     * @return the card number as a 64-bit key
+     * @throws CardNotFoundException if the value is not a card number, since no card can match it
+     */
+    public static long parse(String cardNumber) {
+        int length = cardNumber.length();
+        if (length == 0 || length > LENGTH) {
+            throw new CardNotFoundException("Card not found");
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = cardNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new CardNotFoundException("Card not found");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Formats a stored card number as the 16-digit string of the API, keeping leading zeros.
+     *
+     * @param cardNumber the card number key
+     * @return the 16-digit card number
+     */
+    public static String format(long cardNumber) {
+        String digits = Long.toString(cardNumber);
+        return digits.length() >= LENGTH ? digits : "0".repeat(LENGTH - digits.length()) + digits;
+    }
+
+    /**
+     * Returns the product ID of a card number, its first six digits.
+     *
+     * @param cardNumber the card number key
+     * @return the product ID as a number
+     */
+    public static long productId(long cardNumber) {
+        return cardNumber / ACCOUNT_MODULUS;
+    }
+
+    /**
+     * Returns the account digits of a card number, its last ten digits.
+     *
+     * @param cardNumber the card number key
+     * @return the account digits as a number
+     */
+    public static long accountNumber(long cardNumber) {
+        return cardNumber % ACCOUNT_MODULUS;
+    }
+}
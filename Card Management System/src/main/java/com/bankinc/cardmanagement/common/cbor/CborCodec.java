@@ -0,0 +1,33 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+/**
+ * Encodes and decodes one request or response type as a CBOR map, keyed by the names of its
+ * JSON properties and with the same values. Codecs are written by hand for each type, so
+ * bodies are bound without reflection; beans of this type are picked up by {@link CborWebConfig}.
+ *
+ * @param <T> the type handled
+ */
+public interface CborCodec<T> {
+
+    /**
+     * Returns the type handled.
+     */
+    Class<T> type();
+
+    /**
+     * Writes a value.
+     *
+     * @param value  the value
+     * @param writer where the value is written
+     */
+    void write(T value, CborWriter writer);
+
+    /**
+     * Reads a value. Unknown keys are skipped and missing ones keep their default, as in JSON.
+     *
+     * @param reader where the value is read from
+     * @return the value
+     * @throws CborFormatException if the data is not a map of the expected values
+     */
+    T read(CborReader reader);
+}
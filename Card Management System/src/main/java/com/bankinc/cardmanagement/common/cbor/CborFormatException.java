@@ -0,0 +1,15 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+/**
+ * Thrown when a CBOR body is malformed or does not match what its codec expects.
+ */
+public class CborFormatException extends RuntimeException {
+
+    public CborFormatException(String message) {
+        super(message);
+    }
+
+    public CborFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes {@code application/cbor} bodies of the types that have a {@link CborCodec}.
+ * Requests are buffered whole, up to a maximum size, and decoded in place.
+ */
+public class CborHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final Map<Class<?>, CborCodec<?>> codecs = new HashMap<>();
+    private final int maxRequestBytes;
+
+    public CborHttpMessageConverter(List<CborCodec<?>> codecs, int maxRequestBytes) {
+        super(MediaType.APPLICATION_CBOR);
+        for (CborCodec<?> codec : codecs) {
+            if (this.codecs.put(codec.type(), codec) != null) {
+                throw new IllegalStateException("More than one CBOR codec for " + codec.type().getName());
+            }
+        }
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return codecs.containsKey(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        if (inputMessage.getHeaders().getContentLength() > maxRequestBytes) {
+            throw new HttpMessageNotReadableException("CBOR body larger than " + maxRequestBytes + " bytes", inputMessage);
+        }
+        byte[] body = inputMessage.getBody().readNBytes(maxRequestBytes + 1);
+        if (body.length > maxRequestBytes) {
+            throw new HttpMessageNotReadableException("CBOR body larger than " + maxRequestBytes + " bytes", inputMessage);
+        }
+        CborReader reader = new CborReader(body);
+        try {
+            Object value = codecs.get(clazz).read(reader);
+            if (!reader.isAtEnd()) {
+                throw new CborFormatException("Unexpected data after the body");
+            }
+            return value;
+        } catch (CborFormatException e) {
+            throw new HttpMessageNotReadableException("Invalid CBOR body: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        CborWriter writer = new CborWriter();
+        ((CborCodec<Object>) codecs.get(value.getClass())).write(value, writer);
+        outputMessage.getBody().write(writer.buffer(), 0, writer.size());
+    }
+}
@@ -0,0 +1,20 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.cbor")
+public class CborProperties {
+
+    /**
+     * Whether the types with a {@link CborCodec} can be sent and received as {@code application/cbor}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum size of a CBOR request body. Requests are far smaller; larger bodies are rejected
+     * before they are buffered.
+     */
+    private int maxRequestBytes = 4096;
+}
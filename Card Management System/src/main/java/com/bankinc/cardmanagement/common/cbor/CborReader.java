@@ -0,0 +1,389 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+import com.bankinc.cardmanagement.common.money.Money;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.ARRAY;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.BYTES;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.DECIMAL_FRACTION;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.FALSE;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.MAP;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.NEGATIVE;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.NULL;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.SIMPLE;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.TAG;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.TEXT;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.TRUE;
+import static com.bankinc.cardmanagement.common.cbor.CborWriter.UNSIGNED;
+
+/**
+ * Decodes CBOR (RFC 8949) from a byte array, for the codecs of {@link CborCodec}. Definite and
+ * indefinite lengths are both accepted, since streaming encoders write maps of unknown size.
+ *
+ * <p>Scalars are coerced the way the JSON mapper coerces them: text fields also take integers,
+ * and amounts take a decimal fraction, an integer or float in major units, or their text.
+ * Anything else fails with {@link CborFormatException}.
+ */
+public final class CborReader {
+
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xFF;
+    private static final int MAX_DEPTH = 32;
+    private static final long MINOR_PER_MAJOR = 100;
+
+    private final byte[] data;
+    private final int limit;
+    private int position;
+
+    public CborReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public CborReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Reads the header of a map.
+     *
+     * @return the number of entries, or -1 if the map ends with a break
+     */
+    public int readMapHeader() {
+        int initial = next();
+        if (initial >>> 5 != MAP) {
+            throw new CborFormatException("Expected a map at byte " + (position - 1));
+        }
+        if ((initial & 0x1F) == INDEFINITE) {
+            return -1;
+        }
+        long entries = argument(initial);
+        if (entries < 0 || entries > limit - position) {
+            throw new CborFormatException("Map larger than the data");
+        }
+        return (int) entries;
+    }
+
+    /**
+     * Tells whether a map has another entry, consuming the break that ends an indefinite one.
+     *
+     * @param entries the value returned by {@link #readMapHeader()}
+     * @param read    the number of entries read so far
+     * @return true if another entry follows
+     */
+    public boolean hasNextEntry(int entries, int read) {
+        if (entries >= 0) {
+            return read < entries;
+        }
+        if (peek() == BREAK) {
+            position++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a map key and finds it among known keys without decoding it to a string.
+     *
+     * @param keys the known keys, encoded by {@link CborWriter#encodeKey(String)}
+     * @return the index of the key, or -1 if it is unknown and its value must be skipped
+     */
+    public int readKey(byte[][] keys) {
+        int start = position;
+        int initial = peek();
+        if (initial >>> 5 != TEXT) {
+            skip();
+            return -1;
+        }
+        if ((initial & 0x1F) != INDEFINITE) {
+            position++;
+            length(initial);
+            int end = position;
+            for (int i = 0; i < keys.length; i++) {
+                byte[] key = keys[i];
+                if (key.length == end - start && Arrays.equals(data, start, end, key, 0, key.length)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        String text = readText();
+        for (int i = 0; i < keys.length; i++) {
+            if (new CborReader(keys[i]).readText().equals(text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a text string, or an integer as its decimal text.
+     *
+     * @return the text, or null for a CBOR null
+     */
+    public String readText() {
+        int initial = peek();
+        switch (initial >>> 5) {
+            case TEXT -> {
+                position++;
+                if ((initial & 0x1F) != INDEFINITE) {
+                    int length = length(initial);
+                    return new String(data, position - length, length, StandardCharsets.UTF_8);
+                }
+                StringBuilder text = new StringBuilder();
+                while (peek() != BREAK) {
+                    int chunk = next();
+                    if (chunk >>> 5 != TEXT || (chunk & 0x1F) == INDEFINITE) {
+                        throw new CborFormatException("Invalid chunk in text at byte " + (position - 1));
+                    }
+                    int length = length(chunk);
+                    text.append(new String(data, position - length, length, StandardCharsets.UTF_8));
+                }
+                position++;
+                return text.toString();
+            }
+            case UNSIGNED, NEGATIVE -> {
+                return Long.toString(readLong());
+            }
+            default -> {
+                if (initial == NULL) {
+                    position++;
+                    return null;
+                }
+                throw new CborFormatException("Expected text at byte " + position);
+            }
+        }
+    }
+
+    /**
+     * Reads an integer.
+     *
+     * @return the integer
+     */
+    public long readLong() {
+        int initial = next();
+        int majorType = initial >>> 5;
+        if (majorType != UNSIGNED && majorType != NEGATIVE) {
+            throw new CborFormatException("Expected an integer at byte " + (position - 1));
+        }
+        long argument = argument(initial);
+        if (argument < 0) {
+            throw new CborFormatException("Integer out of range at byte " + (position - 1));
+        }
+        return majorType == UNSIGNED ? argument : -1 - argument;
+    }
+
+    /**
+     * Reads an amount in major units.
+     *
+     * @return the amount in cents
+     * @throws CborFormatException if the amount has digits beyond the cents or does not fit in a long
+     */
+    public long readAmount() {
+        int initial = peek();
+        try {
+            switch (initial >>> 5) {
+                case UNSIGNED, NEGATIVE -> {
+                    return Math.multiplyExact(readLong(), MINOR_PER_MAJOR);
+                }
+                case TEXT -> {
+                    return Money.parse(readText().strip());
+                }
+                case TAG -> {
+                    position++;
+                    if (argument(initial) != DECIMAL_FRACTION || next() != (ARRAY << 5 | 2)) {
+                        throw new CborFormatException("Expected a decimal fraction at byte " + (position - 1));
+                    }
+                    long exponent = readLong();
+                    long mantissa = readLong();
+                    if (exponent == -Money.SCALE) {
+                        return mantissa;
+                    }
+                    if (exponent < -Money.SCALE - 18 || exponent > 18) {
+                        throw new CborFormatException("Amount out of range");
+                    }
+                    return Money.of(BigDecimal.valueOf(mantissa, (int) -exponent));
+                }
+                case SIMPLE -> {
+                    return Money.of(readFloat(initial));
+                }
+                default -> throw new CborFormatException("Expected an amount at byte " + position);
+            }
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            throw new CborFormatException("Not an amount with at most " + Money.SCALE + " decimals", e);
+        }
+    }
+
+    /**
+     * Reads a boolean.
+     *
+     * @return the boolean
+     */
+    public boolean readBoolean() {
+        int initial = next();
+        if (initial != TRUE && initial != FALSE) {
+            throw new CborFormatException("Expected a boolean at byte " + (position - 1));
+        }
+        return initial == TRUE;
+    }
+
+    /**
+     * Skips the next data item, whatever its type.
+     */
+    public void skip() {
+        skip(0);
+    }
+
+    /**
+     * Tells whether every byte has been read.
+     */
+    public boolean isAtEnd() {
+        return position == limit;
+    }
+
+    private void skip(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new CborFormatException("Nesting deeper than " + MAX_DEPTH);
+        }
+        int initial = next();
+        int majorType = initial >>> 5;
+        boolean indefinite = (initial & 0x1F) == INDEFINITE;
+        switch (majorType) {
+            case UNSIGNED, NEGATIVE -> argument(initial);
+            case BYTES, TEXT -> {
+                if (!indefinite) {
+                    length(initial);
+                    return;
+                }
+                while (peek() != BREAK) {
+                    int chunk = next();
+                    if (chunk >>> 5 != majorType || (chunk & 0x1F) == INDEFINITE) {
+                        throw new CborFormatException("Invalid chunk at byte " + (position - 1));
+                    }
+                    length(chunk);
+                }
+                position++;
+            }
+            case ARRAY, MAP -> {
+                int itemsPerEntry = majorType == MAP ? 2 : 1;
+                if (indefinite) {
+                    while (peek() != BREAK) {
+                        for (int i = 0; i < itemsPerEntry; i++) {
+                            skip(depth + 1);
+                        }
+                    }
+                    position++;
+                    return;
+                }
+                long entries = argument(initial);
+                if (entries < 0 || entries > limit - position) {
+                    throw new CborFormatException("Container larger than the data");
+                }
+                for (long entry = 0; entry < entries * itemsPerEntry; entry++) {
+                    skip(depth + 1);
+                }
+            }
+            case TAG -> {
+                argument(initial);
+                skip(depth + 1);
+            }
+            default -> {
+                int additional = initial & 0x1F;
+                if (additional == INDEFINITE || additional > 27) {
+                    throw new CborFormatException("Unexpected byte " + initial + " at " + (position - 1));
+                }
+                argument(initial);
+            }
+        }
+    }
+
+    /**
+     * Reads a float as the shortest decimal that rounds to it, as the JSON mapper would have
+     * read the number the encoder started from.
+     */
+    private BigDecimal readFloat(int initial) {
+        position++;
+        String text = switch (initial & 0x1F) {
+            case 25 -> Double.toString(halfToDouble((int) readBigEndian(2)));
+            case 26 -> Float.toString(Float.intBitsToFloat((int) readBigEndian(4)));
+            case 27 -> Double.toString(Double.longBitsToDouble(readBigEndian(8)));
+            default -> throw new CborFormatException("Expected an amount at byte " + (position - 1));
+        };
+        if (text.equals("NaN") || text.endsWith("Infinity")) {
+            throw new CborFormatException("Not an amount: " + text);
+        }
+        return new BigDecimal(text);
+    }
+
+    private static double halfToDouble(int bits) {
+        int exponent = bits >>> 10 & 0x1F;
+        int mantissa = bits & 0x3FF;
+        double value;
+        if (exponent == 0) {
+            value = Math.scalb((double) mantissa, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+        }
+        return (bits & 0x8000) != 0 ? -value : value;
+    }
+
+    /**
+     * Reads the argument following an initial byte; values above {@code Long.MAX_VALUE} come
+     * back negative.
+     */
+    private long argument(int initial) {
+        int additional = initial & 0x1F;
+        if (additional < 24) {
+            return additional;
+        }
+        return switch (additional) {
+            case 24 -> readBigEndian(1);
+            case 25 -> readBigEndian(2);
+            case 26 -> readBigEndian(4);
+            case 27 -> readBigEndian(8);
+            default -> throw new CborFormatException("Invalid argument at byte " + (position - 1));
+        };
+    }
+
+    /**
+     * Reads the length of a definite string and moves past its bytes.
+     */
+    private int length(int initial) {
+        long length = argument(initial);
+        if (length < 0 || length > limit - position) {
+            throw new CborFormatException("String longer than the data");
+        }
+        position += (int) length;
+        return (int) length;
+    }
+
+    private long readBigEndian(int bytes) {
+        if (limit - position < bytes) {
+            throw new CborFormatException("Unexpected end of data");
+        }
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = value << 8 | (data[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private int peek() {
+        if (position >= limit) {
+            throw new CborFormatException("Unexpected end of data");
+        }
+        return data[position] & 0xFF;
+    }
+
+    private int next() {
+        int value = peek();
+        position++;
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds {@link CborHttpMessageConverter} after the JSON converters, so that JSON stays the
+ * answer to clients that accept anything and CBOR is only chosen when asked for.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bankinc.cbor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CborWebConfig implements WebMvcConfigurer {
+
+    private final List<CborCodec<?>> codecs;
+    private final CborProperties properties;
+
+    public CborWebConfig(List<CborCodec<?>> codecs, CborProperties properties) {
+        this.codecs = codecs;
+        this.properties = properties;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CborHttpMessageConverter(codecs, properties.getMaxRequestBytes()));
+    }
+}
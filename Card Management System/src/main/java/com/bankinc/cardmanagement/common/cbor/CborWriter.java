@@ -0,0 +1,245 @@
+package com.bankinc.cardmanagement.common.cbor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Encodes CBOR (RFC 8949) into a growing byte array, with definite lengths and the shortest
+ * form of every integer. Amounts are written as decimal fractions (tag 4) with exponent -2,
+ * so they travel exactly in major units like their JSON form.
+ */
+public final class CborWriter {
+
+    static final int UNSIGNED = 0;
+    static final int NEGATIVE = 1;
+    static final int BYTES = 2;
+    static final int TEXT = 3;
+    static final int ARRAY = 4;
+    static final int MAP = 5;
+    static final int TAG = 6;
+    static final int SIMPLE = 7;
+
+    static final int FALSE = 0xF4;
+    static final int TRUE = 0xF5;
+    static final int NULL = 0xF6;
+    static final int DECIMAL_FRACTION = 4;
+
+    private static final byte[] CENTS_PREFIX = {(byte) (TAG << 5 | DECIMAL_FRACTION), (byte) (ARRAY << 5 | 2),
+            (byte) (NEGATIVE << 5 | 1)};
+
+    private byte[] buffer;
+    private int size;
+
+    public CborWriter() {
+        this(64);
+    }
+
+    public CborWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Encodes a text string once, to be written as a map key with {@link #key(byte[])}.
+     *
+     * @param text the text
+     * @return the encoded text, header included
+     */
+    public static byte[] encodeKey(String text) {
+        CborWriter writer = new CborWriter(text.length() + 9);
+        writer.text(text);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes the header of a map with the given number of entries, each a key and a value.
+     */
+    public CborWriter mapHeader(int entries) {
+        header(MAP, entries);
+        return this;
+    }
+
+    /**
+     * Writes a key encoded by {@link #encodeKey(String)}.
+     */
+    public CborWriter key(byte[] encodedKey) {
+        ensure(encodedKey.length);
+        System.arraycopy(encodedKey, 0, buffer, size, encodedKey.length);
+        size += encodedKey.length;
+        return this;
+    }
+
+    /**
+     * Writes a text string, or null.
+     */
+    public CborWriter text(String text) {
+        if (text == null) {
+            return nullValue();
+        }
+        int length = text.length();
+        int ascii = 0;
+        while (ascii < length && text.charAt(ascii) < 0x80) {
+            ascii++;
+        }
+        if (ascii < length) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            header(TEXT, utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buffer, size, utf8.length);
+            size += utf8.length;
+            return this;
+        }
+        header(TEXT, length);
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Writes an integer.
+     */
+    public CborWriter integer(long value) {
+        if (value >= 0) {
+            header(UNSIGNED, value);
+        } else {
+            header(NEGATIVE, -1 - value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes an integer, or null.
+     */
+    public CborWriter integer(Long value) {
+        return value != null ? integer(value.longValue()) : nullValue();
+    }
+
+    /**
+     * Writes a boolean.
+     */
+    public CborWriter bool(boolean value) {
+        ensure(1);
+        buffer[size++] = (byte) (value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes null.
+     */
+    public CborWriter nullValue() {
+        ensure(1);
+        buffer[size++] = (byte) NULL;
+        return this;
+    }
+
+    /**
+     * Writes an amount as the decimal fraction {@code amount × 10^-2}.
+     *
+     * @param amount the amount in cents
+     */
+    public CborWriter amount(long amount) {
+        key(CENTS_PREFIX);
+        return integer(amount);
+    }
+
+    /**
+     * Writes a date-time as ISO-8601 text, the way the JSON mapper writes it: seconds always,
+     * and the fraction of a second only as long as needed.
+     */
+    public CborWriter dateTime(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return nullValue();
+        }
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            return text(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+        }
+        int nanos = dateTime.getNano();
+        int fractionDigits = 0;
+        if (nanos != 0) {
+            fractionDigits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                fractionDigits--;
+            }
+        }
+        header(TEXT, 19 + (fractionDigits > 0 ? fractionDigits + 1 : 0));
+        ensure(29);
+        digits(dateTime.getYear(), 4);
+        buffer[size++] = '-';
+        digits(dateTime.getMonthValue(), 2);
+        buffer[size++] = '-';
+        digits(dateTime.getDayOfMonth(), 2);
+        buffer[size++] = 'T';
+        digits(dateTime.getHour(), 2);
+        buffer[size++] = ':';
+        digits(dateTime.getMinute(), 2);
+        buffer[size++] = ':';
+        digits(dateTime.getSecond(), 2);
+        if (fractionDigits > 0) {
+            buffer[size++] = '.';
+            digits(nanos, fractionDigits);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of the bytes written.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    private void header(int majorType, long argument) {
+        ensure(9);
+        int type = majorType << 5;
+        if (argument < 24) {
+            buffer[size++] = (byte) (type | argument);
+        } else if (argument < 0x100) {
+            buffer[size++] = (byte) (type | 24);
+            buffer[size++] = (byte) argument;
+        } else if (argument < 0x10000) {
+            buffer[size++] = (byte) (type | 25);
+            putBigEndian(argument, 2);
+        } else if (argument < 0x1_0000_0000L) {
+            buffer[size++] = (byte) (type | 26);
+            putBigEndian(argument, 4);
+        } else {
+            buffer[size++] = (byte) (type | 27);
+            putBigEndian(argument, 8);
+        }
+    }
+
+    private void digits(int value, int count) {
+        for (int i = size + count - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += count;
+    }
+
+    private void putBigEndian(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+/**
+ * Published after the cluster membership changed and card ranges moved between nodes.
+ * It is raised while new local work is held back, so listeners can drop caches or
+ * in-memory state of cards this node no longer owns before the new owner takes over.
+ *
+ * @param nodeId   the ID of this node
+ * @param previous the ring before the change
+ * @param current  the ring after the change
+ */
+public record CardOwnershipChangedEvent(String nodeId, ConsistentHashRing previous, ConsistentHashRing current) {
+
+    /**
+     * Tells whether this node owned the given card before the change and no longer does.
+     *
+     * @param cardNumber the card number
+     * @return true if ownership of the card moved away from this node
+     */
+    public boolean lostOwnership(String cardNumber) {
+        return nodeId.equals(previous.ownerOf(cardNumber)) && !nodeId.equals(current.ownerOf(cardNumber));
+    }
+}
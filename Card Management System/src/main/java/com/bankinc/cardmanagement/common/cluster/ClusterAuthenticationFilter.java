@@ -0,0 +1,106 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Authenticates the requests members of the cluster send each other, ahead of
+ * {@link ClusterForwardingFilter}. The forwarded header is only kept on a request whose
+ * signature is valid; clients setting it themselves have it removed, so they cannot have
+ * a request served by a node that does not own the card. Membership changes are only
+ * accepted from a member or with the shared secret as a bearer token.
+ */
+@Component
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "bankinc.cluster", name = "enabled", havingValue = "true")
+public class ClusterAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String MEMBERSHIP_PATH = "/cluster/nodes/{nodeId}";
+
+    private static final List<String> CLUSTER_HEADERS = List.of(
+            ClusterForwarder.FORWARDED_HEADER.toLowerCase(), ClusterSignature.SIGNATURE_HEADER.toLowerCase());
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ClusterSignature signature;
+
+    public ClusterAuthenticationFilter(ClusterSignature signature) {
+        this.signature = signature;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String forwardedBy = request.getHeader(ClusterForwarder.FORWARDED_HEADER);
+        boolean member = false;
+        if (forwardedBy != null || request.getHeader(ClusterSignature.SIGNATURE_HEADER) != null) {
+            byte[] body = request.getInputStream().readAllBytes();
+            request = new CachedBodyRequest(request, body);
+            member = signature.verify(forwardedBy, request.getHeader(ClusterSignature.SIGNATURE_HEADER),
+                    request.getMethod(), ClusterSignature.pathOf(request), body);
+            if (!member) {
+                log.warn("Removing cluster headers from an unsigned request from {}", request.getRemoteAddr());
+                request = new WithoutClusterHeaders(request);
+            }
+        }
+
+        if (isMembershipChange(request) && !member && !signature.isAuthorized(request.getHeader(HttpHeaders.AUTHORIZATION))) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Membership changes need the cluster secret");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isMembershipChange(HttpServletRequest request) {
+        return ("PUT".equals(request.getMethod()) || "DELETE".equals(request.getMethod()))
+                && pathMatcher.match(MEMBERSHIP_PATH, request.getServletPath());
+    }
+
+    /**
+     * Request from a client that set the cluster headers itself.
+     */
+    private static class WithoutClusterHeaders extends HttpServletRequestWrapper {
+
+        WithoutClusterHeaders(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isClusterHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isClusterHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(WithoutClusterHeaders::isClusterHeader);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isClusterHeader(String name) {
+            return CLUSTER_HEADERS.contains(name.toLowerCase());
+        }
+    }
+}
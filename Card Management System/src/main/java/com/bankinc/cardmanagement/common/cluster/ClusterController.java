@@ -0,0 +1,91 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/cluster")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterMembership membership;
+    private final ClusterForwarder forwarder;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lists the members of the cluster as seen by this node.
+     *
+     * @return the base URL of every member, by node ID
+     */
+    @GetMapping("/nodes")
+    public ResponseEntity<Map<String, String>> getNodes() {
+        return ResponseEntity.ok(membership.getNodes());
+    }
+
+    /**
+     * Retrieves the node owning the given card.
+     *
+     * @param cardId the card number
+     * @return the ID of the owner node
+     */
+    @GetMapping("/owner/{cardId}")
+    public ResponseEntity<String> getOwner(@PathVariable String cardId) {
+        return ResponseEntity.ok(membership.ownerOf(cardId));
+    }
+
+    /**
+     * Adds a node to the cluster. The change is propagated to the other members
+     * unless it was itself propagated by one of them.
+     *
+     * @param nodeId      the ID of the joining node
+     * @param request     the node details
+     * @param httpRequest the raw request, replayed on the other members
+     * @return a response entity indicating the result of the change
+     */
+    @PutMapping("/nodes/{nodeId}")
+    public ResponseEntity<Void> join(@PathVariable String nodeId, @Valid @RequestBody NodeRequestDTO request,
+                                     HttpServletRequest httpRequest) throws IOException {
+        membership.join(nodeId, request.getUrl());
+        if (httpRequest.getHeader(ClusterForwarder.FORWARDED_HEADER) == null) {
+            forwarder.broadcast(httpRequest, objectMapper.writeValueAsBytes(request));
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Removes a node from the cluster. The change is propagated to the other members
+     * unless it was itself propagated by one of them.
+     *
+     * @param nodeId      the ID of the leaving node
+     * @param httpRequest the raw request, replayed on the other members
+     * @return a response entity indicating the result of the change
+     */
+    @DeleteMapping("/nodes/{nodeId}")
+    public ResponseEntity<Void> leave(@PathVariable String nodeId, HttpServletRequest httpRequest) {
+        membership.leave(nodeId);
+        if (httpRequest.getHeader(ClusterForwarder.FORWARDED_HEADER) == null) {
+            forwarder.broadcast(httpRequest, new byte[0]);
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class NodeRequestDTO {
+
+        @NotBlank(message = "La URL del nodo no puede estar vacía")
+        private String url;
+    }
+}
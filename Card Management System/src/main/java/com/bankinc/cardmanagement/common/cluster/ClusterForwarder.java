@@ -0,0 +1,101 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends requests to other members of the cluster.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "bankinc.cluster", name = "enabled", havingValue = "true")
+public class ClusterForwarder {
+
+    /**
+     * Marks a request that was already forwarded by a member, so it is never forwarded again.
+     * It is only trusted along with a valid {@link ClusterSignature#SIGNATURE_HEADER}.
+     */
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded-By";
+
+    private final ClusterMembership membership;
+    private final ClusterSignature signature;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final String clientHeader;
+
+    public ClusterForwarder(ClusterMembership membership, ClusterSignature signature, ClusterProperties properties,
+                            RateLimitProperties rateLimitProperties) {
+        this.membership = membership;
+        this.signature = signature;
+        this.clientHeader = rateLimitProperties.getClientHeader();
+        this.timeout = properties.getForwardTimeout();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Replays a request on another node.
+     *
+     * @param baseUrl the base URL of the target node
+     * @param request the request received by this node
+     * @param body    the body of the request
+     * @return the response of the target node
+     * @throws IOException if the target node cannot be reached
+     */
+    public HttpResponse<byte[]> forward(String baseUrl, HttpServletRequest request, byte[] body) throws IOException {
+        String path = ClusterSignature.pathOf(request);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, membership.getNodeId())
+                .header(ClusterSignature.SIGNATURE_HEADER,
+                        signature.sign(membership.getNodeId(), request.getMethod(), path, body))
+                .method(request.getMethod(), body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (request.getContentType() != null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, request.getContentType());
+        }
+        if (request.getHeader(HttpHeaders.ACCEPT) != null) {
+            builder.header(HttpHeaders.ACCEPT, request.getHeader(HttpHeaders.ACCEPT));
+        }
+        // The owner limits the request by the client that sent it, not by this node.
+        String clientId = request.getHeader(clientHeader);
+        builder.header(clientHeader, clientId != null ? clientId : request.getRemoteAddr());
+        try {
+            return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding to " + baseUrl, e);
+        }
+    }
+
+    /**
+     * Replays a membership change on every other member, best effort.
+     *
+     * @param request the membership request received by this node
+     * @param body    the body of the request
+     */
+    public void broadcast(HttpServletRequest request, byte[] body) {
+        for (Map.Entry<String, String> node : membership.getNodes().entrySet()) {
+            if (node.getKey().equals(membership.getNodeId()) || node.getValue() == null) {
+                continue;
+            }
+            try {
+                forward(node.getValue(), request, body);
+            } catch (IOException e) {
+                log.warn("Could not propagate membership change to node {}: {}", node.getKey(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import com.bankinc.cardmanagement.common.cbor.CborFormatException;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitExceededException;
+import com.bankinc.cardmanagement.transaction.application.service.AsyncPurchaseServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Sends every card request to the node owning the card. Requests for cards owned by
+ * this node are served while holding {@link ClusterMembership#localOwnershipLock()},
+ * so a membership change waits for them before handing their range over. The forwarded
+ * header can be trusted here: {@link ClusterAuthenticationFilter} removes it from requests
+ * not signed by a member.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "bankinc.cluster", name = "enabled", havingValue = "true")
+public class ClusterForwardingFilter extends OncePerRequestFilter {
+
+    private static final Map<String, String> CARD_PATHS = Map.of(
+            "DELETE", "/card/{cardId}",
+            "GET", "/card/balance/{cardId}");
+
+    private static final Map<String, String> CARD_BODIES = Map.of(
+            "/card/enroll", "POST",
+            "/card/balance", "POST",
+            "/transaction/purchase", "POST",
+            "/transaction/purchase/async", "POST",
+            "/transaction/anulation", "POST");
+
+    private static final String TICKET_PATH = "/transaction/purchase/async/{ticketId}";
+
+    private static final String STREAM_PATH = "/card/balance/{cardId}/stream";
+
+    private static final byte[][] CARD_ID_KEY = {CborWriter.encodeKey("cardId")};
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ClusterMembership membership;
+    private final ClusterForwarder forwarder;
+    private final ObjectMapper objectMapper;
+
+    public ClusterForwardingFilter(ClusterMembership membership, ClusterForwarder forwarder, ObjectMapper objectMapper) {
+        this.membership = membership;
+        this.forwarder = forwarder;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        String ticketNode = ticketNodeFromPath(request.getMethod(), path);
+        if (ticketNode != null && !ticketNode.equals(membership.getNodeId())
+                && request.getHeader(ClusterForwarder.FORWARDED_HEADER) == null) {
+            forwardToNode(ticketNode, "ticket " + path, request, response, new byte[0]);
+            return;
+        }
+
+        String streamedCard = streamedCardFromPath(request.getMethod(), path);
+        if (streamedCard != null && !membership.isLocal(streamedCard)) {
+            redirectToOwner(membership.ownerOf(streamedCard), request, response);
+            return;
+        }
+
+        byte[] body = new byte[0];
+        String cardNumber = cardFromPath(request.getMethod(), path);
+        if (cardNumber == null && request.getMethod().equals(CARD_BODIES.get(path))) {
+            body = request.getInputStream().readAllBytes();
+            request = new CachedBodyRequest(request, body);
+            cardNumber = cardFromBody(request.getContentType(), body);
+        }
+        if (cardNumber == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Lock ownershipLock = membership.localOwnershipLock();
+        ownershipLock.lock();
+        try {
+            // A forwarded request is always served here, even if membership moved in the
+            // meantime, so two nodes with a different view never bounce it back and forth.
+            if (membership.isLocal(cardNumber) || request.getHeader(ClusterForwarder.FORWARDED_HEADER) != null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+        } finally {
+            ownershipLock.unlock();
+        }
+        forwardToNode(membership.ownerOf(cardNumber), "card " + cardNumber, request, response, body);
+    }
+
+    private void forwardToNode(String owner, String subject, HttpServletRequest request, HttpServletResponse response,
+                               byte[] body) throws IOException {
+        String ownerUrl = membership.urlOf(owner);
+        if (ownerUrl == null) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Owner node " + owner + " has no URL");
+            return;
+        }
+        HttpResponse<byte[]> ownerResponse;
+        try {
+            ownerResponse = forwarder.forward(ownerUrl, request, body);
+        } catch (IOException e) {
+            log.warn("Could not forward request for {} to node {}: {}", subject, owner, e.getMessage());
+            response.sendError(HttpStatus.BAD_GATEWAY.value(), "Owner node " + owner + " is unreachable");
+            return;
+        }
+        response.setStatus(ownerResponse.statusCode());
+        ownerResponse.headers().firstValue("Content-Type").ifPresent(response::setContentType);
+        ownerResponse.headers().firstValue("Retry-After").ifPresent(value -> response.setHeader("Retry-After", value));
+        ownerResponse.headers().firstValue(RateLimitExceededException.LIMIT_HEADER)
+                .ifPresent(value -> response.setHeader(RateLimitExceededException.LIMIT_HEADER, value));
+        ownerResponse.headers().firstValue(RateLimitExceededException.REMAINING_HEADER)
+                .ifPresent(value -> response.setHeader(RateLimitExceededException.REMAINING_HEADER, value));
+        response.getOutputStream().write(ownerResponse.body());
+    }
+
+    /**
+     * Event streams stay open for a long time and cannot be relayed through a buffered
+     * forward, so the client is sent to the owner node and connects to it directly.
+     */
+    private void redirectToOwner(String owner, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String ownerUrl = membership.urlOf(owner);
+        if (ownerUrl == null) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Owner node " + owner + " has no URL");
+            return;
+        }
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader("Location", ownerUrl + request.getRequestURI() + (query != null ? "?" + query : ""));
+    }
+
+    private String cardFromPath(String method, String path) {
+        String pattern = CARD_PATHS.get(method);
+        if (pattern == null || !pathMatcher.match(pattern, path)) {
+            return null;
+        }
+        return pathMatcher.extractUriTemplateVariables(pattern, path).get("cardId");
+    }
+
+    private String streamedCardFromPath(String method, String path) {
+        if (!"GET".equals(method) || !pathMatcher.match(STREAM_PATH, path)) {
+            return null;
+        }
+        return pathMatcher.extractUriTemplateVariables(STREAM_PATH, path).get("cardId");
+    }
+
+    private String ticketNodeFromPath(String method, String path) {
+        if (!"GET".equals(method) || !pathMatcher.match(TICKET_PATH, path)) {
+            return null;
+        }
+        String ticketId = pathMatcher.extractUriTemplateVariables(TICKET_PATH, path).get("ticketId");
+        int separator = ticketId.lastIndexOf(AsyncPurchaseServiceImpl.NODE_SEPARATOR);
+        return separator > 0 ? ticketId.substring(0, separator) : null;
+    }
+
+    /**
+     * Reads the card ID from a body in the format its content type names, so CBOR requests
+     * reach the owner of their card like JSON ones.
+     */
+    private String cardFromBody(String contentType, byte[] body) {
+        if (isCbor(contentType)) {
+            return cardFromCbor(body);
+        }
+        try {
+            JsonNode cardId = objectMapper.readTree(body).get("cardId");
+            return cardId != null && cardId.isValueNode() ? cardId.asText() : null;
+        } catch (IOException e) {
+            // Malformed bodies are served locally and rejected by the controller.
+            return null;
+        }
+    }
+
+    private static String cardFromCbor(byte[] body) {
+        try {
+            CborReader reader = new CborReader(body);
+            int entries = reader.readMapHeader();
+            for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+                if (reader.readKey(CARD_ID_KEY) == 0) {
+                    return reader.readText();
+                }
+                reader.skip();
+            }
+            return null;
+        } catch (CborFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCbor(String contentType) {
+        try {
+            return contentType != null && MediaType.APPLICATION_CBOR.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/cluster");
+    }
+}
@@ -0,0 +1,126 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private final ClusterProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantReadWriteLock handoffLock = new ReentrantReadWriteLock();
+    private final Map<String, String> nodeUrls = new TreeMap<>();
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembership(ClusterProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        for (ClusterProperties.Node node : properties.getNodes()) {
+            nodeUrls.put(node.getId(), node.getUrl());
+        }
+        nodeUrls.putIfAbsent(properties.getNodeId(), null);
+        this.ring = new ConsistentHashRing(nodeUrls.keySet(), properties.getVirtualNodes());
+    }
+
+    public String getNodeId() {
+        return properties.getNodeId();
+    }
+
+    /**
+     * Returns the node owning the given card.
+     *
+     * @param cardNumber the card number
+     * @return the ID of the owner node
+     */
+    public String ownerOf(String cardNumber) {
+        return ring.ownerOf(cardNumber);
+    }
+
+    /**
+     * Tells whether this node owns the given card.
+     *
+     * @param cardNumber the card number
+     * @return true if requests for the card are served by this node
+     */
+    public boolean isLocal(String cardNumber) {
+        return properties.getNodeId().equals(ring.ownerOf(cardNumber));
+    }
+
+    /**
+     * Returns the base URL of a member node.
+     *
+     * @param nodeId the ID of the node
+     * @return the base URL, or null if the node is unknown
+     */
+    public synchronized String urlOf(String nodeId) {
+        return nodeUrls.get(nodeId);
+    }
+
+    /**
+     * Returns a snapshot of the current members and their base URLs.
+     *
+     * @return the members by node ID
+     */
+    public synchronized Map<String, String> getNodes() {
+        return new TreeMap<>(nodeUrls);
+    }
+
+    /**
+     * Returns the lock held while this node serves a card it owns. Membership changes
+     * take the exclusive side of it, so in-flight work on a moving range drains before
+     * the range is handed to its new owner.
+     *
+     * @return the shared side of the handoff lock
+     */
+    public Lock localOwnershipLock() {
+        return handoffLock.readLock();
+    }
+
+    /**
+     * Adds a node to the cluster or updates its URL, moving its card ranges to it.
+     *
+     * @param nodeId the ID of the node
+     * @param url    the base URL of the node
+     */
+    public void join(String nodeId, String url) {
+        changeMembership(nodeId, url, true);
+    }
+
+    /**
+     * Removes a node from the cluster, moving its card ranges to the remaining nodes.
+     *
+     * @param nodeId the ID of the node
+     */
+    public void leave(String nodeId) {
+        if (properties.getNodeId().equals(nodeId)) {
+            throw new IllegalArgumentException("A node cannot remove itself from the cluster");
+        }
+        changeMembership(nodeId, null, false);
+    }
+
+    private void changeMembership(String nodeId, String url, boolean joining) {
+        handoffLock.writeLock().lock();
+        try {
+            ConsistentHashRing previous = ring;
+            synchronized (this) {
+                if (joining) {
+                    nodeUrls.put(nodeId, url);
+                } else {
+                    nodeUrls.remove(nodeId);
+                }
+                ring = new ConsistentHashRing(nodeUrls.keySet(), properties.getVirtualNodes());
+            }
+            eventPublisher.publishEvent(new CardOwnershipChangedEvent(properties.getNodeId(), previous, ring));
+            log.info("Cluster membership changed, members: {}", ring.getNodes());
+        } finally {
+            handoffLock.writeLock().unlock();
+        }
+    }
+}
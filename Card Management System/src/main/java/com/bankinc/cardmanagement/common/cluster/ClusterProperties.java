@@ -0,0 +1,57 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.cluster")
+public class ClusterProperties {
+
+    /**
+     * Whether card ownership is split between the nodes of the cluster. When disabled
+     * every node serves every card.
+     */
+    private boolean enabled = false;
+
+    /**
+     * ID of this node. It must appear in {@link #nodes}.
+     */
+    private String nodeId = "node-1";
+
+    /**
+     * Initial members of the cluster, including this node.
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Points each node places on the hash ring. More points spread card ranges more evenly.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Maximum time to wait for the owner node when forwarding a request.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Secret shared by the members of the cluster. Requests between members are signed
+     * with it, and operators send it as a bearer token to change membership.
+     */
+    private String secret;
+
+    /**
+     * Longest a signed request between members is accepted after it was sent, clock
+     * differences between the nodes included.
+     */
+    private Duration maxSignatureAge = Duration.ofMinutes(1);
+
+    @Data
+    public static class Node {
+        private String id;
+        private String url;
+    }
+}
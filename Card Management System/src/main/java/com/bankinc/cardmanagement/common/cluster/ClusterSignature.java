@@ -0,0 +1,123 @@
+package com.bankinc.cardmanagement.common.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Signs the requests members of the cluster send each other with an HMAC-SHA256 of the
+ * shared secret, over the sending node, the time, the method, the path and the body. A
+ * signature is only accepted for a limited time, so a captured request cannot be replayed
+ * later on.
+ *
+ * <pre>
+ * X-Cluster-Signature: &lt;epoch millis&gt;:&lt;Base64 HMAC&gt;
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "bankinc.cluster", name = "enabled", havingValue = "true")
+public class ClusterSignature {
+
+    public static final String SIGNATURE_HEADER = "X-Cluster-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String BEARER = "Bearer ";
+
+    private final SecretKeySpec key;
+    private final byte[] secret;
+    private final long maxAgeMillis;
+
+    public ClusterSignature(ClusterProperties properties) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("bankinc.cluster.secret must be set when the cluster is enabled");
+        }
+        this.secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.maxAgeMillis = properties.getMaxSignatureAge().toMillis();
+    }
+
+    /**
+     * Signs a request sent by this node.
+     *
+     * @param nodeId the ID of this node
+     * @param method the HTTP method
+     * @param path   the request URI, with its query string
+     * @param body   the body of the request
+     * @return the value of the signature header
+     */
+    public String sign(String nodeId, String method, String path, byte[] body) {
+        long timestamp = System.currentTimeMillis();
+        return timestamp + ":" + Base64.getEncoder().encodeToString(hmac(nodeId, timestamp, method, path, body));
+    }
+
+    /**
+     * Tells whether a request was signed by a member of the cluster.
+     *
+     * @param nodeId    the ID of the node the request claims to come from
+     * @param signature the value of the signature header, if any
+     * @param method    the HTTP method
+     * @param path      the request URI, with its query string
+     * @param body      the body of the request
+     * @return true if the signature is valid and recent enough
+     */
+    public boolean verify(String nodeId, String signature, String method, String path, byte[] body) {
+        if (nodeId == null || signature == null) {
+            return false;
+        }
+        int separator = signature.indexOf(':');
+        if (separator <= 0) {
+            return false;
+        }
+        try {
+            long timestamp = Long.parseLong(signature.substring(0, separator));
+            if (Math.abs(System.currentTimeMillis() - timestamp) > maxAgeMillis) {
+                return false;
+            }
+            byte[] expected = hmac(nodeId, timestamp, method, path, body);
+            return MessageDigest.isEqual(expected, Base64.getDecoder().decode(signature.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tells whether a request carries the shared secret as a bearer token, as operators
+     * changing membership by hand do.
+     *
+     * @param authorization the value of the Authorization header, if any
+     * @return true if the token is the shared secret
+     */
+    public boolean isAuthorized(String authorization) {
+        return authorization != null && authorization.startsWith(BEARER) && MessageDigest.isEqual(secret,
+                authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the path a signature covers.
+     *
+     * @param request the request
+     * @return the request URI, with its query string
+     */
+    public static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+    }
+
+    private byte[] hmac(String nodeId, long timestamp, String method, String path, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update((nodeId + '\n' + timestamp + '\n' + method + '\n' + path + '\n').getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bankinc.cardmanagement.common.exception;
+
+/**
+ * Base of the exceptions that reject a request for a business reason, such as a declined
+ * purchase. They are expected outcomes answered by {@link GlobalExceptionHandler}, so they
+ * carry neither a stack trace nor suppressed exceptions, and throwing one costs little
+ * more than allocating it.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+}
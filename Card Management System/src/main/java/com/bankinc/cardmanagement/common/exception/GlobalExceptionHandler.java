@@ -1,12 +1,30 @@
 package com.bankinc.cardmanagement.common.exception;
 
+import com.bankinc.cardmanagement.card.infrastructure.exception.BulkRechargeTooLargeException;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardAlreadyActivatedException;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardExpiredException;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardStreamLimitExceededException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.InvalidProductIdException;
+import com.bankinc.cardmanagement.common.money.AmountOutOfRangeException;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitExceededException;
+import com.bankinc.cardmanagement.fee.infrastructure.exception.MonthlyFeeAlreadyRunningException;
+import com.bankinc.cardmanagement.fraud.infrastructure.exception.FraudSuspectedException;
+import com.bankinc.cardmanagement.fraud.infrastructure.exception.InvalidFraudRulesException;
+import com.bankinc.cardmanagement.reconciliation.infrastructure.exception.ReconciliationAlreadyRunningException;
+import com.bankinc.cardmanagement.settlement.infrastructure.exception.SettlementAlreadyRunningException;
+import com.bankinc.cardmanagement.standin.infrastructure.exception.OfflineLimitExceededException;
+import com.bankinc.cardmanagement.standin.infrastructure.exception.StandInUnavailableException;
+import com.bankinc.cardmanagement.summary.infrastructure.exception.CardSummaryRebuildAlreadyRunningException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.PurchaseQueueFullException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.PurchaseTicketNotFoundException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionAlreadyAnnulledException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionAnnulationPeriodExceededException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionNotAnnullableException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +52,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(CardExpiredException.class)
+    public ResponseEntity<String> handleCardExpiredException(CardExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidProductIdException.class)
+    public ResponseEntity<String> handleInvalidProductIdException(InvalidProductIdException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(BulkRechargeTooLargeException.class)
+    public ResponseEntity<String> handleBulkRechargeTooLargeException(BulkRechargeTooLargeException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(ex.getMessage());
+    }
+
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<String> handleInsufficientBalanceException(InsufficientBalanceException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
@@ -54,6 +87,82 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(TransactionNotAnnullableException.class)
+    public ResponseEntity<String> handleTransactionNotAnnullableException(TransactionNotAnnullableException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(PurchaseQueueFullException.class)
+    public ResponseEntity<String> handlePurchaseQueueFullException(PurchaseQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(PurchaseTicketNotFoundException.class)
+    public ResponseEntity<String> handlePurchaseTicketNotFoundException(PurchaseTicketNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ReconciliationAlreadyRunningException.class)
+    public ResponseEntity<String> handleReconciliationAlreadyRunningException(ReconciliationAlreadyRunningException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(MonthlyFeeAlreadyRunningException.class)
+    public ResponseEntity<String> handleMonthlyFeeAlreadyRunningException(MonthlyFeeAlreadyRunningException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(SettlementAlreadyRunningException.class)
+    public ResponseEntity<String> handleSettlementAlreadyRunningException(SettlementAlreadyRunningException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(FraudSuspectedException.class)
+    public ResponseEntity<String> handleFraudSuspectedException(FraudSuspectedException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFraudRulesException.class)
+    public ResponseEntity<String> handleInvalidFraudRulesException(InvalidFraudRulesException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(CardSummaryRebuildAlreadyRunningException.class)
+    public ResponseEntity<String> handleCardSummaryRebuildAlreadyRunningException(CardSummaryRebuildAlreadyRunningException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceededException(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .header(RateLimitExceededException.LIMIT_HEADER, String.valueOf(ex.getLimit()))
+                .header(RateLimitExceededException.REMAINING_HEADER, "0")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AmountOutOfRangeException.class)
+    public ResponseEntity<String> handleAmountOutOfRangeException(AmountOutOfRangeException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(CardStreamLimitExceededException.class)
+    public ResponseEntity<String> handleCardStreamLimitExceededException(CardStreamLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(StandInUnavailableException.class)
+    public ResponseEntity<String> handleStandInUnavailableException(StandInUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(OfflineLimitExceededException.class)
+    public ResponseEntity<String> handleOfflineLimitExceededException(OfflineLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,133 @@
+package com.bankinc.cardmanagement.common.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts, dumps and stops a flight recording on demand at {@code /actuator/flightrecording}.
+ * At most one recording runs at a time; starting one closes the previous.
+ *
+ * <p>Recordings hold request data and cost disk and CPU, so the endpoint is not exposed by
+ * default; add it to {@code management.endpoints.web.exposure.include} only together with a
+ * {@code management.server.port} that clients cannot reach.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final FlightRecordingProperties properties;
+    private Recording recording;
+
+    public FlightRecordingEndpoint(FlightRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Starts a recording with the configured settings, closing the previous one. It runs
+     * until stopped, keeping the data of the configured age and size.
+     *
+     * @return the started recording, or 500 if the configured settings do not exist
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start() {
+        String settingsName = properties.getSettings();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            log.error("Flight recording settings {} not loaded: {}", settingsName, e.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+        close();
+        recording = new Recording(configuration);
+        recording.setName("bankinc-" + settingsName);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.setToDisk(true);
+        recording.start();
+        log.info("Flight recording {} started with {} settings", recording.getId(), settingsName);
+        return new WebEndpointResponse<>(status(recording));
+    }
+
+    /**
+     * Dumps the data of the current recording, running or stopped, to a file and returns it.
+     * The file is deleted once it has been streamed.
+     *
+     * @return the recording file, or 404 without a recording
+     * @throws IOException if the file cannot be written
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("bankinc-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        recording.dump(file);
+        log.info("Flight recording {} dumped to {}", recording.getId(), file);
+        return new WebEndpointResponse<>(new FileSystemResource(file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+        });
+    }
+
+    /**
+     * Stops and discards the current recording. Dump it first to keep its data.
+     *
+     * @return the stopped recording, or 404 without a recording
+     */
+    @DeleteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> stop() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        RecordingStatus status = status(recording);
+        close();
+        return new WebEndpointResponse<>(status);
+    }
+
+    private void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static RecordingStatus status(Recording recording) {
+        return new RecordingStatus(recording.getId(), recording.getName(), recording.getState().name(),
+                recording.getStartTime(), recording.getDuration());
+    }
+
+    /**
+     * The state of a recording.
+     */
+    public record RecordingStatus(long id, String name, String state, Instant startTime, Duration duration) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankinc.cardmanagement.common.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.flight-recording")
+public class FlightRecordingProperties {
+
+    /**
+     * JDK settings of the recordings, {@code default} or the more detailed {@code profile}.
+     */
+    private String settings = "default";
+
+    /**
+     * Age of the oldest data kept by a running recording.
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * Size of the data kept by a running recording.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Directory the recordings are dumped to.
+     */
+    private String directory = "recordings";
+}
@@ -0,0 +1,33 @@
+package com.bankinc.cardmanagement.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one stage of a purchase, annulment or recharge.
+ */
+@Name("bankinc.PipelineStage")
+@Label("Pipeline Stage")
+@Category({"Bank Inc", "Pipeline"})
+@Description("One stage of a purchase, annulment or recharge")
+@StackTrace(false)
+class PipelineStageEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Product ID")
+    @Description("First six digits of the card number")
+    String productId;
+
+    @Label("Outcome")
+    @Description("OK for a stage followed by another, otherwise how the transaction completed")
+    String outcome;
+}
@@ -0,0 +1,112 @@
+package com.bankinc.cardmanagement.common.jfr;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records the stages of an operation as {@link PipelineStageEvent}s. Each call to
+ * {@link #stage(Stage)} ends the current stage and begins the next one; the last stage ends
+ * when the transaction completes and carries its outcome, so a stage that fails ends with
+ * {@code ROLLED_BACK}.
+ *
+ * <p>While no recording enables the event, or outside a transaction, {@link #start} returns
+ * a shared trace that does nothing: tracing then costs a field check per stage.
+ */
+public final class PipelineTrace implements TransactionSynchronization {
+
+    public enum Operation {
+        PURCHASE, ANNULMENT, RECHARGE
+    }
+
+    public enum Stage {
+        CARD_LOOKUP, TRANSACTION_LOOKUP, VALIDATION, BALANCE_SAVE, TRANSACTION_INSERT, TRANSACTION_UPDATE, COMMIT
+    }
+
+    private static final PipelineTrace DISABLED = new PipelineTrace(null, null);
+
+    private final String operation;
+    private String productId;
+    private PipelineStageEvent current;
+
+    private PipelineTrace(String operation, String productId) {
+        this.operation = operation;
+        this.productId = productId;
+    }
+
+    /**
+     * Starts tracing an operation in the current transaction.
+     *
+     * @param operation the operation
+     * @param cardId    the card number of the request, or null if the card is only known
+     *                  after a lookup and set with {@link #card(String)}
+     * @return the trace
+     */
+    public static PipelineTrace start(Operation operation, String cardId) {
+        // The probe does not escape, so when the event is disabled it is never allocated.
+        if (!new PipelineStageEvent().isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return DISABLED;
+        }
+        PipelineTrace trace = new PipelineTrace(operation.name(), productOf(cardId));
+        TransactionSynchronizationManager.registerSynchronization(trace);
+        return trace;
+    }
+
+    /**
+     * Sets the card the operation acts on, for operations that find it through a lookup,
+     * so the product is never taken from a card ID the client sent.
+     *
+     * @param cardId the card number of the loaded card
+     */
+    public void card(String cardId) {
+        if (this == DISABLED) {
+            return;
+        }
+        productId = productOf(cardId);
+        if (current != null) {
+            current.productId = productId;
+        }
+    }
+
+    /**
+     * Ends the current stage, if any, and begins the next one.
+     *
+     * @param stage the stage beginning
+     */
+    public void stage(Stage stage) {
+        if (this == DISABLED) {
+            return;
+        }
+        end("OK");
+        PipelineStageEvent event = new PipelineStageEvent();
+        event.operation = operation;
+        event.stage = stage.name();
+        event.productId = productId;
+        event.begin();
+        current = event;
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        end(switch (status) {
+            case STATUS_COMMITTED -> "COMMITTED";
+            case STATUS_ROLLED_BACK -> "ROLLED_BACK";
+            default -> "UNKNOWN";
+        });
+    }
+
+    private static String productOf(String cardId) {
+        return cardId != null && cardId.length() >= CardNumbers.PRODUCT_ID_LENGTH
+                ? cardId.substring(0, CardNumbers.PRODUCT_ID_LENGTH)
+                : cardId;
+    }
+
+    private void end(String outcome) {
+        PipelineStageEvent event = current;
+        if (event != null) {
+            event.outcome = outcome;
+            event.commit();
+            current = null;
+        }
+    }
+}
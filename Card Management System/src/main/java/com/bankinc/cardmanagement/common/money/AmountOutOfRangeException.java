@@ -0,0 +1,10 @@
+package com.bankinc.cardmanagement.common.money;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class AmountOutOfRangeException extends BusinessException {
+
+    public AmountOutOfRangeException(String message) {
+        super(message);
+    }
+}
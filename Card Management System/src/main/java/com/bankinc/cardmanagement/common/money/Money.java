@@ -0,0 +1,181 @@
+package com.bankinc.cardmanagement.common.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Arithmetic and text form of amounts held as a {@code long} count of cents, the unit in
+ * which balances and transactions are stored, computed and carried through the application.
+ * Sums and differences are exact and fail instead of wrapping; amounts only become decimals
+ * at the edges, in JSON, files and configuration.
+ */
+public final class Money {
+
+    /**
+     * Decimal places of an amount in major units.
+     */
+    public static final int SCALE = 2;
+
+    private static final long MINOR_PER_MAJOR = 100;
+    private static final long MAX_MAJOR_BEFORE_DIGIT = (Long.MAX_VALUE - 9) / 10;
+
+    private Money() {
+    }
+
+    /**
+     * Adds two amounts.
+     *
+     * @param amount the first amount in cents
+     * @param other  the second amount in cents
+     * @return the sum in cents
+     * @throws AmountOutOfRangeException if the sum does not fit in a long
+     */
+    public static long add(long amount, long other) {
+        try {
+            return Math.addExact(amount, other);
+        } catch (ArithmeticException e) {
+            throw new AmountOutOfRangeException("Amount out of range");
+        }
+    }
+
+    /**
+     * Subtracts an amount from another.
+     *
+     * @param amount the amount in cents
+     * @param other  the amount to subtract in cents
+     * @return the difference in cents
+     * @throws AmountOutOfRangeException if the difference does not fit in a long
+     */
+    public static long subtract(long amount, long other) {
+        try {
+            return Math.subtractExact(amount, other);
+        } catch (ArithmeticException e) {
+            throw new AmountOutOfRangeException("Amount out of range");
+        }
+    }
+
+    /**
+     * Parses a decimal amount in major units, such as {@code 12.5} or {@code -0.05}. Digits
+     * beyond the cents are rejected rather than rounded.
+     *
+     * @param text the amount
+     * @return the amount in cents
+     * @throws NumberFormatException if the text is not an amount with at most two decimals,
+     *                               or does not fit in a long
+     */
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index++;
+        }
+        long major = 0;
+        int integerDigits = 0;
+        for (; index < length && text.charAt(index) != '.'; index++, integerDigits++) {
+            int digit = digit(text, index);
+            if (major > MAX_MAJOR_BEFORE_DIGIT) {
+                throw new NumberFormatException("Amount out of range: " + text);
+            }
+            major = major * 10 + digit;
+        }
+        long cents = 0;
+        int decimals = 0;
+        if (index < length) {
+            for (index++; index < length; index++, decimals++) {
+                if (decimals == SCALE) {
+                    throw new NumberFormatException("Amount with more than " + SCALE + " decimals: " + text);
+                }
+                cents = cents * 10 + digit(text, index);
+            }
+            if (decimals == 0 && integerDigits == 0) {
+                throw new NumberFormatException("Not an amount: " + text);
+            }
+        } else if (integerDigits == 0) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        for (; decimals < SCALE; decimals++) {
+            cents *= 10;
+        }
+        if (major > (Long.MAX_VALUE - cents) / MINOR_PER_MAJOR) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+        long amount = major * MINOR_PER_MAJOR + cents;
+        return negative ? -amount : amount;
+    }
+
+    /**
+     * Converts an amount in major units, as bound from configuration.
+     *
+     * @param amount the amount
+     * @return the amount in cents
+     * @throws IllegalArgumentException if the amount has digits beyond the cents or does not fit in a long
+     */
+    public static long of(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not an amount in cents: " + amount, e);
+        }
+    }
+
+    /**
+     * Rounds an amount in major units held as a double to the nearest cent, for amounts
+     * written before they were held in cents and for generated ones.
+     *
+     * @param amount the amount
+     * @return the amount in cents
+     * @throws AmountOutOfRangeException if the amount does not fit in a long
+     */
+    public static long round(double amount) {
+        double cents = Math.rint(amount * MINOR_PER_MAJOR);
+        if (!(Math.abs(cents) < 0x1p63)) {
+            throw new AmountOutOfRangeException("Amount out of range");
+        }
+        return (long) cents;
+    }
+
+    /**
+     * Returns an amount in major units, as written to files and JSON.
+     *
+     * @param amount the amount in cents
+     * @return the amount with two decimals, such as {@code 12.50}
+     */
+    public static BigDecimal toDecimal(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+
+    /**
+     * Formats an amount in major units with two decimals, such as {@code 12.50} or {@code -0.05}.
+     *
+     * @param amount the amount in cents
+     * @return the text of the amount
+     */
+    public static String format(long amount) {
+        return format(amount, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Appends an amount in major units with two decimals.
+     *
+     * @param amount the amount in cents
+     * @param out    where the text is appended
+     * @return the given builder
+     */
+    public static StringBuilder format(long amount, StringBuilder out) {
+        if (amount < 0) {
+            out.append('-');
+        }
+        long major = Math.abs(amount / MINOR_PER_MAJOR);
+        int cents = (int) Math.abs(amount % MINOR_PER_MAJOR);
+        return out.append(major).append('.').append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10));
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        return c - '0';
+    }
+}
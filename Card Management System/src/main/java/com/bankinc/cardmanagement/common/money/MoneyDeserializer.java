@@ -0,0 +1,37 @@
+package com.bankinc.cardmanagement.common.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads a JSON number or string in major units as cents, see {@link MinorUnits}. Amounts
+ * with digits beyond the cents are rejected rather than rounded.
+ */
+public class MoneyDeserializer extends StdScalarDeserializer<Long> {
+
+    public MoneyDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+        String text = parser.getText().strip();
+        try {
+            if (text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+                return Money.of(new BigDecimal(text));
+            }
+            return Money.parse(text);
+        } catch (IllegalArgumentException e) {
+            return (Long) context.handleWeirdStringValue(Long.class, text, "not an amount with at most %d decimals", Money.SCALE);
+        }
+    }
+}
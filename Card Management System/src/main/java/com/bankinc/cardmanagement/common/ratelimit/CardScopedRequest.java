@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+/**
+ * A request body naming the card it acts on, so the per-card limit of its endpoint applies.
+ */
+public interface CardScopedRequest {
+
+    String getCardId();
+}
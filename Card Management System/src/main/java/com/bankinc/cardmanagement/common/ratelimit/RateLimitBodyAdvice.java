@@ -0,0 +1,42 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Applies the card limit of an endpoint to the card named in the request body.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "bankinc.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimitRegistry registry;
+
+    public RateLimitBodyAdvice(RateLimitRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return methodParameter.hasMethodAnnotation(RateLimited.class)
+                && CardScopedRequest.class.isAssignableFrom(methodParameter.getParameterType());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RateLimiter<Long> limiter = registry.forMethod(parameter.getMethod()).card();
+        String cardId = ((CardScopedRequest) body).getCardId();
+        if (limiter != null && cardId != null) {
+            RateLimitInterceptor.acquireCard(limiter, cardId);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class RateLimitExceededException extends BusinessException {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final int limit;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, int limit, long retryAfterSeconds) {
+        super(message);
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
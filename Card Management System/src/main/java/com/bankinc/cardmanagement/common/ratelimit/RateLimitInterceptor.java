@@ -0,0 +1,66 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Applies the limits of the endpoint a request is mapped to: the client limit always, and
+ * the card limit when the card is in the path. Cards sent in the body are limited by
+ * {@link RateLimitBodyAdvice} once the body is read.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String CARD_VARIABLE = "cardId";
+
+    private final RateLimitRegistry registry;
+    private final String clientHeader;
+
+    public RateLimitInterceptor(RateLimitRegistry registry, RateLimitProperties properties) {
+        this.registry = registry;
+        this.clientHeader = properties.getClientHeader();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimitRegistry.EndpointLimits limits = registry.forMethod(handlerMethod.getMethod());
+        if (limits.client() != null) {
+            // The header is set by the caller, so once the limit tracks too many clients a
+            // new one is charged to its address instead.
+            String clientId = request.getHeader(clientHeader);
+            String remoteAddress = request.getRemoteAddr();
+            limits.client().acquire(clientId != null ? clientId : remoteAddress, remoteAddress);
+        }
+        if (limits.card() != null) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            String cardId = variables != null ? variables.get(CARD_VARIABLE) : null;
+            if (cardId != null) {
+                acquireCard(limits.card(), cardId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies a card limit, unless the value is not a card number and the request fails anyway.
+     */
+    static void acquireCard(RateLimiter<Long> limiter, String cardId) {
+        long cardNumber;
+        try {
+            cardNumber = CardNumbers.parse(cardId);
+        } catch (CardNotFoundException e) {
+            return;
+        }
+        limiter.acquire(cardNumber);
+    }
+}
@@ -0,0 +1,68 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether requests to the endpoints marked with {@link RateLimited} are limited.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Header identifying the client. Requests without it are limited by remote address.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Maximum number of clients or cards tracked by each limit. Past it the buckets that
+     * refilled are dropped; if none did, a new client is limited by remote address and a
+     * new card is rejected.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * Interval between evictions of the buckets that refilled, which are the same as no bucket.
+     */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    /**
+     * Limits by endpoint name, as given to {@link RateLimited}.
+     */
+    private Map<String, Endpoint> endpoints = new HashMap<>();
+
+    @Data
+    public static class Endpoint {
+
+        /**
+         * Limit applied to each client, or none.
+         */
+        private Limit client;
+
+        /**
+         * Limit applied to each card, or none.
+         */
+        private Limit card;
+    }
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Requests allowed in a burst.
+         */
+        private int capacity;
+
+        /**
+         * Requests allowed per second once the burst is spent.
+         */
+        private double refillPerSecond;
+    }
+}
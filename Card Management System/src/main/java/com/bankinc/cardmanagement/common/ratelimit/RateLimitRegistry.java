@@ -0,0 +1,91 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The limits of every configured endpoint, looked up by the controller method serving it.
+ * Limits are held in memory and apply to the requests served by this node.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "bankinc.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitRegistry {
+
+    private static final EndpointLimits UNLIMITED = new EndpointLimits(null, null);
+
+    private final Map<String, EndpointLimits> endpoints = new HashMap<>();
+    private final Map<Method, EndpointLimits> methods = new ConcurrentHashMap<>();
+
+    public RateLimitRegistry(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        properties.getEndpoints().forEach((name, endpoint) -> endpoints.put(name, new EndpointLimits(
+                limiter(name, "client", endpoint.getClient(), properties, meterRegistry),
+                limiter(name, "card", endpoint.getCard(), properties, meterRegistry))));
+    }
+
+    /**
+     * Returns the limits of the endpoint a controller method serves.
+     *
+     * @param method the controller method
+     * @return the limits, without any if the method is not marked or its endpoint not configured
+     */
+    public EndpointLimits forMethod(Method method) {
+        EndpointLimits limits = methods.get(method);
+        if (limits == null) {
+            RateLimited rateLimited = AnnotatedElementUtils.findMergedAnnotation(method, RateLimited.class);
+            limits = rateLimited != null ? endpoints.getOrDefault(rateLimited.value(), UNLIMITED) : UNLIMITED;
+            methods.put(method, limits);
+        }
+        return limits;
+    }
+
+    /**
+     * Drops the buckets that refilled, which would let a new client or card start from the same state.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.rate-limit.eviction-interval:1m}').toMillis()}")
+    public void evictFullBuckets() {
+        int evicted = 0;
+        for (EndpointLimits limits : endpoints.values()) {
+            evicted += limits.client() != null ? limits.client().evictFull() : 0;
+            evicted += limits.card() != null ? limits.card().evictFull() : 0;
+        }
+        if (evicted > 0) {
+            log.debug("{} refilled rate limit buckets evicted", evicted);
+        }
+    }
+
+    private static <K> RateLimiter<K> limiter(String endpoint, String key, RateLimitProperties.Limit limit,
+                                              RateLimitProperties properties, MeterRegistry meterRegistry) {
+        if (limit == null) {
+            return null;
+        }
+        RateLimiter<K> limiter = new RateLimiter<>(endpoint + " by " + key, limit, properties.getMaxBuckets(),
+                Counter.builder("bankinc.rate.limit.rejected")
+                        .description("Requests rejected by a rate limit")
+                        .tag("endpoint", endpoint)
+                        .tag("key", key)
+                        .register(meterRegistry));
+        meterRegistry.gauge("bankinc.rate.limit.buckets", Tags.of("endpoint", endpoint, "key", key), limiter, RateLimiter::size);
+        return limiter;
+    }
+
+    /**
+     * The limits of one endpoint.
+     *
+     * @param client the limit by client, or null
+     * @param card   the limit by card, or null
+     */
+    public record EndpointLimits(RateLimiter<String> client, RateLimiter<Long> card) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "bankinc.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+    private final RateLimitRegistry registry;
+    private final RateLimitProperties properties;
+
+    public RateLimitWebConfig(RateLimitRegistry registry, RateLimitProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new RateLimitInterceptor(registry, properties));
+    }
+}
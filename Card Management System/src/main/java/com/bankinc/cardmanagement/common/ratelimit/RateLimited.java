@@ -0,0 +1,22 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Subjects a controller method to the limits configured for an endpoint under
+ * {@code bankinc.rate-limit.endpoints}. Endpoints without configured limits are not limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+
+    /**
+     * Name of the endpoint in the configuration. Methods sharing a name share their limits.
+     */
+    String value();
+}
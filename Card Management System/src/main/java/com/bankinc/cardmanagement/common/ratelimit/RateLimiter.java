@@ -0,0 +1,138 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One limit of an endpoint, with a {@link TokenBucket} for each client or card seen
+ * recently. The buckets live in a map bounded by {@code maxBuckets}: a key missing from a
+ * full map drops the buckets that refilled, which are the same as no bucket. Buckets still
+ * draining are never dropped, so flooding the map with new keys cannot reset a throttled
+ * one; a new key that finds no room is charged to its fallback key, or rejected.
+ *
+ * @param <K> the type of the key the limit applies to
+ */
+public class RateLimiter<K> {
+
+    private final String description;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxBuckets;
+    private final Counter rejectedCounter;
+    private final Map<K, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long evictionPauseNanos;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private volatile long nextEvictionNanos;
+
+    public RateLimiter(String description, RateLimitProperties.Limit limit, int maxBuckets, Counter rejectedCounter) {
+        if (limit.getCapacity() < 1 || !(limit.getRefillPerSecond() > 0)) {
+            throw new IllegalStateException("Rate limit of " + description + " needs a positive capacity and refill");
+        }
+        this.description = description;
+        this.capacity = limit.getCapacity();
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond()));
+        this.burstNanos = intervalNanos * capacity;
+        this.maxBuckets = maxBuckets;
+        this.rejectedCounter = rejectedCounter;
+        // A bucket refills no sooner than one interval after its last token, so scanning
+        // more often for refilled ones finds nothing new.
+        this.evictionPauseNanos = Math.min(intervalNanos, TimeUnit.SECONDS.toNanos(1));
+        this.nextEvictionNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param key the client or card the request comes for
+     * @throws RateLimitExceededException if the bucket of the key is empty, or the key is new
+     *                                    and every tracked bucket is still draining
+     */
+    public void acquire(K key) {
+        acquire(key, null);
+    }
+
+    /**
+     * Takes a token from the bucket of a key, or of the fallback key if the key is new and
+     * no room is left for it.
+     *
+     * @param key         the client or card the request comes for
+     * @param fallbackKey the key charged when {@code key} cannot be tracked, or null to reject it
+     * @throws RateLimitExceededException if the bucket charged is empty, or neither key can be tracked
+     */
+    public void acquire(K key, K fallbackKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = bucket(key, now);
+        if (bucket == null && fallbackKey != null) {
+            bucket = bucket(fallbackKey, now);
+        }
+        if (bucket == null) {
+            rejectedCounter.increment();
+            throw new RateLimitExceededException("Rate limit of " + description + " tracks too many keys", capacity, 1);
+        }
+        long left = bucket.tryTake(now, intervalNanos, burstNanos);
+        if (left < 0) {
+            rejectedCounter.increment();
+            long retryAfterSeconds = Math.max(1, (-left + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new RateLimitExceededException("Rate limit of " + description + " exceeded", capacity, retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Drops the buckets that refilled. A request holding one while it is dropped may get
+     * one token more than the limit.
+     *
+     * @return the number of buckets dropped
+     */
+    public int evictFull() {
+        return evictFull(System.nanoTime());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private int evictFull(long now) {
+        int size = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return size - buckets.size();
+    }
+
+    /**
+     * Returns the bucket of a key, creating it if there is room.
+     *
+     * @return the bucket, or null if the key is new and the map stays full
+     */
+    private TokenBucket bucket(K key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets && !makeRoom(now)) {
+                return null;
+            }
+            bucket = buckets.computeIfAbsent(key, ignored -> new TokenBucket(now));
+        }
+        return bucket;
+    }
+
+    /**
+     * Drops the buckets that refilled, at most once per refill interval so a flood of new
+     * keys does not scan the map on every request.
+     *
+     * @return true if the map has room for another bucket
+     */
+    private boolean makeRoom(long now) {
+        if (now - nextEvictionNanos >= 0 && evicting.compareAndSet(false, true)) {
+            try {
+                nextEvictionNanos = now + evictionPauseNanos;
+                evictFull(now);
+            } finally {
+                evicting.set(false);
+            }
+        }
+        return buckets.size() < maxBuckets;
+    }
+}
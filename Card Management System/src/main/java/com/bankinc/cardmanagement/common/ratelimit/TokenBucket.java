@@ -0,0 +1,49 @@
+package com.bankinc.cardmanagement.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as the time it will be full again, so taking a token is a single
+ * compare-and-set without locks. A bucket holding {@code capacity} tokens refilled one per
+ * {@code interval} has {@code capacity - (fullAt - now) / interval} tokens at any time.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is left.
+     *
+     * @param now      the current {@link System#nanoTime()}
+     * @param interval nanoseconds to refill one token
+     * @param burst    nanoseconds to refill the whole bucket
+     * @return the tokens left after taking one, or minus the nanoseconds until one is available
+     */
+    long tryTake(long now, long interval, long burst) {
+        while (true) {
+            long full = fullAt.get();
+            long next = (full - now > 0 ? full : now) + interval;
+            long debt = next - now;
+            if (debt > burst) {
+                return burst - debt;
+            }
+            if (fullAt.compareAndSet(full, next)) {
+                return (burst - debt) / interval;
+            }
+        }
+    }
+
+    /**
+     * Tells whether the bucket is full, and so makes no difference from a new one.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return true if every token is back
+     */
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
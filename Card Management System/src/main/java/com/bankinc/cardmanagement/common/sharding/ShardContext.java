@@ -0,0 +1,39 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+/**
+ * Holds the shard the current thread is working against. The routing datasource
+ * reads it when the first statement of a transaction needs a physical connection.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Selects the shard used by the next connection obtained on this thread.
+     *
+     * @param shard the shard index
+     */
+    public static void set(int shard) {
+        CURRENT_SHARD.set(shard);
+    }
+
+    /**
+     * Returns the shard selected on this thread.
+     *
+     * @return the shard index, or 0 when none has been selected
+     */
+    public static int current() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Removes the shard selection of this thread.
+     */
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
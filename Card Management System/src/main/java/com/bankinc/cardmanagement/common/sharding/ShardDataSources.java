@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * The physical datasource of every shard, indexed by shard.
+ */
+public class ShardDataSources {
+
+    private final List<DataSource> dataSources;
+
+    public ShardDataSources(List<DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class ShardMigrationReport {
+
+    private long scannedCards;
+    private long movedCards;
+    private long movedTransactions;
+
+    void cardScanned() {
+        scannedCards++;
+    }
+
+    void cardMoved() {
+        movedCards++;
+    }
+
+    void transactionMoved() {
+        movedTransactions++;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.sharding", name = {"enabled", "migrate-on-startup"}, havingValue = "true")
+public class ShardMigrationRunner implements ApplicationRunner {
+
+    private final ShardMigrationService shardMigrationService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        shardMigrationService.migrate();
+    }
+}
@@ -0,0 +1,163 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resharding tool. Scans every shard and moves each card stored on a shard other
+ * than the one {@link ShardRouter} assigns it to, together with its transactions and summary.
+ * A card is first copied to its target shard and only then deleted from the source,
+ * so an interrupted run can simply be started again.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+@ConditionalOnProperty(prefix = "bankinc.sharding", name = "enabled", havingValue = "true")
+public class ShardMigrationService {
+
+    private final ShardDataSources shardDataSources;
+    private final ShardRouter shardRouter;
+    private final TransactionIdGenerator idGenerator;
+    private final int pageSize;
+
+    public ShardMigrationService(ShardDataSources shardDataSources, ShardRouter shardRouter,
+                                 TransactionIdGenerator idGenerator, ShardingProperties properties) {
+        this.shardDataSources = shardDataSources;
+        this.shardRouter = shardRouter;
+        this.idGenerator = idGenerator;
+        this.pageSize = properties.getMigrationPageSize();
+    }
+
+    /**
+     * Moves every misplaced card to the shard it currently routes to.
+     *
+     * @return a summary of the migration
+     */
+    public ShardMigrationReport migrate() {
+        ShardMigrationReport report = new ShardMigrationReport();
+        for (int source = 0; source < shardDataSources.size(); source++) {
+            migrateShard(source, report);
+        }
+        log.info("Shard migration finished: {}", report);
+        return report;
+    }
+
+    private void migrateShard(int source, ShardMigrationReport report) {
+        JdbcTemplate sourceJdbc = new JdbcTemplate(shardDataSources.get(source));
+        long lastCardId = 0;
+        while (true) {
+            List<Map<String, Object>> page = sourceJdbc.queryForList(
+                    "SELECT card_id, card_number FROM cards WHERE card_id > ? ORDER BY card_id LIMIT ?",
+                    lastCardId, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            for (Map<String, Object> row : page) {
+                long cardId = ((Number) row.get("card_id")).longValue();
+                long cardNumber = ((Number) row.get("card_number")).longValue();
+                lastCardId = cardId;
+                report.cardScanned();
+
+                int target = shardRouter.shardForCard(cardNumber);
+                if (target != source) {
+                    moveCard(source, target, cardId, cardNumber, report);
+                }
+            }
+        }
+    }
+
+    private void moveCard(int source, int target, long cardId, long cardNumber, ShardMigrationReport report) {
+        JdbcTemplate sourceJdbc = new JdbcTemplate(shardDataSources.get(source));
+        JdbcTemplate targetJdbc = new JdbcTemplate(shardDataSources.get(target));
+
+        Map<String, Object> card = sourceJdbc.queryForMap(
+                "SELECT card_number, holder_name, expiration_date, is_active, is_blocked, balance FROM cards WHERE card_id = ?",
+                cardId);
+        List<Map<String, Object>> transactions = sourceJdbc.queryForList(
+                "SELECT transaction_id, type, amount, transaction_date, is_annulled, annulled_at FROM transactions WHERE card_id = ? ORDER BY transaction_id",
+                cardId);
+        List<Map<String, Object>> summaries = sourceJdbc.queryForList(
+                "SELECT spent_day, spent_today, spent_month, spent_this_month, transaction_count, annulled_count, last_purchase_id, "
+                        + "last_transaction_type, last_transaction_amount, last_transaction_at FROM card_summaries WHERE card_number = ?",
+                cardNumber);
+
+        transactionTemplate(target).executeWithoutResult(status -> {
+            List<Long> existing = targetJdbc.queryForList(
+                    "SELECT card_id FROM cards WHERE card_number = ?", Long.class, cardNumber);
+            if (!existing.isEmpty()) {
+                // Copied by an earlier, interrupted run; only the source rows are left to delete.
+                return;
+            }
+            long targetCardId = insert(targetJdbc,
+                    "INSERT INTO cards (card_number, holder_name, expiration_date, is_active, is_blocked, balance) VALUES (?, ?, ?, ?, ?, ?)",
+                    card.get("card_number"), card.get("holder_name"), card.get("expiration_date"),
+                    card.get("is_active"), card.get("is_blocked"), card.get("balance"));
+            Map<Long, Long> movedIds = new HashMap<>();
+            for (Map<String, Object> transaction : transactions) {
+                // Transaction IDs carry their shard, so a moved transaction gets a new one.
+                long localId = idGenerator.next(target);
+                targetJdbc.update(
+                        "INSERT INTO transactions (transaction_id, card_id, type, amount, transaction_date, is_annulled, annulled_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        localId, targetCardId, transaction.get("type"), transaction.get("amount"), transaction.get("transaction_date"),
+                        transaction.get("is_annulled"), transaction.get("annulled_at"));
+                long sourceId = ((Number) transaction.get("transaction_id")).longValue();
+                movedIds.put(sourceId, localId);
+                long oldId = shardRouter.externalTransactionId(sourceId, source);
+                long newId = shardRouter.externalTransactionId(localId, target);
+                log.info("Transaction {} of card {} moved to shard {} as {}", oldId, CardNumbers.format(cardNumber), target, newId);
+                report.transactionMoved();
+            }
+            for (Map<String, Object> summary : summaries) {
+                Number lastPurchaseId = (Number) summary.get("last_purchase_id");
+                targetJdbc.update("INSERT INTO card_summaries (card_number, balance, spent_day, spent_today, spent_month, "
+                                + "spent_this_month, transaction_count, annulled_count, last_purchase_id, last_transaction_type, "
+                                + "last_transaction_amount, last_transaction_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(6))",
+                        cardNumber, card.get("balance"), summary.get("spent_day"), summary.get("spent_today"),
+                        summary.get("spent_month"), summary.get("spent_this_month"), summary.get("transaction_count"),
+                        summary.get("annulled_count"), lastPurchaseId != null ? movedIds.get(lastPurchaseId.longValue()) : null,
+                        summary.get("last_transaction_type"), summary.get("last_transaction_amount"),
+                        summary.get("last_transaction_at"));
+            }
+        });
+
+        transactionTemplate(source).executeWithoutResult(status -> {
+            sourceJdbc.update("DELETE FROM card_summaries WHERE card_number = ?", cardNumber);
+            sourceJdbc.update("DELETE FROM transactions WHERE card_id = ?", cardId);
+            sourceJdbc.update("DELETE FROM cards WHERE card_id = ?", cardId);
+        });
+
+        report.cardMoved();
+        log.info("Card {} moved from shard {} to shard {}", CardNumbers.format(cardNumber), source, target);
+    }
+
+    private TransactionTemplate transactionTemplate(int shard) {
+        return new TransactionTemplate(new DataSourceTransactionManager(shardDataSources.get(shard)));
+    }
+
+    private static long insert(JdbcTemplate jdbcTemplate, String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
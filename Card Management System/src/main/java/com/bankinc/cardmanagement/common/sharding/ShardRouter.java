@@ -0,0 +1,117 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ShardRouter {
+
+    static final int SHARD_BITS = 8;
+    static final int MAX_SHARDS = TransactionIds.MAX_SHARDS;
+
+    private final int shardCount;
+    private final int shardBits;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardCount = properties.getShardCount();
+        if (shardCount > MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported");
+        }
+        this.shardBits = properties.isEnabled() ? SHARD_BITS : 0;
+    }
+
+    /**
+     * Returns the number of shards cards are routed to.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Computes the shard that owns the given card. The product ID prefix and the
+     * account digits are hashed separately and mixed, so cards of one product are
+     * spread over every shard instead of piling up on a single one.
+     *
+     * @param cardNumber the card number
+     * @return the shard index
+     */
+    public int shardForCard(long cardNumber) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        long productHash = mix(CardNumbers.productId(cardNumber));
+        long accountHash = mix(CardNumbers.accountNumber(cardNumber));
+        return (int) Math.floorMod(mix(productHash * 31 + accountHash), (long) shardCount);
+    }
+
+    /**
+     * Selects the shard of the given card for the current thread.
+     *
+     * @param cardNumber the card number
+     * @return the selected shard index
+     */
+    public int routeByCard(long cardNumber) {
+        int shard = shardForCard(cardNumber);
+        ShardContext.set(shard);
+        return shard;
+    }
+
+    /**
+     * Selects the shard encoded in the given external transaction ID for the current thread.
+     *
+     * @param transactionId the external transaction ID
+     * @return the selected shard index
+     */
+    public int routeByTransaction(long transactionId) {
+        int shard = shardOfTransaction(transactionId);
+        ShardContext.set(shard);
+        return shard;
+    }
+
+    /**
+     * Builds the external transaction ID from the row ID inside a shard. Generated row IDs
+     * already carry their shard and are used as they are; IDs assigned by the database
+     * before are combined with the shard index.
+     *
+     * @param localId the ID of the row in its shard
+     * @param shard   the shard holding the row
+     * @return the external transaction ID
+     */
+    public long externalTransactionId(long localId, int shard) {
+        return TransactionIds.isGenerated(localId) ? localId : (localId << shardBits) | shard;
+    }
+
+    /**
+     * Extracts the shard index from an external transaction ID.
+     *
+     * @param transactionId the external transaction ID
+     * @return the shard index
+     */
+    public int shardOfTransaction(long transactionId) {
+        return TransactionIds.isGenerated(transactionId)
+                ? TransactionIds.shard(transactionId)
+                : (int) (transactionId & ((1L << shardBits) - 1));
+    }
+
+    /**
+     * Extracts the row ID inside its shard from an external transaction ID.
+     *
+     * @param transactionId the external transaction ID
+     * @return the ID of the row in its shard
+     */
+    public long localTransactionId(long transactionId) {
+        return TransactionIds.isGenerated(transactionId) ? transactionId : transactionId >>> shardBits;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
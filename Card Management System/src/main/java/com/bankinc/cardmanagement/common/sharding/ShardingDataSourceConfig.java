@@ -0,0 +1,87 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnJpaStorage
+@ConditionalOnProperty(prefix = "bankinc.sharding", name = "enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    /**
+     * Creates one pooled datasource per configured shard.
+     *
+     * @param properties the sharding configuration
+     * @return the shard datasources, indexed by shard
+     */
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("bankinc.sharding.shards must list at least one datasource");
+        }
+        List<DataSource> dataSources = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            dataSources.add(DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build());
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    /**
+     * Exposes the shards as the application datasource. The lazy proxy defers the
+     * physical connection until the first statement, so services can select the
+     * shard after the surrounding transaction has already begun.
+     *
+     * @param shardDataSources the shard datasources
+     * @return the routing datasource used by JPA
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            targets.put(shard, shardDataSources.get(shard));
+        }
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(shardDataSources.get(0));
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Migrates the schema of every shard. Flyway is otherwise only run against the
+     * application datasource, which without a selected shard is the first one.
+     *
+     * @param shardDataSources the shard datasources
+     * @return the migration strategy used by the Flyway auto-configuration
+     */
+    @Bean
+    public FlywayMigrationStrategy shardFlywayMigrationStrategy(ShardDataSources shardDataSources) {
+        return flyway -> {
+            for (int shard = 0; shard < shardDataSources.size(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardDataSources.get(shard))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
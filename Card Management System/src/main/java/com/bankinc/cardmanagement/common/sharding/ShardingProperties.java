@@ -0,0 +1,51 @@
+package com.bankinc.cardmanagement.common.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.sharding")
+public class ShardingProperties {
+
+    /**
+     * Whether cards and transactions are spread across the configured shards.
+     * When disabled the application uses the single {@code spring.datasource}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Datasources of every shard, in routing order. The position of a shard in
+     * this list is its index and must not change once data has been written.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Number of cards read per page while the migration tool scans a shard.
+     */
+    private int migrationPageSize = 500;
+
+    /**
+     * Runs the migration tool on startup, moving every card (and its transactions)
+     * that is stored on a shard other than the one it routes to.
+     */
+    private boolean migrateOnStartup = false;
+
+    /**
+     * Returns the number of shards used for routing.
+     *
+     * @return the configured shard count, or 1 when sharding is disabled
+     */
+    public int getShardCount() {
+        return enabled && !shards.isEmpty() ? shards.size() : 1;
+    }
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers a bean only with the JPA storage engine, for features that read or write the
+ * database directly. With the embedded engine there is no database, so they are left out.
+ * Combines with a {@link ConditionalOnProperty} of the feature itself.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(prefix = "bankinc.storage", name = "engine", havingValue = "jpa", matchIfMissing = true)
+public @interface ConditionalOnJpaStorage {
+}
@@ -0,0 +1,27 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.storage", name = "engine", havingValue = "embedded")
+public class EmbeddedCardStore implements CardStore {
+
+    private final EmbeddedStorageEngine engine;
+
+    @Override
+    public Optional<Card> findByCardNumber(long cardNumber) {
+        return engine.findCard(cardNumber);
+    }
+
+    @Override
+    public Card save(Card card) {
+        return engine.saveCard(card);
+    }
+}
@@ -0,0 +1,410 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Storage engine keeping cards and transactions in an append-only log on local disk, for
+ * deployments without a database server.
+ *
+ * <p>Each commit appends one batch: its payload length, a CRC32C of the payload, then the
+ * latest version of every card and transaction it wrote. Two off-heap hash indexes map card
+ * numbers and transaction IDs to the offset of their latest version, and are rebuilt by
+ * replaying the log on startup. A batch cut short by a crash fails its checksum and is
+ * truncated, so a commit is either fully in the log or not at all. Superseded versions
+ * stay in the log; it is never compacted.
+ *
+ * <p>Writes inside a Spring transaction are buffered and appended before it commits, and
+ * read back by the same transaction; outside one they are appended at once. Commits are
+ * serialized, and become visible once written and, with {@code sync-on-commit}, forced to
+ * disk; reads run in parallel with each other and wait only while a commit updates the
+ * indexes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bankinc.storage", name = "engine", havingValue = "embedded")
+public class EmbeddedStorageEngine implements AutoCloseable {
+
+    static final String LOG_FILE = "storage.log";
+
+    private static final int BATCH_HEADER_BYTES = 8;
+    private static final int MAX_ENTRY_BYTES = 512;
+    private static final byte CARD = 1;
+    private static final byte TRANSACTION = 2;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final FileChannel channel;
+    private final boolean syncOnCommit;
+    private final OffHeapLongIndex cards;
+    private final OffHeapLongIndex transactions;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object appendLock = new Object();
+    private final ThreadLocal<ByteBuffer> readBuffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(MAX_ENTRY_BYTES));
+    private long logSize;
+    private long lastCardId;
+
+    public EmbeddedStorageEngine(StorageProperties properties) {
+        this.syncOnCommit = properties.isSyncOnCommit();
+        this.cards = new OffHeapLongIndex(properties.getIndexCapacity());
+        this.transactions = new OffHeapLongIndex(properties.getIndexCapacity());
+        Path directory = Paths.get(properties.getDirectory());
+        try {
+            Files.createDirectories(directory);
+            this.channel = FileChannel.open(directory.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replay();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the embedded storage in " + directory, e);
+        }
+        log.info("Embedded storage opened with {} cards and {} transactions, {} bytes of log",
+                cards.size(), transactions.size(), logSize);
+    }
+
+    public Optional<Card> findCard(long cardNumber) {
+        Pending pending = pending();
+        if (pending != null && pending.cards.containsKey(cardNumber)) {
+            return Optional.of(pending.cards.get(cardNumber));
+        }
+        lock.readLock().lock();
+        try {
+            long offset = cards.get(cardNumber);
+            return offset < 0 ? Optional.empty() : Optional.of(readCard(read(offset)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Transaction> findTransaction(long transactionId) {
+        Pending pending = pending();
+        if (pending != null && pending.transactions.containsKey(transactionId)) {
+            return Optional.of(pending.transactions.get(transactionId));
+        }
+        lock.readLock().lock();
+        try {
+            long offset = transactions.get(transactionId);
+            if (offset < 0) {
+                return Optional.empty();
+            }
+            ByteBuffer entry = read(offset);
+            Transaction transaction = readTransaction(entry);
+            transaction.setCard(findCard(entry.getLong(1 + 8)).orElseThrow(
+                    () -> new IllegalStateException("Card of transaction " + transactionId + " missing from the log")));
+            return Optional.of(transaction);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Card saveCard(Card card) {
+        boolean inserted = card.getCardId() == null;
+        Pending pending = pending();
+        if (inserted) {
+            lock.writeLock().lock();
+            try {
+                if (cards.get(card.getCardNumber()) >= 0
+                        || pending != null && pending.cards.containsKey(card.getCardNumber())) {
+                    throw new DataIntegrityViolationException("Duplicate card number " + card.getCardNumber());
+                }
+                card.setCardId(++lastCardId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (pending != null) {
+            pending.cards.put(card.getCardNumber(), card);
+            if (inserted) {
+                pending.insertedCards.add(card.getCardNumber());
+            }
+        } else {
+            append(List.of(card), List.of(), inserted ? Set.of(card.getCardNumber()) : Set.of());
+        }
+        return card;
+    }
+
+    public Transaction saveTransaction(Transaction transaction) {
+        Pending pending = pending();
+        if (pending != null) {
+            pending.transactions.put(transaction.getTransactionId(), transaction);
+        } else {
+            append(List.of(), List.of(transaction), Set.of());
+        }
+        return transaction;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Appends one batch to the log.
+     *
+     * @param insertedCards the numbers of the cards the batch creates, checked again for
+     *                      duplicates once commits are serialized, since two commits may both
+     *                      have passed the check in {@link #saveCard(Card)}
+     */
+    private void append(Iterable<Card> batchCards, Iterable<Transaction> batchTransactions, Set<Long> insertedCards) {
+        ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+        batch.position(BATCH_HEADER_BYTES);
+        List<Long> cardNumbers = new ArrayList<>();
+        List<Long> cardOffsets = new ArrayList<>();
+        List<Long> transactionIds = new ArrayList<>();
+        List<Long> transactionOffsets = new ArrayList<>();
+        for (Card card : batchCards) {
+            batch = ensure(batch);
+            cardNumbers.add(card.getCardNumber());
+            cardOffsets.add((long) batch.position());
+            writeCard(batch, card);
+        }
+        for (Transaction transaction : batchTransactions) {
+            batch = ensure(batch);
+            transactionIds.add(transaction.getTransactionId());
+            transactionOffsets.add((long) batch.position());
+            writeTransaction(batch, transaction);
+        }
+        int payload = batch.position() - BATCH_HEADER_BYTES;
+        if (payload == 0) {
+            return;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(batch.array(), BATCH_HEADER_BYTES, payload);
+        batch.putInt(0, payload).putInt(4, (int) crc.getValue());
+        batch.flip();
+
+        synchronized (appendLock) {
+            // The indexes only change under the append lock, so no commit can slip in after this check.
+            for (long cardNumber : insertedCards) {
+                if (cards.get(cardNumber) >= 0) {
+                    throw new DataIntegrityViolationException("Duplicate card number " + cardNumber);
+                }
+            }
+            long start = logSize;
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch, start + batch.position());
+                }
+                if (syncOnCommit) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the embedded storage log", e);
+            }
+            lock.writeLock().lock();
+            try {
+                logSize = start + batch.limit();
+                for (int i = 0; i < cardNumbers.size(); i++) {
+                    cards.put(cardNumbers.get(i), start + cardOffsets.get(i));
+                }
+                for (int i = 0; i < transactionIds.size(); i++) {
+                    transactions.put(transactionIds.get(i), start + transactionOffsets.get(i));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void replay() throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(BATCH_HEADER_BYTES);
+        long position = 0;
+        while (position + BATCH_HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            int payload = header.getInt(0);
+            if (payload <= 0 || position + BATCH_HEADER_BYTES + payload > size) {
+                break;
+            }
+            ByteBuffer batch = ByteBuffer.allocate(payload);
+            while (batch.hasRemaining() && channel.read(batch, position + BATCH_HEADER_BYTES + batch.position()) > 0) {
+                // Reads until the payload is complete.
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(batch.array(), 0, payload);
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            batch.flip();
+            while (batch.hasRemaining()) {
+                long offset = position + BATCH_HEADER_BYTES + batch.position();
+                if (batch.get(batch.position()) == CARD) {
+                    Card card = readCard(batch);
+                    cards.put(card.getCardNumber(), offset);
+                    lastCardId = Math.max(lastCardId, card.getCardId());
+                } else {
+                    transactions.put(readTransaction(batch).getTransactionId(), offset);
+                }
+            }
+            position += BATCH_HEADER_BYTES + payload;
+        }
+        if (position < size) {
+            log.warn("Embedded storage log truncated from {} to {} bytes, dropping an incomplete commit", size, position);
+            channel.truncate(position);
+        }
+        logSize = position;
+    }
+
+    private ByteBuffer read(long offset) {
+        ByteBuffer buffer = readBuffers.get();
+        buffer.clear();
+        try {
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                // Reads up to the largest entry; the log may end earlier.
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the embedded storage log", e);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer ensure(ByteBuffer batch) {
+        if (batch.remaining() >= MAX_ENTRY_BYTES) {
+            return batch;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(batch.capacity() * 2);
+        batch.flip();
+        return larger.put(batch);
+    }
+
+    private static void writeCard(ByteBuffer buffer, Card card) {
+        buffer.put(CARD)
+                .putLong(card.getCardId())
+                .putLong(card.getCardNumber())
+                .putLong(card.getExpirationDate() != null ? card.getExpirationDate().toEpochDay() : NULL_TIME)
+                .put((byte) ((card.isActive() ? 1 : 0) | (card.isBlocked() ? 2 : 0)))
+                .putLong(card.getBalance());
+        if (card.getHolderName() == null) {
+            buffer.putShort((short) -1);
+        } else {
+            byte[] name = card.getHolderName().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length).put(name);
+        }
+    }
+
+    private static Card readCard(ByteBuffer buffer) {
+        buffer.get();
+        Card card = new Card();
+        card.setCardId(buffer.getLong());
+        card.setCardNumber(buffer.getLong());
+        long expiration = buffer.getLong();
+        card.setExpirationDate(expiration != NULL_TIME ? LocalDate.ofEpochDay(expiration) : null);
+        byte flags = buffer.get();
+        card.setActive((flags & 1) != 0);
+        card.setBlocked((flags & 2) != 0);
+        card.setBalance(buffer.getLong());
+        short nameLength = buffer.getShort();
+        if (nameLength >= 0) {
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            card.setHolderName(new String(name, StandardCharsets.UTF_8));
+        }
+        return card;
+    }
+
+    private static void writeTransaction(ByteBuffer buffer, Transaction transaction) {
+        buffer.put(TRANSACTION)
+                .putLong(transaction.getTransactionId())
+                .putLong(transaction.getCard().getCardNumber())
+                .put((byte) transaction.getType().ordinal())
+                .putLong(transaction.getAmount())
+                .put((byte) (transaction.isAnnulled() ? 1 : 0));
+        writeTime(buffer, transaction.getTransactionDate());
+        writeTime(buffer, transaction.getAnnulledAt());
+    }
+
+    /**
+     * Reads a transaction without its card, which is stored by card number after the ID.
+     */
+    private static Transaction readTransaction(ByteBuffer buffer) {
+        buffer.get();
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(buffer.getLong());
+        buffer.getLong();
+        transaction.setType(TYPES[buffer.get()]);
+        transaction.setAmount(buffer.getLong());
+        transaction.setAnnulled(buffer.get() != 0);
+        transaction.setTransactionDate(readTime(buffer));
+        transaction.setAnnulledAt(readTime(buffer));
+        transaction.setPersisted(true);
+        return transaction;
+    }
+
+    private static void writeTime(ByteBuffer buffer, LocalDateTime time) {
+        if (time == null) {
+            buffer.putLong(NULL_TIME).putInt(0);
+        } else {
+            buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds != NULL_TIME ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * The writes of the current Spring transaction, appended as one batch before it commits.
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Map<Long, Card> cards = new HashMap<>();
+        private final Map<Long, Transaction> transactions = new HashMap<>();
+        private final Set<Long> insertedCards = new HashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            append(cards.values(), transactions.values(), insertedCards);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(EmbeddedStorageEngine.this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leaves the datasource, JPA and Flyway out of the context when the embedded storage engine
+ * is selected, so the application starts without a database server or its configuration.
+ */
+public class EmbeddedStorageEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+    private static final List<String> DATABASE_AUTO_CONFIGURATIONS = List.of(
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        StorageProperties.Engine engine = environment.getProperty("bankinc.storage.engine", StorageProperties.Engine.class,
+                StorageProperties.Engine.JPA);
+        if (engine != StorageProperties.Engine.EMBEDDED) {
+            return;
+        }
+        // Kept alongside any exclusions configured by hand.
+        Set<String> excluded = new LinkedHashSet<>(StringUtils.commaDelimitedListToSet(environment.getProperty(EXCLUDE_PROPERTY, "")));
+        excluded.addAll(DATABASE_AUTO_CONFIGURATIONS);
+        environment.getPropertySources().addFirst(new MapPropertySource("embeddedStorage",
+                Map.of(EXCLUDE_PROPERTY, String.join(",", excluded))));
+    }
+}
@@ -0,0 +1,91 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager of the embedded storage engine, which has no connection to begin or
+ * commit: a transaction only scopes the synchronizations through which
+ * {@link EmbeddedStorageEngine} buffers its writes and appends them before the commit.
+ * Inner transactions join the outer one, and marking either rollback-only discards both.
+ */
+@Component
+@ConditionalOnProperty(prefix = "bankinc.storage", name = "engine", havingValue = "embedded")
+public class EmbeddedTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new EmbeddedTransaction((RollbackFlag) TransactionSynchronizationManager.getResource(this));
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((EmbeddedTransaction) transaction).flag != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RollbackFlag flag = new RollbackFlag();
+        TransactionSynchronizationManager.bindResource(this, flag);
+        ((EmbeddedTransaction) transaction).flag = flag;
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((EmbeddedTransaction) transaction).flag = null;
+        return TransactionSynchronizationManager.unbindResource(this);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(this, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        // The writes were appended by the synchronizations before the commit.
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        // The synchronizations drop the buffered writes after the rollback.
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((EmbeddedTransaction) status.getTransaction()).flag.rollbackOnly = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResource(this);
+    }
+
+    private static final class RollbackFlag {
+        private volatile boolean rollbackOnly;
+    }
+
+    private static final class EmbeddedTransaction implements SmartTransactionObject {
+
+        private RollbackFlag flag;
+
+        private EmbeddedTransaction(RollbackFlag flag) {
+            this.flag = flag;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return flag != null && flag.rollbackOnly;
+        }
+
+        @Override
+        public void flush() {
+            // Writes are buffered until the commit.
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.storage", name = "engine", havingValue = "embedded")
+public class EmbeddedTransactionStore implements TransactionStore {
+
+    private final EmbeddedStorageEngine engine;
+
+    @Override
+    public Optional<Transaction> findById(long transactionId) {
+        return engine.findTransaction(transactionId);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        return engine.saveTransaction(transaction);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnJpaStorage
+public class JpaCardStore implements CardStore {
+
+    private final CardRepository cardRepository;
+
+    @Override
+    public Optional<Card> findByCardNumber(long cardNumber) {
+        return cardRepository.findByCardNumber(cardNumber);
+    }
+
+    @Override
+    public Card save(Card card) {
+        return cardRepository.save(card);
+    }
+}
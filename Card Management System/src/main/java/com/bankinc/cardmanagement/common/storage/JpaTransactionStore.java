@@ -0,0 +1,27 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnJpaStorage
+public class JpaTransactionStore implements TransactionStore {
+
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Optional<Transaction> findById(long transactionId) {
+        return transactionRepository.findById(transactionId);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        return transactionRepository.save(transaction);
+    }
+}
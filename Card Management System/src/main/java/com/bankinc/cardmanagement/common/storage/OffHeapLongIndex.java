@@ -0,0 +1,103 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing hash table from long keys to non-negative long values, held in a direct
+ * buffer outside the Java heap. Slots are 16 bytes: the key, then the value plus one, so a
+ * zero value marks a free slot. Keys are never removed. Not thread-safe.
+ */
+final class OffHeapLongIndex {
+
+    private static final int SLOT_BYTES = 16;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    OffHeapLongIndex(int capacity) {
+        allocate(Integer.highestOneBit(Math.max(16, capacity - 1) << 1));
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key the key
+     * @return the value, or -1 if the key is absent
+     */
+    long get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int offset = slot * SLOT_BYTES;
+            long stored = slots.getLong(offset + 8);
+            if (stored == 0) {
+                return -1;
+            }
+            if (slots.getLong(offset) == key) {
+                return stored - 1;
+            }
+        }
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key
+     * @param value the value, not negative
+     */
+    void put(long key, long value) {
+        if (size >= (mask + 1) / 4 * 3) {
+            grow();
+        }
+        if (insert(slots, mask, key, value + 1)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        ByteBuffer previous = slots;
+        int previousSlots = mask + 1;
+        allocate(previousSlots * 2);
+        for (int slot = 0; slot < previousSlots; slot++) {
+            long stored = previous.getLong(slot * SLOT_BYTES + 8);
+            if (stored != 0) {
+                insert(slots, mask, previous.getLong(slot * SLOT_BYTES), stored);
+            }
+        }
+    }
+
+    private void allocate(int slotCount) {
+        slots = ByteBuffer.allocateDirect(slotCount * SLOT_BYTES);
+        mask = slotCount - 1;
+    }
+
+    private int slot(long key) {
+        return slot(key, mask);
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Stores a key, returning whether it was new.
+     */
+    private static boolean insert(ByteBuffer slots, int mask, long key, long stored) {
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            int offset = slot * SLOT_BYTES;
+            if (slots.getLong(offset + 8) == 0) {
+                slots.putLong(offset, key);
+                slots.putLong(offset + 8, stored);
+                return true;
+            }
+            if (slots.getLong(offset) == key) {
+                slots.putLong(offset + 8, stored);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankinc.cardmanagement.common.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.storage")
+public class StorageProperties {
+
+    public enum Engine {
+        /**
+         * Spring Data JPA repositories over the configured database.
+         */
+        JPA,
+        /**
+         * Append-only log on local disk with off-heap indexes, see {@link EmbeddedStorageEngine}.
+         */
+        EMBEDDED
+    }
+
+    /**
+     * Engine storing the cards and transactions of the card and transaction services.
+     */
+    private Engine engine = Engine.JPA;
+
+    /**
+     * Directory of the embedded engine's log.
+     */
+    private String directory = "data/embedded";
+
+    /**
+     * Whether the embedded engine forces every commit to disk before it returns. Without it
+     * a crash of the machine may lose the last commits, but not corrupt the log.
+     */
+    private boolean syncOnCommit = true;
+
+    /**
+     * Initial slots of each embedded index. Indexes double once three quarters full.
+     */
+    private int indexCapacity = 1 << 20;
+}
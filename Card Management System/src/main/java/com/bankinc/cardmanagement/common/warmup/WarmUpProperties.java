@@ -0,0 +1,51 @@
+package com.bankinc.cardmanagement.common.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.warm-up")
+public class WarmUpProperties {
+
+    /**
+     * Whether the instance warms up before it reports ready.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Product ID of the synthetic cards. They are rolled back and never stored.
+     */
+    private String productId = "999999";
+
+    /**
+     * Number of connections opened at once on every shard to fill its pool.
+     */
+    private int primeConnections = 10;
+
+    /**
+     * Number of synthetic card lifecycles per round. Latency is compared round to round.
+     */
+    private int roundSize = 100;
+
+    /**
+     * Maximum number of rounds.
+     */
+    private int maxRounds = 100;
+
+    /**
+     * Relative difference between the mean latency of two consecutive rounds below which they count as stable.
+     */
+    private double tolerance = 0.1;
+
+    /**
+     * Number of consecutive stable rounds after which latency is considered converged.
+     */
+    private int stableRounds = 3;
+
+    /**
+     * Maximum time spent warming up. The instance reports ready afterwards even if latency has not converged.
+     */
+    private Duration maxDuration = Duration.ofSeconds(60);
+}
@@ -0,0 +1,16 @@
+package com.bankinc.cardmanagement.common.warmup;
+
+import java.time.Duration;
+
+/**
+ * Outcome of the startup warm-up.
+ *
+ * @param duration             how long the warm-up took
+ * @param iterations           the number of synthetic card lifecycles run
+ * @param firstRoundMeanMicros the mean latency of a lifecycle in the first round, in microseconds
+ * @param lastRoundMeanMicros  the mean latency of a lifecycle in the last round, in microseconds
+ * @param converged            whether latency stabilized before the limits were reached
+ */
+public record WarmUpReport(Duration duration, long iterations, double firstRoundMeanMicros, double lastRoundMeanMicros,
+                           boolean converged) {
+}
@@ -0,0 +1,230 @@
+package com.bankinc.cardmanagement.common.warmup;
+
+import com.bankinc.cardmanagement.card.application.service.CardService;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardActivationRequestDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.transaction.application.service.TransactionService;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.AnulationRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the instance up before it reports ready. Spring Boot only switches readiness to
+ * accepting traffic once every {@link ApplicationRunner} has returned, so until this one
+ * finishes the readiness probe keeps the instance out of the load balancer.
+ *
+ * <p>The warm-up fills the connection pool of every shard, if there is a database, then runs synthetic card
+ * lifecycles (issue, activate, recharge, purchase, look up, annul) through the real
+ * services, validation and JSON mapping, each in a transaction that is rolled back.
+ * Rounds are repeated until their mean latency stops changing.
+ */
+@Component
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "bankinc.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String APPLICATION_PACKAGE = "com.bankinc.cardmanagement";
+
+    private final CardService cardService;
+    private final TransactionService transactionService;
+    private final ShardRouter shardRouter;
+    private final ObjectProvider<DataSource> dataSource;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final WarmUpProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer iterationTimer;
+    private final AtomicLong warmUpMillis = new AtomicLong();
+
+    public WarmUpRunner(CardService cardService, TransactionService transactionService, ShardRouter shardRouter,
+                        ObjectProvider<DataSource> dataSource, ObjectMapper objectMapper, Validator validator,
+                        WarmUpProperties properties, PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.cardService = cardService;
+        this.transactionService = transactionService;
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.iterationTimer = Timer.builder("bankinc.warmup.iteration")
+                .description("Duration of one synthetic card lifecycle during warm-up")
+                .register(meterRegistry);
+        meterRegistry.gauge("bankinc.warmup.duration.millis", warmUpMillis);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Every synthetic call logs like a real one; keep that out of the startup log.
+        LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        LoggerConfiguration previous = loggingSystem.getLoggerConfiguration(APPLICATION_PACKAGE);
+        loggingSystem.setLogLevel(APPLICATION_PACKAGE, LogLevel.WARN);
+        WarmUpReport report;
+        try {
+            report = warmUp();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed, the instance starts cold: {}", e.getMessage());
+            return;
+        } finally {
+            loggingSystem.setLogLevel(APPLICATION_PACKAGE, previous != null ? previous.getConfiguredLevel() : null);
+            ShardContext.clear();
+        }
+        warmUpMillis.set(report.duration().toMillis());
+        log.info("Warm-up finished in {} ms after {} card lifecycles: mean latency {} us in the first round, {} us in the last{}",
+                report.duration().toMillis(), report.iterations(), Math.round(report.firstRoundMeanMicros()),
+                Math.round(report.lastRoundMeanMicros()), report.converged() ? "" : " (not converged)");
+    }
+
+    /**
+     * Runs the warm-up.
+     *
+     * @return how long it took and how latency evolved
+     */
+    public WarmUpReport warmUp() {
+        long started = System.nanoTime();
+        long deadline = started + properties.getMaxDuration().toNanos();
+        primeConnectionPools();
+
+        long iterations = 0;
+        double firstMean = 0;
+        double previousMean = 0;
+        int stable = 0;
+        for (int round = 0; round < properties.getMaxRounds() && stable < properties.getStableRounds()
+                && System.nanoTime() < deadline; round++) {
+            long roundStarted = System.nanoTime();
+            for (int i = 0; i < properties.getRoundSize(); i++) {
+                iterationTimer.record(this::runLifecycle);
+                iterations++;
+            }
+            double mean = (System.nanoTime() - roundStarted) / 1000.0 / properties.getRoundSize();
+            if (round == 0) {
+                firstMean = mean;
+            } else {
+                stable = Math.abs(mean - previousMean) <= previousMean * properties.getTolerance() ? stable + 1 : 0;
+            }
+            previousMean = mean;
+        }
+        return new WarmUpReport(Duration.ofNanos(System.nanoTime() - started), iterations, firstMean, previousMean,
+                stable >= properties.getStableRounds());
+    }
+
+    private void primeConnectionPools() {
+        DataSource dataSource = this.dataSource.getIfAvailable();
+        if (dataSource == null) {
+            // The embedded storage engine has no connections to open.
+            return;
+        }
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.set(shard);
+            List<Connection> connections = new ArrayList<>(properties.getPrimeConnections());
+            try {
+                for (int i = 0; i < properties.getPrimeConnections(); i++) {
+                    Connection connection = dataSource.getConnection();
+                    connections.add(connection);
+                    // With sharding the datasource hands out lazy proxies; this opens the physical connection.
+                    connection.isValid(1);
+                }
+            } catch (SQLException e) {
+                log.warn("Connection pool of shard {} primed with {} connections only: {}", shard, connections.size(), e.getMessage());
+            } finally {
+                for (Connection connection : connections) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        log.debug("Could not return warm-up connection", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Issues a synthetic card and takes it through its whole lifecycle, rolling everything back.
+     * Requests are read from JSON and validated, and responses written to JSON, as they would
+     * be over HTTP.
+     */
+    private void runLifecycle() {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            CardNumberResponseDTO cardNumber = cardService.generateCardNumber(properties.getProductId());
+            write(cardNumber);
+            String cardId = cardNumber.getCardNumber();
+
+            CardActivationRequestDTO activation = new CardActivationRequestDTO();
+            activation.setCardId(cardId);
+            cardService.activateCard(read(activation, CardActivationRequestDTO.class));
+
+            CardBalanceRequestDTO recharge = new CardBalanceRequestDTO();
+            recharge.setCardId(cardId);
+            recharge.setBalance(10_000);
+            cardService.addBalance(read(recharge, CardBalanceRequestDTO.class));
+
+            PurchaseRequestDTO purchase = new PurchaseRequestDTO();
+            purchase.setCardId(cardId);
+            purchase.setPrice(1_000);
+            TransactionResponseDTO transaction = transactionService.makePurchase(read(purchase, PurchaseRequestDTO.class));
+            write(transaction);
+            String transactionId = String.valueOf(transaction.getTransactionId());
+            write(transactionService.getTransaction(transactionId));
+
+            AnulationRequestDTO annulment = new AnulationRequestDTO();
+            annulment.setCardId(cardId);
+            annulment.setTransactionId(transactionId);
+            transactionService.annulTransaction(read(annulment, AnulationRequestDTO.class));
+
+            write(cardService.getBalance(CardNumbers.parse(cardId)));
+        });
+    }
+
+    private <T> T read(T request, Class<T> type) {
+        try {
+            T parsed = objectMapper.readValue(objectMapper.writeValueAsBytes(request), type);
+            validator.validate(parsed);
+            return parsed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Warm-up could not read " + type.getSimpleName(), e);
+        }
+    }
+
+    private void write(Object response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Warm-up could not write " + response.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bankinc.cardmanagement.datagen.application.service;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.data-generator", name = "enabled", havingValue = "true")
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    private final DataGeneratorService dataGeneratorService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        dataGeneratorService.generate();
+    }
+}
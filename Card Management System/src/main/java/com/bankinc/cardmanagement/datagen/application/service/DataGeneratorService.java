@@ -0,0 +1,8 @@
+package com.bankinc.cardmanagement.datagen.application.service;
+
+import com.bankinc.cardmanagement.datagen.infrastructure.dto.DataGenerationReportDTO;
+
+public interface DataGeneratorService {
+
+    DataGenerationReportDTO generate();
+}
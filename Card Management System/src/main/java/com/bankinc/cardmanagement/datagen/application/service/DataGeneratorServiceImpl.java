@@ -0,0 +1,138 @@
+package com.bankinc.cardmanagement.datagen.application.service;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.datagen.domain.repository.DatasetSink;
+import com.bankinc.cardmanagement.datagen.domain.repository.JdbcBatchDatasetSink;
+import com.bankinc.cardmanagement.datagen.domain.repository.LoadDataDatasetSink;
+import com.bankinc.cardmanagement.datagen.domain.service.DatasetGenerator;
+import com.bankinc.cardmanagement.datagen.infrastructure.config.DataGeneratorProperties;
+import com.bankinc.cardmanagement.datagen.infrastructure.dto.DataGenerationReportDTO;
+import com.bankinc.cardmanagement.summary.application.service.CardSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+@Service
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@Slf4j
+public class DataGeneratorServiceImpl implements DataGeneratorService {
+
+    private final DataGeneratorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final CardSummaryService cardSummaryService;
+
+    /**
+     * Adds the configured number of synthetic cards and their transactions to the database.
+     * Chunks of cards are generated and written in parallel, each on one thread and to the
+     * shards of its cards; new card IDs follow the highest existing one of each shard. The
+     * first chunk failing stops the chunks not started yet.
+     *
+     * @return a summary of the generated data
+     */
+    @Override
+    public DataGenerationReportDTO generate() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate endDate = properties.getEndDate() != null ? properties.getEndDate() : LocalDate.now(zone);
+        DatasetGenerator generator = new DatasetGenerator(properties, endDate.atStartOfDay(zone).toInstant(), zone,
+                shardRouter::shardForCard, highestCardIds());
+        int chunkCount = generator.chunkCount();
+        log.info("Generating {} cards in {} chunks with seed {}, history until {}",
+                properties.getCards(), chunkCount, properties.getSeed(), endDate);
+
+        ExecutorService writers = Executors.newFixedThreadPool(properties.getWriterThreads());
+        AtomicLong transactions = new AtomicLong();
+        AtomicInteger written = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        int progressStep = Math.max(1, chunkCount / 20);
+        try {
+            List<CompletableFuture<Void>> chunks = IntStream.range(0, chunkCount)
+                    .mapToObj(chunk -> CompletableFuture.runAsync(() -> {
+                        if (failed.get()) {
+                            return;
+                        }
+                        try {
+                            transactions.addAndGet(writeChunk(generator, chunk));
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                        int done = written.incrementAndGet();
+                        if (done % progressStep == 0) {
+                            log.info("Generated {} of {} chunks, {} transactions", done, chunkCount, transactions.get());
+                        }
+                    }, writers))
+                    .toList();
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            writers.shutdown();
+        }
+
+        if (properties.isRebuildSummaries()) {
+            cardSummaryService.rebuild();
+        }
+        log.info("Generated {} cards and {} transactions", properties.getCards(), transactions.get());
+        return new DataGenerationReportDTO(properties.getSeed(), startedAt, LocalDateTime.now(),
+                properties.getCards(), transactions.get());
+    }
+
+    private long[] highestCardIds() {
+        long[] highest = new long[shardRouter.getShardCount()];
+        try {
+            for (int shard = 0; shard < highest.length; shard++) {
+                ShardContext.set(shard);
+                highest[shard] = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(card_id), 0) FROM cards", Long.class);
+            }
+        } finally {
+            ShardContext.clear();
+        }
+        return highest;
+    }
+
+    private long writeChunk(DatasetGenerator generator, int chunk) {
+        DatasetSink[] sinks = new DatasetSink[shardRouter.getShardCount()];
+        try {
+            long transactions = generator.generateChunk(chunk, shard -> {
+                if (sinks[shard] == null) {
+                    sinks[shard] = sink(chunk, shard);
+                }
+                return sinks[shard];
+            });
+            // Sinks are only closed on success, so a failed chunk leaves at most its full batches written.
+            for (DatasetSink sink : sinks) {
+                if (sink != null) {
+                    sink.close();
+                }
+            }
+            return transactions;
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private DatasetSink sink(int chunk, int shard) {
+        if (properties.getMode() == DataGeneratorProperties.Mode.LOAD_DATA) {
+            return new LoadDataDatasetSink(jdbcTemplate, shard, Path.of(properties.getDirectory()),
+                    "chunk-" + chunk + "-shard-" + shard);
+        }
+        return new JdbcBatchDatasetSink(jdbcTemplate, shard, properties.getBatchSize());
+    }
+}
@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.datagen.domain.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Destination of the rows generated for one chunk of cards and one shard. A card is always
+ * added before its transactions, and rows may be buffered until {@link #close()}.
+ * Balances and amounts are in cents.
+ */
+public interface DatasetSink extends AutoCloseable {
+
+    void card(long cardId, long cardNumber, String holderName, LocalDate expirationDate,
+              boolean active, boolean blocked, long balance);
+
+    void transaction(long transactionId, long cardId, String type, long amount, LocalDateTime transactionDate,
+                     boolean annulled, LocalDateTime annulledAt);
+
+    /**
+     * Writes the buffered rows.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,72 @@
+package com.bankinc.cardmanagement.datagen.domain.repository;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes generated rows to a shard with JDBC batches, which the driver rewrites into
+ * multi-row inserts. Buffered cards are always written before buffered transactions.
+ */
+public class JdbcBatchDatasetSink implements DatasetSink {
+
+    private static final String INSERT_CARD = "INSERT INTO cards "
+            + "(card_id, card_number, holder_name, expiration_date, is_active, is_blocked, balance) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions "
+            + "(transaction_id, card_id, type, amount, transaction_date, is_annulled, annulled_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shard;
+    private final int batchSize;
+    private final List<Object[]> cards;
+    private final List<Object[]> transactions;
+
+    public JdbcBatchDatasetSink(JdbcTemplate jdbcTemplate, int shard, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shard = shard;
+        this.batchSize = batchSize;
+        this.cards = new ArrayList<>(batchSize);
+        this.transactions = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void card(long cardId, long cardNumber, String holderName, LocalDate expirationDate,
+                     boolean active, boolean blocked, long balance) {
+        cards.add(new Object[]{cardId, cardNumber, holderName, expirationDate, active, blocked, balance});
+        if (cards.size() >= batchSize) {
+            write(INSERT_CARD, cards);
+        }
+    }
+
+    @Override
+    public void transaction(long transactionId, long cardId, String type, long amount, LocalDateTime transactionDate,
+                            boolean annulled, LocalDateTime annulledAt) {
+        transactions.add(new Object[]{transactionId, cardId, type, amount, transactionDate, annulled, annulledAt});
+        if (transactions.size() >= batchSize) {
+            write(INSERT_CARD, cards);
+            write(INSERT_TRANSACTION, transactions);
+        }
+    }
+
+    @Override
+    public void close() {
+        write(INSERT_CARD, cards);
+        write(INSERT_TRANSACTION, transactions);
+    }
+
+    private void write(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        ShardContext.set(shard);
+        jdbcTemplate.batchUpdate(sql, rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bankinc.cardmanagement.datagen.domain.repository;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes generated rows to tab-separated files and loads them into a shard with
+ * {@code LOAD DATA LOCAL INFILE} on close, cards first. The files are deleted once loaded,
+ * and kept if loading fails.
+ */
+public class LoadDataDatasetSink implements DatasetSink {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final String NULL = "\\N";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shard;
+    private final Path cardsFile;
+    private final Path transactionsFile;
+    private final BufferedWriter cards;
+    private final BufferedWriter transactions;
+
+    public LoadDataDatasetSink(JdbcTemplate jdbcTemplate, int shard, Path directory, String name) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shard = shard;
+        this.cardsFile = directory.resolve(name + "-cards.tsv").toAbsolutePath();
+        this.transactionsFile = directory.resolve(name + "-transactions.tsv").toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+            this.cards = Files.newBufferedWriter(cardsFile, StandardCharsets.UTF_8);
+            this.transactions = Files.newBufferedWriter(transactionsFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the files of " + name, e);
+        }
+    }
+
+    @Override
+    public void card(long cardId, long cardNumber, String holderName, LocalDate expirationDate,
+                     boolean active, boolean blocked, long balance) {
+        try {
+            cards.append(Long.toString(cardId)).append('\t')
+                    .append(Long.toString(cardNumber)).append('\t')
+                    .append(holderName != null ? holderName : NULL).append('\t')
+                    .append(expirationDate != null ? expirationDate.toString() : NULL).append('\t')
+                    .append(active ? '1' : '0').append('\t')
+                    .append(blocked ? '1' : '0').append('\t')
+                    .append(Long.toString(balance)).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + cardsFile, e);
+        }
+    }
+
+    @Override
+    public void transaction(long transactionId, long cardId, String type, long amount, LocalDateTime transactionDate,
+                            boolean annulled, LocalDateTime annulledAt) {
+        try {
+            transactions.append(Long.toString(transactionId)).append('\t')
+                    .append(Long.toString(cardId)).append('\t')
+                    .append(type).append('\t')
+                    .append(Long.toString(amount)).append('\t')
+                    .append(TIMESTAMP.format(transactionDate)).append('\t')
+                    .append(annulled ? '1' : '0').append('\t')
+                    .append(annulledAt != null ? TIMESTAMP.format(annulledAt) : NULL).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + transactionsFile, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            cards.close();
+            transactions.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the files of " + cardsFile.getFileName(), e);
+        }
+        ShardContext.set(shard);
+        load(cardsFile, "cards",
+                "card_id, card_number, holder_name, expiration_date, is_active, is_blocked, balance");
+        load(transactionsFile, "transactions",
+                "transaction_id, card_id, type, amount, transaction_date, is_annulled, annulled_at");
+        try {
+            Files.delete(cardsFile);
+            Files.delete(transactionsFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete the loaded files of " + cardsFile.getFileName(), e);
+        }
+    }
+
+    private void load(Path file, String table, String columns) {
+        // LOAD DATA takes no parameters; the path is ours and only needs its quotes escaped.
+        String path = file.toString().replace('\\', '/').replace("'", "''");
+        jdbcTemplate.execute("LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE " + table
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' LINES TERMINATED BY '\\n' (" + columns + ")");
+    }
+}
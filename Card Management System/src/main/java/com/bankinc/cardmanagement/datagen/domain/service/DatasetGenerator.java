@@ -0,0 +1,275 @@
+package com.bankinc.cardmanagement.datagen.domain.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.datagen.domain.repository.DatasetSink;
+import com.bankinc.cardmanagement.datagen.infrastructure.config.DataGeneratorProperties;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Generates synthetic cards and their ledgers, chunk by chunk. A chunk only depends on the
+ * seed and its index, so chunks can be generated in any order and in parallel and still
+ * give the same rows.
+ *
+ * <p>Card {@code i} gets a card number whose account digits are {@code i} scrambled by a
+ * bijection, so numbers are unique and spread. Enrolled cards are recharged on enrollment
+ * and whenever a purchase would exceed their balance, so every ledger adds up to its
+ * balance. Purchase times follow a daily curve and amounts a log-normal distribution.
+ *
+ * <p>Transaction IDs follow {@link TransactionIds} and are dated by their transaction. Card
+ * {@code i} takes the node and sequence bits {@code i mod 2^14}, and the cards sharing them
+ * date their transactions on distinct residues of the millisecond modulo
+ * {@code ceil(cards / 2^14)}, so no two transactions share an ID.
+ */
+public class DatasetGenerator {
+
+    private static final int LANES = TransactionIds.MAX_NODES << TransactionIds.SEQUENCE_BITS;
+    private static final long ACCOUNT_MODULUS = 10_000_000_000L;
+    private static final long ACCOUNT_MULTIPLIER = 6_700_417L;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    private static final int VALIDITY_YEARS = 3;
+    private static final double COUNT_SPREAD = 1.0;
+    private static final long MAX_PURCHASE_CENTS = 1_000_000;
+    private static final long MIN_RECHARGE_CENTS = 10_000;
+    private static final long RECHARGE_STEP_CENTS = 5_000;
+
+    private static final double[] HOUR_WEIGHTS = {
+            0.2, 0.1, 0.1, 0.1, 0.1, 0.2, 0.5, 1.0, 1.5, 1.8, 2.0, 2.4,
+            3.0, 2.8, 2.2, 2.0, 2.1, 2.5, 3.0, 3.2, 2.6, 1.8, 1.0, 0.5};
+
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Carlos", "Lucia", "Jorge", "Maria", "Andres", "Sofia", "Diego",
+            "Valentina", "Juan", "Camila", "Luis", "Isabel", "Mateo", "Paula", "Santiago"};
+
+    private static final String[] LAST_NAMES = {
+            "Garcia", "Rodriguez", "Martinez", "Lopez", "Gonzalez", "Perez", "Sanchez", "Ramirez",
+            "Torres", "Flores", "Rivera", "Gomez", "Diaz", "Moreno", "Castro", "Vargas"};
+
+    private final long seed;
+    private final long cards;
+    private final int chunkSize;
+    private final long[] productIds;
+    private final double[] productCumulative;
+    private final double[] hourCumulative;
+    private final double enrolledRatio;
+    private final double blockedRatio;
+    private final double annulledRatio;
+    private final double averagePurchases;
+    private final double amountLogMedian;
+    private final double amountSpread;
+    private final long startMillis;
+    private final long endMillis;
+    private final long spacing;
+    private final long zoneOffsetMillis;
+    private final ZoneId zone;
+    private final LongToIntFunction shardOf;
+    private final long[] cardIdBases;
+
+    /**
+     * Creates a generator.
+     *
+     * @param properties  the generator configuration
+     * @param end         the end of the history, exclusive
+     * @param zone        the zone transaction dates are stored in
+     * @param shardOf     the shard of a card number
+     * @param cardIdBases the highest card ID of every shard before generating
+     */
+    public DatasetGenerator(DataGeneratorProperties properties, Instant end, ZoneId zone,
+                            LongToIntFunction shardOf, long[] cardIdBases) {
+        if (properties.getCards() < 1 || properties.getChunkSize() < 1 || properties.getProductIds().isEmpty()) {
+            throw new IllegalStateException("Data generator needs cards, a chunk size and product IDs");
+        }
+        this.seed = properties.getSeed();
+        this.cards = properties.getCards();
+        this.chunkSize = properties.getChunkSize();
+        this.productIds = properties.getProductIds().stream().mapToLong(Long::parseLong).toArray();
+        this.productCumulative = cumulative(productIds.length, index -> Math.pow(0.5, index));
+        this.hourCumulative = cumulative(HOUR_WEIGHTS.length, index -> HOUR_WEIGHTS[index]);
+        this.enrolledRatio = properties.getEnrolledRatio();
+        this.blockedRatio = properties.getBlockedRatio();
+        this.annulledRatio = properties.getAnnulledRatio();
+        this.averagePurchases = properties.getAveragePurchasesPerCard();
+        this.amountLogMedian = Math.log(properties.getMedianPurchaseAmount());
+        this.amountSpread = properties.getPurchaseAmountSpread();
+        this.endMillis = end.toEpochMilli();
+        this.startMillis = endMillis - properties.getHistory().toMillis();
+        if (startMillis - DAY_MILLIS < TransactionIds.EPOCH_MILLIS) {
+            throw new IllegalStateException("Generated history must start after " + Instant.ofEpochMilli(TransactionIds.EPOCH_MILLIS + DAY_MILLIS));
+        }
+        this.spacing = (cards + LANES - 1) / LANES;
+        this.zoneOffsetMillis = zone.getRules().getOffset(end).getTotalSeconds() * 1000L;
+        this.zone = zone;
+        this.shardOf = shardOf;
+        this.cardIdBases = cardIdBases;
+    }
+
+    public int chunkCount() {
+        return (int) ((cards + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Generates the cards of one chunk and their transactions.
+     *
+     * @param chunk        the chunk index
+     * @param sinkForShard the sink of the rows of a shard
+     * @return the number of transactions generated
+     */
+    public long generateChunk(int chunk, IntFunction<DatasetSink> sinkForShard) {
+        SplittableRandom random = new SplittableRandom(seed ^ (chunk + 1) * 0x9E3779B97F4A7C15L);
+        Ledger ledger = new Ledger();
+        long transactions = 0;
+        long last = Math.min(cards, (long) (chunk + 1) * chunkSize);
+        for (long index = (long) chunk * chunkSize; index < last; index++) {
+            long cardNumber = cardNumber(index, random);
+            int shard = shardOf.applyAsInt(cardNumber);
+            long cardId = cardIdBases[shard] + index + 1;
+            DatasetSink sink = sinkForShard.apply(shard);
+            if (random.nextDouble() >= enrolledRatio) {
+                sink.card(cardId, cardNumber, null, null, false, false, 0);
+                continue;
+            }
+            String holderName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            long enrolledAt = startMillis + random.nextLong(endMillis - startMillis);
+            boolean blocked = random.nextDouble() < blockedRatio;
+            ledger.generate(index, enrolledAt, random);
+
+            LocalDate expirationDate = toDateTime(enrolledAt).toLocalDate().plusYears(VALIDITY_YEARS);
+            sink.card(cardId, cardNumber, holderName, expirationDate, !blocked, blocked, ledger.balance);
+            int lane = (int) (index % LANES);
+            for (int entry = 0; entry < ledger.size; entry++) {
+                long at = ledger.millis[entry];
+                long transactionId = TransactionIds.compose(at - TransactionIds.EPOCH_MILLIS, shard,
+                        lane >>> TransactionIds.SEQUENCE_BITS, lane & ((1 << TransactionIds.SEQUENCE_BITS) - 1));
+                long annulledAt = ledger.annulledAt[entry];
+                sink.transaction(transactionId, cardId, ledger.types[entry].name(), ledger.cents[entry],
+                        toDateTime(at), annulledAt >= 0, annulledAt >= 0 ? toDateTime(annulledAt) : null);
+            }
+            transactions += ledger.size;
+        }
+        return transactions;
+    }
+
+    private long cardNumber(long index, SplittableRandom random) {
+        long productId = productIds[pick(productCumulative, random.nextDouble())];
+        return productId * ACCOUNT_MODULUS + index * ACCOUNT_MULTIPLIER % ACCOUNT_MODULUS;
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private static double[] cumulative(int length, IntToDoubleFunction weight) {
+        double[] cumulative = new double[length];
+        double total = 0;
+        for (int index = 0; index < length; index++) {
+            total += weight.applyAsDouble(index);
+            cumulative[index] = total;
+        }
+        for (int index = 0; index < length; index++) {
+            cumulative[index] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int index = 0;
+        while (index < cumulative.length - 1 && value >= cumulative[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * The ledger of the card being generated, reused from card to card within a chunk.
+     */
+    private final class Ledger {
+
+        private long[] purchaseTimes = new long[256];
+        private long[] millis = new long[512];
+        private long[] cents = new long[512];
+        private long[] annulledAt = new long[512];
+        private TransactionType[] types = new TransactionType[512];
+        private int size;
+        private long balance;
+
+        void generate(long index, long enrolledAt, SplittableRandom random) {
+            size = 0;
+            balance = 0;
+            long residue = index / LANES;
+            // Cards enrolled later buy less; the factor averages 1 over the history.
+            double activeShare = 2.0 * (endMillis - enrolledAt) / (endMillis - startMillis);
+            double spread = Math.exp(COUNT_SPREAD * random.nextGaussian() - COUNT_SPREAD * COUNT_SPREAD / 2);
+            int purchases = (int) Math.min(Math.round(averagePurchases * activeShare * spread), (long) (averagePurchases * 50));
+            if (purchaseTimes.length < purchases) {
+                purchaseTimes = new long[purchases];
+            }
+            for (int purchase = 0; purchase < purchases; purchase++) {
+                long at = enrolledAt + random.nextLong(endMillis - enrolledAt);
+                long localDay = Math.floorDiv(at + zoneOffsetMillis, DAY_MILLIS) * DAY_MILLIS - zoneOffsetMillis;
+                purchaseTimes[purchase] = localDay + pick(hourCumulative, random.nextDouble()) * HOUR_MILLIS
+                        + random.nextLong(HOUR_MILLIS);
+            }
+            Arrays.sort(purchaseTimes, 0, purchases);
+
+            long last = align(enrolledAt, residue);
+            add(TransactionType.RECHARGE, last, rechargeCents(0), -1);
+            for (int purchase = 0; purchase < purchases; purchase++) {
+                long at = Math.max(align(purchaseTimes[purchase], residue), last + spacing);
+                long amount = purchaseCents(random);
+                if (balance < amount) {
+                    add(TransactionType.RECHARGE, at, rechargeCents(amount), -1);
+                    at += spacing;
+                }
+                long annulled = random.nextDouble() < annulledRatio
+                        ? at + random.nextLong(Math.max(1, Math.min(DAY_MILLIS, endMillis - at)))
+                        : -1;
+                add(TransactionType.PURCHASE, at, amount, annulled);
+                last = at;
+            }
+        }
+
+        private void add(TransactionType type, long at, long amount, long annulled) {
+            if (size == millis.length) {
+                int capacity = size * 2;
+                millis = Arrays.copyOf(millis, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                annulledAt = Arrays.copyOf(annulledAt, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            millis[size] = at;
+            cents[size] = amount;
+            annulledAt[size] = annulled;
+            types[size] = type;
+            size++;
+            if (annulled < 0) {
+                balance += type.getBalanceSign() * amount;
+            }
+        }
+
+        private long align(long millis, long residue) {
+            return millis - Math.floorMod(millis - residue, spacing);
+        }
+
+        private long purchaseCents(SplittableRandom random) {
+            double amount = Math.exp(amountLogMedian + amountSpread * random.nextGaussian());
+            return Math.max(1, Math.min(MAX_PURCHASE_CENTS, Math.round(amount * 100)));
+        }
+
+        private long rechargeCents(long purchase) {
+            long needed = Math.max(3 * purchase, MIN_RECHARGE_CENTS);
+            return (needed + RECHARGE_STEP_CENTS - 1) / RECHARGE_STEP_CENTS * RECHARGE_STEP_CENTS;
+        }
+    }
+}
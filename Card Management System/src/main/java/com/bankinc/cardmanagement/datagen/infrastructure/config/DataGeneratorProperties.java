@@ -0,0 +1,118 @@
+package com.bankinc.cardmanagement.datagen.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.data-generator")
+public class DataGeneratorProperties {
+
+    public enum Mode {
+        /**
+         * Multi-row inserts through JDBC batches.
+         */
+        BATCH,
+        /**
+         * Tab-separated files loaded with LOAD DATA LOCAL INFILE. The datasource URL needs
+         * allowLoadLocalInfile=true and the server local_infile enabled.
+         */
+        LOAD_DATA
+    }
+
+    /**
+     * Whether synthetic cards and transactions are generated when the application starts.
+     * Only meant for test databases: the rows are added to the existing ones.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Seed of the generated data. The same seed, chunk size and end date give the same rows.
+     */
+    private long seed = 42;
+
+    /**
+     * Number of cards to generate.
+     */
+    private long cards = 100_000;
+
+    /**
+     * Average number of purchases of an enrolled card over the history. Counts are spread
+     * log-normally, so a few cards have many times the average.
+     */
+    private double averagePurchasesPerCard = 100;
+
+    /**
+     * Product IDs of the cards. Each is half as frequent as the one before it.
+     */
+    private List<String> productIds = new ArrayList<>(List.of("451234", "530012", "377001", "601100"));
+
+    /**
+     * Share of the cards that were enrolled. The others were issued and never used.
+     */
+    private double enrolledRatio = 0.9;
+
+    /**
+     * Share of the enrolled cards that are blocked now.
+     */
+    private double blockedRatio = 0.03;
+
+    /**
+     * Share of the purchases that were annulled.
+     */
+    private double annulledRatio = 0.01;
+
+    /**
+     * Median purchase amount. Amounts are spread log-normally around it.
+     */
+    private double medianPurchaseAmount = 25;
+
+    /**
+     * Spread of the purchase amounts, as the standard deviation of their logarithm.
+     */
+    private double purchaseAmountSpread = 1.0;
+
+    /**
+     * Period the transactions span, ending at {@link #endDate}.
+     */
+    private Duration history = Duration.ofDays(365);
+
+    /**
+     * Day the generated history ends, exclusive. Without it, today.
+     */
+    private LocalDate endDate;
+
+    /**
+     * How the rows are written.
+     */
+    private Mode mode = Mode.BATCH;
+
+    /**
+     * Number of threads generating and writing chunks of cards in parallel.
+     */
+    private int writerThreads = 8;
+
+    /**
+     * Number of consecutive cards generated and written together.
+     */
+    private int chunkSize = 1_000;
+
+    /**
+     * Rows per JDBC batch in {@link Mode#BATCH} mode.
+     */
+    private int batchSize = 5_000;
+
+    /**
+     * Directory of the files loaded in {@link Mode#LOAD_DATA} mode. Each file is deleted once loaded.
+     */
+    private String directory = "datagen";
+
+    /**
+     * Whether card summaries are rebuilt once the rows are written.
+     */
+    private boolean rebuildSummaries = true;
+}
@@ -0,0 +1,16 @@
+package com.bankinc.cardmanagement.datagen.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class DataGenerationReportDTO {
+    private long seed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long cards;
+    private long transactions;
+}
@@ -0,0 +1,37 @@
+package com.bankinc.cardmanagement.fee.application.controller;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.fee.application.service.MonthlyFeeService;
+import com.bankinc.cardmanagement.fee.infrastructure.dto.MonthlyFeeReportDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+
+@RestController
+@ConditionalOnJpaStorage
+@RequestMapping("/monthly-fee")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.monthly-fee", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MonthlyFeeController {
+
+    private final MonthlyFeeService monthlyFeeService;
+
+    /**
+     * Charges the monthly fees immediately, or only writes what would be charged.
+     *
+     * @param period the month to charge, as {@code yyyy-MM}; the current month if omitted
+     * @param dryRun whether to write the fees to a file instead of charging them
+     * @return a response entity containing the run summary
+     */
+    @PostMapping("/run")
+    public ResponseEntity<MonthlyFeeReportDTO> chargeFees(@RequestParam(required = false) YearMonth period,
+                                                          @RequestParam(defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.ok(monthlyFeeService.chargeFees(period != null ? period : YearMonth.now(), dryRun));
+    }
+}
@@ -0,0 +1,26 @@
+package com.bankinc.cardmanagement.fee.application.service;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+@Component
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.monthly-fee", name = {"enabled", "scheduled"}, havingValue = "true")
+public class MonthlyFeeScheduler {
+
+    private final MonthlyFeeService monthlyFeeService;
+
+    /**
+     * Charges the fees of the current month.
+     */
+    @Scheduled(cron = "${bankinc.monthly-fee.cron}")
+    public void chargeFees() {
+        monthlyFeeService.chargeFees(YearMonth.now(), false);
+    }
+}
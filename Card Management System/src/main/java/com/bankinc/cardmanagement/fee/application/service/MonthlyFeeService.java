@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.fee.application.service;
+
+import com.bankinc.cardmanagement.fee.infrastructure.dto.MonthlyFeeReportDTO;
+
+import java.time.YearMonth;
+
+public interface MonthlyFeeService {
+    MonthlyFeeReportDTO chargeFees(YearMonth period, boolean dryRun);
+}
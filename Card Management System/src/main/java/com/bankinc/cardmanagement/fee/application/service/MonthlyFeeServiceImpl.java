@@ -0,0 +1,308 @@
+package com.bankinc.cardmanagement.fee.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.fee.domain.model.FeeChunk;
+import com.bankinc.cardmanagement.fee.domain.model.FeePartition;
+import com.bankinc.cardmanagement.fee.domain.repository.FeeLedgerRepository;
+import com.bankinc.cardmanagement.fee.domain.repository.FeePartitionRepository;
+import com.bankinc.cardmanagement.fee.domain.service.MonthlyFeeCalculator;
+import com.bankinc.cardmanagement.fee.infrastructure.config.MonthlyFeeProperties;
+import com.bankinc.cardmanagement.fee.infrastructure.dto.MonthlyFeeReportDTO;
+import com.bankinc.cardmanagement.fee.infrastructure.exception.MonthlyFeeAlreadyRunningException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Charges the monthly fees. The card IDs of each shard are split into ranges the first
+ * time a month is charged; ranges are then charged in parallel, chunk by chunk, each
+ * chunk locked, charged with batched statements and checkpointed in one short transaction.
+ * Cards created after the ranges were planned are not charged for that month.
+ *
+ * <p>Each chunk transaction starts by locking its range and reading how far it got, so
+ * nodes running the same month at once take turns on a range and never charge a card twice.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class MonthlyFeeServiceImpl implements MonthlyFeeService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final FeeLedgerRepository ledgerRepository;
+    private final FeePartitionRepository partitionRepository;
+    private final MonthlyFeeCalculator feeCalculator;
+    private final ShardRouter shardRouter;
+    private final MonthlyFeeProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter cardCounter;
+    private final Counter amountCounter;
+    private final Counter chunkCounter;
+    private final Timer chunkTimer;
+    private final AtomicInteger remainingPartitions = new AtomicInteger();
+
+    public MonthlyFeeServiceImpl(FeeLedgerRepository ledgerRepository, FeePartitionRepository partitionRepository,
+                                 MonthlyFeeCalculator feeCalculator, ShardRouter shardRouter,
+                                 MonthlyFeeProperties properties, ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.ledgerRepository = ledgerRepository;
+        this.partitionRepository = partitionRepository;
+        this.feeCalculator = feeCalculator;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cardCounter = Counter.builder("bankinc.monthly.fee.cards")
+                .description("Cards charged a monthly fee")
+                .register(meterRegistry);
+        this.amountCounter = Counter.builder("bankinc.monthly.fee.amount")
+                .description("Total amount of monthly fees charged")
+                .register(meterRegistry);
+        this.chunkCounter = Counter.builder("bankinc.monthly.fee.chunks")
+                .description("Chunks of cards charged a monthly fee")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("bankinc.monthly.fee.chunk")
+                .description("Duration of charging one chunk of cards")
+                .register(meterRegistry);
+        meterRegistry.gauge("bankinc.monthly.fee.partitions.remaining", remainingPartitions);
+    }
+
+    /**
+     * Charges the fees of a month to every active card. A month already charged is not
+     * charged again, and an interrupted run resumes every range where it stopped.
+     *
+     * @param period the month to charge
+     * @param dryRun whether to write the fees to a file instead of charging them
+     * @return a summary of the run
+     * @throws MonthlyFeeAlreadyRunningException if a monthly fee run is already in progress
+     */
+    @Override
+    public MonthlyFeeReportDTO chargeFees(YearMonth period, boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new MonthlyFeeAlreadyRunningException("A monthly fee run is already running");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Path dryRunFile = dryRun ? Path.of(properties.getDryRunDirectory(),
+                "monthly-fee-" + period + "-" + startedAt.format(FILE_TIMESTAMP) + ".csv") : null;
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+        Run run = new Run(period.toString(), startedAt, dryRun);
+        int partitions = 0;
+        int failed = 0;
+        try (BufferedWriter writer = dryRun ? openDryRunFile(dryRunFile) : null) {
+            run.writer = writer;
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.set(shard);
+                for (FeePartition partition : planPartitions(run)) {
+                    if (!partition.isFinished()) {
+                        int target = shard;
+                        tasks.add(() -> {
+                            chargePartition(target, partition, run);
+                            return null;
+                        });
+                    }
+                }
+            }
+            partitions = tasks.size();
+            remainingPartitions.set(partitions);
+            List<Future<Void>> futures = new ArrayList<>(partitions);
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Monthly fee range failed, it resumes on the next run", e.getCause());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write monthly fee file " + dryRunFile, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Monthly fee run interrupted after {} cards", run.cards.get());
+        } finally {
+            ShardContext.clear();
+            executor.shutdownNow();
+            remainingPartitions.set(0);
+            running.set(false);
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        double seconds = Math.max(Duration.between(startedAt, finishedAt).toMillis(), 1) / 1000.0;
+        log.info("Monthly fee run of {}{} charged {} cards in {} chunks, {} of {} ranges failed",
+                period, dryRun ? " (dry run)" : "", run.cards.get(), run.chunks.get(), failed, partitions);
+        return new MonthlyFeeReportDTO(run.period, dryRun, startedAt, finishedAt, partitions, failed, run.chunks.get(),
+                run.cards.get(), run.amount.sum(), run.cards.get() / seconds,
+                dryRunFile != null ? dryRunFile.toString() : null);
+    }
+
+    private List<FeePartition> planPartitions(Run run) {
+        List<FeePartition> planned = partitionRepository.findByPeriodOrderByPartitionIndexAsc(run.period);
+        if (!planned.isEmpty()) {
+            return planned;
+        }
+        long[] range = ledgerRepository.findCardIdRange();
+        if (range == null) {
+            return planned;
+        }
+        long cards = range[1] - range[0] + 1;
+        int count = (int) Math.min(properties.getPartitions(), cards);
+        List<FeePartition> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(new FeePartition(run.period, i, range[0] + cards * i / count, range[0] + cards * (i + 1) / count - 1));
+        }
+        if (!run.dryRun) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> partitionRepository.saveAll(partitions));
+            } catch (DataIntegrityViolationException e) {
+                log.info("Monthly fee ranges of {} were planned by another node", run.period);
+                return partitionRepository.findByPeriodOrderByPartitionIndexAsc(run.period);
+            }
+        }
+        return partitions;
+    }
+
+    private void chargePartition(int shard, FeePartition partition, Run run) throws IOException, InterruptedException {
+        ShardContext.set(shard);
+        FeeChunk chunk = new FeeChunk(properties.getChunkSize());
+        try {
+            while (!partition.isFinished()) {
+                if (run.dryRun) {
+                    priceChunk(partition, chunk, false);
+                    writeDryRun(chunk, run.writer);
+                } else {
+                    chunkTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                        FeePartition locked = partitionRepository.findByPartitionId(partition.getPartitionId())
+                                .orElse(partition);
+                        partition.setChargedUpTo(locked.getChargedUpTo());
+                        partition.setFinished(locked.isFinished());
+                        if (partition.isFinished()) {
+                            // Finished by another node while this one waited for the lock.
+                            chunk.clear();
+                            return;
+                        }
+                        priceChunk(partition, chunk, true);
+                        ledgerRepository.chargeFees(chunk, run.chargedAt);
+                        partitionRepository.save(partition);
+                        publishEvents(chunk, run.chargedAt);
+                    }));
+                }
+                count(chunk, run);
+                Thread.sleep(properties.getThrottle().toMillis());
+            }
+        } finally {
+            remainingPartitions.decrementAndGet();
+            ShardContext.clear();
+        }
+    }
+
+    private void priceChunk(FeePartition partition, FeeChunk chunk, boolean lock) {
+        ledgerRepository.loadCards(partition.getChargedUpTo(), partition.getLastCardId(), chunk, properties.getChunkSize(), lock);
+        feeCalculator.price(chunk);
+        partition.setFinished(!chunk.isFull());
+        partition.setChargedUpTo(chunk.isFull() ? chunk.lastCardId() : partition.getLastCardId());
+    }
+
+    private void publishEvents(FeeChunk chunk, LocalDateTime chargedAt) {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.fee(i) > 0) {
+                eventPublisher.publishEvent(new CardActivityEvent(chunk.cardNumber(i), CardActivityEvent.Type.FEE,
+                        chunk.balance(i) - chunk.fee(i), null, chunk.fee(i), chargedAt));
+            }
+        }
+    }
+
+    private void count(FeeChunk chunk, Run run) {
+        long cards = 0;
+        long amount = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.fee(i) > 0) {
+                cards++;
+                amount += chunk.fee(i);
+            }
+        }
+        run.chunks.incrementAndGet();
+        run.cards.addAndGet(cards);
+        run.amount.add(amount);
+        if (!run.dryRun) {
+            chunkCounter.increment();
+            cardCounter.increment(cards);
+            amountCounter.increment(Money.toDecimal(amount).doubleValue());
+        }
+    }
+
+    private static BufferedWriter openDryRunFile(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        BufferedWriter writer = Files.newBufferedWriter(file);
+        writer.write("card_number;balance;fee;new_balance");
+        writer.newLine();
+        return writer;
+    }
+
+    private static void writeDryRun(FeeChunk chunk, BufferedWriter writer) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.fee(i) > 0) {
+                lines.append(CardNumbers.format(chunk.cardNumber(i))).append(';');
+                Money.format(chunk.balance(i), lines).append(';');
+                Money.format(chunk.fee(i), lines).append(';');
+                Money.format(chunk.balance(i) - chunk.fee(i), lines).append(System.lineSeparator());
+            }
+        }
+        synchronized (writer) {
+            writer.write(lines.toString());
+        }
+    }
+
+    private static final class Run {
+        private final String period;
+        private final LocalDateTime chargedAt;
+        private final boolean dryRun;
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicLong cards = new AtomicLong();
+        private final LongAdder amount = new LongAdder();
+        private BufferedWriter writer;
+
+        private Run(String period, LocalDateTime chargedAt, boolean dryRun) {
+            this.period = period;
+            this.chargedAt = chargedAt;
+            this.dryRun = dryRun;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bankinc.cardmanagement.fee.domain.model;
+
+/**
+ * A card-ordered slice of the active cards of a range with the fee each one is charged, in cents.
+ * Backed by primitive arrays so a chunk costs a fixed amount of memory.
+ */
+public class FeeChunk {
+
+    private final long[] cardIds;
+    private final long[] cardNumbers;
+    private final long[] balances;
+    private final long[] fees;
+    private int size;
+
+    public FeeChunk(int capacity) {
+        this.cardIds = new long[capacity];
+        this.cardNumbers = new long[capacity];
+        this.balances = new long[capacity];
+        this.fees = new long[capacity];
+    }
+
+    /**
+     * Appends a card. Cards must be added in ascending card ID order.
+     *
+     * @param cardId     the card ID
+     * @param cardNumber the card number
+     * @param balance    the balance before the fee
+     */
+    public void add(long cardId, long cardNumber, long balance) {
+        cardIds[size] = cardId;
+        cardNumbers[size] = cardNumber;
+        balances[size] = balance;
+        fees[size] = 0;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == cardIds.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long lastCardId() {
+        return cardIds[size - 1];
+    }
+
+    public long cardId(int index) {
+        return cardIds[index];
+    }
+
+    public long cardNumber(int index) {
+        return cardNumbers[index];
+    }
+
+    public long balance(int index) {
+        return balances[index];
+    }
+
+    public long fee(int index) {
+        return fees[index];
+    }
+
+    public void setFee(int index, long fee) {
+        fees[index] = fee;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bankinc.cardmanagement.fee.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A range of card IDs of one shard charged in one monthly fee run, together with how far
+ * it got. Progress is saved in the same transaction as each chunk, so a run interrupted
+ * by a crash resumes every range after its last committed chunk and no card is charged twice.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "fee_partitions")
+public class FeePartition implements Persistable<String> {
+
+    @Id
+    @Column(length = 16)
+    private String partitionId;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(nullable = false)
+    private int partitionIndex;
+
+    @Column(nullable = false)
+    private long firstCardId;
+
+    @Column(nullable = false)
+    private long lastCardId;
+
+    @Column(nullable = false)
+    private long chargedUpTo;
+
+    @Column(nullable = false)
+    private boolean finished;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean persisted;
+
+    /**
+     * Creates a range covering the card IDs from {@code firstCardId} to {@code lastCardId}, both included.
+     *
+     * @param period         the month charged, as {@code yyyy-MM}
+     * @param partitionIndex the position of the range in the shard
+     * @param firstCardId    the first card ID of the range
+     * @param lastCardId     the last card ID of the range
+     */
+    public FeePartition(String period, int partitionIndex, long firstCardId, long lastCardId) {
+        this.partitionId = period + "/" + partitionIndex;
+        this.period = period;
+        this.partitionIndex = partitionIndex;
+        this.firstCardId = firstCardId;
+        this.lastCardId = lastCardId;
+        this.chargedUpTo = firstCardId - 1;
+        this.finished = false;
+    }
+
+    @Override
+    public String getId() {
+        return partitionId;
+    }
+
+    /**
+     * Tells whether the range is yet to be inserted, so that planning a month inserts the
+     * ranges and fails on ranges another node planned first instead of overwriting them.
+     *
+     * @return false once the range is inserted or loaded
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.bankinc.cardmanagement.fee.domain.repository;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.fee.domain.model.FeeChunk;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset reads and batched writes of {@code cards} and {@code transactions} for the monthly
+ * fee run. Every statement is bounded to one chunk of cards.
+ */
+@Repository
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+public class FeeLedgerRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionIdGenerator idGenerator;
+
+    /**
+     * Returns the lowest and highest card ID of the current shard.
+     *
+     * @return the two card IDs, or null if the shard has no cards
+     */
+    public long[] findCardIdRange() {
+        return jdbcTemplate.queryForObject("SELECT MIN(card_id), MAX(card_id) FROM cards",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * Loads the next active, unblocked cards of a range.
+     *
+     * @param afterCardId the last card ID already charged
+     * @param lastCardId  the last card ID of the range
+     * @param chunk       the chunk to fill, up to its capacity
+     * @param capacity    the number of cards to read
+     * @param lock        whether to lock the cards until the end of the transaction
+     */
+    public void loadCards(long afterCardId, long lastCardId, FeeChunk chunk, int capacity, boolean lock) {
+        chunk.clear();
+        jdbcTemplate.query(
+                "SELECT card_id, card_number, balance FROM cards "
+                        + "WHERE card_id > ? AND card_id <= ? AND is_active = true AND is_blocked = false "
+                        + "ORDER BY card_id LIMIT ?" + (lock ? " FOR UPDATE" : ""),
+                rs -> {
+                    chunk.add(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+                },
+                afterCardId, lastCardId, capacity);
+    }
+
+    /**
+     * Deducts the fees of a chunk from the card balances and records one ledger entry per
+     * charged card, in two batched statements. Cards with no fee are skipped.
+     *
+     * @param chunk     the chunk, with its fees set
+     * @param chargedAt when the fees are charged
+     */
+    public void chargeFees(FeeChunk chunk, LocalDateTime chargedAt) {
+        List<Object[]> balances = new ArrayList<>(chunk.size());
+        List<Object[]> entries = new ArrayList<>(chunk.size());
+        Timestamp timestamp = Timestamp.valueOf(chargedAt);
+        int shard = ShardContext.current();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.fee(i) > 0) {
+                balances.add(new Object[]{chunk.fee(i), chunk.cardId(i)});
+                entries.add(new Object[]{idGenerator.next(shard), chunk.cardId(i), TransactionType.FEE.name(), chunk.fee(i), timestamp});
+            }
+        }
+        if (balances.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE cards SET balance = balance - ? WHERE card_id = ?", balances);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (transaction_id, card_id, type, amount, transaction_date, is_annulled) VALUES (?, ?, ?, ?, ?, false)",
+                entries);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bankinc.cardmanagement.fee.domain.repository;
+
+import com.bankinc.cardmanagement.fee.domain.model.FeePartition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FeePartitionRepository extends JpaRepository<FeePartition, String> {
+    List<FeePartition> findByPeriodOrderByPartitionIndexAsc(String period);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<FeePartition> findByPartitionId(String partitionId);
+}
@@ -0,0 +1,35 @@
+package com.bankinc.cardmanagement.fee.domain.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.fee.domain.model.FeeChunk;
+import com.bankinc.cardmanagement.fee.infrastructure.config.MonthlyFeeProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class MonthlyFeeCalculator {
+
+    private final long maintenanceFee;
+    private final Map<Long, Long> productFees = new HashMap<>();
+
+    public MonthlyFeeCalculator(MonthlyFeeProperties properties) {
+        this.maintenanceFee = Money.of(properties.getMaintenanceFee());
+        properties.getProductFees().forEach((productId, fee) -> productFees.put(productId, Money.of(fee)));
+    }
+
+    /**
+     * Sets the fee of every card of a chunk: the fee of its product if one is configured,
+     * the maintenance fee otherwise, but never more than the card balance.
+     *
+     * @param chunk the chunk to price
+     */
+    public void price(FeeChunk chunk) {
+        for (int i = 0; i < chunk.size(); i++) {
+            long fee = productFees.getOrDefault(CardNumbers.productId(chunk.cardNumber(i)), maintenanceFee);
+            chunk.setFee(i, Math.max(0, Math.min(fee, chunk.balance(i))));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankinc.cardmanagement.fee.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.monthly-fee")
+public class MonthlyFeeProperties {
+
+    /**
+     * Whether monthly fees can be charged. Requires the JPA storage engine.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the monthly fee run starts on its schedule.
+     */
+    private boolean scheduled = false;
+
+    /**
+     * When the scheduled monthly fee run starts.
+     */
+    private String cron = "0 0 2 1 * *";
+
+    /**
+     * Maintenance fee charged to every active card.
+     */
+    private BigDecimal maintenanceFee = new BigDecimal("1.00");
+
+    /**
+     * Fee charged instead of the maintenance fee to the cards of a product, by product ID.
+     */
+    private Map<Long, BigDecimal> productFees = new HashMap<>();
+
+    /**
+     * Number of card ID ranges each shard is split into. Each range keeps its own checkpoint.
+     */
+    private int partitions = 16;
+
+    /**
+     * Number of ranges processed at the same time.
+     */
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Number of cards charged per chunk. Each chunk is written in its own short transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Pause between chunks of a range, leaving database capacity to live traffic.
+     */
+    private Duration throttle = Duration.ofMillis(20);
+
+    /**
+     * Directory the dry-run files are written to.
+     */
+    private String dryRunDirectory = "reports/monthly-fee";
+}
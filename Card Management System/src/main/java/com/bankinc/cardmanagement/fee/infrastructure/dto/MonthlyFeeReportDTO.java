@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.fee.infrastructure.dto;
+
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class MonthlyFeeReportDTO {
+    private String period;
+    private boolean dryRun;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int partitions;
+    private int failedPartitions;
+    private long chunks;
+    private long cardsCharged;
+    @MinorUnits
+    private long amountCharged;
+    private double cardsPerSecond;
+    private String dryRunFile;
+}
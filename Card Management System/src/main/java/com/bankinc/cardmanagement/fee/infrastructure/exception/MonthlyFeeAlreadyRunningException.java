@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.fee.infrastructure.exception;
+
+public class MonthlyFeeAlreadyRunningException extends RuntimeException {
+    public MonthlyFeeAlreadyRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bankinc.cardmanagement.fraud.application.controller;
+
+import com.bankinc.cardmanagement.fraud.application.service.FraudService;
+import com.bankinc.cardmanagement.fraud.infrastructure.dto.FraudRulesDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/fraud")
+@RequiredArgsConstructor
+public class FraudController {
+
+    private final FraudService fraudService;
+
+    /**
+     * Retrieves the loaded fraud rules with their hits and evaluation times.
+     *
+     * @return a response entity containing the rules
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<FraudRulesDTO> getRules() {
+        return ResponseEntity.ok(fraudService.getRules());
+    }
+
+    /**
+     * Reloads the fraud rules file without waiting for the next check for changes.
+     *
+     * @return a response entity containing the rules loaded
+     */
+    @PostMapping("/rules/reload")
+    public ResponseEntity<FraudRulesDTO> reloadRules() {
+        return ResponseEntity.ok(fraudService.reloadRules());
+    }
+}
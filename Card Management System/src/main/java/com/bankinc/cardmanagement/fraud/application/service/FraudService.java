@@ -0,0 +1,13 @@
+package com.bankinc.cardmanagement.fraud.application.service;
+
+import com.bankinc.cardmanagement.fraud.infrastructure.dto.FraudRulesDTO;
+
+import java.util.function.Supplier;
+
+public interface FraudService {
+    <T> T screen(long cardNumber, long amount, Supplier<T> purchase);
+
+    FraudRulesDTO getRules();
+
+    FraudRulesDTO reloadRules();
+}
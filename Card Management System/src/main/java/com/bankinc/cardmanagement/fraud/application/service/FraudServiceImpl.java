@@ -0,0 +1,274 @@
+package com.bankinc.cardmanagement.fraud.application.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.fraud.domain.model.CardFeatures;
+import com.bankinc.cardmanagement.fraud.domain.model.FraudAction;
+import com.bankinc.cardmanagement.fraud.domain.model.FraudRule;
+import com.bankinc.cardmanagement.fraud.domain.model.FraudRuleDefinition;
+import com.bankinc.cardmanagement.fraud.domain.repository.CardFeatureStore;
+import com.bankinc.cardmanagement.fraud.domain.service.FraudRuleCompiler;
+import com.bankinc.cardmanagement.fraud.infrastructure.config.FraudProperties;
+import com.bankinc.cardmanagement.fraud.infrastructure.dto.FraudRuleStatsDTO;
+import com.bankinc.cardmanagement.fraud.infrastructure.dto.FraudRulesDTO;
+import com.bankinc.cardmanagement.fraud.infrastructure.exception.FraudSuspectedException;
+import com.bankinc.cardmanagement.fraud.infrastructure.exception.InvalidFraudRulesException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Screens purchases with the fraud rules of the rules file. The rules are compiled once
+ * per load and evaluated against the in-memory features of the card, which every
+ * screening updates, so a screening never waits for the database. The rules
+ * file is reloaded when it changes; a file that does not compile leaves the previous
+ * rules in place.
+ */
+@Service
+@Slf4j
+public class FraudServiceImpl implements FraudService {
+
+    private final FraudRuleCompiler compiler;
+    private final FraudProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CardFeatureStore featureStore;
+    private final Path rulesFile;
+    private final long budgetNanos;
+    private final Timer screeningTimer;
+    private final Counter overBudgetCounter;
+    private volatile LoadedRules loadedRules = new LoadedRules(List.of(), null);
+    private long rulesFileModified = -1;
+
+    public FraudServiceImpl(FraudRuleCompiler compiler, FraudProperties properties, MeterRegistry meterRegistry) {
+        this.compiler = compiler;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.featureStore = new CardFeatureStore(properties.getHistorySize(), properties.getDeclineHistorySize());
+        this.rulesFile = Paths.get(properties.getRulesFile());
+        this.budgetNanos = properties.getBudget().toNanos();
+        this.screeningTimer = Timer.builder("bankinc.fraud.screening")
+                .description("Duration of the fraud screening of one purchase")
+                .register(meterRegistry);
+        this.overBudgetCounter = Counter.builder("bankinc.fraud.screening.over.budget")
+                .description("Fraud screenings that took longer than their budget")
+                .register(meterRegistry);
+        meterRegistry.gauge("bankinc.fraud.cards", featureStore, CardFeatureStore::size);
+    }
+
+    @PostConstruct
+    public void open() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Screens a purchase and, unless a rule declines it, makes it. Whether the purchase
+     * was approved or declined is added to the features of the card.
+     *
+     * @param cardNumber the card number
+     * @param amount     the purchase amount, in cents
+     * @param purchase   makes the purchase
+     * @return what the purchase returned
+     * @throws FraudSuspectedException if a rule declines the purchase
+     */
+    @Override
+    public <T> T screen(long cardNumber, long amount, Supplier<T> purchase) {
+        if (!properties.isEnabled()) {
+            return purchase.get();
+        }
+        CardFeatures card = featureStore.get(cardNumber);
+        FraudRule declinedBy = evaluate(cardNumber, card, amount, System.currentTimeMillis());
+        if (declinedBy != null) {
+            log.warn("Purchase of {} for card {} declined by fraud rule {}", Money.format(amount), CardNumbers.format(cardNumber), declinedBy.name());
+            throw new FraudSuspectedException("Purchase declined");
+        }
+        T result;
+        try {
+            result = purchase.get();
+        } catch (BusinessException e) {
+            synchronized (card) {
+                card.recordDecline(System.currentTimeMillis());
+            }
+            throw e;
+        }
+        synchronized (card) {
+            card.recordApproved(amount, properties.getAverageWeight());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the loaded rules with how often each matched and how long it takes.
+     *
+     * @return the rules and their statistics
+     */
+    @Override
+    public FraudRulesDTO getRules() {
+        LoadedRules loaded = loadedRules;
+        List<FraudRuleStatsDTO> rules = new ArrayList<>(loaded.rules().size());
+        for (ActiveRule active : loaded.rules()) {
+            FraudRule rule = active.rule();
+            rules.add(new FraudRuleStatsDTO(rule.name(), rule.type().name(), rule.action().name(),
+                    active.timer().count(), (long) active.hits().count(),
+                    active.timer().mean(TimeUnit.NANOSECONDS), active.timer().max(TimeUnit.NANOSECONDS)));
+        }
+        return new FraudRulesDTO(rulesFile.toString(), loaded.loadedAt(), screeningTimer.count(),
+                (long) overBudgetCounter.count(), rules);
+    }
+
+    /**
+     * Reloads the rules file now.
+     *
+     * @return the rules loaded
+     * @throws InvalidFraudRulesException if the file cannot be read or does not compile; the previous rules stay
+     */
+    @Override
+    public synchronized FraudRulesDTO reloadRules() {
+        try {
+            long modified = modified();
+            load(modified);
+            rulesFileModified = modified;
+        } catch (IOException | RuntimeException e) {
+            throw new InvalidFraudRulesException("Fraud rules not loaded: " + e.getMessage());
+        }
+        return getRules();
+    }
+
+    /**
+     * Reloads the rules file if it changed since it was last read.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.fraud.reload-interval:10s}').toMillis()}")
+    public synchronized void reloadIfChanged() {
+        try {
+            long modified = modified();
+            if (modified != rulesFileModified) {
+                // Remembered before loading, so a broken file is reported once, not on every check.
+                rulesFileModified = modified;
+                load(modified);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Fraud rules in {} not loaded, the previous rules stay: {}", rulesFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets the features of the cards without purchases during the retention period.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.fraud.eviction-interval:5m}').toMillis()}")
+    public void evictIdleCards() {
+        int evicted = featureStore.evictIdle(System.currentTimeMillis() - properties.getIdleCardRetention().toMillis());
+        if (evicted > 0) {
+            log.debug("Fraud features of {} idle cards evicted", evicted);
+        }
+    }
+
+    private FraudRule evaluate(long cardNumber, CardFeatures card, long amount, long now) {
+        FraudRule declinedBy = null;
+        long started = System.nanoTime();
+        synchronized (card) {
+            for (ActiveRule active : loadedRules.rules()) {
+                long ruleStarted = System.nanoTime();
+                boolean matched = active.rule().matches(card, amount, now);
+                active.timer().record(System.nanoTime() - ruleStarted, TimeUnit.NANOSECONDS);
+                if (!matched) {
+                    continue;
+                }
+                active.hits().increment();
+                if (active.rule().action() == FraudAction.DECLINE) {
+                    declinedBy = declinedBy != null ? declinedBy : active.rule();
+                } else {
+                    log.info("Fraud rule {} matched a purchase of {} for card {}", active.rule().name(), Money.format(amount),
+                            CardNumbers.format(cardNumber));
+                }
+            }
+            // Declined attempts count as declines only, so a retried burst never hides behind them.
+            if (declinedBy != null) {
+                card.recordDecline(now);
+            } else {
+                card.recordAttempt(amount, now);
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        screeningTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed > budgetNanos) {
+            overBudgetCounter.increment();
+        }
+        return declinedBy;
+    }
+
+    private void load(long modified) throws IOException {
+        List<FraudRuleDefinition> definitions = modified == 0 ? List.of() : read();
+        List<FraudRule> rules = compiler.compile(definitions);
+
+        List<ActiveRule> active = new ArrayList<>(rules.size());
+        for (FraudRule rule : rules) {
+            active.add(new ActiveRule(rule,
+                    Timer.builder("bankinc.fraud.rule.evaluation")
+                            .description("Duration of the evaluation of one fraud rule")
+                            .tag("rule", rule.name())
+                            .register(meterRegistry),
+                    Counter.builder("bankinc.fraud.rule.hits")
+                            .description("Purchases matched by a fraud rule")
+                            .tag("rule", rule.name())
+                            .tag("action", rule.action().name())
+                            .register(meterRegistry)));
+        }
+        LoadedRules previous = loadedRules;
+        loadedRules = new LoadedRules(List.copyOf(active), LocalDateTime.now());
+        // A rule kept across reloads gets its meters back from the registry; only those of dropped rules go.
+        Set<Meter.Id> kept = new HashSet<>();
+        for (ActiveRule rule : active) {
+            kept.add(rule.timer().getId());
+            kept.add(rule.hits().getId());
+        }
+        for (ActiveRule rule : previous.rules()) {
+            if (!kept.contains(rule.timer().getId())) {
+                meterRegistry.remove(rule.timer());
+            }
+            if (!kept.contains(rule.hits().getId())) {
+                meterRegistry.remove(rule.hits());
+            }
+        }
+        log.info("{} fraud rules loaded from {}", rules.size(), modified == 0 ? "nowhere, the rules file is missing" : rulesFile);
+    }
+
+    private List<FraudRuleDefinition> read() throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader().load(rulesFile.toString(), new FileSystemResource(rulesFile));
+        return new Binder(ConfigurationPropertySources.from(sources))
+                .bind("rules", Bindable.listOf(FraudRuleDefinition.class))
+                .orElse(List.of());
+    }
+
+    private long modified() throws IOException {
+        return Files.exists(rulesFile) ? Files.getLastModifiedTime(rulesFile).toMillis() : 0;
+    }
+
+    private record ActiveRule(FraudRule rule, Timer timer, Counter hits) {
+    }
+
+    private record LoadedRules(List<ActiveRule> rules, LocalDateTime loadedAt) {
+    }
+}
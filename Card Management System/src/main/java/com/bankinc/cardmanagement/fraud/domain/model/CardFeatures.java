@@ -0,0 +1,106 @@
+package com.bankinc.cardmanagement.fraud.domain.model;
+
+/**
+ * In-memory fraud features of one card, updated incrementally on every purchase attempt.
+ * Recent attempts and declines are kept in fixed rings and the average approved amount,
+ * in cents, as an exponentially weighted mean, so reading and updating take constant time and
+ * memory. Not thread-safe: callers synchronize on the instance.
+ */
+public class CardFeatures {
+
+    private final long[] attemptTimes;
+    private final long[] attemptAmounts;
+    private final long[] declineTimes;
+    private long attempts;
+    private long declines;
+    private long approved;
+    private double averageAmount;
+    private volatile long lastSeen;
+
+    public CardFeatures(int historySize, int declineHistorySize) {
+        this.attemptTimes = new long[historySize];
+        this.attemptAmounts = new long[historySize];
+        this.declineTimes = new long[declineHistorySize];
+        this.lastSeen = System.currentTimeMillis();
+    }
+
+    /**
+     * Counts the recent attempts made at or after the given time.
+     *
+     * @param since the oldest time counted, in epoch milliseconds
+     * @return the number of attempts, at most the history size
+     */
+    public int countAttempts(long since) {
+        return countAttempts(since, 0, false);
+    }
+
+    /**
+     * Counts the recent attempts of the given amount made at or after the given time.
+     *
+     * @param since  the oldest time counted, in epoch milliseconds
+     * @param amount the amount, in cents
+     * @return the number of attempts, at most the history size
+     */
+    public int countAttempts(long since, long amount) {
+        return countAttempts(since, amount, true);
+    }
+
+    private int countAttempts(long since, long amount, boolean sameAmount) {
+        int kept = (int) Math.min(attempts, attemptTimes.length);
+        int count = 0;
+        for (int i = 1; i <= kept; i++) {
+            int slot = (int) ((attempts - i) % attemptTimes.length);
+            if (attemptTimes[slot] < since) {
+                break;
+            }
+            if (!sameAmount || attemptAmounts[slot] == amount) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the recent declines at or after the given time.
+     *
+     * @param since the oldest time counted, in epoch milliseconds
+     * @return the number of declines, at most the decline history size
+     */
+    public int countDeclines(long since) {
+        int kept = (int) Math.min(declines, declineTimes.length);
+        int count = 0;
+        for (int i = 1; i <= kept && declineTimes[(int) ((declines - i) % declineTimes.length)] >= since; i++) {
+            count++;
+        }
+        return count;
+    }
+
+    public void recordAttempt(long amount, long at) {
+        int slot = (int) (attempts++ % attemptTimes.length);
+        attemptTimes[slot] = at;
+        attemptAmounts[slot] = amount;
+        lastSeen = at;
+    }
+
+    public void recordApproved(long amount, double weight) {
+        averageAmount = approved == 0 ? amount : averageAmount + weight * (amount - averageAmount);
+        approved++;
+    }
+
+    public void recordDecline(long at) {
+        declineTimes[(int) (declines++ % declineTimes.length)] = at;
+        lastSeen = at;
+    }
+
+    public long getApproved() {
+        return approved;
+    }
+
+    public double getAverageAmount() {
+        return averageAmount;
+    }
+
+    public long getLastSeen() {
+        return lastSeen;
+    }
+}
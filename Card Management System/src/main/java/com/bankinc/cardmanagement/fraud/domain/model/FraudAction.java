@@ -0,0 +1,12 @@
+package com.bankinc.cardmanagement.fraud.domain.model;
+
+public enum FraudAction {
+    /**
+     * The purchase is declined.
+     */
+    DECLINE,
+    /**
+     * The purchase goes on; the hit is only logged and counted.
+     */
+    MONITOR
+}
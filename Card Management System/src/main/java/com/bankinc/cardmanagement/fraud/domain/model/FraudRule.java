@@ -0,0 +1,17 @@
+package com.bankinc.cardmanagement.fraud.domain.model;
+
+/**
+ * A compiled fraud rule: its definition checked and turned into a condition over the
+ * features of a card that allocates nothing when evaluated.
+ */
+public record FraudRule(String name, FraudRuleType type, FraudAction action, Condition condition) {
+
+    @FunctionalInterface
+    public interface Condition {
+        boolean matches(CardFeatures card, long amount, long now);
+    }
+
+    public boolean matches(CardFeatures card, long amount, long now) {
+        return condition.matches(card, amount, now);
+    }
+}
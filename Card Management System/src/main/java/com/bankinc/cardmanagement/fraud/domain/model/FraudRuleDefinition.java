@@ -0,0 +1,21 @@
+package com.bankinc.cardmanagement.fraud.domain.model;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * A fraud rule as written in the rules file. Which parameters apply depends on the type.
+ */
+@Data
+public class FraudRuleDefinition {
+    private String name;
+    private FraudRuleType type;
+    private FraudAction action = FraudAction.DECLINE;
+    private int count;
+    private Duration window;
+    private double factor;
+    private int minHistory;
+    private BigDecimal minAmount = BigDecimal.ZERO;
+}
@@ -0,0 +1,21 @@
+package com.bankinc.cardmanagement.fraud.domain.model;
+
+public enum FraudRuleType {
+    /**
+     * At least {@code count} earlier attempts of the same amount within {@code window}.
+     */
+    DUPLICATE_AMOUNT,
+    /**
+     * At least {@code count} earlier attempts of any amount within {@code window}.
+     */
+    VELOCITY,
+    /**
+     * An amount of at least {@code minAmount} that exceeds {@code factor} times the average
+     * approved amount of a card with at least {@code minHistory} approved purchases.
+     */
+    AMOUNT_DEVIATION,
+    /**
+     * At least {@code count} declines within {@code window}.
+     */
+    DECLINE_RETRY
+}
@@ -0,0 +1,41 @@
+package com.bankinc.cardmanagement.fraud.domain.repository;
+
+import com.bankinc.cardmanagement.fraud.domain.model.CardFeatures;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fraud features of the cards seen recently on this node, by card number.
+ */
+public class CardFeatureStore {
+
+    private final int historySize;
+    private final int declineHistorySize;
+    private final Map<Long, CardFeatures> features = new ConcurrentHashMap<>();
+
+    public CardFeatureStore(int historySize, int declineHistorySize) {
+        this.historySize = historySize;
+        this.declineHistorySize = declineHistorySize;
+    }
+
+    public CardFeatures get(long cardNumber) {
+        return features.computeIfAbsent(cardNumber, key -> new CardFeatures(historySize, declineHistorySize));
+    }
+
+    /**
+     * Forgets the cards without purchase attempts since the given time.
+     *
+     * @param before the time, in epoch milliseconds
+     * @return the number of cards forgotten
+     */
+    public int evictIdle(long before) {
+        int size = features.size();
+        features.values().removeIf(card -> card.getLastSeen() < before);
+        return size - features.size();
+    }
+
+    public int size() {
+        return features.size();
+    }
+}
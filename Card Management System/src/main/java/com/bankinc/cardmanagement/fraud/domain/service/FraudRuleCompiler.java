@@ -0,0 +1,90 @@
+package com.bankinc.cardmanagement.fraud.domain.service;
+
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.fraud.domain.model.FraudRule;
+import com.bankinc.cardmanagement.fraud.domain.model.FraudRuleDefinition;
+import com.bankinc.cardmanagement.fraud.infrastructure.config.FraudProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class FraudRuleCompiler {
+
+    private final FraudProperties properties;
+
+    /**
+     * Checks rule definitions and compiles them, in order.
+     *
+     * @param definitions the rule definitions
+     * @return the compiled rules
+     * @throws IllegalArgumentException if a definition is incomplete or two rules share a name
+     */
+    public List<FraudRule> compile(List<FraudRuleDefinition> definitions) {
+        List<FraudRule> rules = new ArrayList<>(definitions.size());
+        Set<String> names = new HashSet<>();
+        for (FraudRuleDefinition definition : definitions) {
+            String name = definition.getName();
+            require(name != null && !name.isBlank(), "every fraud rule needs a name");
+            require(names.add(name), "fraud rule " + name + " is defined twice");
+            require(definition.getType() != null, "fraud rule " + name + " needs a type");
+            require(definition.getAction() != null, "fraud rule " + name + " needs an action");
+            rules.add(new FraudRule(name, definition.getType(), definition.getAction(), condition(definition)));
+        }
+        return List.copyOf(rules);
+    }
+
+    private FraudRule.Condition condition(FraudRuleDefinition definition) {
+        String name = definition.getName();
+        switch (definition.getType()) {
+            case DUPLICATE_AMOUNT -> {
+                int count = count(definition, properties.getHistorySize());
+                long window = window(definition);
+                return (card, amount, now) -> card.countAttempts(now - window, amount) >= count;
+            }
+            case VELOCITY -> {
+                int count = count(definition, properties.getHistorySize());
+                long window = window(definition);
+                return (card, amount, now) -> card.countAttempts(now - window) >= count;
+            }
+            case DECLINE_RETRY -> {
+                int count = count(definition, properties.getDeclineHistorySize());
+                long window = window(definition);
+                return (card, amount, now) -> card.countDeclines(now - window) >= count;
+            }
+            case AMOUNT_DEVIATION -> {
+                double factor = definition.getFactor();
+                int minHistory = definition.getMinHistory();
+                long minAmount = Money.of(definition.getMinAmount());
+                require(factor > 1, "fraud rule " + name + " needs a factor above 1");
+                require(minHistory > 0, "fraud rule " + name + " needs a positive min-history");
+                return (card, amount, now) -> amount >= minAmount && card.getApproved() >= minHistory
+                        && amount > factor * card.getAverageAmount();
+            }
+            default -> throw new IllegalArgumentException("fraud rule " + name + " has an unsupported type");
+        }
+    }
+
+    private static int count(FraudRuleDefinition definition, int kept) {
+        int count = definition.getCount();
+        require(count > 0 && count <= kept, "fraud rule " + definition.getName() + " needs a count between 1 and " + kept);
+        return count;
+    }
+
+    private static long window(FraudRuleDefinition definition) {
+        require(definition.getWindow() != null && definition.getWindow().toMillis() > 0,
+                "fraud rule " + definition.getName() + " needs a positive window");
+        return definition.getWindow().toMillis();
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bankinc.cardmanagement.fraud.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.fraud")
+public class FraudProperties {
+
+    /**
+     * Whether purchases are screened by the fraud rules.
+     */
+    private boolean enabled = true;
+
+    /**
+     * YAML file holding the fraud rules. It is reloaded when it changes; without it no rule applies.
+     */
+    private String rulesFile = "fraud-rules.yml";
+
+    /**
+     * Interval between checks of the rules file for changes.
+     */
+    private Duration reloadInterval = Duration.ofSeconds(10);
+
+    /**
+     * Number of recent purchase attempts kept per card.
+     */
+    private int historySize = 16;
+
+    /**
+     * Number of recent declines kept per card.
+     */
+    private int declineHistorySize = 8;
+
+    /**
+     * Weight of the latest approved purchase in the average purchase amount of a card.
+     */
+    private double averageWeight = 0.1;
+
+    /**
+     * How long the state of a card without purchases is kept.
+     */
+    private Duration idleCardRetention = Duration.ofHours(24);
+
+    /**
+     * Interval between evictions of idle cards.
+     */
+    private Duration evictionInterval = Duration.ofMinutes(5);
+
+    /**
+     * Time all rules together may take for one purchase. Slower screenings are counted.
+     */
+    private Duration budget = Duration.ofMillis(1);
+}
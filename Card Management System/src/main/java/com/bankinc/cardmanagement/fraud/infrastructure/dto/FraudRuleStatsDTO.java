@@ -0,0 +1,16 @@
+package com.bankinc.cardmanagement.fraud.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FraudRuleStatsDTO {
+    private String name;
+    private String type;
+    private String action;
+    private long evaluations;
+    private long hits;
+    private double meanNanos;
+    private double maxNanos;
+}
@@ -0,0 +1,17 @@
+package com.bankinc.cardmanagement.fraud.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class FraudRulesDTO {
+    private String rulesFile;
+    private LocalDateTime loadedAt;
+    private long screenings;
+    private long screeningsOverBudget;
+    private List<FraudRuleStatsDTO> rules;
+}
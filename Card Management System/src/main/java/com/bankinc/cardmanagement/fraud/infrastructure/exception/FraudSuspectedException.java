@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.fraud.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class FraudSuspectedException extends BusinessException {
+    public FraudSuspectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.fraud.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class InvalidFraudRulesException extends BusinessException {
+    public InvalidFraudRulesException(String message) {
+        super(message);
+    }
+}
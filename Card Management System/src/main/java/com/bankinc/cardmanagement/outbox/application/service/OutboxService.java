@@ -0,0 +1,5 @@
+package com.bankinc.cardmanagement.outbox.application.service;
+
+public interface OutboxService {
+    void relay();
+}
@@ -0,0 +1,325 @@
+package com.bankinc.cardmanagement.outbox.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardActivityEventDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardStatusEventDTO;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxEntry;
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxMessage;
+import com.bankinc.cardmanagement.outbox.domain.repository.OutboxRepository;
+import com.bankinc.cardmanagement.outbox.domain.repository.OutboxSink;
+import com.bankinc.cardmanagement.outbox.infrastructure.config.OutboxProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox of card changes. Balance and status events are collected while
+ * their transaction runs and written to {@code outbox_events} of the same shard in one
+ * batched insert right before it commits, so an event is stored if and only if its change is.
+ *
+ * <p>A relay drains the outbox of every shard in event ID order, in batches, to the
+ * {@link OutboxSink}, and keeps the last delivered event ID of each sink in
+ * {@code outbox_offsets} of the shard. A batch is delivered before its offset commits,
+ * so after a crash it is delivered again: delivery is at least once.
+ *
+ * <p>A shard whose oldest undelivered event is older than the maximum lag, after an outage
+ * of the sink for instance, is relayed in catch-up batches until it is drained, so the
+ * backlog is worked off in fewer, larger transactions.
+ *
+ * <p>An event ID still missing after the gap timeout is recorded in {@code outbox_gaps} and
+ * the relay moves past it; if its transaction commits later, the event is delivered then,
+ * after events with higher IDs. Skipped IDs are checked until the gap retention passes.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int PURGE_LIMIT = 5000;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer appendTimer;
+    private final Timer batchTimer;
+    private final Counter deliveredCounter;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxServiceImpl(OutboxRepository outboxRepository, OutboxSink sink, ShardRouter shardRouter,
+                             ObjectMapper objectMapper, OutboxProperties properties,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.appendTimer = Timer.builder("bankinc.outbox.append")
+                .description("Time added to a committing transaction by writing its outbox events")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("bankinc.outbox.relay.batch")
+                .description("Duration of the delivery of one outbox batch")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("bankinc.outbox.delivered")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        meterRegistry.gauge("bankinc.outbox.lag.millis", lagMillis);
+    }
+
+    @EventListener
+    public void onCardActivity(CardActivityEvent event) {
+        append(event.cardNumber(), event.type().name(), new CardActivityEventDTO(CardNumbers.format(event.cardNumber()),
+                event.type(), event.balance(), event.transactionId(), event.amount(), event.occurredAt()));
+    }
+
+    @EventListener
+    public void onCardStatus(CardStatusEvent event) {
+        append(event.cardNumber(), event.status().name(), new CardStatusEventDTO(CardNumbers.format(event.cardNumber()),
+                event.status(), event.occurredAt()));
+    }
+
+    /**
+     * Delivers the undelivered events of every shard. A shard is drained batch after batch
+     * without pausing until it is caught up, so the relay only rests once it has no lag.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.outbox.relay-interval:200ms}').toMillis()}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long lag = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.set(shard);
+                lag = Math.max(lag, relayShard(shard));
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, retrying later: {}", e.getMessage());
+            return;
+        } finally {
+            ShardContext.clear();
+        }
+        lagMillis.set(lag);
+        if (lag > properties.getMaxLag().toMillis()) {
+            log.warn("Outbox relay was {} ms behind, above the {} ms allowed", lag, properties.getMaxLag().toMillis());
+        }
+    }
+
+    /**
+     * Deletes the delivered events older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.outbox.purge-interval:10m}').toMillis()}")
+    public void purgeDelivered() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getRetention());
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.set(shard);
+                Long delivered = outboxRepository.findOffset(sink.name());
+                int purged;
+                do {
+                    purged = delivered != null ? outboxRepository.deleteDelivered(delivered, createdBefore, PURGE_LIMIT) : 0;
+                } while (purged == PURGE_LIMIT);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge delivered outbox events: {}", e.getMessage());
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    /**
+     * Delivers the undelivered events of the current shard, switching to catch-up batches
+     * once a batch starts with an event older than the maximum lag.
+     *
+     * @return the age in milliseconds of the oldest event undelivered when the shard was
+     *         relayed, or of the oldest one left behind a gap if older, 0 if there was none
+     */
+    private long relayShard(int shard) {
+        long maxLag = properties.getMaxLag().toMillis();
+        int batchSize = properties.getBatchSize();
+        boolean recheckGaps = true;
+        long lag = -1;
+        while (true) {
+            long started = System.nanoTime();
+            boolean recheck = recheckGaps;
+            int size = batchSize;
+            RelayedBatch relayed = transactionTemplate.execute(status -> relayBatch(shard, recheck, size));
+            if (relayed == null) {
+                // Another node is relaying this shard.
+                return 0;
+            }
+            recheckGaps = false;
+            if (lag < 0) {
+                lag = relayed.behind();
+            }
+            if (relayed.delivered() + relayed.late() > 0) {
+                batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                deliveredCounter.increment(relayed.delivered() + relayed.late());
+            }
+            if (relayed.oldestLeft() != null) {
+                return Math.max(lag, Duration.between(relayed.oldestLeft(), LocalDateTime.now()).toMillis());
+            }
+            if (relayed.delivered() < size) {
+                return lag;
+            }
+            if (relayed.behind() > maxLag && batchSize < properties.getCatchUpBatchSize()) {
+                batchSize = properties.getCatchUpBatchSize();
+                log.info("Outbox relay of shard {} is {} ms behind, relaying batches of {} events until caught up",
+                        shard, relayed.behind(), batchSize);
+            }
+        }
+    }
+
+    private RelayedBatch relayBatch(int shard, boolean recheckGaps, int batchSize) {
+        Long offset = outboxRepository.lockOffset(sink.name());
+        if (offset == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int late = recheckGaps ? deliverLate(shard, now) : 0;
+        List<OutboxMessage> events = outboxRepository.findAfter(shard, offset, batchSize);
+        List<Long> skipped = new ArrayList<>();
+        int deliverable = deliverable(events, offset, now.minus(properties.getGapTimeout()), skipped);
+        if (deliverable > 0) {
+            List<OutboxMessage> batch = events.subList(0, deliverable);
+            publish(batch);
+            outboxRepository.saveOffset(sink.name(), batch.get(batch.size() - 1).eventId());
+            if (!skipped.isEmpty()) {
+                outboxRepository.recordGaps(sink.name(), skipped, now);
+            }
+        }
+        long behind = events.isEmpty() ? 0 : Math.max(0, Duration.between(events.get(0).createdAt(), now).toMillis());
+        return new RelayedBatch(deliverable, late, deliverable < events.size() ? events.get(deliverable).createdAt() : null,
+                behind);
+    }
+
+    /**
+     * Delivers the events whose IDs were skipped and that have been committed since, and
+     * forgets the skipped IDs past the gap retention.
+     *
+     * @return the number of events delivered
+     */
+    private int deliverLate(int shard, LocalDateTime now) {
+        List<OutboxMessage> late = outboxRepository.findSkipped(shard, sink.name());
+        if (!late.isEmpty()) {
+            publish(late);
+            outboxRepository.deleteGaps(sink.name(), late.stream().map(OutboxMessage::eventId).toList());
+            log.info("Delivered {} outbox events of shard {} committed after their IDs were skipped", late.size(), shard);
+        }
+        int expired = outboxRepository.deleteGapsSkippedBefore(sink.name(), now.minus(properties.getGapRetention()));
+        if (expired > 0) {
+            log.debug("Forgot {} outbox event IDs of shard {} never committed", expired, shard);
+        }
+        return late.size();
+    }
+
+    private void publish(List<OutboxMessage> batch) {
+        try {
+            sink.publish(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Outbox batch could not be delivered to " + sink.name(), e);
+        }
+    }
+
+    /**
+     * Counts the events that can be delivered in order. Event IDs are handed out when an
+     * event is inserted, but become visible when its transaction commits, so a missing ID
+     * usually belongs to a transaction about to commit. Delivery waits for it unless the
+     * event after the gap is older than the gap timeout; the missing IDs are then added to
+     * {@code skipped} and checked again later.
+     */
+    private static int deliverable(List<OutboxMessage> events, long offset, LocalDateTime gapExpiredBefore,
+                                   List<Long> skipped) {
+        long expected = offset + 1;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxMessage event = events.get(i);
+            if (event.eventId() != expected) {
+                if (event.createdAt().isAfter(gapExpiredBefore)) {
+                    return i;
+                }
+                for (long missing = expected; missing < event.eventId(); missing++) {
+                    skipped.add(missing);
+                }
+            }
+            expected = event.eventId() + 1;
+        }
+        return events.size();
+    }
+
+    private void append(long cardNumber, String eventType, Object payload) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        OutboxEntry entry;
+        try {
+            entry = new OutboxEntry(cardNumber, eventType, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Outbox event could not be serialized", e);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.append(List.of(entry), LocalDateTime.now());
+            return;
+        }
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.add(entry);
+    }
+
+    /**
+     * The events of the current transaction, written in one batch right before it commits.
+     */
+    private final class PendingEntries implements TransactionSynchronization {
+
+        private final List<OutboxEntry> entries = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            long started = System.nanoTime();
+            outboxRepository.append(entries, LocalDateTime.now());
+            appendTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(OutboxServiceImpl.this);
+        }
+    }
+
+    private record RelayedBatch(int delivered, int late, LocalDateTime oldestLeft, long behind) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.bankinc.cardmanagement.outbox.domain.model;
+
+/**
+ * An event waiting to be written to the outbox when its transaction commits.
+ *
+ * @param cardNumber the card the event is about
+ * @param eventType  the kind of event
+ * @param payload    the event as JSON
+ */
+public record OutboxEntry(long cardNumber, String eventType, String payload) {
+}
@@ -0,0 +1,20 @@
+package com.bankinc.cardmanagement.outbox.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event read from the outbox of one shard. Event IDs grow with every event of a shard,
+ * so together with the shard they identify an event and give its order; a sink may see
+ * an event again after a crash and should ignore IDs it already has. An event whose
+ * transaction committed well after it took its ID arrives after events with higher IDs.
+ *
+ * @param shard      the shard the event was written to
+ * @param eventId    the ID of the event in its shard
+ * @param cardNumber the card the event is about
+ * @param eventType  the kind of event, such as {@code PURCHASE} or {@code BLOCKED}
+ * @param payload    the event as JSON
+ * @param createdAt  when the event was written
+ */
+public record OutboxMessage(int shard, long eventId, long cardNumber, String eventType, String payload,
+                            LocalDateTime createdAt) {
+}
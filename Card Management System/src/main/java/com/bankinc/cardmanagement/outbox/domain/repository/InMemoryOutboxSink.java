@@ -0,0 +1,44 @@
+package com.bankinc.cardmanagement.outbox.domain.repository;
+
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the latest delivered events in memory, for tests and in-process consumers.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final ArrayDeque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    /**
+     * Returns the events delivered so far, oldest first, up to the capacity.
+     *
+     * @return a copy of the events
+     */
+    public synchronized List<OutboxMessage> received() {
+        return new ArrayList<>(messages);
+    }
+}
@@ -0,0 +1,173 @@
+package com.bankinc.cardmanagement.outbox.domain.repository;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxEntry;
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The {@code outbox_events} table of the current shard, and the delivery offsets and skipped
+ * event IDs of its sinks.
+ */
+@Repository
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes events in one batched statement, in the current transaction.
+     *
+     * @param entries   the events
+     * @param createdAt when they are written
+     */
+    public void append(List<OutboxEntry> entries, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO outbox_events (card_number, event_type, payload, created_at) VALUES (?, ?, ?, ?)",
+                entries, entries.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.cardNumber());
+                    ps.setString(2, entry.eventType());
+                    ps.setString(3, entry.payload());
+                    ps.setTimestamp(4, timestamp);
+                });
+    }
+
+    /**
+     * Reads the events after an offset, in order.
+     *
+     * @param shard        the current shard, recorded in the messages
+     * @param afterEventId the last event ID delivered
+     * @param limit        the maximum number of events
+     * @return the events
+     */
+    public List<OutboxMessage> findAfter(int shard, long afterEventId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT event_id, card_number, event_type, payload, created_at FROM outbox_events "
+                        + "WHERE event_id > ? ORDER BY event_id LIMIT ?",
+                (rs, rowNum) -> new OutboxMessage(shard, rs.getLong(1), rs.getLong(2), rs.getString(3),
+                        rs.getString(4), rs.getTimestamp(5).toLocalDateTime()),
+                afterEventId, limit);
+    }
+
+    /**
+     * Reads the events that were missing when a sink skipped their IDs and have been committed since.
+     *
+     * @param shard the current shard, recorded in the messages
+     * @param sink  the sink name
+     * @return the events, in order
+     */
+    public List<OutboxMessage> findSkipped(int shard, String sink) {
+        return jdbcTemplate.query(
+                "SELECT e.event_id, e.card_number, e.event_type, e.payload, e.created_at FROM outbox_events e "
+                        + "JOIN outbox_gaps g ON g.event_id = e.event_id WHERE g.sink_name = ? ORDER BY e.event_id",
+                (rs, rowNum) -> new OutboxMessage(shard, rs.getLong(1), rs.getLong(2), rs.getString(3),
+                        rs.getString(4), rs.getTimestamp(5).toLocalDateTime()),
+                sink);
+    }
+
+    /**
+     * Records event IDs a sink moved past while they were missing, in the current transaction.
+     *
+     * @param sink      the sink name
+     * @param eventIds  the missing event IDs
+     * @param skippedAt when they were skipped
+     */
+    public void recordGaps(String sink, List<Long> eventIds, LocalDateTime skippedAt) {
+        Timestamp timestamp = Timestamp.valueOf(skippedAt);
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO outbox_gaps (sink_name, event_id, skipped_at) VALUES (?, ?, ?)",
+                eventIds, eventIds.size(), (ps, eventId) -> {
+                    ps.setString(1, sink);
+                    ps.setLong(2, eventId);
+                    ps.setTimestamp(3, timestamp);
+                });
+    }
+
+    /**
+     * Forgets skipped event IDs, once their events are delivered.
+     *
+     * @param sink     the sink name
+     * @param eventIds the event IDs
+     */
+    public void deleteGaps(String sink, List<Long> eventIds) {
+        jdbcTemplate.batchUpdate("DELETE FROM outbox_gaps WHERE sink_name = ? AND event_id = ?",
+                eventIds, eventIds.size(), (ps, eventId) -> {
+                    ps.setString(1, sink);
+                    ps.setLong(2, eventId);
+                });
+    }
+
+    /**
+     * Forgets the event IDs skipped before the given time, whose transactions were rolled back.
+     *
+     * @param sink          the sink name
+     * @param skippedBefore the oldest skip kept
+     * @return the number of event IDs forgotten
+     */
+    public int deleteGapsSkippedBefore(String sink, LocalDateTime skippedBefore) {
+        return jdbcTemplate.update("DELETE FROM outbox_gaps WHERE sink_name = ? AND skipped_at < ?",
+                sink, Timestamp.valueOf(skippedBefore));
+    }
+
+    /**
+     * Locks the offset of a sink until the end of the transaction, creating it on first use.
+     * Only one node relays a shard to a sink at a time; the others skip it.
+     *
+     * @param sink the sink name
+     * @return the last event ID delivered to the sink, or null if another node holds the lock
+     */
+    public Long lockOffset(String sink) {
+        Long offset = selectOffsetForUpdate(sink);
+        if (offset != null || findOffset(sink) != null) {
+            return offset;
+        }
+        jdbcTemplate.update("INSERT IGNORE INTO outbox_offsets (sink_name, delivered_id, updated_at) VALUES (?, 0, ?)",
+                sink, Timestamp.valueOf(LocalDateTime.now()));
+        return selectOffsetForUpdate(sink);
+    }
+
+    /**
+     * Returns the offset of a sink without locking it.
+     *
+     * @param sink the sink name
+     * @return the last event ID delivered to the sink, or null if nothing was relayed to it yet
+     */
+    public Long findOffset(String sink) {
+        List<Long> offsets = jdbcTemplate.queryForList("SELECT delivered_id FROM outbox_offsets WHERE sink_name = ?",
+                Long.class, sink);
+        return offsets.isEmpty() ? null : offsets.get(0);
+    }
+
+    public void saveOffset(String sink, long deliveredId) {
+        jdbcTemplate.update("UPDATE outbox_offsets SET delivered_id = ?, updated_at = ? WHERE sink_name = ?",
+                deliveredId, Timestamp.valueOf(LocalDateTime.now()), sink);
+    }
+
+    /**
+     * Deletes delivered events written before the given time, a bounded number at a time.
+     * Events whose ID was skipped are kept until they are delivered.
+     *
+     * @param upToEventId   the last event ID delivered
+     * @param createdBefore the oldest time kept
+     * @param limit         the maximum number of events deleted
+     * @return the number of events deleted
+     */
+    public int deleteDelivered(long upToEventId, LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE event_id <= ? AND created_at < ? "
+                        + "AND event_id NOT IN (SELECT event_id FROM outbox_gaps) ORDER BY event_id LIMIT ?",
+                upToEventId, Timestamp.valueOf(createdBefore), limit);
+    }
+
+    private Long selectOffsetForUpdate(String sink) {
+        List<Long> offsets = jdbcTemplate.queryForList(
+                "SELECT delivered_id FROM outbox_offsets WHERE sink_name = ? FOR UPDATE SKIP LOCKED", Long.class, sink);
+        return offsets.isEmpty() ? null : offsets.get(0);
+    }
+}
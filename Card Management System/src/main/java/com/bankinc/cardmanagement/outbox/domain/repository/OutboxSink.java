@@ -0,0 +1,23 @@
+package com.bankinc.cardmanagement.outbox.domain.repository;
+
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the outbox relay delivers events. A batch holds the events of one shard in order;
+ * it counts as delivered once {@link #publish(List)} returns, so a sink returns only when
+ * the batch is safely handed over. A batch interrupted by a crash is delivered again.
+ */
+public interface OutboxSink {
+
+    /**
+     * Names the sink. Delivery offsets are kept per name.
+     *
+     * @return the sink name
+     */
+    String name();
+
+    void publish(List<OutboxMessage> batch) throws IOException;
+}
@@ -0,0 +1,80 @@
+package com.bankinc.cardmanagement.outbox.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.outbox")
+public class OutboxProperties {
+
+    public enum Sink {
+        FILE,
+        MEMORY
+    }
+
+    /**
+     * Whether card changes are written to the outbox and relayed.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Where the relay delivers events, unless a primary {@code OutboxSink} bean is defined.
+     */
+    private Sink sink = Sink.FILE;
+
+    /**
+     * File the file sink appends events to, one JSON line each.
+     */
+    private String file = "outbox/events.jsonl";
+
+    /**
+     * Number of latest events the in-memory sink keeps.
+     */
+    private int memoryCapacity = 10000;
+
+    /**
+     * Pause between relay runs once the outbox is drained.
+     */
+    private Duration relayInterval = Duration.ofMillis(200);
+
+    /**
+     * Number of events delivered per batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of events delivered per batch while a shard is more than {@link #maxLag} behind.
+     */
+    private int catchUpBatchSize = 5000;
+
+    /**
+     * How long an event ID may stay missing before the relay delivers the events after it.
+     * A missing ID usually belongs to a transaction still committing, so the relay records it
+     * and delivers its event late if it shows up.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a skipped event ID is checked for a late commit before it is taken as rolled
+     * back. Must exceed the longest transaction that writes card events.
+     */
+    private Duration gapRetention = Duration.ofHours(1);
+
+    /**
+     * Age of the oldest undelivered event above which the relay switches to catch-up batches
+     * and reports that it is falling behind.
+     */
+    private Duration maxLag = Duration.ofSeconds(30);
+
+    /**
+     * How long delivered events stay in the outbox before they are deleted.
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * Interval between deletions of delivered events past their retention.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,27 @@
+package com.bankinc.cardmanagement.outbox.infrastructure.config;
+
+import com.bankinc.cardmanagement.outbox.domain.repository.FileOutboxSink;
+import com.bankinc.cardmanagement.outbox.domain.repository.InMemoryOutboxSink;
+import com.bankinc.cardmanagement.outbox.domain.repository.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * The sink the outbox relay delivers to. Another {@link OutboxSink} bean marked
+ * {@code @Primary}, such as one publishing to a message broker, takes its place.
+ */
+@Configuration
+public class OutboxSinkConfig {
+
+    @Bean
+    public OutboxSink outboxSink(OutboxProperties properties, ObjectMapper objectMapper) throws IOException {
+        return switch (properties.getSink()) {
+            case FILE -> new FileOutboxSink(Paths.get(properties.getFile()), objectMapper);
+            case MEMORY -> new InMemoryOutboxSink(properties.getMemoryCapacity());
+        };
+    }
+}
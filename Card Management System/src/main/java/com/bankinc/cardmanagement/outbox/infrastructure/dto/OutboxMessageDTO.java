@@ -0,0 +1,18 @@
+package com.bankinc.cardmanagement.outbox.infrastructure.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class OutboxMessageDTO {
+    private int shard;
+    private long eventId;
+    private String eventType;
+    private LocalDateTime createdAt;
+    @JsonRawValue
+    private String payload;
+}
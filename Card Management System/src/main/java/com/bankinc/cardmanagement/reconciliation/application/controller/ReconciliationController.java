@@ -0,0 +1,31 @@
+package com.bankinc.cardmanagement.reconciliation.application.controller;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.reconciliation.application.service.ReconciliationService;
+import com.bankinc.cardmanagement.reconciliation.infrastructure.dto.ReconciliationReportDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnJpaStorage
+@RequestMapping("/reconciliation")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.reconciliation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    /**
+     * Runs a balance reconciliation immediately.
+     *
+     * @return a response entity containing the reconciliation summary
+     */
+    @PostMapping("/run")
+    public ResponseEntity<ReconciliationReportDTO> reconcile() {
+        return ResponseEntity.ok(reconciliationService.reconcile());
+    }
+}
@@ -0,0 +1,24 @@
+package com.bankinc.cardmanagement.reconciliation.application.service;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.reconciliation", name = {"enabled", "scheduled"}, havingValue = "true")
+public class ReconciliationScheduler {
+
+    private final ReconciliationService reconciliationService;
+
+    /**
+     * Runs the nightly balance reconciliation.
+     */
+    @Scheduled(cron = "${bankinc.reconciliation.cron}")
+    public void reconcile() {
+        reconciliationService.reconcile();
+    }
+}
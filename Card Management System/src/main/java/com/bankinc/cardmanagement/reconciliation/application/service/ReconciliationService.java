@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.reconciliation.application.service;
+
+import com.bankinc.cardmanagement.reconciliation.infrastructure.dto.ReconciliationReportDTO;
+
+public interface ReconciliationService {
+    ReconciliationReportDTO reconcile();
+}
@@ -0,0 +1,148 @@
+package com.bankinc.cardmanagement.reconciliation.application.service;
+
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.reconciliation.domain.model.BalanceDiscrepancy;
+import com.bankinc.cardmanagement.reconciliation.domain.model.CardChunk;
+import com.bankinc.cardmanagement.reconciliation.domain.model.LedgerPage;
+import com.bankinc.cardmanagement.reconciliation.domain.repository.LedgerRepository;
+import com.bankinc.cardmanagement.reconciliation.domain.service.BalanceReconciler;
+import com.bankinc.cardmanagement.reconciliation.infrastructure.config.ReconciliationProperties;
+import com.bankinc.cardmanagement.reconciliation.infrastructure.dto.ReconciliationReportDTO;
+import com.bankinc.cardmanagement.reconciliation.infrastructure.exception.ReconciliationAlreadyRunningException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final LedgerRepository ledgerRepository;
+    private final BalanceReconciler balanceReconciler;
+    private final ShardRouter shardRouter;
+    private final ReconciliationProperties properties;
+    private final TransactionTemplate snapshotTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReconciliationServiceImpl(LedgerRepository ledgerRepository, BalanceReconciler balanceReconciler,
+                                     ShardRouter shardRouter, ReconciliationProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.ledgerRepository = ledgerRepository;
+        this.balanceReconciler = balanceReconciler;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Compares the balance of every card with the sum of its recharges minus its
+     * non-annulled purchases. Cards are processed in chunks, each read from a single
+     * consistent, lock-free snapshot, and every discrepancy is written to a report file.
+     *
+     * @return a summary of the reconciliation
+     * @throws ReconciliationAlreadyRunningException if a reconciliation is already in progress
+     */
+    @Override
+    public ReconciliationReportDTO reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ReconciliationAlreadyRunningException("A reconciliation is already running");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Path reportFile = Path.of(properties.getReportDirectory(), "reconciliation-" + startedAt.format(FILE_TIMESTAMP) + ".csv");
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        Run run = new Run();
+        try {
+            Files.createDirectories(reportFile.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(reportFile)) {
+                writer.write("card_number;balance;expected_balance;difference");
+                writer.newLine();
+                for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                    ShardContext.set(shard);
+                    reconcileShard(pool, writer, run);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write reconciliation report " + reportFile, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Reconciliation interrupted after {} cards", run.cardsChecked);
+        } finally {
+            ShardContext.clear();
+            pool.shutdown();
+            running.set(false);
+        }
+
+        log.info("Reconciliation checked {} cards and {} entries, found {} discrepancies",
+                run.cardsChecked, run.entriesRead, run.discrepancyCount);
+        return new ReconciliationReportDTO(startedAt, LocalDateTime.now(), run.cardsChecked, run.entriesRead,
+                run.discrepancyCount, reportFile.toString(), run.discrepancies);
+    }
+
+    private void reconcileShard(ForkJoinPool pool, BufferedWriter writer, Run run) throws IOException, InterruptedException {
+        CardChunk chunk = new CardChunk(properties.getChunkSize());
+        LedgerPage page = new LedgerPage(properties.getPageSize());
+        long lastCardId = 0;
+        while (true) {
+            long afterCardId = lastCardId;
+            List<BalanceDiscrepancy> discrepancies = snapshotTemplate.execute(status -> {
+                ledgerRepository.loadCards(afterCardId, chunk, properties.getChunkSize());
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+                page.rewind();
+                do {
+                    ledgerRepository.loadEntries(chunk, page);
+                    balanceReconciler.accumulate(pool, chunk, page);
+                    run.entriesRead += page.size();
+                } while (page.isFull());
+                return balanceReconciler.compare(chunk);
+            });
+            if (discrepancies == null) {
+                return;
+            }
+
+            for (BalanceDiscrepancy discrepancy : discrepancies) {
+                writer.write(discrepancy.getCardNumber() + ";" + Money.format(discrepancy.getBalance()) + ";"
+                        + Money.format(discrepancy.getExpectedBalance()) + ";" + Money.format(discrepancy.getDifference()));
+                writer.newLine();
+                if (run.discrepancies.size() < properties.getMaxReportedDiscrepancies()) {
+                    run.discrepancies.add(discrepancy);
+                }
+            }
+            run.discrepancyCount += discrepancies.size();
+            run.cardsChecked += chunk.size();
+            lastCardId = chunk.lastCardId();
+
+            Thread.sleep(properties.getThrottle().toMillis());
+        }
+    }
+
+    private static final class Run {
+        private long cardsChecked;
+        private long entriesRead;
+        private long discrepancyCount;
+        private final List<BalanceDiscrepancy> discrepancies = new ArrayList<>();
+    }
+}
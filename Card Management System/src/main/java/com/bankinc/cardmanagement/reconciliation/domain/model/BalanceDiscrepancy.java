@@ -0,0 +1,20 @@
+package com.bankinc.cardmanagement.reconciliation.domain.model;
+
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BalanceDiscrepancy {
+    private String cardNumber;
+    @MinorUnits
+    private long balance;
+    @MinorUnits
+    private long expectedBalance;
+
+    @MinorUnits
+    public long getDifference() {
+        return balance - expectedBalance;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bankinc.cardmanagement.reconciliation.domain.model;
+
+import java.util.Arrays;
+
+/**
+ * A card-ordered slice of {@code cards} together with the balances expected from
+ * their ledger entries, in cents. Backed by primitive arrays so a chunk costs a fixed amount
+ * of memory regardless of how many transactions its cards have.
+ */
+public class CardChunk {
+
+    private final long[] cardIds;
+    private final long[] cardNumbers;
+    private final long[] balances;
+    private final long[] expectedBalances;
+    private int size;
+
+    public CardChunk(int capacity) {
+        this.cardIds = new long[capacity];
+        this.cardNumbers = new long[capacity];
+        this.balances = new long[capacity];
+        this.expectedBalances = new long[capacity];
+    }
+
+    /**
+     * Appends a card. Cards must be added in ascending card ID order.
+     *
+     * @param cardId     the card ID
+     * @param cardNumber the card number
+     * @param balance    the balance stored in {@code cards}
+     */
+    public void add(long cardId, long cardNumber, long balance) {
+        cardIds[size] = cardId;
+        cardNumbers[size] = cardNumber;
+        balances[size] = balance;
+        expectedBalances[size] = 0;
+        size++;
+    }
+
+    /**
+     * Returns the position of a card in this chunk.
+     *
+     * @param cardId the card ID
+     * @return the position, or a negative value if the card is not in the chunk
+     */
+    public int indexOf(long cardId) {
+        return Arrays.binarySearch(cardIds, 0, size, cardId);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long firstCardId() {
+        return cardIds[0];
+    }
+
+    public long lastCardId() {
+        return cardIds[size - 1];
+    }
+
+    public long cardNumber(int index) {
+        return cardNumbers[index];
+    }
+
+    public long balance(int index) {
+        return balances[index];
+    }
+
+    public long expectedBalance(int index) {
+        return expectedBalances[index];
+    }
+
+    public void addToExpectedBalance(int index, long amount) {
+        expectedBalances[index] += amount;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bankinc.cardmanagement.reconciliation.domain.model;
+
+/**
+ * A bounded, card-ordered page of balance-affecting ledger entries of one {@link CardChunk}.
+ * Each entry is stored as the position of its card in the chunk and its signed amount in cents.
+ */
+public class LedgerPage {
+
+    private final int[] cardIndexes;
+    private final long[] signedAmounts;
+    private int size;
+    private long lastCardId;
+    private long lastTransactionId;
+
+    public LedgerPage(int capacity) {
+        this.cardIndexes = new int[capacity];
+        this.signedAmounts = new long[capacity];
+    }
+
+    /**
+     * Appends an entry. Entries must be added in (card ID, transaction ID) order.
+     *
+     * @param cardIndex     the position of the card in its chunk
+     * @param signedAmount  the amount the entry adds to (positive) or deducts from (negative) the balance
+     * @param cardId        the card ID, kept as the keyset position of the next page
+     * @param transactionId the transaction ID, kept as the keyset position of the next page
+     */
+    public void add(int cardIndex, long signedAmount, long cardId, long transactionId) {
+        cardIndexes[size] = cardIndex;
+        signedAmounts[size] = signedAmount;
+        lastCardId = cardId;
+        lastTransactionId = transactionId;
+        size++;
+    }
+
+    /**
+     * Empties the page, keeping the keyset position of the last entry.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Resets the keyset position to the start of a chunk.
+     */
+    public void rewind() {
+        size = 0;
+        lastCardId = 0;
+        lastTransactionId = 0;
+    }
+
+    public boolean isFull() {
+        return size == cardIndexes.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return cardIndexes.length;
+    }
+
+    public int cardIndex(int row) {
+        return cardIndexes[row];
+    }
+
+    public long signedAmount(int row) {
+        return signedAmounts[row];
+    }
+
+    public long lastCardId() {
+        return lastCardId;
+    }
+
+    public long lastTransactionId() {
+        return lastTransactionId;
+    }
+}
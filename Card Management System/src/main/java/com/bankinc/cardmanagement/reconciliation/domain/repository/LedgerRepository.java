@@ -0,0 +1,62 @@
+package com.bankinc.cardmanagement.reconciliation.domain.repository;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.reconciliation.domain.model.CardChunk;
+import com.bankinc.cardmanagement.reconciliation.domain.model.LedgerPage;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keyset reads of {@code cards} and {@code transactions} for the reconciliation job.
+ * Every read is index-driven and bounded by the capacity of the buffer it fills.
+ */
+@Repository
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+public class LedgerRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads the next cards after the given card ID.
+     *
+     * @param afterCardId the last card ID of the previous chunk, or 0 to start
+     * @param chunk       the chunk to fill, up to its capacity
+     * @param capacity    the number of cards to read
+     */
+    public void loadCards(long afterCardId, CardChunk chunk, int capacity) {
+        chunk.clear();
+        jdbcTemplate.query(
+                "SELECT card_id, card_number, balance FROM cards WHERE card_id > ? ORDER BY card_id LIMIT ?",
+                rs -> {
+                    chunk.add(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+                },
+                afterCardId, capacity);
+    }
+
+    /**
+     * Loads the next page of balance-affecting entries of the chunk's cards, continuing
+     * after the last entry of the page. Annulled purchases are skipped.
+     *
+     * @param chunk the chunk the entries belong to
+     * @param page  the page to fill, up to its capacity
+     */
+    public void loadEntries(CardChunk chunk, LedgerPage page) {
+        long lastCardId = page.lastCardId();
+        long lastTransactionId = page.lastTransactionId();
+        page.clear();
+        jdbcTemplate.query(
+                "SELECT card_id, transaction_id, type, amount FROM transactions "
+                        + "WHERE card_id BETWEEN ? AND ? AND is_annulled = false "
+                        + "AND (card_id > ? OR (card_id = ? AND transaction_id > ?)) "
+                        + "ORDER BY card_id, transaction_id LIMIT ?",
+                rs -> {
+                    long cardId = rs.getLong(1);
+                    TransactionType type = TransactionType.valueOf(rs.getString(3));
+                    page.add(chunk.indexOf(cardId), type.getBalanceSign() * rs.getLong(4), cardId, rs.getLong(2));
+                },
+                chunk.firstCardId(), chunk.lastCardId(), lastCardId, lastCardId, lastTransactionId, page.capacity());
+    }
+}
@@ -0,0 +1,95 @@
+package com.bankinc.cardmanagement.reconciliation.domain.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.reconciliation.domain.model.BalanceDiscrepancy;
+import com.bankinc.cardmanagement.reconciliation.domain.model.CardChunk;
+import com.bankinc.cardmanagement.reconciliation.domain.model.LedgerPage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+@Service
+public class BalanceReconciler {
+
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    /**
+     * Adds the entries of a page to the expected balances of their cards. The page is
+     * split into card-aligned ranges summed in parallel; since entries are card-ordered,
+     * each card is summed by exactly one task and no synchronization is needed.
+     *
+     * @param pool  the pool running the summation
+     * @param chunk the chunk holding the expected balances
+     * @param page  the entries to add
+     */
+    public void accumulate(ForkJoinPool pool, CardChunk chunk, LedgerPage page) {
+        if (page.size() == 0) {
+            return;
+        }
+        pool.invoke(new SumTask(chunk, page, 0, page.size()));
+    }
+
+    /**
+     * Compares the stored balance of every card in the chunk with its expected balance.
+     * Amounts are exact cents, so any difference is a discrepancy.
+     *
+     * @param chunk the chunk to check, with all its entries accumulated
+     * @return the cards whose balances do not match
+     */
+    public List<BalanceDiscrepancy> compare(CardChunk chunk) {
+        List<BalanceDiscrepancy> discrepancies = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.balance(i) != chunk.expectedBalance(i)) {
+                discrepancies.add(new BalanceDiscrepancy(CardNumbers.format(chunk.cardNumber(i)), chunk.balance(i), chunk.expectedBalance(i)));
+            }
+        }
+        return discrepancies;
+    }
+
+    private static final class SumTask extends RecursiveAction {
+
+        private final CardChunk chunk;
+        private final LedgerPage page;
+        private final int from;
+        private final int to;
+
+        private SumTask(CardChunk chunk, LedgerPage page, int from, int to) {
+            this.chunk = chunk;
+            this.page = page;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int split = cardBoundaryAfter((from + to) >>> 1);
+                if (split < to) {
+                    invokeAll(new SumTask(chunk, page, from, split), new SumTask(chunk, page, split, to));
+                    return;
+                }
+            }
+            int row = from;
+            while (row < to) {
+                int cardIndex = page.cardIndex(row);
+                long sum = 0;
+                while (row < to && page.cardIndex(row) == cardIndex) {
+                    sum += page.signedAmount(row);
+                    row++;
+                }
+                chunk.addToExpectedBalance(cardIndex, sum);
+            }
+        }
+
+        private int cardBoundaryAfter(int row) {
+            int cardIndex = page.cardIndex(row);
+            while (row < to && page.cardIndex(row) == cardIndex) {
+                row++;
+            }
+            return row;
+        }
+    }
+}
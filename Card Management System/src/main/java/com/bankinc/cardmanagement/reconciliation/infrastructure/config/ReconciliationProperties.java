@@ -0,0 +1,56 @@
+package com.bankinc.cardmanagement.reconciliation.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.reconciliation")
+public class ReconciliationProperties {
+
+    /**
+     * Whether balances can be reconciled against the ledger. Requires the JPA storage engine.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the reconciliation runs on its schedule.
+     */
+    private boolean scheduled = false;
+
+    /**
+     * When the scheduled reconciliation runs.
+     */
+    private String cron = "0 0 3 * * *";
+
+    /**
+     * Number of cards compared per chunk. Each chunk is read in its own short, read-only transaction.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Maximum number of ledger entries held in memory at once.
+     */
+    private int pageSize = 20000;
+
+    /**
+     * Number of threads summing ledger entries.
+     */
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Pause between chunks, leaving database capacity to live traffic.
+     */
+    private Duration throttle = Duration.ofMillis(50);
+
+    /**
+     * Directory the discrepancy report files are written to.
+     */
+    private String reportDirectory = "reports/reconciliation";
+
+    /**
+     * Maximum number of discrepancies returned in the summary. The report file lists all of them.
+     */
+    private int maxReportedDiscrepancies = 100;
+}
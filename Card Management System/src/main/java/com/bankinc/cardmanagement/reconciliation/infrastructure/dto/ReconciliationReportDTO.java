@@ -0,0 +1,20 @@
+package com.bankinc.cardmanagement.reconciliation.infrastructure.dto;
+
+import com.bankinc.cardmanagement.reconciliation.domain.model.BalanceDiscrepancy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ReconciliationReportDTO {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long cardsChecked;
+    private long entriesRead;
+    private long discrepancyCount;
+    private String reportFile;
+    private List<BalanceDiscrepancy> discrepancies;
+}
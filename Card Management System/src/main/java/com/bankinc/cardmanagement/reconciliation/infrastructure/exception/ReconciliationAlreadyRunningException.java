@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.reconciliation.infrastructure.exception;
+
+public class ReconciliationAlreadyRunningException extends RuntimeException {
+    public ReconciliationAlreadyRunningException(String message) {
+        super(message);
+    }
+}
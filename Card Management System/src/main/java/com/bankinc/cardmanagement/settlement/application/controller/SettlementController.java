@@ -0,0 +1,37 @@
+package com.bankinc.cardmanagement.settlement.application.controller;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.settlement.application.service.SettlementService;
+import com.bankinc.cardmanagement.settlement.infrastructure.dto.SettlementReportDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@ConditionalOnJpaStorage
+@RequestMapping("/settlement")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.settlement", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SettlementController {
+
+    private final SettlementService settlementService;
+
+    /**
+     * Generates the settlement files of a day immediately, replacing any earlier ones.
+     *
+     * @param date the day to settle, as {@code yyyy-MM-dd}; the previous day if omitted
+     * @return a response entity containing the generation summary
+     */
+    @PostMapping("/run")
+    public ResponseEntity<SettlementReportDTO> generate(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(settlementService.generate(date != null ? date : LocalDate.now().minusDays(1)));
+    }
+}
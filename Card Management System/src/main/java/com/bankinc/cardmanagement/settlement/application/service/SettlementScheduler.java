@@ -0,0 +1,26 @@
+package com.bankinc.cardmanagement.settlement.application.service;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.settlement", name = {"enabled", "scheduled"}, havingValue = "true")
+public class SettlementScheduler {
+
+    private final SettlementService settlementService;
+
+    /**
+     * Generates the settlement files of the previous day.
+     */
+    @Scheduled(cron = "${bankinc.settlement.cron}")
+    public void generate() {
+        settlementService.generate(LocalDate.now().minusDays(1));
+    }
+}
@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.settlement.application.service;
+
+import com.bankinc.cardmanagement.settlement.infrastructure.dto.SettlementReportDTO;
+
+import java.time.LocalDate;
+
+public interface SettlementService {
+    SettlementReportDTO generate(LocalDate settlementDate);
+}
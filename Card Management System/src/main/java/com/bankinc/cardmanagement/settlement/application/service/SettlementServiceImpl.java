@@ -0,0 +1,84 @@
+package com.bankinc.cardmanagement.settlement.application.service;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.settlement.domain.repository.SettlementFiles;
+import com.bankinc.cardmanagement.settlement.domain.repository.SettlementRepository;
+import com.bankinc.cardmanagement.settlement.infrastructure.config.SettlementProperties;
+import com.bankinc.cardmanagement.settlement.infrastructure.dto.SettlementFileDTO;
+import com.bankinc.cardmanagement.settlement.infrastructure.dto.SettlementReportDTO;
+import com.bankinc.cardmanagement.settlement.infrastructure.exception.SettlementAlreadyRunningException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class SettlementServiceImpl implements SettlementService {
+
+    private final SettlementRepository settlementRepository;
+    private final ShardRouter shardRouter;
+    private final SettlementProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SettlementServiceImpl(SettlementRepository settlementRepository, ShardRouter shardRouter,
+                                 SettlementProperties properties) {
+        this.settlementRepository = settlementRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    /**
+     * Writes one settlement file per product with the purchases made and the purchases
+     * annulled on a day. The day is streamed from every shard once, and the files are
+     * written while it is being read.
+     *
+     * @param settlementDate the day to settle
+     * @return a summary of the generated files
+     * @throws SettlementAlreadyRunningException if settlement files are already being generated
+     */
+    @Override
+    public SettlementReportDTO generate(LocalDate settlementDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new SettlementAlreadyRunningException("Settlement files are already being generated");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Path directory = Path.of(properties.getDirectory(), settlementDate.format(DateTimeFormatter.BASIC_ISO_DATE));
+        ExecutorService writers = Executors.newFixedThreadPool(properties.getWriterThreads());
+        List<SettlementFileDTO> summaries;
+        try (SettlementFiles files = new SettlementFiles(directory, settlementDate, startedAt,
+                (int) properties.getBufferSize().toBytes(), properties.getMaxBuffersInFlight(), writers)) {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.set(shard);
+                int source = shard;
+                settlementRepository.streamDay(settlementDate, record -> {
+                    record.setTransactionId(shardRouter.externalTransactionId(record.getTransactionId(), source));
+                    files.write(record);
+                });
+            }
+            summaries = files.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write settlement files to " + directory, e);
+        } finally {
+            ShardContext.clear();
+            writers.shutdown();
+            running.set(false);
+        }
+
+        long records = summaries.stream().mapToLong(SettlementFileDTO::getRecords).sum();
+        log.info("Settlement of {} wrote {} records to {} files", settlementDate, records, summaries.size());
+        return new SettlementReportDTO(settlementDate, startedAt, LocalDateTime.now(), records, summaries);
+    }
+}
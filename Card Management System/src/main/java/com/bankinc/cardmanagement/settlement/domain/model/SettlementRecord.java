@@ -0,0 +1,42 @@
+package com.bankinc.cardmanagement.settlement.domain.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One purchase or annulment of a settlement file. A single instance is refilled for every
+ * row read, so streaming a day of transactions allocates no record per row.
+ */
+@Data
+public class SettlementRecord {
+
+    public enum Type {
+        PURCHASE('P'),
+        ANNULMENT('A');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        /**
+         * Returns the code of the record type in the settlement file.
+         *
+         * @return 'P' for purchases, 'A' for annulments
+         */
+        public char getCode() {
+            return code;
+        }
+    }
+
+    private Type type;
+    private long transactionId;
+    private long cardNumber;
+    /**
+     * In cents.
+     */
+    private long amount;
+    private LocalDateTime occurredAt;
+}
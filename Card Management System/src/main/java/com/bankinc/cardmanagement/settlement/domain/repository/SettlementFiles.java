@@ -0,0 +1,286 @@
+package com.bankinc.cardmanagement.settlement.domain.repository;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.settlement.domain.model.SettlementRecord;
+import com.bankinc.cardmanagement.settlement.infrastructure.dto.SettlementFileDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+
+/**
+ * The fixed-width settlement files of one day, one per product ID. Records are encoded
+ * into a buffer per file by the reading thread; full buffers are written on the writer
+ * threads, in order within a file and in parallel across files. Memory use is bounded by
+ * one buffer per file plus the buffers in flight.
+ *
+ * <p>A file is written under a temporary name and only moved to its final name once its
+ * trailer is on disk, so partners never pick up a partial file.
+ *
+ * <pre>
+ * header  (80 bytes + LF): "H", product ID (6), settlement date yyyyMMdd (8), created at yyyyMMddHHmmss (14), spaces
+ * detail  (80 bytes + LF): "D", type P or A (1), transaction ID (19), card number (16), amount in cents (15),
+ *                          occurred at yyyyMMddHHmmss (14), spaces
+ * trailer (80 bytes + LF): "T", product ID (6), detail count (12), purchase total in cents (18),
+ *                          annulment total in cents (18), CRC32 of the detail lines in hex (8), spaces
+ * </pre>
+ */
+@Slf4j
+public class SettlementFiles implements AutoCloseable {
+
+    public static final int LINE_LENGTH = 81;
+    private static final String PART_SUFFIX = ".part";
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+
+    private final Path directory;
+    private final LocalDate settlementDate;
+    private final LocalDateTime createdAt;
+    private final int bufferSize;
+    private final Executor executor;
+    private final Semaphore inFlight;
+    private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final Map<Long, ProductFile> files = new TreeMap<>();
+
+    public SettlementFiles(Path directory, LocalDate settlementDate, LocalDateTime createdAt, int bufferSize,
+                           int maxBuffersInFlight, Executor executor) throws IOException {
+        this.directory = directory;
+        this.settlementDate = settlementDate;
+        this.createdAt = createdAt;
+        this.bufferSize = Math.max(bufferSize, LINE_LENGTH) / LINE_LENGTH * LINE_LENGTH;
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxBuffersInFlight);
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Adds a record to the file of its card's product.
+     *
+     * @param record the record; it is not kept
+     * @throws UncheckedIOException if the file cannot be created or an earlier write failed
+     */
+    public void write(SettlementRecord record) {
+        long productId = CardNumbers.productId(record.getCardNumber());
+        ProductFile file = files.get(productId);
+        if (file == null) {
+            try {
+                file = new ProductFile(productId);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create settlement file of product " + productId, e);
+            }
+            files.put(productId, file);
+        }
+        file.write(record);
+    }
+
+    /**
+     * Writes the trailer of every file, waits for all writes, and moves the files to their final names.
+     *
+     * @return a summary of every file, by product ID
+     * @throws IOException if a file could not be written
+     */
+    public List<SettlementFileDTO> finish() throws IOException {
+        for (ProductFile file : files.values()) {
+            file.writeTrailer();
+        }
+        List<SettlementFileDTO> summaries = new ArrayList<>(files.size());
+        for (ProductFile file : files.values()) {
+            summaries.add(file.complete());
+        }
+        return summaries;
+    }
+
+    /**
+     * Closes the files that were not finished and deletes them.
+     */
+    @Override
+    public void close() {
+        for (ProductFile file : files.values()) {
+            file.abort();
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = freeBuffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private final class ProductFile {
+
+        private final String productId;
+        private final Path part;
+        private final Path target;
+        private final FileChannel channel;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer current;
+        private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+        private long records;
+        private long purchaseCents;
+        private long annulmentCents;
+        private boolean completed;
+
+        private ProductFile(long productId) throws IOException {
+            this.productId = String.format("%06d", productId);
+            String name = "settlement-" + this.productId + "-" + compactDate(settlementDate) + ".dat";
+            this.target = directory.resolve(name);
+            this.part = directory.resolve(name + PART_SUFFIX);
+            this.channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.current = acquireBuffer();
+            int start = current.position();
+            current.put((byte) 'H').put(this.productId.getBytes());
+            putDateTime(current, settlementDate.atStartOfDay(), 8);
+            putDateTime(current, createdAt, 14);
+            endLine(current, start);
+        }
+
+        private void write(SettlementRecord record) {
+            ensureCapacity();
+            long cents = record.getAmount();
+            int start = current.position();
+            current.put((byte) 'D').put((byte) record.getType().getCode());
+            putDigits(current, record.getTransactionId(), 19);
+            putDigits(current, record.getCardNumber(), CardNumbers.LENGTH);
+            putDigits(current, cents, 15);
+            putDateTime(current, record.getOccurredAt(), 14);
+            endLine(current, start);
+            crc.update(current.duplicate().position(start).limit(start + LINE_LENGTH));
+
+            records++;
+            if (record.getType() == SettlementRecord.Type.PURCHASE) {
+                purchaseCents += cents;
+            } else {
+                annulmentCents += cents;
+            }
+        }
+
+        private void writeTrailer() {
+            ensureCapacity();
+            int start = current.position();
+            current.put((byte) 'T').put(productId.getBytes());
+            putDigits(current, records, 12);
+            putDigits(current, purchaseCents, 18);
+            putDigits(current, annulmentCents, 18);
+            long checksum = crc.getValue();
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                current.put(HEX[(int) (checksum >>> shift) & 0xF]);
+            }
+            endLine(current, start);
+            submit(current);
+            current = null;
+        }
+
+        private SettlementFileDTO complete() throws IOException {
+            awaitWrites();
+            channel.force(true);
+            channel.close();
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            completed = true;
+            log.info("Settlement file {} written with {} records", target, records);
+            return new SettlementFileDTO(productId, target.toString(), records, purchaseCents,
+                    annulmentCents, String.format("%08X", crc.getValue()));
+        }
+
+        private void abort() {
+            if (completed) {
+                return;
+            }
+            try {
+                pending.exceptionally(e -> null).join();
+                channel.close();
+                Files.deleteIfExists(part);
+            } catch (IOException e) {
+                log.warn("Could not delete unfinished settlement file {}", part, e);
+            }
+        }
+
+        private void ensureCapacity() {
+            if (pending.isCompletedExceptionally()) {
+                try {
+                    awaitWrites();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Settlement file " + part + " could not be written", e);
+                }
+            }
+            if (current.remaining() < LINE_LENGTH) {
+                submit(current);
+                current = acquireBuffer();
+            }
+        }
+
+        private void awaitWrites() throws IOException {
+            try {
+                pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause().getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+
+        private void submit(ByteBuffer buffer) {
+            inFlight.acquireUninterruptibly();
+            buffer.flip();
+            pending = pending.thenRunAsync(() -> {
+                try {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+            pending.whenComplete((result, error) -> {
+                buffer.clear();
+                freeBuffers.offer(buffer);
+                inFlight.release();
+            });
+        }
+    }
+
+    private static String compactDate(LocalDate date) {
+        return String.format("%04d%02d%02d", date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime dateTime, int width) {
+        putDigits(buffer, dateTime.getYear(), 4);
+        putDigits(buffer, dateTime.getMonthValue(), 2);
+        putDigits(buffer, dateTime.getDayOfMonth(), 2);
+        if (width > 8) {
+            putDigits(buffer, dateTime.getHour(), 2);
+            putDigits(buffer, dateTime.getMinute(), 2);
+            putDigits(buffer, dateTime.getSecond(), 2);
+        }
+    }
+
+    private static void putDigits(ByteBuffer buffer, long value, int width) {
+        int position = buffer.position();
+        for (int i = width - 1; i >= 0; i--) {
+            buffer.put(position + i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(position + width);
+    }
+
+    private static void endLine(ByteBuffer buffer, int start) {
+        while (buffer.position() < start + LINE_LENGTH - 1) {
+            buffer.put((byte) ' ');
+        }
+        buffer.put((byte) '\n');
+    }
+}
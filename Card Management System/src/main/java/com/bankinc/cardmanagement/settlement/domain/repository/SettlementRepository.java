@@ -0,0 +1,65 @@
+package com.bankinc.cardmanagement.settlement.domain.repository;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.settlement.domain.model.SettlementRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Streams the purchases and annulments of a day from {@code transactions}. Rows are read
+ * through a server-side cursor and handed over one at a time, so memory use does not
+ * depend on how many transactions the day had.
+ */
+@Repository
+@ConditionalOnJpaStorage
+public class SettlementRepository {
+
+    /**
+     * Makes MySQL Connector/J stream the result set row by row instead of loading it whole.
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SettlementRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Streams the purchases made and the purchases annulled on a day, in two index-driven
+     * reads. Transaction IDs are the local IDs of the current shard.
+     *
+     * @param day     the day to settle
+     * @param handler receives every record; the record is reused after the handler returns
+     */
+    public void streamDay(LocalDate day, Consumer<SettlementRecord> handler) {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        stream("transaction_date", SettlementRecord.Type.PURCHASE, from, to, handler);
+        stream("annulled_at", SettlementRecord.Type.ANNULMENT, from, to, handler);
+    }
+
+    private void stream(String dateColumn, SettlementRecord.Type type, Timestamp from, Timestamp to,
+                        Consumer<SettlementRecord> handler) {
+        SettlementRecord record = new SettlementRecord();
+        record.setType(type);
+        jdbcTemplate.query(
+                "SELECT t.transaction_id, c.card_number, t.amount, t." + dateColumn + " FROM transactions t "
+                        + "JOIN cards c ON c.card_id = t.card_id "
+                        + "WHERE t.type = 'PURCHASE' AND t." + dateColumn + " >= ? AND t." + dateColumn + " < ?",
+                rs -> {
+                    record.setTransactionId(rs.getLong(1));
+                    record.setCardNumber(rs.getLong(2));
+                    record.setAmount(rs.getLong(3));
+                    record.setOccurredAt(rs.getTimestamp(4).toLocalDateTime());
+                    handler.accept(record);
+                },
+                from, to);
+    }
+}
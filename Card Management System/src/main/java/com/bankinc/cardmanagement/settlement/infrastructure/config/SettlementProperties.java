@@ -0,0 +1,45 @@
+package com.bankinc.cardmanagement.settlement.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.settlement")
+public class SettlementProperties {
+
+    /**
+     * Whether settlement files can be generated. Requires the JPA storage engine.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the settlement files of the previous day are generated on their schedule.
+     */
+    private boolean scheduled = false;
+
+    /**
+     * When the scheduled settlement files are generated.
+     */
+    private String cron = "0 30 0 * * *";
+
+    /**
+     * Directory the settlement files are written to, in one subdirectory per day.
+     */
+    private String directory = "reports/settlement";
+
+    /**
+     * Number of threads writing settlement files.
+     */
+    private int writerThreads = 4;
+
+    /**
+     * Size of the buffer each file is written from.
+     */
+    private DataSize bufferSize = DataSize.ofKilobytes(256);
+
+    /**
+     * Maximum number of full buffers waiting to be written. Reading waits while it is reached.
+     */
+    private int maxBuffersInFlight = 32;
+}
@@ -0,0 +1,18 @@
+package com.bankinc.cardmanagement.settlement.infrastructure.dto;
+
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SettlementFileDTO {
+    private String productId;
+    private String file;
+    private long records;
+    @MinorUnits
+    private long purchaseTotal;
+    @MinorUnits
+    private long annulmentTotal;
+    private String checksum;
+}
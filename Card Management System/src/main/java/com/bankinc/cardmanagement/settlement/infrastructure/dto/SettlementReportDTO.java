@@ -0,0 +1,18 @@
+package com.bankinc.cardmanagement.settlement.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SettlementReportDTO {
+    private LocalDate settlementDate;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long records;
+    private List<SettlementFileDTO> files;
+}
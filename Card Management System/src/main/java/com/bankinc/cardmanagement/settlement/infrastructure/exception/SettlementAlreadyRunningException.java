@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.settlement.infrastructure.exception;
+
+public class SettlementAlreadyRunningException extends RuntimeException {
+    public SettlementAlreadyRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bankinc.cardmanagement.standin.application.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.fraud.application.service.FraudService;
+import com.bankinc.cardmanagement.transaction.application.service.TransactionService;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Purchase processing with the embedded storage engine. The local log cannot become
+ * unreachable the way the database can, so purchases are screened for fraud and processed
+ * through {@link TransactionService} without stand-in authorization.
+ */
+@Service
+@ConditionalOnProperty(prefix = "bankinc.storage", name = "engine", havingValue = "embedded")
+public class OnlineStandInService implements StandInService {
+
+    private final TransactionService transactionService;
+    private final FraudService fraudService;
+
+    public OnlineStandInService(TransactionService transactionService, FraudService fraudService) {
+        this.transactionService = transactionService;
+        this.fraudService = fraudService;
+    }
+
+    @Override
+    public TransactionResponseDTO makePurchase(PurchaseRequestDTO request) {
+        return fraudService.screen(CardNumbers.parse(request.getCardId()), request.getPrice(),
+                () -> transactionService.makePurchase(request));
+    }
+
+    @Override
+    public boolean isOffline() {
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.standin.application.service;
+
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+
+public interface StandInService {
+    TransactionResponseDTO makePurchase(PurchaseRequestDTO request);
+    boolean isOffline();
+}
@@ -0,0 +1,348 @@
+package com.bankinc.cardmanagement.standin.application.service;
+
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardExpiredException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.fraud.application.service.FraudService;
+import com.bankinc.cardmanagement.standin.domain.model.AuthorizationSnapshot;
+import com.bankinc.cardmanagement.standin.domain.model.StandInPurchase;
+import com.bankinc.cardmanagement.standin.domain.repository.AuthorizationSnapshotRepository;
+import com.bankinc.cardmanagement.standin.domain.repository.StandInJournal;
+import com.bankinc.cardmanagement.standin.infrastructure.config.StandInProperties;
+import com.bankinc.cardmanagement.standin.infrastructure.exception.OfflineLimitExceededException;
+import com.bankinc.cardmanagement.standin.infrastructure.exception.StandInUnavailableException;
+import com.bankinc.cardmanagement.transaction.application.service.PurchaseJournalService;
+import com.bankinc.cardmanagement.transaction.application.service.TransactionService;
+import com.bankinc.cardmanagement.transaction.domain.model.DeclinedPurchase;
+import com.bankinc.cardmanagement.transaction.domain.model.JournalCheckpoint;
+import com.bankinc.cardmanagement.transaction.domain.repository.DeclinedPurchaseRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.JournalCheckpointRepository;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stand-in processing of purchases while the database is unreachable. Snapshots of card
+ * status and balances are written periodically; during an outage purchases are authorized
+ * against them within conservative offline limits and journaled, and the journal is
+ * replayed through {@link TransactionService} once the database recovers.
+ *
+ * <p>Offline authorizations check the mode and append to the journal under the read side of
+ * a lock, and the replay empties the journal and leaves stand-in mode under the write side,
+ * so no purchase can be appended after the last replayed one and be left behind.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class StandInServiceImpl implements StandInService {
+
+    private final TransactionService transactionService;
+    private final PurchaseJournalService purchaseJournalService;
+    private final FraudService fraudService;
+    private final DeclinedPurchaseRepository declinedPurchaseRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final AuthorizationSnapshotRepository snapshotRepository;
+    private final ShardRouter shardRouter;
+    private final StandInProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String checkpointId;
+    private final Path directory;
+    private final long offlinePurchaseLimit;
+    private final long offlineCardLimit;
+    private final AtomicReferenceArray<AuthorizationSnapshot> snapshots;
+    private final ReadWriteLock modeLock = new ReentrantReadWriteLock();
+    private StandInJournal journal;
+    private volatile boolean offline;
+
+    public StandInServiceImpl(TransactionService transactionService, PurchaseJournalService purchaseJournalService,
+                              FraudService fraudService, DeclinedPurchaseRepository declinedPurchaseRepository,
+                              JournalCheckpointRepository checkpointRepository,
+                              AuthorizationSnapshotRepository snapshotRepository, ShardRouter shardRouter,
+                              StandInProperties properties, PlatformTransactionManager transactionManager,
+                              ClusterMembership clusterMembership) {
+        this.transactionService = transactionService;
+        this.purchaseJournalService = purchaseJournalService;
+        this.fraudService = fraudService;
+        this.declinedPurchaseRepository = declinedPurchaseRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointId = "stand-in:" + clusterMembership.getNodeId();
+        this.directory = Paths.get(properties.getDirectory());
+        this.offlinePurchaseLimit = Money.of(properties.getOfflinePurchaseLimit());
+        this.offlineCardLimit = Money.of(properties.getOfflineCardLimit());
+        this.snapshots = new AtomicReferenceArray<>(shardRouter.getShardCount());
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        journal = new StandInJournal(directory);
+        for (int shard = 0; shard < snapshots.length(); shard++) {
+            Path file = snapshotFile(shard);
+            if (Files.exists(file)) {
+                try {
+                    snapshots.set(shard, AuthorizationSnapshot.open(file));
+                } catch (IllegalStateException e) {
+                    // Written by an older version; the next refresh replaces it.
+                    log.warn("Ignoring stand-in snapshot of shard {}: {}", shard, e.getMessage());
+                }
+            }
+        }
+        List<StandInPurchase> pending = journal.pending();
+        if (!pending.isEmpty()) {
+            // Purchases authorized before a restart still count against the offline limits.
+            for (StandInPurchase purchase : pending) {
+                AuthorizationSnapshot snapshot = snapshots.get(shardRouter.shardForCard(purchase.cardNumber()));
+                if (snapshot != null) {
+                    snapshot.charge(purchase.cardNumber(), purchase.amount());
+                }
+            }
+            offline = true;
+            log.warn("{} stand-in purchases are waiting to be replayed", pending.size());
+        }
+    }
+
+    /**
+     * Screens a purchase for fraud, then processes it online, through the purchase journal
+     * when it is enabled and through {@link TransactionService} otherwise, or authorizes it
+     * against the snapshot when the database is unreachable.
+     *
+     * @param request the purchase request data transfer object
+     * @return the transaction response; purchases authorized offline have no transaction ID yet
+     */
+    @Override
+    public TransactionResponseDTO makePurchase(PurchaseRequestDTO request) {
+        return fraudService.screen(CardNumbers.parse(request.getCardId()), request.getPrice(), () -> authorize(request));
+    }
+
+    private TransactionResponseDTO authorize(PurchaseRequestDTO request) {
+        if (!properties.isEnabled()) {
+            return processOnline(request);
+        }
+        if (!offline) {
+            try {
+                return processOnline(request);
+            } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+                offline = true;
+                log.error("Database unreachable, switching to stand-in processing: {}", e.getMessage());
+            }
+        }
+        Lock lock = modeLock.readLock();
+        lock.lock();
+        try {
+            if (offline) {
+                return authorizeOffline(request);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // The journal was replayed in the meantime.
+        return authorize(request);
+    }
+
+    /**
+     * Tells whether purchases are currently authorized against the snapshot.
+     *
+     * @return true during an outage and until the journal has been replayed
+     */
+    @Override
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Writes a fresh snapshot of every shard while the database is reachable.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.stand-in.snapshot-interval:5m}').toMillis()}")
+    public void refreshSnapshots() {
+        if (!properties.isEnabled() || offline) {
+            return;
+        }
+        for (int shard = 0; shard < snapshots.length(); shard++) {
+            try {
+                Path file = snapshotFile(shard);
+                int cards = snapshotRepository.write(shard, file, properties.getSnapshotPageSize());
+                snapshots.set(shard, AuthorizationSnapshot.open(file));
+                log.info("Stand-in snapshot of shard {} written with {} cards", shard, cards);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not write the stand-in snapshot of shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replays the journal once the database is reachable again, then leaves stand-in mode.
+     * Purchases keep being authorized offline until the journal is empty, so none of them
+     * is processed ahead of a purchase approved before it. Every replayed purchase also
+     * advances a checkpoint of the node in the database of its shard, in the same transaction,
+     * so one replayed right before a crash is skipped rather than charged twice.
+     * Purchases declined on replay are recorded in {@code declined_purchases} for manual settlement.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.stand-in.replay-interval:30s}').toMillis()}")
+    public void replayJournal() {
+        if (!properties.isEnabled() || !offline) {
+            return;
+        }
+        try {
+            while (true) {
+                List<StandInPurchase> pending = journal.pending();
+                for (StandInPurchase purchase : pending) {
+                    replay(purchase);
+                    journal.markReplayed(purchase.sequence());
+                }
+                Lock lock = modeLock.writeLock();
+                lock.lock();
+                try {
+                    if (journal.truncateIfReplayed()) {
+                        offline = false;
+                        break;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+            log.info("Database still unreachable, stand-in processing continues");
+            return;
+        } catch (IOException e) {
+            log.error("Could not read the stand-in journal", e);
+            return;
+        } finally {
+            ShardContext.clear();
+        }
+        log.info("Stand-in journal replayed, back to online processing");
+        refreshSnapshots();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private TransactionResponseDTO processOnline(PurchaseRequestDTO request) {
+        return purchaseJournalService.isEnabled()
+                ? purchaseJournalService.makePurchase(request)
+                : transactionService.makePurchase(request);
+    }
+
+    private TransactionResponseDTO authorizeOffline(PurchaseRequestDTO request) {
+        long cardNumber = CardNumbers.parse(request.getCardId());
+        AuthorizationSnapshot snapshot = snapshots.get(shardRouter.shardForCard(cardNumber));
+        if (snapshot == null
+                || snapshot.getCreatedAt() < System.currentTimeMillis() - properties.getMaxSnapshotAge().toMillis()) {
+            throw new StandInUnavailableException("Purchases cannot be authorized right now, retry later");
+        }
+        long amount = request.getPrice();
+        int result = snapshot.authorize(cardNumber, amount, LocalDate.now().toEpochDay(), offlinePurchaseLimit, offlineCardLimit);
+        switch (result) {
+            case AuthorizationSnapshot.CARD_NOT_FOUND -> throw new CardNotFoundException("Card not found");
+            case AuthorizationSnapshot.CARD_BLOCKED -> throw new CardBlockedException("Card is not active or is blocked");
+            case AuthorizationSnapshot.CARD_EXPIRED -> throw new CardExpiredException("Card is expired");
+            case AuthorizationSnapshot.INSUFFICIENT_BALANCE -> throw new InsufficientBalanceException("Insufficient balance");
+            case AuthorizationSnapshot.LIMIT_EXCEEDED -> throw new OfflineLimitExceededException("Purchase exceeds the offline limit");
+            default -> {
+                // Approved.
+            }
+        }
+
+        LocalDateTime approvedAt = LocalDateTime.now();
+        try {
+            long sequence = journal.append(cardNumber, amount, System.currentTimeMillis());
+            log.info("Stand-in purchase {} of {} approved for card {}", sequence, Money.format(amount), request.getCardId());
+        } catch (IOException e) {
+            snapshot.release(cardNumber, amount);
+            log.error("Could not journal stand-in purchase for card {}", request.getCardId(), e);
+            throw new StandInUnavailableException("Purchases cannot be authorized right now, retry later");
+        }
+        return new TransactionResponseDTO(null, amount, approvedAt, false);
+    }
+
+    private void replay(StandInPurchase purchase) {
+        PurchaseRequestDTO request = new PurchaseRequestDTO();
+        request.setCardId(CardNumbers.format(purchase.cardNumber()));
+        request.setPrice(purchase.amount());
+        try {
+            shardRouter.routeByCard(purchase.cardNumber());
+            transactionTemplate.executeWithoutResult(status -> {
+                JournalCheckpoint checkpoint = checkpoint(purchase);
+                if (checkpoint == null) {
+                    return;
+                }
+                TransactionResponseDTO transaction = transactionService.makePurchase(request);
+                checkpoint.setAppliedSequence(purchase.sequence());
+                checkpointRepository.save(checkpoint);
+                log.info("Stand-in purchase {} replayed as transaction {}", purchase.sequence(), transaction.getTransactionId());
+            });
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // The purchase was already approved to the merchant; it has to be settled by hand.
+            log.error("Stand-in purchase {} of {} for card {} was declined on replay: {}",
+                    purchase.sequence(), Money.format(purchase.amount()), request.getCardId(), e.getMessage());
+            shardRouter.routeByCard(purchase.cardNumber());
+            transactionTemplate.executeWithoutResult(status -> {
+                JournalCheckpoint checkpoint = checkpoint(purchase);
+                if (checkpoint == null) {
+                    return;
+                }
+                declinedPurchaseRepository.save(new DeclinedPurchase(purchase.cardNumber(), purchase.amount(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(purchase.approvedAt()), ZoneId.systemDefault()),
+                        DeclinedPurchase.Source.STAND_IN, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                checkpoint.setAppliedSequence(purchase.sequence());
+                checkpointRepository.save(checkpoint);
+            });
+        }
+    }
+
+    /**
+     * Reads the checkpoint of the node in the database of the current shard.
+     *
+     * @return the checkpoint, or null if the purchase was replayed before a crash that happened
+     *         ahead of the journal checkpoint
+     */
+    private JournalCheckpoint checkpoint(StandInPurchase purchase) {
+        JournalCheckpoint checkpoint = checkpointRepository.findById(checkpointId)
+                .orElseGet(() -> new JournalCheckpoint(checkpointId));
+        return purchase.sequence() > checkpoint.getAppliedSequence() ? checkpoint : null;
+    }
+
+    private Path snapshotFile(int shard) {
+        return directory.resolve("snapshot-" + shard + ".bin");
+    }
+}
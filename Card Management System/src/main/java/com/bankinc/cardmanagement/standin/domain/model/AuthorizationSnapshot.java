@@ -0,0 +1,198 @@
+package com.bankinc.cardmanagement.standin.domain.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped snapshot of the status and balance of the cards of one shard, used to
+ * authorize purchases while the database is unreachable. The file is a header followed
+ * by fixed-size records sorted by card number, so a lookup is a binary search over the
+ * mapping without any allocation.
+ *
+ * <p>The file is mapped copy-on-write: offline purchases lower the mapped balance and
+ * raise the offline spend of the card in memory only, and the file itself stays as written.
+ *
+ * <pre>
+ * header (32 bytes): magic, version, shard, card count (ints), created at (epoch millis)
+ * record (32 bytes): card number, balance, offline spend (in cents),
+ *                    expiration (epoch day, or NO_EXPIRATION), flags
+ * </pre>
+ */
+public final class AuthorizationSnapshot {
+
+    public static final int MAGIC = 0x424B5349;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 32;
+    public static final int NO_EXPIRATION = Integer.MIN_VALUE;
+    public static final int FLAG_ACTIVE = 1;
+    public static final int FLAG_BLOCKED = 2;
+
+    public static final int APPROVED = 0;
+    public static final int CARD_NOT_FOUND = 1;
+    public static final int CARD_BLOCKED = 2;
+    public static final int CARD_EXPIRED = 3;
+    public static final int INSUFFICIENT_BALANCE = 4;
+    public static final int LIMIT_EXCEEDED = 5;
+
+    private static final int CARD_NUMBER = 0;
+    private static final int BALANCE = 8;
+    private static final int OFFLINE_SPENT = 16;
+    private static final int EXPIRATION = 24;
+    private static final int FLAGS = 28;
+
+    private final MappedByteBuffer buffer;
+    private final int shard;
+    private final int cardCount;
+    private final long createdAt;
+
+    private AuthorizationSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an authorization snapshot of version " + VERSION);
+        }
+        this.shard = buffer.getInt(8);
+        this.cardCount = buffer.getInt(12);
+        this.createdAt = buffer.getLong(16);
+        if (buffer.capacity() < HEADER_SIZE + (long) cardCount * RECORD_SIZE) {
+            throw new IllegalStateException("Authorization snapshot is truncated");
+        }
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped
+     */
+    public static AuthorizationSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new AuthorizationSnapshot(channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the header of a snapshot file.
+     *
+     * @param header    the buffer to write to, at its current position
+     * @param shard     the shard the cards were read from
+     * @param cardCount the number of records following the header
+     * @param createdAt when the cards were read, in epoch milliseconds
+     */
+    public static void writeHeader(ByteBuffer header, int shard, int cardCount, long createdAt) {
+        header.putInt(MAGIC).putInt(VERSION).putInt(shard).putInt(cardCount).putLong(createdAt).putLong(0L);
+    }
+
+    /**
+     * Writes one card record of a snapshot file. Records must be written in ascending card number order.
+     *
+     * @param record         the buffer to write to, at its current position
+     * @param cardNumber     the card number
+     * @param balance        the card balance, in cents
+     * @param expirationDay  the expiration date as epoch day, or {@link #NO_EXPIRATION}
+     * @param active         whether the card is active
+     * @param blocked        whether the card is blocked
+     */
+    public static void writeRecord(ByteBuffer record, long cardNumber, long balance, int expirationDay,
+                                   boolean active, boolean blocked) {
+        record.putLong(cardNumber).putLong(balance).putLong(0L).putInt(expirationDay)
+                .putInt((active ? FLAG_ACTIVE : 0) | (blocked ? FLAG_BLOCKED : 0));
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Authorizes a purchase against the snapshot and, if approved, deducts it from the
+     * mapped balance and adds it to the offline spend of the card.
+     *
+     * @param cardNumber    the card number
+     * @param amount        the purchase amount, in cents
+     * @param today         the current date as epoch day
+     * @param purchaseLimit the largest single purchase allowed offline, in cents
+     * @param cardLimit     the largest total a card may spend offline, in cents
+     * @return {@link #APPROVED} or the reason the purchase is declined
+     */
+    public synchronized int authorize(long cardNumber, long amount, long today, long purchaseLimit, long cardLimit) {
+        int offset = find(cardNumber);
+        if (offset < 0) {
+            return CARD_NOT_FOUND;
+        }
+        int flags = buffer.getInt(offset + FLAGS);
+        if ((flags & FLAG_ACTIVE) == 0 || (flags & FLAG_BLOCKED) != 0) {
+            return CARD_BLOCKED;
+        }
+        int expiration = buffer.getInt(offset + EXPIRATION);
+        if (expiration != NO_EXPIRATION && expiration < today) {
+            return CARD_EXPIRED;
+        }
+        long balance = buffer.getLong(offset + BALANCE);
+        if (balance < amount) {
+            return INSUFFICIENT_BALANCE;
+        }
+        long offlineSpent = buffer.getLong(offset + OFFLINE_SPENT);
+        if (amount > purchaseLimit || amount > cardLimit - offlineSpent) {
+            return LIMIT_EXCEEDED;
+        }
+        buffer.putLong(offset + BALANCE, balance - amount);
+        buffer.putLong(offset + OFFLINE_SPENT, offlineSpent + amount);
+        return APPROVED;
+    }
+
+    /**
+     * Deducts a purchase approved earlier, without checks. Used to restore the offline
+     * spend of purchases still waiting in the journal after a restart.
+     *
+     * @param cardNumber the card number
+     * @param amount     the purchase amount, in cents
+     */
+    public synchronized void charge(long cardNumber, long amount) {
+        int offset = find(cardNumber);
+        if (offset >= 0) {
+            buffer.putLong(offset + BALANCE, buffer.getLong(offset + BALANCE) - amount);
+            buffer.putLong(offset + OFFLINE_SPENT, buffer.getLong(offset + OFFLINE_SPENT) + amount);
+        }
+    }
+
+    /**
+     * Gives back an approved purchase that could not be journaled.
+     *
+     * @param cardNumber the card number
+     * @param amount     the purchase amount, in cents
+     */
+    public void release(long cardNumber, long amount) {
+        charge(cardNumber, -amount);
+    }
+
+    private int find(long cardNumber) {
+        int low = 0;
+        int high = cardCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = HEADER_SIZE + middle * RECORD_SIZE;
+            long candidate = buffer.getLong(offset + CARD_NUMBER);
+            if (candidate < cardNumber) {
+                low = middle + 1;
+            } else if (candidate > cardNumber) {
+                high = middle - 1;
+            } else {
+                return offset;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankinc.cardmanagement.standin.domain.model;
+
+/**
+ * A purchase authorized against the snapshot and waiting in the journal to be replayed.
+ *
+ * @param sequence   the position of the purchase in the journal
+ * @param cardNumber the card number
+ * @param amount     the purchase amount, in cents
+ * @param approvedAt when the purchase was authorized, in epoch milliseconds
+ */
+public record StandInPurchase(long sequence, long cardNumber, long amount, long approvedAt) {
+}
@@ -0,0 +1,105 @@
+package com.bankinc.cardmanagement.standin.domain.repository;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.standin.domain.model.AuthorizationSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+
+/**
+ * Writes the authorization snapshot of a shard from the {@code cards} table. Cards are
+ * read in keyset pages ordered by card number, which is the order the snapshot needs.
+ */
+@Repository
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+public class AuthorizationSnapshotRepository {
+
+    private static final int RECORDS_PER_WRITE = 2048;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the snapshot of the given shard to a temporary file and moves it over the
+     * target, so a snapshot being read is never seen half written.
+     *
+     * @param shard    the shard to read the cards from
+     * @param target   the snapshot file
+     * @param pageSize the number of cards read per query
+     * @return the number of cards in the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public int write(int shard, Path target, int pageSize) throws IOException {
+        long createdAt = System.currentTimeMillis();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RECORDS_PER_WRITE * AuthorizationSnapshot.RECORD_SIZE);
+        int cardCount = 0;
+        ShardContext.set(shard);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(AuthorizationSnapshot.HEADER_SIZE);
+            long lastCardNumber = -1;
+            while (true) {
+                int[] read = new int[1];
+                long[] last = {lastCardNumber};
+                jdbcTemplate.query(
+                        "SELECT card_number, balance, expiration_date, is_active, is_blocked FROM cards "
+                                + "WHERE card_number > ? ORDER BY card_number LIMIT ?",
+                        rs -> {
+                            Date expiration = rs.getDate(3);
+                            AuthorizationSnapshot.writeRecord(buffer, rs.getLong(1), rs.getLong(2),
+                                    expiration != null ? (int) expiration.toLocalDate().toEpochDay() : AuthorizationSnapshot.NO_EXPIRATION,
+                                    rs.getBoolean(4), rs.getBoolean(5));
+                            last[0] = rs.getLong(1);
+                            read[0]++;
+                            if (!buffer.hasRemaining()) {
+                                flush(channel, buffer);
+                            }
+                        },
+                        lastCardNumber, pageSize);
+                cardCount += read[0];
+                lastCardNumber = last[0];
+                if (read[0] < pageSize) {
+                    break;
+                }
+            }
+            flush(channel, buffer);
+
+            AuthorizationSnapshot.writeHeader(buffer, shard, cardCount, createdAt);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            channel.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            ShardContext.clear();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return cardCount;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
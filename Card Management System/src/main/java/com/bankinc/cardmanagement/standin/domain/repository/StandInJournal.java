@@ -0,0 +1,171 @@
+package com.bankinc.cardmanagement.standin.domain.repository;
+
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.standin.domain.model.StandInPurchase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of purchases authorized offline. Every record is written with
+ * DSYNC and carries a checksum, so a record torn by a crash is recognised and ignored.
+ * How far the journal has been replayed is kept in a separate checkpoint file.
+ *
+ * <p>Sequences keep increasing when the journal is emptied: the file then starts again at
+ * the checkpoint, so a crash at any point of the truncation leaves the checkpoint valid,
+ * and a sequence identifies a purchase for good once it has been replayed.
+ *
+ * <pre>
+ * record (40 bytes): sequence, card number, amount, approved at (epoch millis), CRC32 of the first 32 bytes, format
+ * </pre>
+ *
+ * <p>The format is 1 for amounts in cents. Records written before, with format 0, hold the
+ * amount as a double in major units and are read rounded to the cent.
+ */
+public class StandInJournal implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 40;
+    private static final int CHECKSUMMED_BYTES = 32;
+    private static final int AMOUNT_IN_CENTS = 1;
+
+    private final FileChannel journal;
+    private final FileChannel checkpoint;
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private final ByteBuffer position = ByteBuffer.allocateDirect(Long.BYTES);
+    private final CRC32 crc = new CRC32();
+    private long firstSequence;
+    private long nextSequence;
+
+    public StandInJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.journal = FileChannel.open(directory.resolve("journal.bin"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        this.checkpoint = FileChannel.open(directory.resolve("journal.checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        // A torn record at the tail was never acknowledged, so it is cut off.
+        long end = journal.size() - journal.size() % RECORD_SIZE;
+        List<StandInPurchase> all = read(0, end);
+        journal.truncate((long) all.size() * RECORD_SIZE);
+        this.firstSequence = all.isEmpty() ? replayedSequence() : all.get(0).sequence();
+        this.nextSequence = firstSequence + all.size();
+        if (replayedSequence() > nextSequence) {
+            // Left by an older version, which restarted the sequences at zero once the journal was emptied.
+            writeCheckpoint(firstSequence);
+        }
+    }
+
+    /**
+     * Appends a purchase and waits until it is on disk.
+     *
+     * @param cardNumber the card number
+     * @param amount     the purchase amount, in cents
+     * @param approvedAt when the purchase was authorized, in epoch milliseconds
+     * @return the sequence of the purchase in the journal
+     * @throws IOException if the purchase could not be written
+     */
+    public synchronized long append(long cardNumber, long amount, long approvedAt) throws IOException {
+        long sequence = nextSequence;
+        record.clear();
+        record.putLong(sequence).putLong(cardNumber).putLong(amount).putLong(approvedAt);
+        crc.reset();
+        record.flip();
+        crc.update(record);
+        record.limit(RECORD_SIZE).position(CHECKSUMMED_BYTES);
+        record.putInt((int) crc.getValue()).putInt(AMOUNT_IN_CENTS);
+        record.flip();
+        long offset = (sequence - firstSequence) * RECORD_SIZE;
+        while (record.hasRemaining()) {
+            offset += journal.write(record, offset);
+        }
+        nextSequence++;
+        return sequence;
+    }
+
+    /**
+     * Reads the purchases not replayed yet.
+     *
+     * @return the pending purchases, in journal order
+     * @throws IOException if the journal cannot be read
+     */
+    public synchronized List<StandInPurchase> pending() throws IOException {
+        return read((replayedSequence() - firstSequence) * RECORD_SIZE, (nextSequence - firstSequence) * RECORD_SIZE);
+    }
+
+    /**
+     * Records that every purchase up to and including the given one has been replayed.
+     *
+     * @param sequence the sequence of the last replayed purchase
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public synchronized void markReplayed(long sequence) throws IOException {
+        writeCheckpoint(sequence + 1);
+    }
+
+    /**
+     * Empties the journal if every purchase in it has been replayed. The checkpoint already
+     * points past the last purchase, which is where the next one is numbered from.
+     *
+     * @return true if the journal was fully replayed and has been emptied
+     * @throws IOException if the journal cannot be truncated
+     */
+    public synchronized boolean truncateIfReplayed() throws IOException {
+        if (replayedSequence() < nextSequence) {
+            return false;
+        }
+        journal.truncate(0);
+        firstSequence = nextSequence;
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        journal.close();
+        checkpoint.close();
+    }
+
+    private long replayedSequence() throws IOException {
+        if (checkpoint.size() < Long.BYTES) {
+            return 0;
+        }
+        position.clear();
+        while (position.hasRemaining() && checkpoint.read(position, position.position()) >= 0) {
+            // Keep reading until the checkpoint is complete.
+        }
+        return position.getLong(0);
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        position.clear();
+        position.putLong(sequence).flip();
+        while (position.hasRemaining()) {
+            checkpoint.write(position, position.position());
+        }
+    }
+
+    private List<StandInPurchase> read(long from, long to) throws IOException {
+        List<StandInPurchase> purchases = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32 check = new CRC32();
+        for (long offset = from; offset + RECORD_SIZE <= to; offset += RECORD_SIZE) {
+            buffer.clear();
+            while (buffer.hasRemaining() && journal.read(buffer, offset + buffer.position()) >= 0) {
+                // Keep reading until the record is complete.
+            }
+            check.reset();
+            check.update(buffer.array(), 0, CHECKSUMMED_BYTES);
+            if (buffer.getInt(CHECKSUMMED_BYTES) != (int) check.getValue()) {
+                break;
+            }
+            long amount = buffer.getInt(CHECKSUMMED_BYTES + 4) == AMOUNT_IN_CENTS ? buffer.getLong(16) : Money.round(buffer.getDouble(16));
+            purchases.add(new StandInPurchase(buffer.getLong(0), buffer.getLong(8), amount, buffer.getLong(24)));
+        }
+        return purchases;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bankinc.cardmanagement.standin.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.stand-in")
+public class StandInProperties {
+
+    /**
+     * Whether purchases are authorized against the local snapshot while the database is unreachable.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the snapshot files and the stand-in journal.
+     */
+    private String directory = "stand-in";
+
+    /**
+     * Interval between snapshots of card status and balances.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    /**
+     * Oldest snapshot purchases may still be authorized against. Once exceeded,
+     * purchases are declined until the database is reachable again.
+     */
+    private Duration maxSnapshotAge = Duration.ofHours(1);
+
+    /**
+     * Number of cards read per page while a snapshot is written.
+     */
+    private int snapshotPageSize = 5000;
+
+    /**
+     * Largest single purchase authorized offline.
+     */
+    private BigDecimal offlinePurchaseLimit = new BigDecimal("200.00");
+
+    /**
+     * Largest total a card may spend offline until the journal is replayed.
+     */
+    private BigDecimal offlineCardLimit = new BigDecimal("500.00");
+
+    /**
+     * Interval between checks for a recovered database, which replay the journal.
+     */
+    private Duration replayInterval = Duration.ofSeconds(30);
+}
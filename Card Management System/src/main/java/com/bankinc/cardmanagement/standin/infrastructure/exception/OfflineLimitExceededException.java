@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.standin.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class OfflineLimitExceededException extends BusinessException {
+    public OfflineLimitExceededException(String message) {
+        super(message);
+    }
+}
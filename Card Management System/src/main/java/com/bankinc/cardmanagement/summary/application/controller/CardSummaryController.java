@@ -0,0 +1,45 @@
+package com.bankinc.cardmanagement.summary.application.controller;
+
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.summary.application.service.CardSummaryService;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryDTO;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryRebuildReportDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnJpaStorage
+@RequestMapping("/card")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bankinc.card-summary", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CardSummaryController {
+
+    private final CardSummaryService cardSummaryService;
+
+    /**
+     * Retrieves the summary of the card with the specified ID.
+     *
+     * @param cardId the ID of the card whose summary is to be retrieved
+     * @return a response entity containing the card summary
+     */
+    @GetMapping("/{cardId}/summary")
+    public ResponseEntity<CardSummaryDTO> getSummary(@PathVariable long cardId) {
+        return ResponseEntity.ok(cardSummaryService.getSummary(cardId));
+    }
+
+    /**
+     * Rebuilds the summaries of every card from the ledger.
+     *
+     * @return a response entity containing the number of summaries rebuilt
+     */
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<CardSummaryRebuildReportDTO> rebuild() {
+        return ResponseEntity.ok(cardSummaryService.rebuild());
+    }
+}
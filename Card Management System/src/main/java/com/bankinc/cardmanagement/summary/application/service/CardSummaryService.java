@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.summary.application.service;
+
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryDTO;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryRebuildReportDTO;
+
+public interface CardSummaryService {
+    CardSummaryDTO getSummary(long cardId);
+    CardSummaryRebuildReportDTO rebuild();
+}
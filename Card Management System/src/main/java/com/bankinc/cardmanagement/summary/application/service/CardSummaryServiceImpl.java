@@ -0,0 +1,201 @@
+package com.bankinc.cardmanagement.summary.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.summary.domain.model.CardSummary;
+import com.bankinc.cardmanagement.summary.domain.repository.CardSummaryRepository;
+import com.bankinc.cardmanagement.summary.infrastructure.config.CardSummaryProperties;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryDTO;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryRebuildReportDTO;
+import com.bankinc.cardmanagement.summary.infrastructure.exception.CardSummaryRebuildAlreadyRunningException;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read model of per-card summaries. Every balance change updates the summary of its card
+ * in the transaction that makes it, so a summary is read as a single row and is never
+ * ahead of or behind the ledger. The summaries can be rebuilt from the ledger at any time.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class CardSummaryServiceImpl implements CardSummaryService {
+
+    private final CardSummaryRepository summaryRepository;
+    private final CardRepository cardRepository;
+    private final ShardRouter shardRouter;
+    private final CardSummaryProperties properties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public CardSummaryServiceImpl(CardSummaryRepository summaryRepository, CardRepository cardRepository,
+                                  ShardRouter shardRouter, CardSummaryProperties properties,
+                                  EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.cardRepository = cardRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onCardActivity(CardActivityEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(event));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    /**
+     * Retrieves the summary of a card with a single row read.
+     *
+     * @param cardId the card number
+     * @return the summary; spend of a past day or month reads as 0
+     * @throws CardNotFoundException if the card does not exist
+     */
+    @Override
+    public CardSummaryDTO getSummary(long cardId) {
+        int shard = shardRouter.routeByCard(cardId);
+        CardSummary summary = summaryRepository.findByCardNumber(cardId).orElse(null);
+        if (summary == null) {
+            // No balance change since the summaries were built: the card has no ledger entries yet.
+            Card card = cardRepository.findByCardNumber(cardId)
+                    .orElseThrow(() -> new CardNotFoundException("Card not found"));
+            return new CardSummaryDTO(CardNumbers.format(cardId), card.getBalance(), 0, 0, 0, 0,
+                    null, null, null, null);
+        }
+        LocalDate today = LocalDate.now();
+        return new CardSummaryDTO(CardNumbers.format(cardId), summary.balance(),
+                today.equals(summary.spentDay()) ? summary.spentToday() : 0,
+                today.withDayOfMonth(1).equals(summary.spentMonth()) ? summary.spentThisMonth() : 0,
+                summary.transactionCount(), summary.annulledCount(),
+                summary.lastPurchaseId() != null ? shardRouter.externalTransactionId(summary.lastPurchaseId(), shard) : null,
+                summary.lastTransactionType(), summary.lastTransactionAmount(), summary.lastTransactionAt());
+    }
+
+    /**
+     * Rebuilds every summary from the ledger, in chunks of cards. The cards of a chunk are
+     * locked while it is rebuilt, so balance changes made meanwhile are applied on top of
+     * the rebuilt summary instead of being lost.
+     *
+     * @return how many summaries were rebuilt
+     * @throws CardSummaryRebuildAlreadyRunningException if a rebuild is already in progress
+     */
+    @Override
+    public CardSummaryRebuildReportDTO rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new CardSummaryRebuildAlreadyRunningException("A card summary rebuild is already running");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long rebuilt = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.set(shard);
+                rebuilt += rebuildShard();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Card summary rebuild interrupted after {} cards", rebuilt);
+        } finally {
+            ShardContext.clear();
+            rebuilding.set(false);
+        }
+        log.info("Card summaries of {} cards rebuilt", rebuilt);
+        return new CardSummaryRebuildReportDTO(startedAt, LocalDateTime.now(), rebuilt);
+    }
+
+    private long rebuildShard() throws InterruptedException {
+        long rebuilt = 0;
+        long lastCardId = 0;
+        while (true) {
+            long afterCardId = lastCardId;
+            List<Long> cardIds = transactionTemplate.execute(status -> {
+                // Locking the cards first keeps the later ledger read from seeing a snapshot older than the locks.
+                List<Long> locked = summaryRepository.lockCards(afterCardId, properties.getRebuildChunkSize());
+                if (!locked.isEmpty()) {
+                    summaryRepository.rebuild(locked.get(0), locked.get(locked.size() - 1), LocalDate.now(), LocalDateTime.now());
+                }
+                return locked;
+            });
+            if (cardIds == null || cardIds.isEmpty()) {
+                return rebuilt;
+            }
+            rebuilt += cardIds.size();
+            lastCardId = cardIds.get(cardIds.size() - 1);
+            Thread.sleep(properties.getRebuildThrottle().toMillis());
+        }
+    }
+
+    /**
+     * Writes changes in order, each run of changes of the same kind in one batch.
+     */
+    private void apply(List<CardActivityEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        int start = 0;
+        while (start < events.size()) {
+            boolean annulments = events.get(start).type() == CardActivityEvent.Type.ANNULMENT;
+            int end = start + 1;
+            while (end < events.size() && (events.get(end).type() == CardActivityEvent.Type.ANNULMENT) == annulments) {
+                end++;
+            }
+            List<CardActivityEvent> run = events.subList(start, end);
+            if (annulments) {
+                summaryRepository.applyAnnulments(run, shardRouter::localTransactionId, now);
+            } else {
+                summaryRepository.applyEntries(run, shardRouter::localTransactionId, now);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * The changes of the current transaction, written in one batch right before it commits.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<CardActivityEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // The card rows are written first, so a rebuild holding their locks is waited for
+            // before the summaries, never the other way round.
+            entityManager.flush();
+            apply(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(CardSummaryServiceImpl.this);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bankinc.cardmanagement.summary.domain.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@code card_summaries}, with amounts in cents. The spend of a day or month only counts while
+ * {@code spentDay} or {@code spentMonth} is the current one.
+ *
+ * @param cardNumber            the card number
+ * @param balance               the card balance
+ * @param spentDay              the day {@code spentToday} belongs to
+ * @param spentToday            the non-annulled purchases of {@code spentDay}
+ * @param spentMonth            the first day of the month {@code spentThisMonth} belongs to
+ * @param spentThisMonth        the non-annulled purchases of {@code spentMonth}
+ * @param transactionCount      the ledger entries of the card: purchases, recharges and fees
+ * @param annulledCount         the annulled purchases
+ * @param lastPurchaseId        the row ID of the last ledger entry if it is a purchase, otherwise null
+ * @param lastTransactionType   the type of the last ledger entry, or null if there is none
+ * @param lastTransactionAmount the amount of the last ledger entry, or null if there is none
+ * @param lastTransactionAt     when the last ledger entry was made, or null if there is none
+ * @param updatedAt             when the row was last written
+ */
+public record CardSummary(long cardNumber, long balance, LocalDate spentDay, long spentToday, LocalDate spentMonth,
+                          long spentThisMonth, long transactionCount, long annulledCount, Long lastPurchaseId,
+                          String lastTransactionType, Long lastTransactionAmount, LocalDateTime lastTransactionAt,
+                          LocalDateTime updatedAt) {
+}
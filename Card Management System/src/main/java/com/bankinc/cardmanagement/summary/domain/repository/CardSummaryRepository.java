@@ -0,0 +1,168 @@
+package com.bankinc.cardmanagement.summary.domain.repository;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.summary.domain.model.CardSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The {@code card_summaries} table of the current shard. Changes are applied as relative
+ * updates, so two transactions on the same card never overwrite each other's counts.
+ */
+@Repository
+@ConditionalOnJpaStorage
+@RequiredArgsConstructor
+public class CardSummaryRepository {
+
+    private static final String COLUMNS = "card_number, balance, spent_day, spent_today, spent_month, spent_this_month, "
+            + "transaction_count, annulled_count, last_purchase_id, last_transaction_type, last_transaction_amount, "
+            + "last_transaction_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reads the summary of a card.
+     *
+     * @param cardNumber the card number
+     * @return the summary, or empty if the card has had no balance change since the summaries were built
+     */
+    public Optional<CardSummary> findByCardNumber(long cardNumber) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM card_summaries WHERE card_number = ?",
+                (rs, rowNum) -> new CardSummary(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate(),
+                        rs.getLong(4), rs.getDate(5).toLocalDate(), rs.getLong(6), rs.getLong(7), rs.getLong(8),
+                        rs.getObject(9, Long.class), rs.getString(10), rs.getObject(11, Long.class),
+                        rs.getTimestamp(12) != null ? rs.getTimestamp(12).toLocalDateTime() : null,
+                        rs.getTimestamp(13).toLocalDateTime()),
+                cardNumber).stream().findFirst();
+    }
+
+    /**
+     * Applies recharges, purchases and fees in one batched statement, creating the summary
+     * of a card on its first one. A change dated before the day or month being counted is
+     * left out of the spend.
+     *
+     * @param events          the changes, none of them an annulment
+     * @param localPurchaseId maps the external ID of a purchase to its row ID
+     * @param updatedAt       when the changes are written
+     */
+    public void applyEntries(List<CardActivityEvent> events, LongUnaryOperator localPurchaseId, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO card_summaries (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, 1, 0, ?, ?, ?, ?, ?) AS v "
+                        + "ON DUPLICATE KEY UPDATE "
+                        + "balance = v.balance, "
+                        + "spent_today = CASE WHEN v.spent_day = card_summaries.spent_day THEN card_summaries.spent_today + v.spent_today "
+                        + "WHEN v.spent_day > card_summaries.spent_day THEN v.spent_today ELSE card_summaries.spent_today END, "
+                        + "spent_day = GREATEST(card_summaries.spent_day, v.spent_day), "
+                        + "spent_this_month = CASE WHEN v.spent_month = card_summaries.spent_month THEN card_summaries.spent_this_month + v.spent_this_month "
+                        + "WHEN v.spent_month > card_summaries.spent_month THEN v.spent_this_month ELSE card_summaries.spent_this_month END, "
+                        + "spent_month = GREATEST(card_summaries.spent_month, v.spent_month), "
+                        + "transaction_count = card_summaries.transaction_count + 1, "
+                        + "last_purchase_id = v.last_purchase_id, "
+                        + "last_transaction_type = v.last_transaction_type, "
+                        + "last_transaction_amount = v.last_transaction_amount, "
+                        + "last_transaction_at = v.last_transaction_at, "
+                        + "updated_at = v.updated_at",
+                events, events.size(), (ps, event) -> {
+                    boolean purchase = event.type() == CardActivityEvent.Type.PURCHASE;
+                    LocalDate day = event.occurredAt().toLocalDate();
+                    ps.setLong(1, event.cardNumber());
+                    ps.setLong(2, event.balance());
+                    ps.setDate(3, Date.valueOf(day));
+                    ps.setLong(4, purchase ? event.amount() : 0);
+                    ps.setDate(5, Date.valueOf(day.withDayOfMonth(1)));
+                    ps.setLong(6, purchase ? event.amount() : 0);
+                    ps.setObject(7, purchase ? localPurchaseId.applyAsLong(event.transactionId()) : null);
+                    ps.setString(8, event.type().name());
+                    ps.setLong(9, event.amount());
+                    ps.setTimestamp(10, Timestamp.valueOf(event.occurredAt()));
+                    ps.setTimestamp(11, timestamp);
+                });
+    }
+
+    /**
+     * Applies annulments in one batched statement. The annulled amount leaves the spend of
+     * the day or month being counted only if the purchase was made in it.
+     *
+     * @param events          the annulments
+     * @param localPurchaseId maps the external ID of a purchase to its row ID
+     * @param updatedAt       when the changes are written
+     */
+    public void applyAnnulments(List<CardActivityEvent> events, LongUnaryOperator localPurchaseId, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.batchUpdate(
+                "UPDATE card_summaries s JOIN transactions t ON t.transaction_id = ? SET "
+                        + "s.spent_today = IF(DATE(t.transaction_date) = s.spent_day, s.spent_today - t.amount, s.spent_today), "
+                        + "s.spent_this_month = IF(t.transaction_date >= s.spent_month "
+                        + "AND t.transaction_date < s.spent_month + INTERVAL 1 MONTH, s.spent_this_month - t.amount, s.spent_this_month), "
+                        + "s.annulled_count = s.annulled_count + 1, "
+                        + "s.balance = ?, "
+                        + "s.updated_at = ? "
+                        + "WHERE s.card_number = ?",
+                events, events.size(), (ps, event) -> {
+                    ps.setLong(1, localPurchaseId.applyAsLong(event.transactionId()));
+                    ps.setLong(2, event.balance());
+                    ps.setTimestamp(3, timestamp);
+                    ps.setLong(4, event.cardNumber());
+                });
+    }
+
+    /**
+     * Locks the next cards after the given card ID until the end of the transaction, so no
+     * balance change of theirs commits while their summaries are rebuilt.
+     *
+     * @param afterCardId the last card ID of the previous chunk, or 0 to start
+     * @param limit       the number of cards
+     * @return the card IDs, in order
+     */
+    public List<Long> lockCards(long afterCardId, int limit) {
+        return jdbcTemplate.queryForList("SELECT card_id FROM cards WHERE card_id > ? ORDER BY card_id LIMIT ? FOR UPDATE",
+                Long.class, afterCardId, limit);
+    }
+
+    /**
+     * Recomputes the summaries of a range of cards from their ledger entries and replaces them.
+     *
+     * @param firstCardId the first card ID of the range
+     * @param lastCardId  the last card ID of the range
+     * @param today       the day whose spend is counted
+     * @param updatedAt   when the summaries are written
+     * @return the number of summaries written
+     */
+    public int rebuild(long firstCardId, long lastCardId, LocalDate today, LocalDateTime updatedAt) {
+        Date day = Date.valueOf(today);
+        Date month = Date.valueOf(today.withDayOfMonth(1));
+        List<Object[]> summaries = jdbcTemplate.query(
+                "SELECT c.card_number, c.balance, "
+                        + "COALESCE(SUM(CASE WHEN t.type = 'PURCHASE' AND t.is_annulled = false AND t.transaction_date >= ? THEN t.amount END), 0), "
+                        + "COALESCE(SUM(CASE WHEN t.type = 'PURCHASE' AND t.is_annulled = false AND t.transaction_date >= ? THEN t.amount END), 0), "
+                        + "COUNT(t.transaction_id), COALESCE(SUM(t.is_annulled), 0), "
+                        + "CASE WHEN l.type = 'PURCHASE' THEN l.transaction_id END, l.type, l.amount, l.transaction_date "
+                        + "FROM cards c "
+                        + "LEFT JOIN transactions t ON t.card_id = c.card_id "
+                        + "LEFT JOIN transactions l ON l.transaction_id = "
+                        + "(SELECT MAX(m.transaction_id) FROM transactions m WHERE m.card_id = c.card_id) "
+                        + "WHERE c.card_id BETWEEN ? AND ? "
+                        + "GROUP BY c.card_id, c.card_number, c.balance, l.transaction_id, l.type, l.amount, l.transaction_date",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getLong(2), day, rs.getLong(3), month, rs.getLong(4),
+                        rs.getLong(5), rs.getLong(6), rs.getObject(7, Long.class), rs.getString(8),
+                        rs.getObject(9, Long.class), rs.getTimestamp(10), Timestamp.valueOf(updatedAt)},
+                day, month, firstCardId, lastCardId);
+        if (summaries.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("REPLACE INTO card_summaries (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                summaries);
+        return summaries.size();
+    }
+}
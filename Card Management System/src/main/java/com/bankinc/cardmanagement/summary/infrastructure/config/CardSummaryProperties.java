@@ -0,0 +1,26 @@
+package com.bankinc.cardmanagement.summary.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.card-summary")
+public class CardSummaryProperties {
+
+    /**
+     * Whether card summaries are maintained and served. Requires the JPA storage engine.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of cards whose summaries are rebuilt in one transaction.
+     */
+    private int rebuildChunkSize = 500;
+
+    /**
+     * Pause between two rebuilt chunks, to leave room for regular traffic.
+     */
+    private Duration rebuildThrottle = Duration.ofMillis(20);
+}
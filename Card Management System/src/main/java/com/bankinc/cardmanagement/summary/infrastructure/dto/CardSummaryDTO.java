@@ -0,0 +1,26 @@
+package com.bankinc.cardmanagement.summary.infrastructure.dto;
+
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CardSummaryDTO {
+    private String cardId;
+    @MinorUnits
+    private long balance;
+    @MinorUnits
+    private long spentToday;
+    @MinorUnits
+    private long spentThisMonth;
+    private long transactionCount;
+    private long annulledCount;
+    private Long lastTransactionId;
+    private String lastTransactionType;
+    @MinorUnits
+    private Long lastTransactionAmount;
+    private LocalDateTime lastTransactionAt;
+}
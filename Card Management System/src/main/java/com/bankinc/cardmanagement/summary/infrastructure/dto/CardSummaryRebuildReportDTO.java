@@ -0,0 +1,14 @@
+package com.bankinc.cardmanagement.summary.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class CardSummaryRebuildReportDTO {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long cardsRebuilt;
+}
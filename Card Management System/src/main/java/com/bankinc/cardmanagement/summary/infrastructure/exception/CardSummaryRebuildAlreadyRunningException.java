@@ -0,0 +1,7 @@
+package com.bankinc.cardmanagement.summary.infrastructure.exception;
+
+public class CardSummaryRebuildAlreadyRunningException extends RuntimeException {
+    public CardSummaryRebuildAlreadyRunningException(String message) {
+        super(message);
+    }
+}
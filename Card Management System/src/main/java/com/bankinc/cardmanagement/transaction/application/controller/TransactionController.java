@@ -1,8 +1,12 @@
 package com.bankinc.cardmanagement.transaction.application.controller;
 
+import com.bankinc.cardmanagement.common.ratelimit.RateLimited;
+import com.bankinc.cardmanagement.standin.application.service.StandInService;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.AnulationRequestDTO;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseTicketDTO;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.bankinc.cardmanagement.transaction.application.service.AsyncPurchaseService;
 import com.bankinc.cardmanagement.transaction.application.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,25 +20,55 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final AsyncPurchaseService asyncPurchaseService;
+    private final StandInService standInService;
 
     /**
-     * Handles the purchase transaction request.
+     * Handles the purchase transaction request. While the database is unreachable the
+     * purchase is authorized in stand-in mode and has no transaction ID yet.
      *
      * @param request the purchase request data transfer object
      * @return a response entity containing the transaction response and HTTP status
      */
+    @RateLimited("purchase")
     @PostMapping("/purchase")
     public ResponseEntity<TransactionResponseDTO> makePurchase(@Valid @RequestBody PurchaseRequestDTO request) {
-        TransactionResponseDTO response = transactionService.makePurchase(request);
+        TransactionResponseDTO response = standInService.makePurchase(request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Queues a purchase for asynchronous processing.
+     *
+     * @param request the purchase request data transfer object
+     * @return a response entity containing the ticket to poll and HTTP status 202
+     */
+    @RateLimited("async-purchase")
+    @PostMapping("/purchase/async")
+    public ResponseEntity<PurchaseTicketDTO> submitPurchase(@Valid @RequestBody PurchaseRequestDTO request) {
+        PurchaseTicketDTO response = asyncPurchaseService.submitPurchase(request);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Retrieves the state of a purchase submitted for asynchronous processing.
+     *
+     * @param ticketId the ID of the ticket returned on submission
+     * @return a response entity containing the ticket
+     */
+    @RateLimited("purchase-ticket")
+    @GetMapping("/purchase/async/{ticketId}")
+    public ResponseEntity<PurchaseTicketDTO> getPurchaseTicket(@PathVariable String ticketId) {
+        return ResponseEntity.ok(asyncPurchaseService.getTicket(ticketId));
+    }
+
     /**
      * Retrieves the details of a specific transaction.
      *
      * @param transactionId the ID of the transaction to retrieve
      * @return a response entity containing the transaction response
      */
+    @RateLimited("transaction")
     @GetMapping("/{transactionId}")
     public ResponseEntity<TransactionResponseDTO> getTransaction(@PathVariable String transactionId) {
         TransactionResponseDTO response = transactionService.getTransaction(transactionId);
@@ -47,6 +81,7 @@ public class TransactionController {
      * @param request the anulation request data transfer object
      * @return a response entity with no content (204 No Content)
      */
+    @RateLimited("anulation")
     @PostMapping("/anulation")
     public ResponseEntity<Void> annulTransaction(@Valid @RequestBody AnulationRequestDTO request) {
         transactionService.annulTransaction(request);
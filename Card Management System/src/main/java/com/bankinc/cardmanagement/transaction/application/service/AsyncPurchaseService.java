@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.transaction.application.service;
+
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseTicketDTO;
+
+public interface AsyncPurchaseService {
+    PurchaseTicketDTO submitPurchase(PurchaseRequestDTO request);
+    PurchaseTicketDTO getTicket(String ticketId);
+}
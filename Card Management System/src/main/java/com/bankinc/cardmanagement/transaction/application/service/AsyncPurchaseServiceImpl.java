@@ -0,0 +1,127 @@
+package com.bankinc.cardmanagement.transaction.application.service;
+
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.standin.application.service.StandInService;
+import com.bankinc.cardmanagement.transaction.domain.model.PurchaseTicket;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.AsyncPurchaseProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseTicketDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.PurchaseQueueFullException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.PurchaseTicketNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+public class AsyncPurchaseServiceImpl implements AsyncPurchaseService {
+
+    /**
+     * Separates the ID of the node holding a ticket from the rest of the ticket ID.
+     */
+    public static final char NODE_SEPARATOR = '.';
+
+    private final StandInService standInService;
+    private final AsyncPurchaseProperties properties;
+    private final String nodeId;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, PurchaseTicket> tickets = new ConcurrentHashMap<>();
+
+    public AsyncPurchaseServiceImpl(StandInService standInService, AsyncPurchaseProperties properties,
+                                    ClusterMembership clusterMembership) {
+        this.standInService = standInService;
+        this.properties = properties;
+        this.nodeId = clusterMembership.getNodeId();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-purchase-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a purchase for processing by the worker pool, which takes the same path as a
+     * synchronous purchase: fraud screening, then the purchase journal or stand-in processing
+     * when they apply.
+     *
+     * @param request the purchase request data transfer object
+     * @return the ticket to poll for the result
+     * @throws PurchaseQueueFullException if the queue is full
+     */
+    @Override
+    public PurchaseTicketDTO submitPurchase(PurchaseRequestDTO request) {
+        PurchaseTicket ticket = new PurchaseTicket(nodeId + NODE_SEPARATOR + UUID.randomUUID());
+        tickets.put(ticket.getTicketId(), ticket);
+        try {
+            workers.execute(() -> process(ticket, request));
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticket.getTicketId());
+            throw new PurchaseQueueFullException("Purchase queue is full, retry later", properties.getRetryAfter().toSeconds());
+        }
+        return toDTO(ticket);
+    }
+
+    /**
+     * Retrieves the state of a submitted purchase.
+     *
+     * @param ticketId the ID of the ticket
+     * @return the ticket, with the transaction once the purchase completed
+     * @throws PurchaseTicketNotFoundException if the ticket is unknown or expired
+     */
+    @Override
+    public PurchaseTicketDTO getTicket(String ticketId) {
+        PurchaseTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new PurchaseTicketNotFoundException("Purchase ticket not found");
+        }
+        return toDTO(ticket);
+    }
+
+    /**
+     * Forgets finished tickets older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.async-purchase.ticket-retention:10m}').toMillis()}")
+    public void evictExpiredTickets() {
+        Instant expiredBefore = Instant.now().minus(properties.getTicketRetention());
+        tickets.values().removeIf(ticket -> ticket.getFinishedAt() != null && ticket.getFinishedAt().isBefore(expiredBefore));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} queued purchases were not processed before shutdown", workers.shutdownNow().size());
+        }
+    }
+
+    private void process(PurchaseTicket ticket, PurchaseRequestDTO request) {
+        try {
+            ticket.complete(standInService.makePurchase(request));
+        } catch (RuntimeException e) {
+            log.info("Asynchronous purchase {} failed: {}", ticket.getTicketId(), e.getMessage());
+            ticket.fail(e.getMessage());
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private static PurchaseTicketDTO toDTO(PurchaseTicket ticket) {
+        return new PurchaseTicketDTO(ticket.getTicketId(), ticket.getStatus(), ticket.getTransaction(), ticket.getError());
+    }
+}
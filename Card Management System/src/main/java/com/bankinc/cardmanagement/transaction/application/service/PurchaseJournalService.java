@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.transaction.application.service;
+
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+
+public interface PurchaseJournalService {
+    boolean isEnabled();
+    TransactionResponseDTO makePurchase(PurchaseRequestDTO request);
+}
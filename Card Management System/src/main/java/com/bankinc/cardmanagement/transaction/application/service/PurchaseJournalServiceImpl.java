@@ -0,0 +1,267 @@
+package com.bankinc.cardmanagement.transaction.application.service;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.storage.ConditionalOnJpaStorage;
+import com.bankinc.cardmanagement.transaction.domain.model.DeclinedPurchase;
+import com.bankinc.cardmanagement.transaction.domain.model.JournalCheckpoint;
+import com.bankinc.cardmanagement.transaction.domain.model.JournaledPurchase;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.DeclinedPurchaseRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.JournalCheckpointRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.PurchaseJournal;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionDomainService;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.PurchaseJournalProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-ahead purchase processing. A purchase is validated against the card read from
+ * the database minus the purchases of the card still waiting in the journal, appended
+ * to the journal and acknowledged as soon as it is on local disk. A background writer
+ * then applies the journal to {@code cards} and {@code transactions} in large batches.
+ *
+ * <p>Fee runs and other writers change balances without going through the journal, so the
+ * balance is checked again under the row lock when a purchase is applied. A purchase the
+ * card can no longer cover is recorded in {@code declined_purchases} instead of driving the
+ * balance negative.
+ */
+@Service
+@ConditionalOnJpaStorage
+@Slf4j
+public class PurchaseJournalServiceImpl implements PurchaseJournalService {
+
+    private static final int LOCK_STRIPES = 1024;
+
+    private final CardRepository cardRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final DeclinedPurchaseRepository declinedPurchaseRepository;
+    private final TransactionDomainService transactionDomainService;
+    private final TransactionFactory transactionFactory;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PurchaseJournalProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Object[] cardLocks = new Object[LOCK_STRIPES];
+    private final Map<Long, Long> pendingDebits = new ConcurrentHashMap<>();
+    private PurchaseJournal journal;
+
+    public PurchaseJournalServiceImpl(CardRepository cardRepository, TransactionRepository transactionRepository,
+                                      JournalCheckpointRepository checkpointRepository,
+                                      DeclinedPurchaseRepository declinedPurchaseRepository,
+                                      TransactionDomainService transactionDomainService,
+                                      TransactionFactory transactionFactory, ShardRouter shardRouter,
+                                      ApplicationEventPublisher eventPublisher, PurchaseJournalProperties properties,
+                                      PlatformTransactionManager transactionManager, ClusterMembership clusterMembership) {
+        this.cardRepository = cardRepository;
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.declinedPurchaseRepository = declinedPurchaseRepository;
+        this.transactionDomainService = transactionDomainService;
+        this.transactionFactory = transactionFactory;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = clusterMembership.getNodeId();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            cardLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        journal = new PurchaseJournal(Paths.get(properties.getDirectory()), properties.getSegmentSize().toBytes(),
+                properties.getBufferCapacity());
+        for (JournaledPurchase purchase : journal.unapplied(Integer.MAX_VALUE)) {
+            pendingDebits.merge(purchase.cardNumber(), purchase.amount(), Long::sum);
+        }
+    }
+
+    /**
+     * Tells whether purchases go through the journal.
+     *
+     * @return true if journal mode is enabled
+     */
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Validates a purchase, journals it and acknowledges it once it is on disk.
+     *
+     * @param request the purchase request data transfer object
+     * @return the transaction response; the transaction ID is assigned when the journal is applied
+     */
+    @Override
+    public TransactionResponseDTO makePurchase(PurchaseRequestDTO request) {
+        long cardNumber = CardNumbers.parse(request.getCardId());
+        long amount = request.getPrice();
+        long purchasedAt = System.currentTimeMillis();
+        long sequence;
+        synchronized (cardLocks[Long.hashCode(cardNumber) & (LOCK_STRIPES - 1)]) {
+            shardRouter.routeByCard(cardNumber);
+            Card card = cardRepository.findByCardNumber(cardNumber)
+                    .orElseThrow(() -> new CardNotFoundException("Card not found"));
+            // The card is detached, so lowering its balance by what is still waiting in the
+            // journal only affects the validation below.
+            card.setBalance(card.getBalance() - pendingDebits.getOrDefault(cardNumber, 0L));
+            transactionDomainService.validateForPurchase(card, amount);
+
+            // Counted as pending before it is appended, so the writer can never apply it first.
+            pendingDebits.merge(cardNumber, amount, Long::sum);
+            try {
+                sequence = journal.append(cardNumber, amount, purchasedAt);
+            } catch (IOException e) {
+                pendingDebits.merge(cardNumber, -amount, Long::sum);
+                throw new UncheckedIOException("Purchase could not be journaled", e);
+            }
+        }
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            // The journal stops at its first write failure, so this purchase will never be applied.
+            pendingDebits.merge(cardNumber, -amount, Long::sum);
+            throw new UncheckedIOException("Purchase could not be journaled", e);
+        }
+        log.info("Purchase {} journaled for card {}", sequence, request.getCardId());
+        return new TransactionResponseDTO(null, amount, toDateTime(purchasedAt), false);
+    }
+
+    /**
+     * Writes the oldest journaled purchases to the database, one transaction per shard,
+     * and advances the journal checkpoint once every shard has committed.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle).detectAndParse('${bankinc.purchase-journal.apply-interval:50ms}').toMillis()}")
+    public synchronized void applyJournal() {
+        if (journal == null) {
+            return;
+        }
+        List<JournaledPurchase> batch;
+        while (!(batch = journal.unapplied(properties.getApplyBatchSize())).isEmpty()) {
+            Map<Integer, List<JournaledPurchase>> byShard = new TreeMap<>();
+            for (JournaledPurchase purchase : batch) {
+                byShard.computeIfAbsent(shardRouter.shardForCard(purchase.cardNumber()), shard -> new ArrayList<>()).add(purchase);
+            }
+            try {
+                byShard.forEach(this::applyShard);
+                journal.markApplied(batch.get(batch.size() - 1).sequence());
+                // Only now, with every shard committed, do the purchases count in the stored balances.
+                for (JournaledPurchase purchase : batch) {
+                    pendingDebits.computeIfPresent(purchase.cardNumber(), (cardNumber, pending) -> {
+                        long remaining = pending - purchase.amount();
+                        return remaining > 0 ? remaining : null;
+                    });
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not apply {} journaled purchases, retrying later", batch.size(), e);
+                return;
+            } finally {
+                ShardContext.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            applyJournal();
+            journal.close();
+        }
+    }
+
+    private void applyShard(int shard, List<JournaledPurchase> purchases) {
+        ShardContext.set(shard);
+        transactionTemplate.executeWithoutResult(status -> {
+            JournalCheckpoint checkpoint = checkpointRepository.findById(nodeId).orElseGet(() -> new JournalCheckpoint(nodeId));
+            List<JournaledPurchase> toApply = new ArrayList<>(purchases.size());
+            TreeSet<Long> cardNumbers = new TreeSet<>();
+            for (JournaledPurchase purchase : purchases) {
+                // Already written before a crash that happened ahead of the local checkpoint.
+                if (purchase.sequence() > checkpoint.getAppliedSequence()) {
+                    toApply.add(purchase);
+                    cardNumbers.add(purchase.cardNumber());
+                }
+            }
+            if (toApply.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Card> cards = new HashMap<>();
+            for (Card card : cardRepository.findByCardNumberInOrderByCardNumberAsc(cardNumbers)) {
+                cards.put(card.getCardNumber(), card);
+            }
+            List<Transaction> transactions = new ArrayList<>(toApply.size());
+            List<DeclinedPurchase> declined = new ArrayList<>();
+            for (JournaledPurchase purchase : toApply) {
+                Card card = cards.get(purchase.cardNumber());
+                String reason = card == null ? "Card not found"
+                        : card.getBalance() < purchase.amount() ? "Insufficient balance" : null;
+                if (reason != null) {
+                    log.error("Journaled purchase {} of {} for card {} could not be applied: {}", purchase.sequence(),
+                            Money.format(purchase.amount()), CardNumbers.format(purchase.cardNumber()), reason);
+                    declined.add(new DeclinedPurchase(purchase.cardNumber(), purchase.amount(),
+                            toDateTime(purchase.purchasedAt()), DeclinedPurchase.Source.PURCHASE_JOURNAL, reason));
+                    continue;
+                }
+                transactionDomainService.deductBalance(card, purchase.amount());
+                Transaction transaction = transactionFactory.createTransaction(card, purchase.amount());
+                transaction.setTransactionDate(toDateTime(purchase.purchasedAt()));
+                transactions.add(transaction);
+            }
+            cardRepository.saveAll(cards.values());
+            transactionRepository.saveAll(transactions);
+            declinedPurchaseRepository.saveAll(declined);
+            for (Transaction transaction : transactions) {
+                Card card = transaction.getCard();
+                eventPublisher.publishEvent(new CardActivityEvent(card.getCardNumber(), CardActivityEvent.Type.PURCHASE,
+                        card.getBalance(), shardRouter.externalTransactionId(transaction.getTransactionId(), shard),
+                        transaction.getAmount(), transaction.getTransactionDate()));
+            }
+
+            checkpoint.setAppliedSequence(toApply.get(toApply.size() - 1).sequence());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -2,23 +2,33 @@ package com.bankinc.cardmanagement.transaction.application.service;
 
 import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.common.jfr.PipelineTrace;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.AnulationRequestDTO;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
 import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
 import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
-import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
-import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
 import com.bankinc.cardmanagement.transaction.domain.service.TransactionDomainService;
 import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionAlreadyAnnulledException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionAnnulationPeriodExceededException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionNotAnnullableException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionNotFoundException;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Service
@@ -26,11 +36,15 @@ import java.time.LocalDateTime;
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
 
-    private final TransactionRepository transactionRepository;
-    private final CardRepository cardRepository;
+    private static final Duration ANNULMENT_PERIOD = Duration.ofHours(24);
+
+    private final TransactionStore transactionStore;
+    private final CardStore cardStore;
     private final TransactionDomainService transactionDomainService;
     private final CardDomainService cardDomainService;
     private final TransactionFactory transactionFactory;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Processes a purchase transaction.
@@ -41,19 +55,30 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public TransactionResponseDTO makePurchase(PurchaseRequestDTO request) {
-        Card card = cardRepository.findByCardNumber(request.getCardId())
+        PipelineTrace trace = PipelineTrace.start(PipelineTrace.Operation.PURCHASE, request.getCardId());
+        trace.stage(PipelineTrace.Stage.CARD_LOOKUP);
+        long cardNumber = CardNumbers.parse(request.getCardId());
+        int shard = shardRouter.routeByCard(cardNumber);
+        Card card = cardStore.findByCardNumber(cardNumber)
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
+        trace.stage(PipelineTrace.Stage.VALIDATION);
         transactionDomainService.validateForPurchase(card, request.getPrice());
 
         transactionDomainService.deductBalance(card, request.getPrice());
-        cardRepository.save(card);
+        trace.stage(PipelineTrace.Stage.BALANCE_SAVE);
+        cardStore.save(card);
 
+        trace.stage(PipelineTrace.Stage.TRANSACTION_INSERT);
         Transaction transaction = transactionFactory.createTransaction(card, request.getPrice());
-        transactionRepository.save(transaction);
-
-        log.info("Transaction {} made successfully for card {}", transaction.getTransactionId(), request.getCardId());
-        return new TransactionResponseDTO(transaction.getTransactionId(), transaction.getAmount(), transaction.getTransactionDate(), transaction.isAnnulled());
+        transactionStore.save(transaction);
+        trace.stage(PipelineTrace.Stage.COMMIT);
+
+        long transactionId = shardRouter.externalTransactionId(transaction.getTransactionId(), shard);
+        eventPublisher.publishEvent(new CardActivityEvent(cardNumber, CardActivityEvent.Type.PURCHASE,
+                card.getBalance(), transactionId, transaction.getAmount(), transaction.getTransactionDate()));
+        log.info("Transaction {} made successfully for card {}", transactionId, request.getCardId());
+        return new TransactionResponseDTO(transactionId, transaction.getAmount(), transaction.getTransactionDate(), transaction.isAnnulled());
     }
 
     /**
@@ -65,39 +90,68 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional(readOnly = true)
     public TransactionResponseDTO getTransaction(String transactionId) {
-        Transaction transaction = transactionRepository.findById(Long.valueOf(transactionId))
+        long externalId = Long.parseLong(transactionId);
+        shardRouter.routeByTransaction(externalId);
+        Transaction transaction = transactionStore.findById(shardRouter.localTransactionId(externalId))
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
 
-        return new TransactionResponseDTO(transaction.getTransactionId(), transaction.getAmount(), transaction.getTransactionDate(), transaction.isAnnulled());
+        return new TransactionResponseDTO(externalId, transaction.getAmount(), transaction.getTransactionDate(), transaction.isAnnulled());
     }
 
     /**
-     * Annuls a transaction by its ID.
+     * Annuls a transaction by its ID, provided it belongs to the card of the request. A
+     * generated ID tells when the transaction was made, so one past the annulment period is
+     * rejected without reading it.
      *
      * @param request the anulation request data transfer object
      */
     @Override
     @Transactional
     public void annulTransaction(AnulationRequestDTO request) {
-        Transaction transaction = transactionRepository.findById(Long.valueOf(request.getTransactionId()))
+        PipelineTrace trace = PipelineTrace.start(PipelineTrace.Operation.ANNULMENT, null);
+        trace.stage(PipelineTrace.Stage.TRANSACTION_LOOKUP);
+        long externalId = Long.parseLong(request.getTransactionId());
+        if (TransactionIds.isGenerated(externalId)
+                && TransactionIds.createdAt(externalId).isBefore(Instant.now().minus(ANNULMENT_PERIOD))) {
+            throw new TransactionAnnulationPeriodExceededException("Transaction can only be annulled within 24 hours");
+        }
+        shardRouter.routeByTransaction(externalId);
+        Transaction transaction = transactionStore.findById(shardRouter.localTransactionId(externalId))
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
+        // A transaction of another card is reported as missing, so its existence is not revealed.
+        if (transaction.getCard().getCardNumber() != CardNumbers.parse(request.getCardId())) {
+            throw new TransactionNotFoundException("Transaction not found");
+        }
+        trace.card(CardNumbers.format(transaction.getCard().getCardNumber()));
+
+        trace.stage(PipelineTrace.Stage.VALIDATION);
+        if (transaction.getType() != TransactionType.PURCHASE) {
+            throw new TransactionNotAnnullableException("Only purchases can be annulled");
+        }
 
         if (transaction.isAnnulled()) {
             throw new TransactionAlreadyAnnulledException("Transaction already annulled");
         }
 
-        if (transaction.getTransactionDate().isBefore(LocalDateTime.now().minusHours(24))) {
+        if (transaction.getTransactionDate().isBefore(LocalDateTime.now().minus(ANNULMENT_PERIOD))) {
             throw new TransactionAnnulationPeriodExceededException("Transaction can only be annulled within 24 hours");
         }
 
+        trace.stage(PipelineTrace.Stage.TRANSACTION_UPDATE);
+        LocalDateTime annulledAt = LocalDateTime.now();
         transaction.setAnnulled(true);
-        transactionRepository.save(transaction);
+        transaction.setAnnulledAt(annulledAt);
+        transactionStore.save(transaction);
 
+        trace.stage(PipelineTrace.Stage.BALANCE_SAVE);
         Card card = transaction.getCard();
         cardDomainService.addBalance(card, transaction.getAmount());
-        cardRepository.save(card);
+        cardStore.save(card);
+        trace.stage(PipelineTrace.Stage.COMMIT);
+        eventPublisher.publishEvent(new CardActivityEvent(card.getCardNumber(), CardActivityEvent.Type.ANNULMENT,
+                card.getBalance(), externalId, transaction.getAmount(), annulledAt));
 
-        log.info("Transaction {} annulled successfully", transaction.getTransactionId());
+        log.info("Transaction {} annulled successfully", externalId);
     }
 
 }
@@ -0,0 +1,69 @@
+package com.bankinc.cardmanagement.transaction.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A purchase already approved to the merchant that could not be charged to the card when it
+ * reached the database, because the balance or the card status changed in between. The card
+ * is left untouched and the purchase has to be settled by hand.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "declined_purchases")
+public class DeclinedPurchase {
+
+    /**
+     * Where the purchase had been approved.
+     */
+    public enum Source {
+        PURCHASE_JOURNAL,
+        STAND_IN
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long declinedPurchaseId;
+
+    @Column(nullable = false)
+    private long cardNumber;
+
+    /**
+     * In cents, see {@link com.bankinc.cardmanagement.common.money.Money}.
+     */
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(nullable = false)
+    private LocalDateTime purchasedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Source source;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime declinedAt;
+
+    public DeclinedPurchase(long cardNumber, long amount, LocalDateTime purchasedAt, Source source, String reason) {
+        this.cardNumber = cardNumber;
+        this.amount = amount;
+        this.purchasedAt = purchasedAt;
+        this.source = source;
+        this.reason = reason;
+        this.declinedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankinc.cardmanagement.transaction.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal sequence of a node written to the database of a shard. It is updated in
+ * the same transaction as the purchases, so a batch replayed after a crash is never
+ * written twice. The stand-in journal of a node keeps its own row, {@code stand-in:<node>}.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "journal_checkpoints")
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private long appliedSequence;
+
+    public JournalCheckpoint(String nodeId) {
+        this.nodeId = nodeId;
+        this.appliedSequence = -1;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankinc.cardmanagement.transaction.domain.model;
+
+/**
+ * A purchase acknowledged from the journal and not yet written to the database.
+ *
+ * @param sequence    the position of the purchase in the journal
+ * @param cardNumber  the card number
+ * @param amount      the purchase amount, in cents
+ * @param purchasedAt when the purchase was acknowledged, in epoch milliseconds
+ */
+public record JournaledPurchase(long sequence, long cardNumber, long amount, long purchasedAt) {
+}
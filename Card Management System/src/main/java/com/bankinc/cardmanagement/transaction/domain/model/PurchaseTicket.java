@@ -0,0 +1,43 @@
+package com.bankinc.cardmanagement.transaction.domain.model;
+
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Tracks a purchase submitted for asynchronous processing until its result is polled.
+ */
+@Getter
+public class PurchaseTicket {
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String ticketId;
+    private final Instant submittedAt;
+    private volatile Status status = Status.PENDING;
+    private volatile TransactionResponseDTO transaction;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public PurchaseTicket(String ticketId) {
+        this.ticketId = ticketId;
+        this.submittedAt = Instant.now();
+    }
+
+    public void complete(TransactionResponseDTO transaction) {
+        this.transaction = transaction;
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+}
@@ -3,7 +3,10 @@ package com.bankinc.cardmanagement.transaction.domain.model;
 import com.bankinc.cardmanagement.card.domain.model.Card;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -11,18 +14,28 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @Table(name = "transactions")
-public class Transaction {
+public class Transaction implements Persistable<Long> {
 
+    /**
+     * Generated by the application before the row is inserted, see {@code TransactionIdGenerator}.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long transactionId;
 
     @ManyToOne
     @JoinColumn(name = "card_id", nullable = false)
     private Card card;
 
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'PURCHASE'")
+    @Column(nullable = false, length = 16)
+    private TransactionType type = TransactionType.PURCHASE;
+
+    /**
+     * In cents, see {@link com.bankinc.cardmanagement.common.money.Money}.
+     */
     @Column(nullable = false)
-    private double amount;
+    private long amount;
 
     @Column(nullable = false)
     private LocalDateTime transactionDate;
@@ -30,11 +43,39 @@ public class Transaction {
     @Column(nullable = false)
     private boolean isAnnulled;
 
-    public Transaction(Card card, double amount, LocalDateTime transactionDate) {
+    private LocalDateTime annulledAt;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean persisted;
+
+    public Transaction(Card card, long amount, LocalDateTime transactionDate) {
         this.card = card;
+        this.type = TransactionType.PURCHASE;
         this.amount = amount;
         this.transactionDate = transactionDate;
         this.isAnnulled = false;
     }
 
+    @Override
+    public Long getId() {
+        return transactionId;
+    }
+
+    /**
+     * Tells whether the transaction is yet to be inserted. Spring Data cannot tell from an
+     * ID assigned up front and would read the row before every insert.
+     *
+     * @return false once the transaction is inserted or loaded
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
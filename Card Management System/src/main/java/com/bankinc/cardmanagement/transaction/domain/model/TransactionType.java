@@ -0,0 +1,25 @@
+package com.bankinc.cardmanagement.transaction.domain.model;
+
+/**
+ * Kind of ledger entry recorded in {@code transactions}, with the sign it applies to the card balance.
+ */
+public enum TransactionType {
+    PURCHASE(-1),
+    RECHARGE(1),
+    FEE(-1);
+
+    private final int balanceSign;
+
+    TransactionType(int balanceSign) {
+        this.balanceSign = balanceSign;
+    }
+
+    /**
+     * Returns the sign the entry applies to the card balance.
+     *
+     * @return 1 if the entry adds to the balance, -1 if it deducts from it
+     */
+    public int getBalanceSign() {
+        return balanceSign;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.transaction.domain.repository;
+
+import com.bankinc.cardmanagement.transaction.domain.model.DeclinedPurchase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeclinedPurchaseRepository extends JpaRepository<DeclinedPurchase, Long> {
+}
@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.transaction.domain.repository;
+
+import com.bankinc.cardmanagement.transaction.domain.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
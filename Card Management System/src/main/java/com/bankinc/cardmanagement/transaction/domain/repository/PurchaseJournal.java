@@ -0,0 +1,377 @@
+package com.bankinc.cardmanagement.transaction.domain.repository;
+
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.transaction.domain.model.JournaledPurchase;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented write-ahead journal of purchases. Appenders only copy their record into a
+ * shared buffer; a single flusher thread writes whatever accumulated and fsyncs it once,
+ * so concurrent purchases share one fsync. A purchase is durable, and may be acknowledged,
+ * once {@link #awaitDurable(long)} returns.
+ *
+ * <p>Segments are named after the sequence of their first record. How far the journal
+ * has been written to the database is kept in a checkpoint file; segments entirely
+ * below it are deleted.
+ *
+ * <pre>
+ * record (40 bytes): sequence, card number, amount, purchased at (epoch millis), CRC32 of the first 32 bytes, format
+ * </pre>
+ *
+ * <p>The format is 1 for amounts in cents. Records written before, with format 0, hold the
+ * amount as a double in major units and are read rounded to the cent.
+ */
+@Slf4j
+public class PurchaseJournal implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 40;
+    private static final int CHECKSUMMED_BYTES = 32;
+    private static final int AMOUNT_IN_CENTS = 1;
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final FileChannel checkpoint;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final ArrayDeque<JournaledPurchase> unapplied = new ArrayDeque<>();
+    private final Thread flusher;
+
+    private ByteBuffer active;
+    private ByteBuffer flushing;
+    private FileChannel segment;
+    private long segmentFirstSequence;
+    private long nextSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+
+    public PurchaseJournal(Path directory, long segmentSize, int bufferCapacity) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.active = ByteBuffer.allocateDirect(bufferCapacity * RECORD_SIZE);
+        this.flushing = ByteBuffer.allocateDirect(bufferCapacity * RECORD_SIZE);
+        Files.createDirectories(directory);
+        this.checkpoint = FileChannel.open(directory.resolve("applied.checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        recover();
+        this.flusher = new Thread(this::flushLoop, "purchase-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Adds a purchase to the journal. The purchase is not durable until {@link #awaitDurable(long)} returns.
+     *
+     * @param cardNumber  the card number
+     * @param amount      the purchase amount, in cents
+     * @param purchasedAt when the purchase was made, in epoch milliseconds
+     * @return the sequence of the purchase
+     * @throws IOException if the journal can no longer be written
+     */
+    public long append(long cardNumber, long amount, long purchasedAt) throws IOException {
+        lock.lock();
+        try {
+            while (!active.hasRemaining() && failure == null && !closed) {
+                spaceAvailable.awaitUninterruptibly();
+            }
+            checkWritable();
+            long sequence = nextSequence++;
+            int start = active.position();
+            active.putLong(sequence).putLong(cardNumber).putLong(amount).putLong(purchasedAt);
+            crc.reset();
+            crc.update(active.duplicate().position(start).limit(start + CHECKSUMMED_BYTES));
+            active.putInt((int) crc.getValue()).putInt(AMOUNT_IN_CENTS);
+            unapplied.addLast(new JournaledPurchase(sequence, cardNumber, amount, purchasedAt));
+            written.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the purchase with the given sequence is on disk.
+     *
+     * @param sequence the sequence returned by {@link #append}
+     * @throws IOException if the journal could not be written
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence <= sequence && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (durableSequence <= sequence) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the oldest durable purchases not yet written to the database, in journal order.
+     *
+     * @param max the maximum number of purchases to return
+     * @return the purchases, which stay in the journal until {@link #markApplied(long)}
+     */
+    public List<JournaledPurchase> unapplied(int max) {
+        lock.lock();
+        try {
+            List<JournaledPurchase> purchases = new ArrayList<>(Math.min(max, unapplied.size()));
+            for (JournaledPurchase purchase : unapplied) {
+                if (purchases.size() == max || purchase.sequence() >= durableSequence) {
+                    break;
+                }
+                purchases.add(purchase);
+            }
+            return purchases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that every purchase up to and including the given one is in the database,
+     * and deletes the segments that are no longer needed.
+     *
+     * @param sequence the sequence of the last purchase written to the database
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void markApplied(long sequence) throws IOException {
+        long currentSegment;
+        lock.lock();
+        try {
+            while (!unapplied.isEmpty() && unapplied.peekFirst().sequence() <= sequence) {
+                unapplied.removeFirst();
+            }
+            currentSegment = segmentFirstSequence;
+        } finally {
+            lock.unlock();
+        }
+        ByteBuffer position = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence + 1);
+        while (position.hasRemaining()) {
+            checkpoint.write(position, position.position());
+        }
+        reclaim(sequence + 1, currentSegment);
+    }
+
+    /**
+     * Returns the number of durable purchases not yet written to the database.
+     *
+     * @return the backlog of the background writer
+     */
+    public int backlog() {
+        lock.lock();
+        try {
+            return unapplied.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes what was appended and stops the flusher.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            written.signalAll();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+        checkpoint.close();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long upTo;
+            lock.lock();
+            try {
+                while (active.position() == 0 && !closed) {
+                    written.awaitUninterruptibly();
+                }
+                if (active.position() == 0) {
+                    return;
+                }
+                ByteBuffer full = active;
+                active = flushing;
+                flushing = full;
+                upTo = nextSequence;
+                spaceAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                flushing.flip();
+                while (flushing.hasRemaining()) {
+                    segment.write(flushing);
+                }
+                segment.force(false);
+                if (segment.size() >= segmentSize) {
+                    roll(upTo);
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                flushing.clear();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    log.error("Purchase journal write failed, no more purchases can be journaled", error);
+                    failure = error;
+                    spaceAvailable.signalAll();
+                } else {
+                    durableSequence = upTo;
+                }
+                durable.signalAll();
+                if (failure != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        FileChannel next = openSegment(firstSequence);
+        FileChannel previous = segment;
+        lock.lock();
+        try {
+            segment = next;
+            segmentFirstSequence = firstSequence;
+        } finally {
+            lock.unlock();
+        }
+        previous.close();
+    }
+
+    private void reclaim(long appliedUpTo, long currentSegment) throws IOException {
+        List<Long> segments = segmentSequences();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long first = segments.get(i);
+            // A segment is fully applied once the segment after it starts at or below the checkpoint.
+            if (first < currentSegment && segments.get(i + 1) <= appliedUpTo) {
+                Files.deleteIfExists(segmentPath(first));
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        long appliedUpTo = 0;
+        if (checkpoint.size() >= Long.BYTES) {
+            ByteBuffer position = ByteBuffer.allocate(Long.BYTES);
+            while (position.hasRemaining() && checkpoint.read(position, position.position()) >= 0) {
+                // Keep reading until the checkpoint is complete.
+            }
+            appliedUpTo = position.getLong(0);
+        }
+
+        List<Long> segments = segmentSequences();
+        long expected = appliedUpTo;
+        for (long first : segments) {
+            try (FileChannel channel = FileChannel.open(segmentPath(first), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long validEnd = readSegment(channel, first, appliedUpTo);
+                expected = first + validEnd / RECORD_SIZE;
+                if (validEnd < channel.size()) {
+                    // A torn record at the tail was never acknowledged, so it is cut off.
+                    log.warn("Truncating purchase journal segment {} after {} records", first, validEnd / RECORD_SIZE);
+                    channel.truncate(validEnd);
+                }
+            }
+        }
+        nextSequence = Math.max(expected, appliedUpTo);
+        durableSequence = nextSequence;
+        segmentFirstSequence = segments.isEmpty() ? nextSequence : segments.get(segments.size() - 1);
+        segment = segments.isEmpty() ? openSegment(nextSequence) : FileChannel.open(segmentPath(segmentFirstSequence),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (!unapplied.isEmpty()) {
+            log.info("{} journaled purchases are waiting to be written to the database", unapplied.size());
+        }
+    }
+
+    private long readSegment(FileChannel channel, long firstSequence, long appliedUpTo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32 check = new CRC32();
+        long offset = 0;
+        while (offset + RECORD_SIZE <= channel.size()) {
+            buffer.clear();
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+                // Keep reading until the record is complete.
+            }
+            check.reset();
+            check.update(buffer.array(), 0, CHECKSUMMED_BYTES);
+            long sequence = buffer.getLong(0);
+            if (buffer.getInt(CHECKSUMMED_BYTES) != (int) check.getValue() || sequence != firstSequence + offset / RECORD_SIZE) {
+                break;
+            }
+            if (sequence >= appliedUpTo) {
+                long amount = buffer.getInt(CHECKSUMMED_BYTES + 4) == AMOUNT_IN_CENTS ? buffer.getLong(16) : Money.round(buffer.getDouble(16));
+                unapplied.addLast(new JournaledPurchase(sequence, buffer.getLong(8), amount, buffer.getLong(24)));
+            }
+            offset += RECORD_SIZE;
+        }
+        return offset;
+    }
+
+    private List<Long> segmentSequences() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        return FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private void checkWritable() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("Purchase journal is closed");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bankinc.cardmanagement.transaction.domain.repository;
+
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+
+import java.util.Optional;
+
+/**
+ * Storage of transactions used by the card and transaction services, implemented by the
+ * engine selected with {@code bankinc.storage.engine}. A transaction is read back with the
+ * current state of its card.
+ */
+public interface TransactionStore {
+
+    Optional<Transaction> findById(long transactionId);
+
+    /**
+     * Inserts a new transaction or updates an existing one. The ID is assigned by the caller.
+     *
+     * @param transaction the transaction
+     * @return the saved transaction
+     */
+    Transaction save(Transaction transaction);
+}
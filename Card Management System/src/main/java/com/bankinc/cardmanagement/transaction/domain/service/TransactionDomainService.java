@@ -2,9 +2,13 @@ package com.bankinc.cardmanagement.transaction.domain.service;
 
 import com.bankinc.cardmanagement.card.domain.model.Card;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardExpiredException;
+import com.bankinc.cardmanagement.common.money.Money;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+
 @Service
 public class TransactionDomainService {
 
@@ -13,14 +17,18 @@ public class TransactionDomainService {
      * Validates whether a purchase can be made with the given card and price.
      *
      * @param card  the card to validate
-     * @param price the price of the purchase
+     * @param price the price of the purchase, in cents
      * @throws CardBlockedException      if the card is not active or is blocked
+     * @throws CardExpiredException      if the card expiration date has passed
      * @throws InsufficientBalanceException if the card balance is insufficient
      */
-    public void validateForPurchase(Card card, double price) {
+    public void validateForPurchase(Card card, long price) {
         if (!card.isActive() || card.isBlocked()) {
             throw new CardBlockedException("Card is not active or is blocked");
         }
+        if (card.getExpirationDate() != null && card.getExpirationDate().isBefore(LocalDate.now())) {
+            throw new CardExpiredException("Card is expired");
+        }
         if (card.getBalance() < price) {
             throw new InsufficientBalanceException("Insufficient balance");
         }
@@ -30,10 +38,10 @@ public class TransactionDomainService {
      * Deducts the specified price from the card's balance.
      *
      * @param card  the card from which to deduct the balance
-     * @param price the amount to deduct
+     * @param price the amount to deduct, in cents
      */
-    public void deductBalance(Card card, double price) {
-        card.setBalance(card.getBalance() - price);
+    public void deductBalance(Card card, long price) {
+        card.setBalance(Money.subtract(card.getBalance(), price));
     }
 
 }
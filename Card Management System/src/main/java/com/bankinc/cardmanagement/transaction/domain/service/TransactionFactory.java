@@ -1,28 +1,55 @@
 package com.bankinc.cardmanagement.transaction.domain.service;
 
 import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
 import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 
 @Service
+@RequiredArgsConstructor
 public class TransactionFactory {
 
+    private final TransactionIdGenerator idGenerator;
+
     /**
-     * Creates a new transaction with the given card and amount.
+     * Creates a new transaction with the given card and amount, identified for the current shard.
      *
      * @param card   the card associated with the transaction
-     * @param amount the amount of the transaction
+     * @param amount the amount of the transaction, in cents
+     * @return a new Transaction object
+     */
+    public Transaction createTransaction(Card card, long amount) {
+        Transaction transaction = new Transaction();
+        transaction.setCard(card);
+        transaction.setType(TransactionType.PURCHASE);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transaction.setAnnulled(false);
+        transaction.setTransactionId(idGenerator.next(ShardContext.current()));
+
+        return transaction;
+    }
+
+    /**
+     * Creates the ledger entry recording a recharge of the given card, identified for the current shard.
+     *
+     * @param card   the recharged card
+     * @param amount the amount added to the card balance, in cents
      * @return a new Transaction object
      */
-    public Transaction createTransaction(Card card, double amount) {
+    public Transaction createRecharge(Card card, long amount) {
         Transaction transaction = new Transaction();
         transaction.setCard(card);
+        transaction.setType(TransactionType.RECHARGE);
         transaction.setAmount(amount);
         transaction.setTransactionDate(LocalDateTime.now());
         transaction.setAnnulled(false);
+        transaction.setTransactionId(idGenerator.next(ShardContext.current()));
 
         return transaction;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.bankinc.cardmanagement.transaction.domain.service;
+
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.TransactionIdProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generates time-ordered transaction IDs without locking, see {@link TransactionIds}.
+ *
+ * <p>Each shard keeps the last timestamp and sequence it handed out in one atomic value.
+ * The next ID takes the current millisecond, or the last value plus one if that is not
+ * behind the clock. A sequence overflowing within a millisecond therefore carries into the
+ * next one instead of waiting for it, and a clock stepping back never repeats an ID. A burst
+ * runs the timestamp ahead of the clock by one millisecond per 256 IDs, and it catches up as
+ * soon as the rate drops below 256,000 IDs per second and shard, far above what a shard
+ * inserts; a restart takes longer than any such lead, so it never reuses an ID.
+ */
+@Service
+public class TransactionIdGenerator {
+
+    private static final long SEQUENCE_MASK = (1L << TransactionIds.SEQUENCE_BITS) - 1;
+
+    private final int nodeId;
+    private final AtomicLongArray lastIssued = new AtomicLongArray(TransactionIds.MAX_SHARDS);
+
+    public TransactionIdGenerator(TransactionIdProperties properties, ClusterProperties clusterProperties) {
+        int node = properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId(clusterProperties);
+        if (node < 0 || node >= TransactionIds.MAX_NODES) {
+            throw new IllegalStateException("Transaction ID node must be between 0 and " + (TransactionIds.MAX_NODES - 1));
+        }
+        this.nodeId = node;
+    }
+
+    /**
+     * Takes the position of this node among the configured cluster members, which every
+     * member lists in the same order, so no two members share a node ID.
+     */
+    private static int defaultNodeId(ClusterProperties clusterProperties) {
+        if (!clusterProperties.isEnabled()) {
+            return 0;
+        }
+        List<ClusterProperties.Node> nodes = clusterProperties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (clusterProperties.getNodeId().equals(nodes.get(i).getId())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Node " + clusterProperties.getNodeId()
+                + " is not in bankinc.cluster.nodes, set bankinc.transaction-id.node-id to a number no other node uses");
+    }
+
+    /**
+     * Generates the ID of a transaction stored in the given shard.
+     *
+     * @param shard the shard index
+     * @return the transaction ID, greater than every ID this instance generated before for the shard
+     */
+    public long next(int shard) {
+        while (true) {
+            long last = lastIssued.get(shard);
+            long now = (System.currentTimeMillis() - TransactionIds.EPOCH_MILLIS) << TransactionIds.SEQUENCE_BITS;
+            long next = Math.max(now, last + 1);
+            if (lastIssued.compareAndSet(shard, last, next)) {
+                return TransactionIds.compose(next >>> TransactionIds.SEQUENCE_BITS, shard, nodeId, next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.codec;
+
+import com.bankinc.cardmanagement.common.cbor.CborCodec;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.AnulationRequestDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AnulationRequestCodec implements CborCodec<AnulationRequestDTO> {
+
+    private static final byte[] CARD_ID = CborWriter.encodeKey("cardId");
+    private static final byte[] TRANSACTION_ID = CborWriter.encodeKey("transactionId");
+    private static final byte[][] KEYS = {CARD_ID, TRANSACTION_ID};
+
+    @Override
+    public Class<AnulationRequestDTO> type() {
+        return AnulationRequestDTO.class;
+    }
+
+    @Override
+    public void write(AnulationRequestDTO value, CborWriter writer) {
+        writer.mapHeader(2)
+                .key(CARD_ID).text(value.getCardId())
+                .key(TRANSACTION_ID).text(value.getTransactionId());
+    }
+
+    @Override
+    public AnulationRequestDTO read(CborReader reader) {
+        AnulationRequestDTO request = new AnulationRequestDTO();
+        int entries = reader.readMapHeader();
+        for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+            switch (reader.readKey(KEYS)) {
+                case 0 -> request.setCardId(reader.readText());
+                case 1 -> request.setTransactionId(reader.readText());
+                default -> reader.skip();
+            }
+        }
+        return request;
+    }
+}
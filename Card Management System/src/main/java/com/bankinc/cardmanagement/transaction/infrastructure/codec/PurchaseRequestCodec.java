@@ -0,0 +1,41 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.codec;
+
+import com.bankinc.cardmanagement.common.cbor.CborCodec;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PurchaseRequestCodec implements CborCodec<PurchaseRequestDTO> {
+
+    private static final byte[] CARD_ID = CborWriter.encodeKey("cardId");
+    private static final byte[] PRICE = CborWriter.encodeKey("price");
+    private static final byte[][] KEYS = {CARD_ID, PRICE};
+
+    @Override
+    public Class<PurchaseRequestDTO> type() {
+        return PurchaseRequestDTO.class;
+    }
+
+    @Override
+    public void write(PurchaseRequestDTO value, CborWriter writer) {
+        writer.mapHeader(2)
+                .key(CARD_ID).text(value.getCardId())
+                .key(PRICE).amount(value.getPrice());
+    }
+
+    @Override
+    public PurchaseRequestDTO read(CborReader reader) {
+        PurchaseRequestDTO request = new PurchaseRequestDTO();
+        int entries = reader.readMapHeader();
+        for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+            switch (reader.readKey(KEYS)) {
+                case 0 -> request.setCardId(reader.readText());
+                case 1 -> request.setPrice(reader.readAmount());
+                default -> reader.skip();
+            }
+        }
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.codec;
+
+import com.bankinc.cardmanagement.common.cbor.CborCodec;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class TransactionResponseCodec implements CborCodec<TransactionResponseDTO> {
+
+    private static final byte[] TRANSACTION_ID = CborWriter.encodeKey("transactionId");
+    private static final byte[] AMOUNT = CborWriter.encodeKey("amount");
+    private static final byte[] TRANSACTION_DATE = CborWriter.encodeKey("transactionDate");
+    private static final byte[] ANNULLED = CborWriter.encodeKey("annulled");
+    private static final byte[][] KEYS = {TRANSACTION_ID, AMOUNT, TRANSACTION_DATE, ANNULLED};
+
+    @Override
+    public Class<TransactionResponseDTO> type() {
+        return TransactionResponseDTO.class;
+    }
+
+    @Override
+    public void write(TransactionResponseDTO value, CborWriter writer) {
+        writer.mapHeader(4)
+                .key(TRANSACTION_ID).integer(value.getTransactionId())
+                .key(AMOUNT).amount(value.getAmount())
+                .key(TRANSACTION_DATE).dateTime(value.getTransactionDate())
+                .key(ANNULLED).bool(value.isAnnulled());
+    }
+
+    @Override
+    public TransactionResponseDTO read(CborReader reader) {
+        TransactionResponseDTO response = new TransactionResponseDTO(null, 0, null, false);
+        int entries = reader.readMapHeader();
+        for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+            switch (reader.readKey(KEYS)) {
+                case 0 -> {
+                    String transactionId = reader.readText();
+                    response.setTransactionId(transactionId != null ? Long.valueOf(transactionId) : null);
+                }
+                case 1 -> response.setAmount(reader.readAmount());
+                case 2 -> {
+                    String transactionDate = reader.readText();
+                    response.setTransactionDate(transactionDate != null ? LocalDateTime.parse(transactionDate) : null);
+                }
+                case 3 -> response.setAnnulled(reader.readBoolean());
+                default -> reader.skip();
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.async-purchase")
+public class AsyncPurchaseProperties {
+
+    /**
+     * Number of worker threads processing queued purchases. Each holds at most one
+     * database connection, so this bounds the pool share used by asynchronous purchases.
+     */
+    private int workers = 8;
+
+    /**
+     * Maximum number of purchases waiting for a worker. Submissions beyond it are rejected.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * How long a finished ticket can still be polled.
+     */
+    private Duration ticketRetention = Duration.ofMinutes(10);
+
+    /**
+     * Value of the Retry-After header sent when the queue is full.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,44 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.purchase-journal")
+public class PurchaseJournalProperties {
+
+    /**
+     * Whether purchases are acknowledged once journaled on local disk and written to the
+     * database in the background. Every card must be served by a single node, so this is
+     * only safe on a single instance or with cluster mode enabled.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the journal segments.
+     */
+    private String directory = "purchase-journal";
+
+    /**
+     * Size after which the journal rolls over to a new segment.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Maximum number of purchases waiting for the next fsync. Appenders wait when it is full.
+     */
+    private int bufferCapacity = 4096;
+
+    /**
+     * Maximum number of journaled purchases written to the database per batch.
+     */
+    private int applyBatchSize = 1000;
+
+    /**
+     * Pause between batches written to the database.
+     */
+    private Duration applyInterval = Duration.ofMillis(50);
+}
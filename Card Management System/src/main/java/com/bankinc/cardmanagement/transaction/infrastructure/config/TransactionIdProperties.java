@@ -0,0 +1,16 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bankinc.transaction-id")
+public class TransactionIdProperties {
+
+    /**
+     * Number of this instance in transaction IDs, from 0 to 63. Every instance writing to
+     * the same database must have its own. Left unset, it is the position of this node in
+     * {@code bankinc.cluster.nodes} when the cluster is enabled, and 0 otherwise.
+     */
+    private Integer nodeId;
+}
@@ -1,5 +1,6 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.dto;
 
+import com.bankinc.cardmanagement.common.ratelimit.CardScopedRequest;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -7,7 +8,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-public class AnulationRequestDTO {
+public class AnulationRequestDTO implements CardScopedRequest {
 
     @NotBlank(message = "El ID de la tarjeta no puede estar vacío")
     @Size(min = 16, max = 16, message = "El ID de la tarjeta debe tener 16 dígitos")
@@ -1,5 +1,7 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.dto;
 
+import com.bankinc.cardmanagement.common.money.MinorUnits;
+import com.bankinc.cardmanagement.common.ratelimit.CardScopedRequest;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -9,7 +11,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-public class PurchaseRequestDTO {
+public class PurchaseRequestDTO implements CardScopedRequest {
 
     @NotBlank(message = "El ID de la tarjeta no puede estar vacío")
     @Size(min = 16, max = 16, message = "El ID de la tarjeta debe tener 16 dígitos")
@@ -17,5 +19,6 @@ public class PurchaseRequestDTO {
 
     @NotNull(message = "El precio debe ser proporcionado")
     @Positive(message = "El precio debe ser un número positivo")
-    private double price;
+    @MinorUnits
+    private long price;
 }
@@ -0,0 +1,14 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.dto;
+
+import com.bankinc.cardmanagement.transaction.domain.model.PurchaseTicket;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PurchaseTicketDTO {
+    private String ticketId;
+    private PurchaseTicket.Status status;
+    private TransactionResponseDTO transaction;
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.dto;
 
+import com.bankinc.cardmanagement.common.money.MinorUnits;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -9,7 +10,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class TransactionResponseDTO {
     private Long transactionId;
-    private double amount;
+    @MinorUnits
+    private long amount;
     private LocalDateTime transactionDate;
     private boolean isAnnulled;
 }
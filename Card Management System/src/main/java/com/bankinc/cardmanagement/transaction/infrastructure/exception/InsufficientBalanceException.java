@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.exception;
 
-public class InsufficientBalanceException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class InsufficientBalanceException extends BusinessException {
     public InsufficientBalanceException(String message) {
         super(message);
     }
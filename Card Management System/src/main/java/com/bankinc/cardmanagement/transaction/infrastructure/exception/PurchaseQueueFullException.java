@@ -0,0 +1,17 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class PurchaseQueueFullException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public PurchaseQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class PurchaseTicketNotFoundException extends BusinessException {
+    public PurchaseTicketNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.exception;
 
-public class TransactionAlreadyAnnulledException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class TransactionAlreadyAnnulledException extends BusinessException {
     public TransactionAlreadyAnnulledException(String message) {
         super(message);
     }
@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.exception;
 
-public class TransactionAnnulationPeriodExceededException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class TransactionAnnulationPeriodExceededException extends BusinessException {
     public TransactionAnnulationPeriodExceededException(String message) {
         super(message);
     }
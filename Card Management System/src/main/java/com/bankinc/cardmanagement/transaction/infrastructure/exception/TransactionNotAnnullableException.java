@@ -0,0 +1,9 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.exception;
+
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class TransactionNotAnnullableException extends BusinessException {
+    public TransactionNotAnnullableException(String message) {
+        super(message);
+    }
+}
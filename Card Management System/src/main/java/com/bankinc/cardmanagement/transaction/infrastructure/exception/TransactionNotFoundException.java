@@ -1,6 +1,8 @@
 package com.bankinc.cardmanagement.transaction.infrastructure.exception;
 
-public class TransactionNotFoundException extends RuntimeException {
+import com.bankinc.cardmanagement.common.exception.BusinessException;
+
+public class TransactionNotFoundException extends BusinessException {
     public TransactionNotFoundException(String message) {
         super(message);
     }
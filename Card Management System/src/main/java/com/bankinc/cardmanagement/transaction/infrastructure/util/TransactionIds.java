@@ -0,0 +1,86 @@
+package com.bankinc.cardmanagement.transaction.infrastructure.util;
+
+import java.time.Instant;
+
+/**
+ * Layout of the 64-bit transaction IDs generated by the application: from the highest bit,
+ * 41 bits of milliseconds since 2020-01-01T00:00:00Z, 8 bits of shard, 6 bits of node and
+ * 8 bits of sequence. IDs grow with time, so inserts append to the primary key.
+ *
+ * <p>Transactions written while the database assigned IDs keep them. Those IDs are below
+ * 2^48, which a generated ID can only be within the first 18 hours of the epoch, so both
+ * kinds are told apart by value.
+ */
+public final class TransactionIds {
+
+    public static final long EPOCH_MILLIS = 1_577_836_800_000L;
+
+    public static final int SEQUENCE_BITS = 8;
+    public static final int NODE_BITS = 6;
+    public static final int SHARD_BITS = 8;
+
+    public static final int MAX_NODES = 1 << NODE_BITS;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final int NODE_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = NODE_SHIFT + NODE_BITS;
+    private static final int TIMESTAMP_SHIFT = SHARD_SHIFT + SHARD_BITS;
+    private static final long FIRST_GENERATED = 1L << 48;
+
+    private TransactionIds() {
+    }
+
+    /**
+     * Builds an ID.
+     *
+     * @param timestamp milliseconds since the epoch of the layout
+     * @param shard     the shard the transaction is stored in
+     * @param node      the node that generated the ID
+     * @param sequence  the position of the ID within its millisecond
+     * @return the transaction ID
+     */
+    public static long compose(long timestamp, int shard, int node, long sequence) {
+        return timestamp << TIMESTAMP_SHIFT | (long) shard << SHARD_SHIFT | (long) node << NODE_SHIFT | sequence;
+    }
+
+    /**
+     * Tells whether an ID was generated by the application rather than assigned by the database.
+     *
+     * @param transactionId the transaction ID
+     * @return true if the ID follows this layout
+     */
+    public static boolean isGenerated(long transactionId) {
+        return transactionId >= FIRST_GENERATED;
+    }
+
+    /**
+     * Returns the shard a generated ID was created for.
+     *
+     * @param transactionId a generated transaction ID
+     * @return the shard index
+     */
+    public static int shard(long transactionId) {
+        return (int) (transactionId >>> SHARD_SHIFT) & (MAX_SHARDS - 1);
+    }
+
+    /**
+     * Returns the node that generated an ID.
+     *
+     * @param transactionId a generated transaction ID
+     * @return the node ID
+     */
+    public static int node(long transactionId) {
+        return (int) (transactionId >>> NODE_SHIFT) & (MAX_NODES - 1);
+    }
+
+    /**
+     * Returns when a generated ID was created. A transaction is dated no later than its ID,
+     * to the millisecond; journaled purchases are dated earlier, when they were made.
+     *
+     * @param transactionId a generated transaction ID
+     * @return the creation time
+     */
+    public static Instant createdAt(long transactionId) {
+        return Instant.ofEpochMilli(EPOCH_MILLIS + (transactionId >>> TIMESTAMP_SHIFT));
+    }
+}
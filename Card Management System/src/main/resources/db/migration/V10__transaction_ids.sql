@@ -0,0 +1,3 @@
+-- Los identificadores de transactions los genera la aplicación (marca de tiempo, shard, nodo y
+-- secuencia) antes de insertar; las filas existentes conservan los suyos.
+ALTER TABLE transactions MODIFY transaction_id BIGINT NOT NULL;
@@ -0,0 +1,18 @@
+-- Los importes se guardan como enteros en céntimos en lugar de DOUBLE, para que los saldos
+-- y las sumas sean exactos. Las filas existentes se redondean al céntimo más cercano.
+UPDATE cards SET balance = ROUND(balance * 100);
+ALTER TABLE cards MODIFY balance BIGINT NOT NULL DEFAULT 0;
+
+UPDATE transactions SET amount = ROUND(amount * 100);
+ALTER TABLE transactions MODIFY amount BIGINT NOT NULL;
+
+UPDATE card_summaries
+SET balance                 = ROUND(balance * 100),
+    spent_today             = ROUND(spent_today * 100),
+    spent_this_month        = ROUND(spent_this_month * 100),
+    last_transaction_amount = ROUND(last_transaction_amount * 100);
+ALTER TABLE card_summaries
+    MODIFY balance BIGINT NOT NULL,
+    MODIFY spent_today BIGINT NOT NULL,
+    MODIFY spent_this_month BIGINT NOT NULL,
+    MODIFY last_transaction_amount BIGINT NULL;
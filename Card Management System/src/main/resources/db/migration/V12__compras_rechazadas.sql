@@ -0,0 +1,12 @@
+-- Creación tabla declined_purchases (compras ya aprobadas al comercio que no pudieron cargarse a
+-- la tarjeta al aplicar el diario o al reprocesar las de contingencia; se liquidan a mano)
+CREATE TABLE declined_purchases (
+    declined_purchase_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_number BIGINT NOT NULL,
+    amount BIGINT NOT NULL,
+    purchased_at TIMESTAMP(6) NOT NULL,
+    source VARCHAR(16) NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    declined_at TIMESTAMP(6) NOT NULL,
+    INDEX idx_declined_purchases_card_number (card_number)
+);
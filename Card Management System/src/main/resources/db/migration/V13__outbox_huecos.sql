@@ -0,0 +1,9 @@
+-- Creación tabla outbox_gaps (IDs de evento que faltaban cuando el relay los pasó, a entregar
+-- si su transacción confirma más tarde)
+CREATE TABLE outbox_gaps (
+    sink_name VARCHAR(64) NOT NULL,
+    event_id BIGINT NOT NULL,
+    skipped_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (sink_name, event_id),
+    INDEX idx_outbox_gaps_skipped_at (skipped_at)
+);
@@ -0,0 +1,18 @@
+-- Registro de recargas como movimientos del libro de transacciones (antes migracion_01)
+
+-- Tipo de movimiento: PURCHASE (compra) o RECHARGE (recarga)
+ALTER TABLE transactions
+    ADD COLUMN type VARCHAR(16) NOT NULL DEFAULT 'PURCHASE' AFTER card_id;
+
+-- Saldo de apertura para las tarjetas recargadas antes de registrar recargas:
+-- saldo actual más las compras no anuladas, de modo que la conciliación cuadre
+INSERT INTO transactions (card_id, type, amount, transaction_date, is_annulled)
+SELECT c.card_id,
+       'RECHARGE',
+       c.balance + COALESCE(SUM(CASE WHEN t.is_annulled = FALSE THEN t.amount ELSE 0 END), 0),
+       CURRENT_TIMESTAMP,
+       FALSE
+FROM cards c
+LEFT JOIN transactions t ON t.card_id = c.card_id AND t.type = 'PURCHASE'
+GROUP BY c.card_id, c.balance
+HAVING c.balance + COALESCE(SUM(CASE WHEN t.is_annulled = FALSE THEN t.amount ELSE 0 END), 0) <> 0;
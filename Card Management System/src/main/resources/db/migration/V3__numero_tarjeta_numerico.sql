@@ -0,0 +1,8 @@
+-- Número de tarjeta almacenado e indexado como entero de 64 bits en lugar de VARCHAR(16)
+-- (antes migracion_02). En modo estricto un número no numérico hace fallar la migración en
+-- lugar de convertirse en 0; se localiza con:
+--   SELECT card_id, card_number FROM cards WHERE card_number NOT REGEXP '^[0-9]{1,16}$';
+
+-- Conversión de la columna; MySQL reconstruye el índice único sobre BIGINT
+ALTER TABLE cards
+    MODIFY card_number BIGINT NOT NULL;
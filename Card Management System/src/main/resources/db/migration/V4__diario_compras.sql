@@ -0,0 +1,6 @@
+-- Modo diario de compras: cada nodo registra en cada shard la última compra del diario ya
+-- aplicada (antes migracion_03)
+CREATE TABLE journal_checkpoints (
+    node_id VARCHAR(64) PRIMARY KEY,
+    applied_sequence BIGINT NOT NULL
+);
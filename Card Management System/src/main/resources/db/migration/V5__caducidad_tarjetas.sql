@@ -0,0 +1,7 @@
+-- Barrido diario de tarjetas caducadas, reanudable tras una caída (antes migracion_04)
+CREATE TABLE card_expiration_checkpoints (
+    sweep_name VARCHAR(32) PRIMARY KEY,
+    sweep_date DATE NOT NULL,
+    last_card_id BIGINT NOT NULL,
+    finished BOOLEAN NOT NULL
+);
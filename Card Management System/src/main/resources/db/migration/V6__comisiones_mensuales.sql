@@ -0,0 +1,13 @@
+-- Cobro mensual de comisiones: rangos de tarjetas de cada mes y su avance, para reanudar tras
+-- una caída (antes migracion_05). Los cargos se registran en transactions con type = 'FEE',
+-- que la conciliación ya resta del saldo.
+CREATE TABLE fee_partitions (
+    partition_id VARCHAR(16) PRIMARY KEY,
+    period CHAR(7) NOT NULL,
+    partition_index INT NOT NULL,
+    first_card_id BIGINT NOT NULL,
+    last_card_id BIGINT NOT NULL,
+    charged_up_to BIGINT NOT NULL,
+    finished BOOLEAN NOT NULL,
+    INDEX idx_fee_partitions_period (period, partition_index)
+);
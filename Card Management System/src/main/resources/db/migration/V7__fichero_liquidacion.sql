@@ -0,0 +1,7 @@
+-- Fichero diario de liquidación: fecha de anulación de cada compra e índices para leer las
+-- operaciones de un día (antes migracion_06). Las compras anuladas antes de esta migración no
+-- tienen fecha de anulación y no aparecerán en ningún fichero.
+ALTER TABLE transactions
+    ADD COLUMN annulled_at TIMESTAMP NULL AFTER is_annulled,
+    ADD INDEX idx_transactions_date (transaction_date),
+    ADD INDEX idx_transactions_annulled_at (annulled_at);
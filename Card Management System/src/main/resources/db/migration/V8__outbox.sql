@@ -0,0 +1,17 @@
+-- Creación tabla outbox_events (eventos de tarjetas escritos en la misma transacción que el cambio,
+-- pendientes de entregar a los sistemas externos)
+CREATE TABLE outbox_events (
+    event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_number BIGINT NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    INDEX idx_outbox_events_created_at (created_at)
+);
+
+-- Creación tabla outbox_offsets (último evento entregado a cada destino)
+CREATE TABLE outbox_offsets (
+    sink_name VARCHAR(64) PRIMARY KEY,
+    delivered_id BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
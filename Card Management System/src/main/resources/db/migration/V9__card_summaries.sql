@@ -0,0 +1,39 @@
+-- Creación tabla card_summaries (resumen de cada tarjeta, actualizado en la misma transacción que
+-- cada recarga, compra, anulación o comisión; se lee con una sola fila por tarjeta)
+CREATE TABLE card_summaries (
+    card_number BIGINT PRIMARY KEY,
+    balance DOUBLE NOT NULL,
+    spent_day DATE NOT NULL,
+    spent_today DOUBLE NOT NULL,
+    spent_month DATE NOT NULL,
+    spent_this_month DOUBLE NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    annulled_count BIGINT NOT NULL,
+    last_purchase_id BIGINT NULL,
+    last_transaction_type VARCHAR(16) NULL,
+    last_transaction_amount DOUBLE NULL,
+    last_transaction_at TIMESTAMP NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+-- Carga inicial a partir de los movimientos existentes, igual que la reconstrucción de la aplicación
+INSERT INTO card_summaries (card_number, balance, spent_day, spent_today, spent_month, spent_this_month,
+                            transaction_count, annulled_count, last_purchase_id, last_transaction_type,
+                            last_transaction_amount, last_transaction_at, updated_at)
+SELECT c.card_number, c.balance,
+       CURDATE(),
+       COALESCE(SUM(CASE WHEN t.type = 'PURCHASE' AND t.is_annulled = false AND t.transaction_date >= CURDATE()
+                         THEN t.amount END), 0),
+       DATE_FORMAT(CURDATE(), '%Y-%m-01'),
+       COALESCE(SUM(CASE WHEN t.type = 'PURCHASE' AND t.is_annulled = false
+                              AND t.transaction_date >= DATE_FORMAT(CURDATE(), '%Y-%m-01')
+                         THEN t.amount END), 0),
+       COUNT(t.transaction_id),
+       COALESCE(SUM(t.is_annulled), 0),
+       CASE WHEN l.type = 'PURCHASE' THEN l.transaction_id END,
+       l.type, l.amount, l.transaction_date,
+       NOW(6)
+FROM cards c
+LEFT JOIN transactions t ON t.card_id = c.card_id
+LEFT JOIN transactions l ON l.transaction_id = (SELECT MAX(m.transaction_id) FROM transactions m WHERE m.card_id = c.card_id)
+GROUP BY c.card_id, c.card_number, c.balance, l.transaction_id, l.type, l.amount, l.transaction_date;
@@ -0,0 +1,110 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.standin.application.service.StandInService;
+import com.bankinc.cardmanagement.transaction.application.service.AsyncPurchaseServiceImpl;
+import com.bankinc.cardmanagement.transaction.domain.model.PurchaseTicket;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.AsyncPurchaseProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseTicketDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.PurchaseQueueFullException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.PurchaseTicketNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AsyncPurchaseServiceImplTest {
+
+    private StandInService standInService;
+    private AsyncPurchaseServiceImpl asyncPurchaseService;
+    private PurchaseRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        standInService = mock(StandInService.class);
+        AsyncPurchaseProperties properties = new AsyncPurchaseProperties();
+        properties.setWorkers(1);
+        properties.setQueueCapacity(1);
+        asyncPurchaseService = new AsyncPurchaseServiceImpl(standInService, properties,
+                new ClusterMembership(new ClusterProperties(), mock(ApplicationEventPublisher.class)));
+
+        request = new PurchaseRequestDTO();
+        request.setCardId("1234500000000000");
+        request.setPrice(5000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncPurchaseService.shutdown();
+    }
+
+    @Test
+    void submitPurchase_ShouldCompleteTicketWithTransaction() throws InterruptedException {
+        TransactionResponseDTO transaction = new TransactionResponseDTO(1L, 5000, LocalDateTime.now(), false);
+        when(standInService.makePurchase(request)).thenReturn(transaction);
+
+        PurchaseTicketDTO ticket = asyncPurchaseService.submitPurchase(request);
+
+        assertTrue(ticket.getTicketId().startsWith("node-1."));
+        PurchaseTicketDTO result = awaitFinished(ticket.getTicketId());
+        assertEquals(PurchaseTicket.Status.COMPLETED, result.getStatus());
+        assertEquals(transaction, result.getTransaction());
+    }
+
+    @Test
+    void submitPurchase_WhenPurchaseIsDeclined_ShouldFailTicketWithReason() throws InterruptedException {
+        when(standInService.makePurchase(request)).thenThrow(new CardNotFoundException("Card not found"));
+
+        PurchaseTicketDTO ticket = asyncPurchaseService.submitPurchase(request);
+
+        PurchaseTicketDTO result = awaitFinished(ticket.getTicketId());
+        assertEquals(PurchaseTicket.Status.FAILED, result.getStatus());
+        assertEquals("Card not found", result.getError());
+    }
+
+    @Test
+    void submitPurchase_WhenQueueIsFull_ShouldThrowPurchaseQueueFullException() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(standInService.makePurchase(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+
+        asyncPurchaseService.submitPurchase(request);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncPurchaseService.submitPurchase(request);
+
+        assertThrows(PurchaseQueueFullException.class, () -> asyncPurchaseService.submitPurchase(request));
+        release.countDown();
+    }
+
+    @Test
+    void getTicket_WhenUnknown_ShouldThrowPurchaseTicketNotFoundException() {
+        assertThrows(PurchaseTicketNotFoundException.class, () -> asyncPurchaseService.getTicket("node-1.unknown"));
+    }
+
+    private PurchaseTicketDTO awaitFinished(String ticketId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            PurchaseTicketDTO ticket = asyncPurchaseService.getTicket(ticketId);
+            if (ticket.getStatus() != PurchaseTicket.Status.PENDING) {
+                return ticket;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Ticket " + ticketId + " did not finish");
+    }
+}
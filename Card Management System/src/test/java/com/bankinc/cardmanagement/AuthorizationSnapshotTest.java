@@ -0,0 +1,99 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.standin.domain.model.AuthorizationSnapshot;
+import com.bankinc.cardmanagement.standin.domain.model.StandInPurchase;
+import com.bankinc.cardmanagement.standin.domain.repository.StandInJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationSnapshotTest {
+
+    private static final long ACTIVE = 1020300000000001L;
+    private static final long BLOCKED = 1020300000000002L;
+    private static final long EXPIRED = 1020300000000003L;
+
+    @TempDir
+    Path directory;
+
+    private AuthorizationSnapshot snapshot;
+    private long today;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        today = LocalDate.now().toEpochDay();
+        ByteBuffer buffer = ByteBuffer.allocate(AuthorizationSnapshot.HEADER_SIZE + 3 * AuthorizationSnapshot.RECORD_SIZE);
+        AuthorizationSnapshot.writeHeader(buffer, 0, 3, System.currentTimeMillis());
+        AuthorizationSnapshot.writeRecord(buffer, ACTIVE, 30000, (int) today + 30, true, false);
+        AuthorizationSnapshot.writeRecord(buffer, BLOCKED, 30000, (int) today + 30, true, true);
+        AuthorizationSnapshot.writeRecord(buffer, EXPIRED, 30000, (int) today - 1, true, false);
+        Path file = directory.resolve("snapshot-0.bin");
+        Files.write(file, buffer.array(), StandardOpenOption.CREATE);
+        snapshot = AuthorizationSnapshot.open(file);
+    }
+
+    @Test
+    void authorize_ShouldDeclineUnknownBlockedAndExpiredCards() {
+        assertEquals(AuthorizationSnapshot.CARD_NOT_FOUND, snapshot.authorize(1020300000000009L, 1000, today, 20000, 50000));
+        assertEquals(AuthorizationSnapshot.CARD_BLOCKED, snapshot.authorize(BLOCKED, 1000, today, 20000, 50000));
+        assertEquals(AuthorizationSnapshot.CARD_EXPIRED, snapshot.authorize(EXPIRED, 1000, today, 20000, 50000));
+    }
+
+    @Test
+    void authorize_ShouldApplyOfflineLimitsAndDeductBalance() {
+        assertEquals(AuthorizationSnapshot.LIMIT_EXCEEDED, snapshot.authorize(ACTIVE, 25000, today, 20000, 50000));
+        assertEquals(AuthorizationSnapshot.APPROVED, snapshot.authorize(ACTIVE, 15000, today, 20000, 25000));
+        assertEquals(AuthorizationSnapshot.LIMIT_EXCEEDED, snapshot.authorize(ACTIVE, 15000, today, 20000, 25000));
+
+        snapshot.release(ACTIVE, 15000);
+        assertEquals(AuthorizationSnapshot.APPROVED, snapshot.authorize(ACTIVE, 20000, today, 20000, 50000));
+        assertEquals(AuthorizationSnapshot.INSUFFICIENT_BALANCE, snapshot.authorize(ACTIVE, 15000, today, 20000, 50000));
+    }
+
+    @Test
+    void journal_ShouldKeepPendingPurchasesAcrossReopenUntilReplayed() throws IOException {
+        try (StandInJournal journal = new StandInJournal(directory)) {
+            journal.append(ACTIVE, 1000, 1L);
+            journal.append(ACTIVE, 2000, 2L);
+            journal.markReplayed(0);
+        }
+        // A torn record left by a crash must be ignored.
+        Files.write(directory.resolve("journal.bin"), new byte[17], StandardOpenOption.APPEND);
+
+        try (StandInJournal journal = new StandInJournal(directory)) {
+            List<StandInPurchase> pending = journal.pending();
+            assertEquals(List.of(new StandInPurchase(1, ACTIVE, 2000, 2L)), pending);
+            assertFalse(journal.truncateIfReplayed());
+
+            journal.markReplayed(1);
+            assertTrue(journal.truncateIfReplayed());
+            assertTrue(journal.pending().isEmpty());
+            assertEquals(2, journal.append(ACTIVE, 500, 3L));
+        }
+    }
+
+    @Test
+    void journal_AfterTruncation_ShouldNeverReuseSequences() throws IOException {
+        try (StandInJournal journal = new StandInJournal(directory)) {
+            journal.append(ACTIVE, 1000, 1L);
+            journal.markReplayed(journal.append(ACTIVE, 2000, 2L));
+            assertTrue(journal.truncateIfReplayed());
+        }
+
+        try (StandInJournal journal = new StandInJournal(directory)) {
+            assertTrue(journal.pending().isEmpty());
+            assertEquals(2, journal.append(ACTIVE, 500, 3L));
+            assertEquals(List.of(new StandInPurchase(2, ACTIVE, 500, 3L)), journal.pending());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.reconciliation.domain.model.BalanceDiscrepancy;
+import com.bankinc.cardmanagement.reconciliation.domain.model.CardChunk;
+import com.bankinc.cardmanagement.reconciliation.domain.model.LedgerPage;
+import com.bankinc.cardmanagement.reconciliation.domain.service.BalanceReconciler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceReconcilerTest {
+
+    private BalanceReconciler balanceReconciler;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        balanceReconciler = new BalanceReconciler();
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void accumulate_ShouldSumEntriesPerCardAcrossPages() {
+        CardChunk chunk = new CardChunk(3);
+        chunk.add(10, 1020300000000010L, 7000);
+        chunk.add(20, 1020300000000020L, 0);
+        chunk.add(30, 1020300000000030L, 500000);
+
+        LedgerPage page = new LedgerPage(10000);
+        page.add(0, 10000, 10, 1);
+        page.add(0, -3000, 10, 2);
+        for (int i = 0; i < 9998; i++) {
+            page.add(2, 100, 30, 3 + i);
+        }
+        balanceReconciler.accumulate(pool, chunk, page);
+
+        page.clear();
+        page.add(2, -499800, 30, 20000);
+        balanceReconciler.accumulate(pool, chunk, page);
+
+        assertEquals(7000, chunk.expectedBalance(0));
+        assertEquals(0, chunk.expectedBalance(1));
+        assertEquals(500000, chunk.expectedBalance(2));
+        assertTrue(balanceReconciler.compare(chunk).isEmpty());
+    }
+
+    @Test
+    void compare_WhenBalanceDoesNotMatchLedger_ShouldReportDiscrepancy() {
+        CardChunk chunk = new CardChunk(2);
+        chunk.add(1, 1020300000000001L, 5000);
+        chunk.add(2, 1020300000000002L, 1000);
+        chunk.addToExpectedBalance(0, 8000);
+        chunk.addToExpectedBalance(1, 1000);
+
+        List<BalanceDiscrepancy> discrepancies = balanceReconciler.compare(chunk);
+
+        assertEquals(1, discrepancies.size());
+        assertEquals("1020300000000001", discrepancies.get(0).getCardNumber());
+        assertEquals(-3000, discrepancies.get(0).getDifference());
+    }
+}
@@ -0,0 +1,139 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.application.service.BulkRechargeServiceImpl;
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
+import com.bankinc.cardmanagement.card.infrastructure.config.BulkRechargeProperties;
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeLineResultDTO.Status;
+import com.bankinc.cardmanagement.card.infrastructure.dto.BulkRechargeResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+import com.bankinc.cardmanagement.card.infrastructure.exception.BulkRechargeTooLargeException;
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionIdGenerator;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.TransactionIdProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BulkRechargeServiceImplTest {
+
+    private CardRepository cardRepository;
+    private TransactionRepository transactionRepository;
+    private BulkRechargeServiceImpl bulkRechargeService;
+    private BulkRechargeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository = mock(CardRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        properties = new BulkRechargeProperties();
+        properties.setChunkSize(2);
+        bulkRechargeService = new BulkRechargeServiceImpl(cardRepository, new CardDomainService(), transactionRepository,
+                new TransactionFactory(new TransactionIdGenerator(new TransactionIdProperties(), new ClusterProperties())), new ShardRouter(new ShardingProperties()), properties,
+                mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void addBalances_ShouldLockCardsInCardNumberOrderAndReportEveryLine() {
+        Card first = card(1020300000000001L, false);
+        Card second = card(1020300000000002L, false);
+        Card blocked = card(1020300000000003L, true);
+        when(cardRepository.findByCardNumberInOrderByCardNumberAsc(anyCollection()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(blocked));
+
+        BulkRechargeResponseDTO response = bulkRechargeService.addBalances(List.of(
+                request("1020300000000003", 1000),
+                request("1020300000000002", 2000),
+                request("1020300000000001", 3000),
+                request("10203000000000AB", 4000),
+                request("1020300000000002", -500)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> lockedCards = ArgumentCaptor.forClass(Collection.class);
+        verify(cardRepository, times(2)).findByCardNumberInOrderByCardNumberAsc(lockedCards.capture());
+        assertEquals(List.of(1020300000000001L, 1020300000000002L), new ArrayList<>(lockedCards.getAllValues().get(0)));
+        assertEquals(List.of(1020300000000003L), new ArrayList<>(lockedCards.getAllValues().get(1)));
+
+        assertEquals(5, response.getTotal());
+        assertEquals(2, response.getApplied());
+        assertEquals(3, response.getRejected());
+        assertEquals(Status.REJECTED, response.getLines().get(0).getStatus());
+        assertEquals("Blocked card cannot have balance added", response.getLines().get(0).getMessage());
+        assertEquals(Status.APPLIED, response.getLines().get(1).getStatus());
+        assertEquals(Status.APPLIED, response.getLines().get(2).getStatus());
+        assertEquals(Status.REJECTED, response.getLines().get(3).getStatus());
+        assertEquals(Status.REJECTED, response.getLines().get(4).getStatus());
+        assertEquals(3000, first.getBalance());
+        assertEquals(2000, second.getBalance());
+        verify(transactionRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void addBalances_WhenChunkFails_ShouldMarkItsLinesAsFailed() {
+        when(cardRepository.findByCardNumberInOrderByCardNumberAsc(anyCollection()))
+                .thenThrow(new IllegalStateException("Lock wait timeout"));
+
+        BulkRechargeResponseDTO response = bulkRechargeService.addBalances(List.of(request("1020300000000001", 1000)));
+
+        assertEquals(1, response.getFailed());
+        assertEquals(Status.FAILED, response.getLines().get(0).getStatus());
+    }
+
+    @Test
+    void addBalancesFromCsv_ShouldSkipHeaderAndNumberLinesAsInFile() throws Exception {
+        Card card = card(1020300000000001L, false);
+        when(cardRepository.findByCardNumberInOrderByCardNumberAsc(anyCollection())).thenReturn(List.of(card));
+        String csv = "cardId,balance\n1020300000000001,15.5\n\n1020300000000001;abc\n";
+
+        BulkRechargeResponseDTO response = bulkRechargeService.addBalancesFromCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, response.getTotal());
+        assertEquals(2, response.getLines().get(0).getLine());
+        assertEquals(Status.APPLIED, response.getLines().get(0).getStatus());
+        assertEquals(4, response.getLines().get(1).getLine());
+        assertEquals("Balance must be a number with at most 2 decimals", response.getLines().get(1).getMessage());
+        assertEquals(1550, card.getBalance());
+    }
+
+    @Test
+    void addBalances_WhenTooManyLines_ShouldThrowBulkRechargeTooLargeException() {
+        properties.setMaxLines(1);
+
+        assertThrows(BulkRechargeTooLargeException.class, () -> bulkRechargeService.addBalances(List.of(
+                request("1020300000000001", 1000), request("1020300000000002", 1000))));
+    }
+
+    private static Card card(long cardNumber, boolean blocked) {
+        Card card = new Card();
+        card.setCardNumber(cardNumber);
+        card.setActive(!blocked);
+        card.setBlocked(blocked);
+        return card;
+    }
+
+    private static CardBalanceRequestDTO request(String cardId, long balance) {
+        CardBalanceRequestDTO request = new CardBalanceRequestDTO();
+        request.setCardId(cardId);
+        request.setBalance(balance);
+        return request;
+    }
+}
@@ -4,6 +4,7 @@ import com.bankinc.cardmanagement.card.domain.model.Card;
 import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardAlreadyActivatedException;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardExpiredException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -53,7 +54,7 @@ class CardDomainServiceTest {
     void validateCardForAddingBalance_WhenCardIsActiveAndBalanceIsValid_ShouldNotThrowException() {
         card.setBlocked(false); // La tarjeta no está bloqueada
         card.setBalance(50); // El balance actual es 50
-        double balanceToAdd = 20; // Intentamos agregar 20
+        long balanceToAdd = 20; // Intentamos agregar 20
         assertDoesNotThrow(() -> {
             cardDomainService.validateCardForAddingBalance(card, balanceToAdd);
         });
@@ -66,6 +67,13 @@ class CardDomainServiceTest {
         assertEquals("Blocked card cannot be activated", exception.getMessage());
     }
 
+    @Test
+    void validateCardForActivation_WhenCardHasExpired_ShouldThrowCardExpiredException() {
+        card.setExpirationDate(LocalDate.now().minusDays(1));
+        Exception exception = assertThrows(CardExpiredException.class, () -> cardDomainService.validateCardForActivation(card));
+        assertEquals("Expired card cannot be activated", exception.getMessage());
+    }
+
     @Test
     void activateCard_ShouldSetActiveAndExpirationDate() {
         cardDomainService.activateCard(card);
@@ -0,0 +1,99 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.application.service.CardExpirationServiceImpl;
+import com.bankinc.cardmanagement.card.domain.model.CardExpirationCheckpoint;
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardExpirationCheckpointRepository;
+import com.bankinc.cardmanagement.card.domain.repository.CardExpirationRepository;
+import com.bankinc.cardmanagement.card.infrastructure.config.CardExpirationProperties;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardExpirationReportDTO;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class CardExpirationServiceImplTest {
+
+    private CardExpirationRepository expirationRepository;
+    private CardExpirationCheckpointRepository checkpointRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private CardExpirationServiceImpl cardExpirationService;
+
+    @BeforeEach
+    void setUp() {
+        expirationRepository = mock(CardExpirationRepository.class);
+        checkpointRepository = mock(CardExpirationCheckpointRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        CardExpirationProperties properties = new CardExpirationProperties();
+        properties.setChunkSize(2);
+        properties.setThrottle(Duration.ZERO);
+        cardExpirationService = new CardExpirationServiceImpl(expirationRepository, checkpointRepository,
+                new ShardRouter(new ShardingProperties()), properties, eventPublisher, mock(PlatformTransactionManager.class),
+                meterRegistry);
+    }
+
+    @Test
+    void expireCards_ShouldSweepChunksAndRecordMetrics() {
+        LocalDate today = LocalDate.now();
+        when(checkpointRepository.findById(CardExpirationCheckpoint.SWEEP)).thenReturn(Optional.empty());
+        when(expirationRepository.findChunkEnd(0L, 2)).thenReturn(2L);
+        when(expirationRepository.findChunkEnd(2L, 2)).thenReturn(4L);
+        when(expirationRepository.findChunkEnd(4L, 2)).thenReturn(null);
+        when(expirationRepository.deactivateExpired(0L, 2L, today)).thenReturn(List.of(1020300000000001L));
+        when(expirationRepository.deactivateExpired(2L, 4L, today)).thenReturn(List.of(1020300000000003L, 1020300000000004L));
+
+        CardExpirationReportDTO report = cardExpirationService.expireCards();
+
+        assertEquals(2, report.getChunks());
+        assertEquals(3, report.getCardsExpired());
+        assertEquals(3.0, meterRegistry.counter("bankinc.card.expiration.expired").count());
+        assertEquals(2.0, meterRegistry.counter("bankinc.card.expiration.chunks").count());
+        verify(checkpointRepository, times(3)).save(any(CardExpirationCheckpoint.class));
+        verify(eventPublisher, times(3)).publishEvent(argThat((Object event) ->
+                event instanceof CardStatusEvent status && status.status() == CardStatusEvent.Status.EXPIRED));
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof CardStatusEvent status && status.cardNumber() == 1020300000000004L));
+    }
+
+    @Test
+    void expireCards_ShouldResumeAfterLastCommittedChunk() {
+        CardExpirationCheckpoint checkpoint = new CardExpirationCheckpoint(LocalDate.now());
+        checkpoint.setLastCardId(40L);
+        when(checkpointRepository.findById(CardExpirationCheckpoint.SWEEP)).thenReturn(Optional.of(checkpoint));
+        when(expirationRepository.findChunkEnd(40L, 2)).thenReturn(null);
+
+        cardExpirationService.expireCards();
+
+        verify(expirationRepository).findChunkEnd(40L, 2);
+        verify(expirationRepository, never()).findChunkEnd(eq(0L), anyInt());
+        assertTrue(checkpoint.isFinished());
+    }
+
+    @Test
+    void expireCards_WhenAlreadyFinishedToday_ShouldNotSweepAgain() {
+        CardExpirationCheckpoint checkpoint = new CardExpirationCheckpoint(LocalDate.now());
+        checkpoint.setFinished(true);
+        when(checkpointRepository.findById(CardExpirationCheckpoint.SWEEP)).thenReturn(Optional.of(checkpoint));
+
+        cardExpirationService.expireCards();
+
+        verify(expirationRepository, never()).findChunkEnd(anyLong(), anyInt());
+    }
+}
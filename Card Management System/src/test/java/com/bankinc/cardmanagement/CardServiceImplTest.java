@@ -2,7 +2,8 @@ package com.bankinc.cardmanagement;
 
 import com.bankinc.cardmanagement.card.application.service.CardServiceImpl;
 import com.bankinc.cardmanagement.card.domain.model.Card;
-import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
 import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
 import com.bankinc.cardmanagement.card.domain.service.CardFactoryService;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardActivationRequestDTO;
@@ -10,11 +11,18 @@ import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
 import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 
 
 import java.util.Optional;
@@ -31,7 +39,7 @@ public class CardServiceImplTest {
     private CardServiceImpl cardService;
 
     @Mock
-    private CardRepository cardRepository;
+    private CardStore cardStore;
 
     @Mock
     private CardFactoryService cardFactoryService;
@@ -39,12 +47,24 @@ public class CardServiceImplTest {
     @Mock
     private CardDomainService cardDomainService;
 
+    @Mock
+    private TransactionStore transactionStore;
+
+    @Mock
+    private TransactionFactory transactionFactory;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         Card card = new Card();
-        card.setCardNumber("1234567890");
-        card.setBalance(0.0);
+        card.setCardNumber(1234567890L);
+        card.setBalance(0);
     }
 
     @Test
@@ -54,13 +74,13 @@ public class CardServiceImplTest {
         CardNumberResponseDTO expectedResponse = new CardNumberResponseDTO(expectedCardNumber);
 
         when(cardFactoryService.generateCardNumber(productId)).thenReturn(expectedResponse);
-        when(cardFactoryService.createNewCard(expectedCardNumber)).thenReturn(new Card());
+        when(cardFactoryService.createNewCard(Long.parseLong(expectedCardNumber))).thenReturn(new Card());
 
         CardNumberResponseDTO actualResponse = cardService.generateCardNumber(productId);
 
         assertNotNull(actualResponse);
         assertEquals(expectedCardNumber, actualResponse.getCardNumber());
-        verify(cardRepository).save(any(Card.class));
+        verify(cardStore).save(any(Card.class));
     }
 
     @Test
@@ -69,14 +89,14 @@ public class CardServiceImplTest {
         request.setCardId("1234500000000000");
 
         Card card = new Card();
-        when(cardRepository.findByCardNumber(request.getCardId())).thenReturn(Optional.of(card));
+        when(cardStore.findByCardNumber(Long.parseLong(request.getCardId()))).thenReturn(Optional.of(card));
 
         cardService.activateCard(request);
 
-        verify(cardRepository, times(1)).findByCardNumber(request.getCardId());
+        verify(cardStore, times(1)).findByCardNumber(Long.parseLong(request.getCardId()));
         verify(cardDomainService, times(1)).validateCardForActivation(card);
         verify(cardDomainService, times(1)).activateCard(card);
-        verify(cardRepository, times(1)).save(card);
+        verify(cardStore, times(1)).save(card);
     }
 
     @Test
@@ -84,14 +104,25 @@ public class CardServiceImplTest {
         CardActivationRequestDTO request = new CardActivationRequestDTO();
         request.setCardId("1234500000000000");
 
-        when(cardRepository.findByCardNumber(request.getCardId())).thenReturn(Optional.empty());
+        when(cardStore.findByCardNumber(Long.parseLong(request.getCardId()))).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.activateCard(request));
 
-        verify(cardRepository, times(1)).findByCardNumber(request.getCardId());
+        verify(cardStore, times(1)).findByCardNumber(Long.parseLong(request.getCardId()));
         verify(cardDomainService, never()).validateCardForActivation(any());
         verify(cardDomainService, never()).activateCard(any());
-        verify(cardRepository, never()).save(any());
+        verify(cardStore, never()).save(any());
+    }
+
+    @Test
+    public void testActivateCardWithNonNumericCardIdThrowsCardNotFoundException() {
+        CardActivationRequestDTO request = new CardActivationRequestDTO();
+        request.setCardId("12345ABCDE000000");
+
+        assertThrows(CardNotFoundException.class, () -> cardService.activateCard(request));
+
+        verify(cardStore, never()).findByCardNumber(anyLong());
+        verify(cardStore, never()).save(any());
     }
 
     @Test
@@ -99,47 +130,51 @@ public class CardServiceImplTest {
         Long cardId = 1234500000000000L;
         Card card = new Card();
 
-        when(cardRepository.findByCardNumber(String.valueOf(cardId))).thenReturn(Optional.of(card));
+        when(cardStore.findByCardNumber(cardId)).thenReturn(Optional.of(card));
 
         cardService.blockCard(cardId);
 
-        verify(cardRepository, times(1)).findByCardNumber(String.valueOf(cardId));
+        verify(cardStore, times(1)).findByCardNumber(cardId);
         verify(cardDomainService, times(1)).validateCardForBlocking(card);
         verify(cardDomainService, times(1)).blockCard(card);
-        verify(cardRepository, times(1)).save(card);
+        verify(cardStore, times(1)).save(card);
     }
 
     @Test
     public void testBlockCardThrowsCardNotFoundException() {
         Long cardId = 1234500000000000L;
 
-        when(cardRepository.findByCardNumber(String.valueOf(cardId))).thenReturn(Optional.empty());
+        when(cardStore.findByCardNumber(cardId)).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.blockCard(cardId));
 
-        verify(cardRepository, times(1)).findByCardNumber(String.valueOf(cardId));
+        verify(cardStore, times(1)).findByCardNumber(cardId);
         verify(cardDomainService, never()).validateCardForBlocking(any());
         verify(cardDomainService, never()).blockCard(any());
-        verify(cardRepository, never()).save(any());
+        verify(cardStore, never()).save(any());
     }
 
     @Test
     public void testAddBalanceSuccess() {
         long cardId = 1234500000000000L;
-        double balanceToAdd = 100.0;
+        long balanceToAdd = 10000;
         Card card = new Card();
         CardBalanceRequestDTO request = new CardBalanceRequestDTO();
         request.setCardId(Long.toString(cardId));
         request.setBalance(balanceToAdd);
 
-        when(cardRepository.findByCardNumber(request.getCardId())).thenReturn(Optional.of(card));
+        Transaction recharge = new Transaction();
+        when(cardStore.findByCardNumber(Long.parseLong(request.getCardId()))).thenReturn(Optional.of(card));
+        when(transactionFactory.createRecharge(card, balanceToAdd)).thenReturn(recharge);
 
         cardService.addBalance(request);
 
-        verify(cardRepository, times(1)).findByCardNumber(request.getCardId());
+        verify(cardStore, times(1)).findByCardNumber(Long.parseLong(request.getCardId()));
         verify(cardDomainService, times(1)).validateCardForAddingBalance(card, balanceToAdd);
         verify(cardDomainService, times(1)).addBalance(card, balanceToAdd);
-        verify(cardRepository, times(1)).save(card);
+        verify(cardStore, times(1)).save(card);
+        verify(transactionStore, times(1)).save(recharge);
+        verify(eventPublisher, times(1)).publishEvent(any(CardActivityEvent.class));
     }
 
     @Test
@@ -147,41 +182,42 @@ public class CardServiceImplTest {
         long cardId = 1234500000000000L;
         CardBalanceRequestDTO request = new CardBalanceRequestDTO();
         request.setCardId(Long.toString(cardId));
-        request.setBalance(100.0);
+        request.setBalance(10000);
 
-        when(cardRepository.findByCardNumber(request.getCardId())).thenReturn(Optional.empty());
+        when(cardStore.findByCardNumber(Long.parseLong(request.getCardId()))).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.addBalance(request));
 
-        verify(cardRepository, times(1)).findByCardNumber(request.getCardId());
-        verify(cardDomainService, never()).validateCardForAddingBalance(any(), anyDouble());
-        verify(cardDomainService, never()).addBalance(any(), anyDouble());
-        verify(cardRepository, never()).save(any());
+        verify(cardStore, times(1)).findByCardNumber(Long.parseLong(request.getCardId()));
+        verify(cardDomainService, never()).validateCardForAddingBalance(any(), anyLong());
+        verify(cardDomainService, never()).addBalance(any(), anyLong());
+        verify(cardStore, never()).save(any());
+        verify(transactionStore, never()).save(any());
     }
 
     @Test
     public void testGetBalanceSuccess() {
         Long cardId = 1234500000000000L;
-        double balance = 250.0;
+        long balance = 25000;
         Card card = new Card();
         card.setBalance(balance);
 
-        when(cardRepository.findByCardNumber(String.valueOf(cardId))).thenReturn(Optional.of(card));
+        when(cardStore.findByCardNumber(cardId)).thenReturn(Optional.of(card));
 
         CardBalanceResponseDTO response = cardService.getBalance(cardId);
 
         assertEquals(balance, response.getBalance());
-        verify(cardRepository, times(1)).findByCardNumber(String.valueOf(cardId));
+        verify(cardStore, times(1)).findByCardNumber(cardId);
     }
 
     @Test
     public void testGetBalanceThrowsCardNotFoundException() {
         Long cardId = 1234500000000000L;
 
-        when(cardRepository.findByCardNumber(String.valueOf(cardId))).thenReturn(Optional.empty());
+        when(cardStore.findByCardNumber(cardId)).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.getBalance(cardId));
 
-        verify(cardRepository, times(1)).findByCardNumber(String.valueOf(cardId));
+        verify(cardStore, times(1)).findByCardNumber(cardId);
     }
 }
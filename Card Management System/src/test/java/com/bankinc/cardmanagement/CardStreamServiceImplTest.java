@@ -0,0 +1,84 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.application.service.CardService;
+import com.bankinc.cardmanagement.card.application.service.CardStreamServiceImpl;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.infrastructure.config.CardStreamProperties;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardStreamLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CardStreamServiceImplTest {
+
+    private static final long CARD = 1020300000000001L;
+
+    private CardService cardService;
+    private CardStreamProperties properties;
+    private CardStreamServiceImpl cardStreamService;
+
+    @BeforeEach
+    void setUp() {
+        cardService = mock(CardService.class);
+        properties = new CardStreamProperties();
+        properties.setMaxSubscribers(2);
+        properties.setSubscriberQueueCapacity(2);
+        cardStreamService = new CardStreamServiceImpl(cardService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe_WhenLimitIsReached_ShouldThrowCardStreamLimitExceededException() {
+        when(cardService.getBalance(CARD)).thenReturn(new CardBalanceResponseDTO(1000));
+
+        assertNotNull(cardStreamService.subscribe(CARD));
+        assertNotNull(cardStreamService.subscribe(CARD));
+
+        assertThrows(CardStreamLimitExceededException.class, () -> cardStreamService.subscribe(CARD));
+        assertEquals(2, cardStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_WhenCardDoesNotExist_ShouldNotKeepSubscriber() {
+        when(cardService.getBalance(CARD)).thenThrow(new CardNotFoundException("Card not found"));
+
+        assertThrows(CardNotFoundException.class, () -> cardStreamService.subscribe(CARD));
+        assertEquals(0, cardStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void onCardActivity_WhenSubscriberFallsBehind_ShouldDisconnectItWithoutBlocking() {
+        // Holds the dispatcher inside the first write, like a client that stopped reading.
+        CountDownLatch release = new CountDownLatch(1);
+        CardStreamProperties stalled = spy(properties);
+        when(stalled.getRetry()).thenAnswer(invocation -> {
+            release.await();
+            return Duration.ofSeconds(3);
+        });
+        cardStreamService.shutdown();
+        cardStreamService = new CardStreamServiceImpl(cardService, stalled);
+        when(cardService.getBalance(CARD)).thenReturn(new CardBalanceResponseDTO(1000));
+        cardStreamService.subscribe(CARD);
+
+        for (int i = 0; i < 3; i++) {
+            cardStreamService.onCardActivity(new CardActivityEvent(CARD, CardActivityEvent.Type.PURCHASE,
+                    1000 - i, (long) i, 100, LocalDateTime.now()));
+        }
+
+        assertEquals(0, cardStreamService.getSubscriberCount());
+        release.countDown();
+    }
+}
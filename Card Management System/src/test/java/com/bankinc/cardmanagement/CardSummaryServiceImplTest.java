@@ -0,0 +1,138 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.summary.application.service.CardSummaryServiceImpl;
+import com.bankinc.cardmanagement.summary.domain.model.CardSummary;
+import com.bankinc.cardmanagement.summary.domain.repository.CardSummaryRepository;
+import com.bankinc.cardmanagement.summary.infrastructure.config.CardSummaryProperties;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryDTO;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryRebuildReportDTO;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CardSummaryServiceImplTest {
+
+    private static final long CARD = 1020301234567890L;
+
+    private CardSummaryRepository summaryRepository;
+    private CardRepository cardRepository;
+    private EntityManager entityManager;
+    private CardSummaryServiceImpl summaryService;
+
+    @BeforeEach
+    void setUp() {
+        summaryRepository = mock(CardSummaryRepository.class);
+        cardRepository = mock(CardRepository.class);
+        entityManager = mock(EntityManager.class);
+        CardSummaryProperties properties = new CardSummaryProperties();
+        properties.setRebuildThrottle(Duration.ZERO);
+        summaryService = new CardSummaryServiceImpl(summaryRepository, cardRepository,
+                new ShardRouter(new ShardingProperties()), properties, entityManager, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onCardActivity_ShouldApplyChangesInOrderAfterFlushingBeforeCommit() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            summaryService.onCardActivity(new CardActivityEvent(CARD, CardActivityEvent.Type.RECHARGE, 10000, null, 10000, now));
+            summaryService.onCardActivity(new CardActivityEvent(CARD, CardActivityEvent.Type.PURCHASE, 9000, 7L, 1000, now));
+            summaryService.onCardActivity(new CardActivityEvent(CARD, CardActivityEvent.Type.ANNULMENT, 10000, 7L, 1000, now));
+            summaryService.onCardActivity(new CardActivityEvent(CARD, CardActivityEvent.Type.PURCHASE, 9500, 8L, 500, now));
+            verifyNoInteractions(summaryRepository);
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        InOrder inOrder = inOrder(entityManager, summaryRepository);
+        ArgumentCaptor<List<CardActivityEvent>> first = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<CardActivityEvent>> annulments = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<CardActivityEvent>> last = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(summaryRepository).applyEntries(first.capture(), any(), any(LocalDateTime.class));
+        inOrder.verify(summaryRepository).applyAnnulments(annulments.capture(), any(), any(LocalDateTime.class));
+        inOrder.verify(summaryRepository).applyEntries(last.capture(), any(), any(LocalDateTime.class));
+        assertEquals(2, first.getValue().size());
+        assertEquals(1, annulments.getValue().size());
+        assertEquals(8L, last.getValue().get(0).transactionId());
+        assertFalse(TransactionSynchronizationManager.hasResource(summaryService));
+    }
+
+    @Test
+    void getSummary_ShouldReadSpendOfPastDayAsZero() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        when(summaryRepository.findByCardNumber(CARD)).thenReturn(Optional.of(new CardSummary(CARD, 4000,
+                yesterday, 2500, yesterday.withDayOfMonth(1), 6000, 5, 1, 3L, "PURCHASE", 2500L,
+                yesterday.atStartOfDay(), yesterday.atStartOfDay())));
+
+        CardSummaryDTO summary = summaryService.getSummary(CARD);
+
+        assertEquals("1020301234567890", summary.getCardId());
+        assertEquals(4000, summary.getBalance());
+        assertEquals(0, summary.getSpentToday());
+        assertEquals(yesterday.getMonth() == today.getMonth() ? 6000 : 0, summary.getSpentThisMonth());
+        assertEquals(5, summary.getTransactionCount());
+        assertEquals(3L, summary.getLastTransactionId());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void getSummary_ShouldFallBackToCardWithoutSummary() {
+        Card card = new Card();
+        card.setCardNumber(CARD);
+        card.setBalance(0);
+        when(summaryRepository.findByCardNumber(CARD)).thenReturn(Optional.empty());
+        when(cardRepository.findByCardNumber(CARD)).thenReturn(Optional.of(card));
+
+        CardSummaryDTO summary = summaryService.getSummary(CARD);
+
+        assertEquals(0, summary.getTransactionCount());
+        assertNull(summary.getLastTransactionType());
+
+        when(cardRepository.findByCardNumber(CARD)).thenReturn(Optional.empty());
+        assertThrows(CardNotFoundException.class, () -> summaryService.getSummary(CARD));
+    }
+
+    @Test
+    void rebuild_ShouldRebuildEveryChunkOfCards() {
+        when(summaryRepository.lockCards(0L, 500)).thenReturn(List.of(1L, 2L, 3L));
+        when(summaryRepository.lockCards(3L, 500)).thenReturn(List.of(7L));
+        when(summaryRepository.lockCards(7L, 500)).thenReturn(List.of());
+
+        CardSummaryRebuildReportDTO report = summaryService.rebuild();
+
+        assertEquals(4, report.getCardsRebuilt());
+        verify(summaryRepository).rebuild(eq(1L), eq(3L), any(LocalDate.class), any(LocalDateTime.class));
+        verify(summaryRepository).rebuild(eq(7L), eq(7L), any(LocalDate.class), any(LocalDateTime.class));
+        verify(summaryRepository, times(2)).rebuild(anyLong(), anyLong(), any(), any());
+    }
+}
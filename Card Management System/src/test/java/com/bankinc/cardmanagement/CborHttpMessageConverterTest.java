@@ -0,0 +1,165 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.infrastructure.codec.CardBalanceRequestCodec;
+import com.bankinc.cardmanagement.card.infrastructure.codec.CardBalanceResponseCodec;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
+import com.bankinc.cardmanagement.common.cbor.CborHttpMessageConverter;
+import com.bankinc.cardmanagement.common.cbor.CborReader;
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import com.bankinc.cardmanagement.transaction.infrastructure.codec.AnulationRequestCodec;
+import com.bankinc.cardmanagement.transaction.infrastructure.codec.PurchaseRequestCodec;
+import com.bankinc.cardmanagement.transaction.infrastructure.codec.TransactionResponseCodec;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.AnulationRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborHttpMessageConverterTest {
+
+    private final CborHttpMessageConverter converter = new CborHttpMessageConverter(List.of(new PurchaseRequestCodec(),
+            new AnulationRequestCodec(), new TransactionResponseCodec(), new CardBalanceRequestCodec(),
+            new CardBalanceResponseCodec()), 256);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void read_ShouldDecodeWhatTheCodecWrites() throws IOException {
+        PurchaseRequestDTO purchase = new PurchaseRequestDTO();
+        purchase.setCardId("1020300000000001");
+        purchase.setPrice(1999);
+        CborWriter writer = new CborWriter();
+        new PurchaseRequestCodec().write(purchase, writer);
+
+        assertEquals(purchase, read(PurchaseRequestDTO.class, writer.toByteArray()));
+        assertTrue(converter.canRead(AnulationRequestDTO.class, MediaType.APPLICATION_CBOR));
+        assertFalse(converter.canRead(AnulationRequestDTO.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void read_ShouldAcceptIndefiniteMapsUnknownKeysAndCoercedScalars() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(0xBF);
+        body.write(CborWriter.encodeKey("terminal"));
+        body.write(new byte[]{(byte) 0x82, 0x01, 0x02});
+        body.write(CborWriter.encodeKey("cardId"));
+        body.write(new CborWriter().integer(1020300000000001L).toByteArray());
+        body.write(CborWriter.encodeKey("price"));
+        body.write(0xFB);
+        body.write(longBytes(Double.doubleToLongBits(19.99)));
+        body.write(0xFF);
+
+        PurchaseRequestDTO purchase = read(PurchaseRequestDTO.class, body.toByteArray());
+
+        assertEquals("1020300000000001", purchase.getCardId());
+        assertEquals(1999, purchase.getPrice());
+        assertEquals(2000, readPrice(new CborWriter().integer(20).toByteArray()));
+        assertEquals(1250, readPrice(new CborWriter().text("12.5").toByteArray()));
+        assertEquals(1250, readPrice(new byte[]{(byte) 0xF9, 0x4A, 0x40}));
+        assertEquals(1250, readPrice(new byte[]{(byte) 0xC4, (byte) 0x82, 0x20, 0x18, 0x7D}));
+    }
+
+    @Test
+    void read_ShouldRejectInvalidBodies() {
+        // 19.999 as a decimal fraction: digits beyond the cents.
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> readPrice(new byte[]{(byte) 0xC4, (byte) 0x82, 0x22, 0x19, 0x4E, 0x1F}));
+        assertThrows(HttpMessageNotReadableException.class, () -> readPrice(new byte[]{(byte) 0xF5}));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(PurchaseRequestDTO.class, new byte[]{(byte) 0xA1, 0x61}));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(PurchaseRequestDTO.class, new byte[]{(byte) 0xA0, 0x00}));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(PurchaseRequestDTO.class, new byte[300]));
+    }
+
+    @Test
+    void write_ShouldUseTheKeysAndValuesOfTheJsonForm() throws IOException {
+        TransactionResponseDTO transaction = new TransactionResponseDTO(123456789012L, 1999,
+                LocalDateTime.of(2026, 10, 19, 12, 30), true);
+
+        byte[] cbor = write(transaction);
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(transaction));
+
+        Map<String, Object> fields = fields(cbor);
+        assertEquals(fieldNames(json), fields.keySet());
+        assertEquals(json.get("transactionDate").asText(), fields.get("transactionDate"));
+        assertEquals(transaction, new TransactionResponseCodec().read(new CborReader(cbor)));
+        assertTrue(cbor.length < objectMapper.writeValueAsBytes(transaction).length);
+
+        transaction.setTransactionDate(LocalDateTime.of(2026, 10, 19, 12, 30, 15, 120_000_000));
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(transaction)).get("transactionDate").asText(),
+                fields(write(transaction)).get("transactionDate"));
+
+        CardBalanceResponseDTO balance = new CardBalanceResponseDTO(-5);
+        assertEquals(fieldNames(objectMapper.readTree(objectMapper.writeValueAsBytes(balance))), fields(write(balance)).keySet());
+        assertEquals(balance, new CardBalanceResponseCodec().read(new CborReader(write(balance))));
+    }
+
+    private <T> T read(Class<T> type, byte[] body) throws IOException {
+        MockHttpInputMessage message = new MockHttpInputMessage(body);
+        message.getHeaders().setContentType(MediaType.APPLICATION_CBOR);
+        return type.cast(converter.read(type, message));
+    }
+
+    private long readPrice(byte[] price) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(0xA1);
+        body.write(CborWriter.encodeKey("price"));
+        body.write(price);
+        return read(PurchaseRequestDTO.class, body.toByteArray()).getPrice();
+    }
+
+    private byte[] write(Object value) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_CBOR, message);
+        assertEquals(MediaType.APPLICATION_CBOR, message.getHeaders().getContentType());
+        return message.getBodyAsBytes();
+    }
+
+    private static Map<String, Object> fields(byte[] cbor) {
+        CborReader reader = new CborReader(cbor);
+        Map<String, Object> fields = new HashMap<>();
+        int entries = reader.readMapHeader();
+        for (int read = 0; reader.hasNextEntry(entries, read); read++) {
+            String key = reader.readText();
+            if (key.equals("transactionDate")) {
+                fields.put(key, reader.readText());
+            } else {
+                reader.skip();
+                fields.put(key, null);
+            }
+        }
+        assertTrue(reader.isAtEnd());
+        return fields;
+    }
+
+    private static Set<String> fieldNames(JsonNode json) {
+        Set<String> names = new HashSet<>();
+        json.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static byte[] longBytes(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (value >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,107 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.cluster.ClusterAuthenticationFilter;
+import com.bankinc.cardmanagement.common.cluster.ClusterForwarder;
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.common.cluster.ClusterSignature;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClusterAuthenticationFilterTest {
+
+    private static final byte[] PURCHASE = "{\"cardId\":\"1020300000000001\",\"price\":1999}".getBytes(StandardCharsets.UTF_8);
+
+    private ClusterSignature signature;
+    private FilterChain filterChain;
+    private ClusterAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setSecret("s3cret");
+        signature = new ClusterSignature(properties);
+        filterChain = mock(FilterChain.class);
+        filter = new ClusterAuthenticationFilter(signature);
+    }
+
+    @Test
+    void doFilter_WhenForwardedRequestIsSigned_ShouldKeepItsHeader() throws Exception {
+        MockHttpServletRequest request = request("POST", "/transaction/purchase", PURCHASE);
+        request.addHeader(ClusterForwarder.FORWARDED_HEADER, "node-2");
+        request.addHeader(ClusterSignature.SIGNATURE_HEADER, signature.sign("node-2", "POST", "/transaction/purchase", PURCHASE));
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        HttpServletRequest served = served();
+        assertEquals("node-2", served.getHeader(ClusterForwarder.FORWARDED_HEADER));
+        assertArrayEquals(PURCHASE, served.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void doFilter_WhenClientSetsForwardedHeader_ShouldRemoveIt() throws Exception {
+        MockHttpServletRequest request = request("POST", "/transaction/purchase", PURCHASE);
+        request.addHeader(ClusterForwarder.FORWARDED_HEADER, "node-2");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(served().getHeader(ClusterForwarder.FORWARDED_HEADER));
+    }
+
+    @Test
+    void doFilter_WhenSignedBodyWasChanged_ShouldRemoveForwardedHeader() throws Exception {
+        byte[] changed = "{\"cardId\":\"1020300000000001\",\"price\":99999}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = request("POST", "/transaction/purchase", changed);
+        request.addHeader(ClusterForwarder.FORWARDED_HEADER, "node-2");
+        request.addHeader(ClusterSignature.SIGNATURE_HEADER, signature.sign("node-2", "POST", "/transaction/purchase", PURCHASE));
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(served().getHeader(ClusterForwarder.FORWARDED_HEADER));
+    }
+
+    @Test
+    void doFilter_WhenMembershipChangeIsNotAuthenticated_ShouldRejectIt() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("DELETE", "/cluster/nodes/node-2", new byte[0]), response, filterChain);
+
+        assertEquals(401, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void doFilter_WhenMembershipChangeCarriesSecret_ShouldServeIt() throws Exception {
+        MockHttpServletRequest request = request("DELETE", "/cluster/nodes/node-2", new byte[0]);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer s3cret");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    private HttpServletRequest served() throws Exception {
+        ArgumentCaptor<HttpServletRequest> served = ArgumentCaptor.forClass(HttpServletRequest.class);
+        verify(filterChain).doFilter(served.capture(), any());
+        return served.getValue();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.cbor.CborWriter;
+import com.bankinc.cardmanagement.common.cluster.ClusterForwarder;
+import com.bankinc.cardmanagement.common.cluster.ClusterForwardingFilter;
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.codec.PurchaseRequestCodec;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClusterForwardingFilterTest {
+
+    private ClusterMembership membership;
+    private ClusterForwarder forwarder;
+    private FilterChain filterChain;
+    private ClusterForwardingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId("node-1");
+        properties.setNodes(List.of(node("node-1", "http://localhost:8080"), node("node-2", "http://localhost:8081")));
+        membership = new ClusterMembership(properties, mock(ApplicationEventPublisher.class));
+        forwarder = mock(ClusterForwarder.class);
+        filterChain = mock(FilterChain.class);
+        filter = new ClusterForwardingFilter(membership, forwarder, new ObjectMapper());
+    }
+
+    @Test
+    void doFilter_WhenCborPurchaseIsForRemoteCard_ShouldForwardItToTheOwner() throws Exception {
+        byte[] body = cborPurchase(card(false));
+        @SuppressWarnings("unchecked")
+        HttpResponse<byte[]> ownerResponse = mock(HttpResponse.class);
+        when(ownerResponse.statusCode()).thenReturn(201);
+        when(ownerResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(ownerResponse.body()).thenReturn(new byte[]{(byte) 0xA0});
+        when(forwarder.forward(anyString(), any(), any())).thenReturn(ownerResponse);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(body), response, filterChain);
+
+        verify(forwarder).forward(eq("http://localhost:8081"), any(), eq(body));
+        verifyNoInteractions(filterChain);
+        assertEquals(201, response.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenCborPurchaseIsForLocalCard_ShouldServeItHere() throws Exception {
+        filter.doFilter(request(cborPurchase(card(true))), new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(forwarder);
+    }
+
+    private String card(boolean local) {
+        return LongStream.range(0, 1000).mapToObj(i -> "102030" + String.format("%010d", i * 7919L))
+                .filter(cardNumber -> membership.isLocal(cardNumber) == local)
+                .findFirst().orElseThrow();
+    }
+
+    private static byte[] cborPurchase(String cardId) {
+        PurchaseRequestDTO purchase = new PurchaseRequestDTO();
+        purchase.setCardId(cardId);
+        purchase.setPrice(1999);
+        CborWriter writer = new CborWriter();
+        new PurchaseRequestCodec().write(purchase, writer);
+        return writer.toByteArray();
+    }
+
+    private static MockHttpServletRequest request(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/transaction/purchase");
+        request.setServletPath("/transaction/purchase");
+        request.setContentType(MediaType.APPLICATION_CBOR_VALUE);
+        request.setContent(body);
+        return request;
+    }
+
+    private static ClusterProperties.Node node(String id, String url) {
+        ClusterProperties.Node node = new ClusterProperties.Node();
+        node.setId(id);
+        node.setUrl(url);
+        return node;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.cluster.CardOwnershipChangedEvent;
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.common.cluster.ConsistentHashRing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClusterMembershipTest {
+
+    private ApplicationEventPublisher eventPublisher;
+    private ClusterMembership node1;
+    private ClusterMembership node2;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        node1 = new ClusterMembership(properties("node-1"), eventPublisher);
+        node2 = new ClusterMembership(properties("node-2"), eventPublisher);
+    }
+
+    @Test
+    void ownerOf_ShouldBeTheSameOnEveryNode() {
+        for (int i = 0; i < 1000; i++) {
+            String cardNumber = card(i);
+            assertEquals(node1.ownerOf(cardNumber), node2.ownerOf(cardNumber));
+            assertNotEquals(node1.isLocal(cardNumber), node2.isLocal(cardNumber));
+        }
+    }
+
+    @Test
+    void join_ShouldOnlyMoveCardsToTheNewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(Set.of("node-1", "node-2"), 128);
+
+        node1.join("node-3", "http://localhost:8082");
+
+        int moved = 0;
+        for (int i = 0; i < 3000; i++) {
+            String cardNumber = card(i);
+            String owner = node1.ownerOf(cardNumber);
+            if (!owner.equals(before.ownerOf(cardNumber))) {
+                assertEquals("node-3", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > 500 && moved < 1500, "About a third of the cards should move to the new node");
+        assertEquals("http://localhost:8082", node1.urlOf("node-3"));
+    }
+
+    @Test
+    void leave_ShouldPublishOwnershipChangeForHandoff() {
+        node1.join("node-3", "http://localhost:8082");
+        node1.leave("node-3");
+
+        ArgumentCaptor<CardOwnershipChangedEvent> events = ArgumentCaptor.forClass(CardOwnershipChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        CardOwnershipChangedEvent joined = events.getAllValues().get(0);
+        for (int i = 0; i < 1000; i++) {
+            String cardNumber = card(i);
+            boolean movedToNode3 = joined.current().ownerOf(cardNumber).equals("node-3");
+            assertEquals(movedToNode3 && joined.previous().ownerOf(cardNumber).equals("node-1"), joined.lostOwnership(cardNumber));
+        }
+        assertEquals(Set.of("node-1", "node-2"), node1.getNodes().keySet());
+    }
+
+    @Test
+    void leave_WhenRemovingItself_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> node1.leave("node-1"));
+    }
+
+    private static ClusterProperties properties(String nodeId) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId(nodeId);
+        List<ClusterProperties.Node> nodes = new ArrayList<>();
+        nodes.add(node("node-1", "http://localhost:8080"));
+        nodes.add(node("node-2", "http://localhost:8081"));
+        properties.setNodes(nodes);
+        return properties;
+    }
+
+    private static ClusterProperties.Node node(String id, String url) {
+        ClusterProperties.Node node = new ClusterProperties.Node();
+        node.setId(id);
+        node.setUrl(url);
+        return node;
+    }
+
+    private static String card(int i) {
+        return "102030" + String.format("%010d", i * 7919L);
+    }
+}
@@ -0,0 +1,119 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.datagen.domain.repository.DatasetSink;
+import com.bankinc.cardmanagement.datagen.domain.service.DatasetGenerator;
+import com.bankinc.cardmanagement.datagen.infrastructure.config.DataGeneratorProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final Instant END = LocalDate.of(2025, 6, 1).atStartOfDay(ZONE).toInstant();
+
+    private DataGeneratorProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DataGeneratorProperties();
+        properties.setCards(20_000);
+        properties.setChunkSize(5_000);
+        properties.setAveragePurchasesPerCard(5);
+        properties.setAnnulledRatio(0.1);
+    }
+
+    @Test
+    void generateChunk_ShouldGiveTheSameRowsForTheSameSeed() {
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+
+        generator(new long[]{0}).generateChunk(2, shard -> first);
+        generator(new long[]{0}).generateChunk(2, shard -> second);
+        properties.setSeed(7);
+        RecordingSink other = new RecordingSink();
+        generator(new long[]{0}).generateChunk(2, shard -> other);
+
+        assertEquals(first.rows, second.rows);
+        assertNotEquals(first.rows, other.rows);
+    }
+
+    @Test
+    void generateChunk_ShouldGiveUniqueKeysAndLedgersMatchingBalances() {
+        DatasetGenerator generator = generator(new long[]{100, 5_000_000});
+        RecordingSink sink = new RecordingSink();
+        long transactions = 0;
+        for (int chunk = 0; chunk < generator.chunkCount(); chunk++) {
+            transactions += generator.generateChunk(chunk, shard -> sink);
+        }
+
+        assertEquals(4, generator.chunkCount());
+        assertEquals(20_000, sink.cardNumbers.size());
+        assertEquals(20_000, sink.balances.size());
+        assertEquals(transactions, sink.transactionIds.size());
+        assertTrue(transactions > 20_000);
+        sink.balances.forEach((cardId, balance) -> {
+            assertEquals(balance, sink.ledgers.getOrDefault(cardId, 0L));
+            assertTrue(balance >= 0);
+        });
+        assertTrue(sink.annulled > 0);
+        assertTrue(sink.balances.keySet().stream().allMatch(cardId -> cardId > 100 && cardId <= 100 + 20_000
+                || cardId > 5_000_000 && cardId <= 5_000_000 + 20_000));
+    }
+
+    private DatasetGenerator generator(long[] cardIdBases) {
+        return new DatasetGenerator(properties, END, ZONE, cardNumber -> (int) (cardNumber % cardIdBases.length), cardIdBases);
+    }
+
+    private static class RecordingSink implements DatasetSink {
+
+        private final List<String> rows = new ArrayList<>();
+        private final Set<Long> cardNumbers = new HashSet<>();
+        private final Set<Long> transactionIds = new HashSet<>();
+        private final Map<Long, Long> balances = new HashMap<>();
+        private final Map<Long, Long> ledgers = new HashMap<>();
+        private int annulled;
+
+        @Override
+        public void card(long cardId, long cardNumber, String holderName, LocalDate expirationDate,
+                         boolean active, boolean blocked, long balance) {
+            rows.add(cardId + " " + cardNumber + " " + holderName + " " + expirationDate + " " + active + " " + blocked + " " + balance);
+            cardNumbers.add(cardNumber);
+            balances.put(cardId, balance);
+        }
+
+        @Override
+        public void transaction(long transactionId, long cardId, String type, long amount, LocalDateTime transactionDate,
+                                boolean annulled, LocalDateTime annulledAt) {
+            rows.add(transactionId + " " + cardId + " " + type + " " + amount + " " + transactionDate + " " + annulledAt);
+            assertTrue(balances.containsKey(cardId));
+            assertTrue(transactionIds.add(transactionId));
+            assertEquals(transactionDate.toInstant(ZoneOffset.UTC), TransactionIds.createdAt(transactionId));
+            assertTrue(transactionDate.toInstant(ZoneOffset.UTC).isBefore(END.plusSeconds(86_400)));
+            if (annulled) {
+                this.annulled++;
+                assertFalse(annulledAt.isBefore(transactionDate));
+            } else {
+                ledgers.merge(cardId, "PURCHASE".equals(type) ? -amount : amount, Long::sum);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
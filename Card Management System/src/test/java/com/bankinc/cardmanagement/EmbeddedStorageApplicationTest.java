@@ -0,0 +1,76 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.application.service.CardService;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardActivationRequestDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceRequestDTO;
+import com.bankinc.cardmanagement.card.infrastructure.util.CardNumbers;
+import com.bankinc.cardmanagement.fee.application.service.MonthlyFeeService;
+import com.bankinc.cardmanagement.standin.application.service.StandInService;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "bankinc.storage.engine=embedded",
+        "spring.datasource.url=",
+        "bankinc.warm-up.enabled=false"
+})
+class EmbeddedStorageApplicationTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storageDirectory(DynamicPropertyRegistry registry) {
+        registry.add("bankinc.storage.directory", () -> directory.resolve("embedded").toString());
+        registry.add("bankinc.stand-in.directory", () -> directory.resolve("stand-in").toString());
+        registry.add("bankinc.purchase-journal.directory", () -> directory.resolve("purchase-journal").toString());
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private StandInService standInService;
+
+    @Test
+    void contextLoads_WithoutDatabase() {
+        assertTrue(context.getBeansOfType(DataSource.class).isEmpty());
+        assertTrue(context.getBeansOfType(MonthlyFeeService.class).isEmpty());
+        assertFalse(standInService.isOffline());
+    }
+
+    @Test
+    void cardLifecycle_ShouldRunOnEmbeddedEngine() {
+        String cardId = cardService.generateCardNumber("123456").getCardNumber();
+        CardActivationRequestDTO activation = new CardActivationRequestDTO();
+        activation.setCardId(cardId);
+        cardService.activateCard(activation);
+        CardBalanceRequestDTO recharge = new CardBalanceRequestDTO();
+        recharge.setCardId(cardId);
+        recharge.setBalance(10_000);
+        cardService.addBalance(recharge);
+
+        PurchaseRequestDTO purchase = new PurchaseRequestDTO();
+        purchase.setCardId(cardId);
+        purchase.setPrice(2_500);
+        TransactionResponseDTO transaction = standInService.makePurchase(purchase);
+
+        assertNotNull(transaction.getTransactionId());
+        assertEquals(7_500, cardService.getBalance(CardNumbers.parse(cardId)).getBalance());
+    }
+}
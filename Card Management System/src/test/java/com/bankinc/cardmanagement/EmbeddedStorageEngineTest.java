@@ -0,0 +1,186 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
+import com.bankinc.cardmanagement.common.storage.EmbeddedCardStore;
+import com.bankinc.cardmanagement.common.storage.EmbeddedStorageEngine;
+import com.bankinc.cardmanagement.common.storage.EmbeddedTransactionStore;
+import com.bankinc.cardmanagement.common.storage.StorageProperties;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedStorageEngineTest extends StorageContractTest {
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedStorageEngine engine;
+    private CardStore cardStore;
+    private TransactionStore transactionStore;
+
+    @BeforeEach
+    void setUp() {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.close();
+    }
+
+    @Override
+    protected CardStore cardStore() {
+        return cardStore;
+    }
+
+    @Override
+    protected TransactionStore transactionStore() {
+        return transactionStore;
+    }
+
+    @Test
+    void reopen_ShouldRecoverLatestVersionsAndContinueCardIds() throws IOException {
+        Card card = cardStore.save(newCard(CARD));
+        transactionStore.save(newTransaction(7L, card, 4025));
+        card.setBalance(5975);
+        cardStore.save(card);
+
+        reopen();
+
+        Card stored = cardStore.findByCardNumber(CARD).orElseThrow();
+        assertEquals(5975, stored.getBalance());
+        assertEquals(CARD, transactionStore.findById(7L).orElseThrow().getCard().getCardNumber());
+        assertTrue(cardStore.save(newCard(CARD + 1)).getCardId() > stored.getCardId());
+    }
+
+    @Test
+    void reopen_ShouldTruncateIncompleteCommit() throws IOException {
+        Card card = cardStore.save(newCard(CARD));
+        card.setBalance(10000);
+        cardStore.save(card);
+        Path log = directory.resolve("storage.log");
+        long committed = Files.size(log);
+        card.setBalance(5000);
+        cardStore.save(card);
+        engine.close();
+        try (var channel = Files.newByteChannel(log, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(log) - 3);
+        }
+
+        open();
+
+        assertEquals(10000, cardStore.findByCardNumber(CARD).orElseThrow().getBalance());
+        assertEquals(committed, Files.size(log));
+    }
+
+    @Test
+    void reopen_ShouldDropCommitFailingChecksum() throws IOException {
+        Card card = cardStore.save(newCard(CARD));
+        Path log = directory.resolve("storage.log");
+        long committed = Files.size(log);
+        card.setBalance(5000);
+        cardStore.save(card);
+        engine.close();
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 20] ^= 1;
+        Files.write(log, bytes);
+
+        open();
+
+        assertEquals(0, cardStore.findByCardNumber(CARD).orElseThrow().getBalance());
+        assertEquals(committed, Files.size(log));
+    }
+
+    @Test
+    void transaction_ShouldSeeOwnWritesAndPublishThemOnCommit() throws IOException {
+        Card card = cardStore.save(newCard(CARD));
+        long size = Files.size(directory.resolve("storage.log"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            card.setBalance(8000);
+            cardStore.save(card);
+            transactionStore.save(newTransaction(7L, card, 2000));
+            assertEquals(8000, cardStore.findByCardNumber(CARD).orElseThrow().getBalance());
+            assertEquals(8000, transactionStore.findById(7L).orElseThrow().getCard().getBalance());
+            assertEquals(size, Files.size(directory.resolve("storage.log")));
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(TransactionSynchronizationManager.hasResource(engine));
+        reopen();
+        assertEquals(8000, transactionStore.findById(7L).orElseThrow().getCard().getBalance());
+    }
+
+    @Test
+    void transaction_ShouldDiscardWritesOnRollback() {
+        Card card = cardStore.save(newCard(CARD));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            card.setBalance(8000);
+            cardStore.save(card);
+            transactionStore.save(newTransaction(7L, card, 2000));
+
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, cardStore.findByCardNumber(CARD).orElseThrow().getBalance());
+        assertTrue(transactionStore.findById(7L).isEmpty());
+    }
+
+    @Test
+    void transaction_ShouldFailOnCommitWhenCardNumberWasTakenMeanwhile() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cardStore.save(newCard(CARD));
+            // Another request creates the same card and commits first.
+            CompletableFuture.runAsync(() -> cardStore.save(newCard(CARD))).get(5, TimeUnit.SECONDS);
+
+            assertThrows(DataIntegrityViolationException.class, () -> TransactionSynchronizationUtils.triggerBeforeCommit(false));
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        reopen();
+        assertTrue(cardStore.findByCardNumber(CARD).isPresent());
+        assertThrows(DataIntegrityViolationException.class, () -> cardStore.save(newCard(CARD)));
+    }
+
+    private void open() {
+        StorageProperties properties = new StorageProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSyncOnCommit(false);
+        properties.setIndexCapacity(16);
+        engine = new EmbeddedStorageEngine(properties);
+        cardStore = new EmbeddedCardStore(engine);
+        transactionStore = new EmbeddedTransactionStore(engine);
+    }
+
+    private void reopen() throws IOException {
+        engine.close();
+        open();
+    }
+}
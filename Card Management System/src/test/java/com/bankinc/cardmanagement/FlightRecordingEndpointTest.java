@@ -0,0 +1,51 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.jfr.FlightRecordingEndpoint;
+import com.bankinc.cardmanagement.common.jfr.FlightRecordingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecordingProperties properties = new FlightRecordingProperties();
+        properties.setDirectory(directory.toString());
+        endpoint = new FlightRecordingEndpoint(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+    }
+
+    @Test
+    void dump_ShouldDeleteTheFileOnceStreamed() throws IOException {
+        endpoint.start();
+
+        Resource dump = endpoint.dump().getBody();
+
+        assertTrue(dump.exists());
+        try (InputStream stream = dump.getInputStream()) {
+            assertTrue(stream.readAllBytes().length > 0);
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
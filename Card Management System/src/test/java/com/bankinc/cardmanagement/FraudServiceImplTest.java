@@ -0,0 +1,122 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.fraud.application.service.FraudServiceImpl;
+import com.bankinc.cardmanagement.fraud.domain.service.FraudRuleCompiler;
+import com.bankinc.cardmanagement.fraud.infrastructure.config.FraudProperties;
+import com.bankinc.cardmanagement.fraud.infrastructure.dto.FraudRuleStatsDTO;
+import com.bankinc.cardmanagement.fraud.infrastructure.dto.FraudRulesDTO;
+import com.bankinc.cardmanagement.fraud.infrastructure.exception.FraudSuspectedException;
+import com.bankinc.cardmanagement.fraud.infrastructure.exception.InvalidFraudRulesException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudServiceImplTest {
+
+    private static final long CARD = 1020301234567890L;
+
+    @TempDir
+    Path directory;
+
+    private Path rulesFile;
+    private FraudServiceImpl fraudService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rulesFile = directory.resolve("fraud-rules.yml");
+        Files.writeString(rulesFile, """
+                rules:
+                  - name: duplicate-amount-burst
+                    type: DUPLICATE_AMOUNT
+                    count: 2
+                    window: 1m
+                  - name: retry-after-declines
+                    type: DECLINE_RETRY
+                    count: 2
+                    window: 1m
+                  - name: unusual-amount
+                    type: AMOUNT_DEVIATION
+                    action: MONITOR
+                    factor: 5
+                    min-history: 1
+                """);
+        FraudProperties properties = new FraudProperties();
+        properties.setRulesFile(rulesFile.toString());
+        fraudService = new FraudServiceImpl(new FraudRuleCompiler(properties), properties, new SimpleMeterRegistry());
+        fraudService.open();
+    }
+
+    @Test
+    void screen_ShouldDeclineBurstOfSameAmount() {
+        assertEquals("ok", fraudService.screen(CARD, 2500, () -> "ok"));
+        assertEquals("ok", fraudService.screen(CARD, 2500, () -> "ok"));
+        assertEquals("ok", fraudService.screen(CARD, 3000, () -> "ok"));
+
+        assertThrows(FraudSuspectedException.class, () -> fraudService.screen(CARD, 2500, () -> "ok"));
+        assertEquals("ok", fraudService.screen(CARD + 1, 2500, () -> "ok"));
+    }
+
+    @Test
+    void screen_ShouldDeclineRetriesAfterDeclines() {
+        for (int i = 0; i < 2; i++) {
+            long amount = 1000 + i;
+            assertThrows(InsufficientBalanceException.class, () -> fraudService.screen(CARD, amount, () -> {
+                throw new InsufficientBalanceException("Insufficient balance");
+            }));
+        }
+
+        assertThrows(FraudSuspectedException.class, () -> fraudService.screen(CARD, 500, () -> "ok"));
+    }
+
+    @Test
+    void screen_ShouldOnlyCountMonitoredRules() {
+        fraudService.screen(CARD, 1000, () -> "ok");
+
+        assertEquals("ok", fraudService.screen(CARD, 10000, () -> "ok"));
+
+        FraudRuleStatsDTO unusualAmount = fraudService.getRules().getRules().get(2);
+        assertEquals("unusual-amount", unusualAmount.getName());
+        assertEquals(2, unusualAmount.getEvaluations());
+        assertEquals(1, unusualAmount.getHits());
+    }
+
+    @Test
+    void reloadRules_ShouldApplyChangedRulesWithoutRestart() throws IOException {
+        Files.writeString(rulesFile, """
+                rules:
+                  - name: purchase-velocity
+                    type: VELOCITY
+                    count: 1
+                    window: 1m
+                """);
+
+        FraudRulesDTO rules = fraudService.reloadRules();
+
+        assertEquals(1, rules.getRules().size());
+        fraudService.screen(CARD, 1000, () -> "ok");
+        assertThrows(FraudSuspectedException.class, () -> fraudService.screen(CARD, 2000, () -> "ok"));
+    }
+
+    @Test
+    void reloadRules_ShouldKeepPreviousRulesWhenFileIsInvalid() throws IOException {
+        Files.writeString(rulesFile, """
+                rules:
+                  - name: purchase-velocity
+                    type: VELOCITY
+                    count: 1000
+                    window: 1m
+                """);
+
+        assertThrows(InvalidFraudRulesException.class, () -> fraudService.reloadRules());
+
+        assertEquals(3, fraudService.getRules().getRules().size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
+import com.bankinc.cardmanagement.common.storage.JpaCardStore;
+import com.bankinc.cardmanagement.common.storage.JpaTransactionStore;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the storage contract against the JPA engine, over repositories backed by maps that
+ * copy entities in and out and enforce the unique card number like the database does.
+ */
+class JpaStorageEngineTest extends StorageContractTest {
+
+    private CardStore cardStore;
+    private TransactionStore transactionStore;
+
+    @BeforeEach
+    void setUp() {
+        Map<Long, Card> cards = new HashMap<>();
+        Map<Long, Transaction> transactions = new HashMap<>();
+        CardRepository cardRepository = mock(CardRepository.class);
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+
+        when(cardRepository.findByCardNumber(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(cards.get(invocation.<Long>getArgument(0))).map(JpaStorageEngineTest::copy));
+        when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> {
+            Card card = invocation.getArgument(0);
+            if (card.getCardId() == null) {
+                if (cards.containsKey(card.getCardNumber())) {
+                    throw new DataIntegrityViolationException("Duplicate entry for key 'cards.card_number'");
+                }
+                card.setCardId(cards.size() + 1L);
+            }
+            cards.put(card.getCardNumber(), copy(card));
+            return card;
+        });
+        when(transactionRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(transactions.get(invocation.<Long>getArgument(0))).map(stored -> {
+                    Transaction transaction = copy(stored);
+                    transaction.setCard(copy(cards.get(stored.getCard().getCardNumber())));
+                    transaction.setPersisted(true);
+                    return transaction;
+                }));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transactions.put(transaction.getTransactionId(), copy(transaction));
+            return transaction;
+        });
+
+        cardStore = new JpaCardStore(cardRepository);
+        transactionStore = new JpaTransactionStore(transactionRepository);
+    }
+
+    @Override
+    protected CardStore cardStore() {
+        return cardStore;
+    }
+
+    @Override
+    protected TransactionStore transactionStore() {
+        return transactionStore;
+    }
+
+    private static Card copy(Card card) {
+        Card copy = new Card();
+        BeanUtils.copyProperties(card, copy);
+        return copy;
+    }
+
+    private static Transaction copy(Transaction transaction) {
+        Transaction copy = new Transaction();
+        BeanUtils.copyProperties(transaction, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.money.AmountOutOfRangeException;
+import com.bankinc.cardmanagement.common.money.Money;
+import com.bankinc.cardmanagement.summary.infrastructure.dto.CardSummaryDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_ShouldReadAmountsWithUpToTwoDecimals() {
+        assertEquals(1250, Money.parse("12.5"));
+        assertEquals(1250, Money.parse("12.50"));
+        assertEquals(1200, Money.parse("12"));
+        assertEquals(-5, Money.parse("-0.05"));
+        assertEquals(10, Money.parse(".1"));
+        assertEquals(Long.MAX_VALUE, Money.parse("92233720368547758.07"));
+
+        assertThrows(NumberFormatException.class, () -> Money.parse("12.345"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12,5"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("."));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("92233720368547758.08"));
+    }
+
+    @Test
+    void format_ShouldWriteTwoDecimals() {
+        assertEquals("12.50", Money.format(1250));
+        assertEquals("0.00", Money.format(0));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("-92233720368547758.08", Money.format(Long.MIN_VALUE));
+    }
+
+    @Test
+    void arithmetic_ShouldFailInsteadOfOverflowing() {
+        assertEquals(3000, Money.add(1000, 2000));
+        assertEquals(-1000, Money.subtract(1000, 2000));
+        assertThrows(AmountOutOfRangeException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(AmountOutOfRangeException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    }
+
+    @Test
+    void conversions_ShouldKeepEveryCent() {
+        assertEquals(20000, Money.of(new BigDecimal("200.0")));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertEquals(1234, Money.round(12.34));
+        assertEquals(30, Money.round(0.1 + 0.2));
+        assertEquals(new BigDecimal("0.30"), Money.toDecimal(30));
+    }
+
+    @Test
+    void json_ShouldCarryAmountsInMajorUnits() throws Exception {
+        PurchaseRequestDTO request = objectMapper.readValue("{\"cardId\":\"1020300000000001\",\"price\":19.99}",
+                PurchaseRequestDTO.class);
+        assertEquals(1999, request.getPrice());
+        assertEquals(1999, objectMapper.readValue("{\"price\":\"19.99\"}", PurchaseRequestDTO.class).getPrice());
+        assertEquals(2000, objectMapper.readValue("{\"price\":20}", PurchaseRequestDTO.class).getPrice());
+        assertEquals(2000, objectMapper.readValue("{\"price\":2e1}", PurchaseRequestDTO.class).getPrice());
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"price\":19.999}", PurchaseRequestDTO.class));
+
+        assertEquals("{\"cardId\":\"1020300000000001\",\"price\":19.99}", objectMapper.writeValueAsString(request));
+
+        CardSummaryDTO summary = new CardSummaryDTO("1020300000000001", 5, 0, 0, 0, 0, null, null, null, null);
+        String json = objectMapper.writeValueAsString(summary);
+        assertTrue(json.contains("\"balance\":0.05"));
+        assertTrue(json.contains("\"lastTransactionAmount\":null"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.fee.application.service.MonthlyFeeServiceImpl;
+import com.bankinc.cardmanagement.fee.domain.model.FeeChunk;
+import com.bankinc.cardmanagement.fee.domain.model.FeePartition;
+import com.bankinc.cardmanagement.fee.domain.repository.FeeLedgerRepository;
+import com.bankinc.cardmanagement.fee.domain.repository.FeePartitionRepository;
+import com.bankinc.cardmanagement.fee.domain.service.MonthlyFeeCalculator;
+import com.bankinc.cardmanagement.fee.infrastructure.config.MonthlyFeeProperties;
+import com.bankinc.cardmanagement.fee.infrastructure.dto.MonthlyFeeReportDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MonthlyFeeServiceImplTest {
+
+    private static final String PERIOD = "2026-10";
+
+    private FeeLedgerRepository ledgerRepository;
+    private FeePartitionRepository partitionRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private MonthlyFeeProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MonthlyFeeServiceImpl monthlyFeeService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ledgerRepository = mock(FeeLedgerRepository.class);
+        partitionRepository = mock(FeePartitionRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new MonthlyFeeProperties();
+        properties.setPartitions(2);
+        properties.setParallelism(2);
+        properties.setChunkSize(2);
+        properties.setThrottle(Duration.ZERO);
+        properties.setMaintenanceFee(new BigDecimal("5.00"));
+        properties.setDryRunDirectory(tempDir.toString());
+        monthlyFeeService = new MonthlyFeeServiceImpl(ledgerRepository, partitionRepository,
+                new MonthlyFeeCalculator(properties), new ShardRouter(new ShardingProperties()), properties,
+                eventPublisher, mock(PlatformTransactionManager.class), meterRegistry);
+
+        // Cards 1 to 3 are active with balances 10, 3 and 0; card 4 is not.
+        doAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            long last = invocation.getArgument(1);
+            FeeChunk chunk = invocation.getArgument(2);
+            int capacity = invocation.getArgument(3);
+            chunk.clear();
+            for (long cardId = after + 1; cardId <= Math.min(last, 3) && chunk.size() < capacity; cardId++) {
+                chunk.add(cardId, 1020300000000000L + cardId, cardId == 1 ? 1000 : cardId == 2 ? 300 : 0);
+            }
+            return null;
+        }).when(ledgerRepository).loadCards(anyLong(), anyLong(), any(FeeChunk.class), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void chargeFees_ShouldPartitionCardsAndChargeEveryActiveCard() {
+        when(partitionRepository.findByPeriodOrderByPartitionIndexAsc(PERIOD)).thenReturn(List.of());
+        when(ledgerRepository.findCardIdRange()).thenReturn(new long[]{1, 4});
+
+        MonthlyFeeReportDTO report = monthlyFeeService.chargeFees(YearMonth.of(2026, 10), false);
+
+        assertEquals(2, report.getPartitions());
+        assertEquals(0, report.getFailedPartitions());
+        assertEquals(2, report.getCardsCharged());
+        assertEquals(800, report.getAmountCharged());
+        assertEquals(2.0, meterRegistry.counter("bankinc.monthly.fee.cards").count());
+        assertEquals(8.0, meterRegistry.counter("bankinc.monthly.fee.amount").count());
+        verify(partitionRepository).saveAll(argThat(partitions -> {
+            List<FeePartition> list = (List<FeePartition>) partitions;
+            return list.size() == 2 && list.get(0).getLastCardId() == 2 && list.get(1).getFirstCardId() == 3;
+        }));
+        verify(ledgerRepository, atLeastOnce()).loadCards(anyLong(), anyLong(), any(FeeChunk.class), anyInt(), eq(true));
+        verify(eventPublisher, times(2)).publishEvent(any(CardActivityEvent.class));
+    }
+
+    @Test
+    void chargeFees_ShouldResumeUnfinishedPartitionsOnly() {
+        FeePartition finished = new FeePartition(PERIOD, 0, 1, 2);
+        finished.setChargedUpTo(2);
+        finished.setFinished(true);
+        FeePartition interrupted = new FeePartition(PERIOD, 1, 3, 4);
+        when(partitionRepository.findByPeriodOrderByPartitionIndexAsc(PERIOD)).thenReturn(List.of(finished, interrupted));
+
+        MonthlyFeeReportDTO report = monthlyFeeService.chargeFees(YearMonth.of(2026, 10), false);
+
+        assertEquals(1, report.getPartitions());
+        assertEquals(0, report.getCardsCharged());
+        assertTrue(interrupted.isFinished());
+        verify(ledgerRepository, never()).findCardIdRange();
+        verify(ledgerRepository, never()).loadCards(eq(0L), anyLong(), any(FeeChunk.class), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void chargeFees_ShouldContinueFromTheProgressReadUnderTheLock() {
+        FeePartition stale = new FeePartition(PERIOD, 0, 1, 4);
+        when(partitionRepository.findByPeriodOrderByPartitionIndexAsc(PERIOD)).thenReturn(List.of(stale));
+        // Another node charged cards 1 and 2 after this one read the ranges.
+        FeePartition locked = new FeePartition(PERIOD, 0, 1, 4);
+        locked.setChargedUpTo(2);
+        when(partitionRepository.findByPartitionId(PERIOD + "/0")).thenReturn(Optional.of(locked));
+
+        MonthlyFeeReportDTO report = monthlyFeeService.chargeFees(YearMonth.of(2026, 10), false);
+
+        assertEquals(0, report.getCardsCharged());
+        verify(ledgerRepository).loadCards(eq(2L), eq(4L), any(FeeChunk.class), anyInt(), eq(true));
+        verify(ledgerRepository, never()).loadCards(eq(0L), anyLong(), any(FeeChunk.class), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void chargeFees_WhenRangeWasFinishedByAnotherNode_ShouldNotChargeIt() {
+        FeePartition stale = new FeePartition(PERIOD, 0, 1, 4);
+        when(partitionRepository.findByPeriodOrderByPartitionIndexAsc(PERIOD)).thenReturn(List.of(stale));
+        FeePartition locked = new FeePartition(PERIOD, 0, 1, 4);
+        locked.setChargedUpTo(4);
+        locked.setFinished(true);
+        when(partitionRepository.findByPartitionId(PERIOD + "/0")).thenReturn(Optional.of(locked));
+
+        MonthlyFeeReportDTO report = monthlyFeeService.chargeFees(YearMonth.of(2026, 10), false);
+
+        assertEquals(0, report.getCardsCharged());
+        assertTrue(stale.isFinished());
+        verify(ledgerRepository, never()).loadCards(anyLong(), anyLong(), any(FeeChunk.class), anyInt(), anyBoolean());
+        verify(ledgerRepository, never()).chargeFees(any(), any());
+    }
+
+    @Test
+    void chargeFees_DryRun_ShouldWriteFeesWithoutCharging() throws Exception {
+        when(partitionRepository.findByPeriodOrderByPartitionIndexAsc(PERIOD)).thenReturn(List.of());
+        when(ledgerRepository.findCardIdRange()).thenReturn(new long[]{1, 4});
+
+        MonthlyFeeReportDTO report = monthlyFeeService.chargeFees(YearMonth.of(2026, 10), true);
+
+        assertTrue(report.isDryRun());
+        assertEquals(2, report.getCardsCharged());
+        List<String> lines = Files.readAllLines(Path.of(report.getDryRunFile()));
+        assertEquals(3, lines.size());
+        assertTrue(lines.contains("1020300000000001;10.00;5.00;5.00"));
+        assertTrue(lines.contains("1020300000000002;3.00;3.00;0.00"));
+        verify(ledgerRepository, never()).chargeFees(any(), any());
+        verify(partitionRepository, never()).saveAll(any());
+        verify(partitionRepository, never()).save(any());
+        assertEquals(0.0, meterRegistry.counter("bankinc.monthly.fee.cards").count());
+    }
+}
@@ -0,0 +1,154 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.CardActivityEvent;
+import com.bankinc.cardmanagement.card.domain.model.CardStatusEvent;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.outbox.application.service.OutboxServiceImpl;
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxEntry;
+import com.bankinc.cardmanagement.outbox.domain.model.OutboxMessage;
+import com.bankinc.cardmanagement.outbox.domain.repository.InMemoryOutboxSink;
+import com.bankinc.cardmanagement.outbox.domain.repository.OutboxRepository;
+import com.bankinc.cardmanagement.outbox.infrastructure.config.OutboxProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceImplTest {
+
+    private OutboxRepository outboxRepository;
+    private InMemoryOutboxSink sink;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        sink = new InMemoryOutboxSink(100);
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(3);
+        properties.setCatchUpBatchSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new OutboxServiceImpl(outboxRepository, sink, new ShardRouter(new ShardingProperties()),
+                new ObjectMapper().findAndRegisterModules(), properties, mock(PlatformTransactionManager.class),
+                meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onCardEvents_ShouldWriteEventsOfTransactionInOneBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            outboxService.onCardStatus(new CardStatusEvent(1020301234567890L, CardStatusEvent.Status.ACTIVATED, LocalDateTime.now()));
+            outboxService.onCardActivity(new CardActivityEvent(1020301234567890L, CardActivityEvent.Type.RECHARGE,
+                    5000, null, 5000, LocalDateTime.now()));
+            verify(outboxRepository, never()).append(any(), any());
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<List<OutboxEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).append(entries.capture(), any(LocalDateTime.class));
+        assertEquals(List.of("ACTIVATED", "RECHARGE"), entries.getValue().stream().map(OutboxEntry::eventType).toList());
+        assertTrue(entries.getValue().get(1).payload().contains("\"cardId\":\"1020301234567890\""));
+        assertFalse(TransactionSynchronizationManager.hasResource(outboxService));
+    }
+
+    @Test
+    void relay_ShouldDeliverBatchesInOrderAndAdvanceOffset() {
+        LocalDateTime createdAt = LocalDateTime.now().minusSeconds(1);
+        when(outboxRepository.lockOffset("memory")).thenReturn(0L, 3L);
+        when(outboxRepository.findAfter(0, 0L, 3)).thenReturn(List.of(event(1, createdAt), event(2, createdAt), event(3, createdAt)));
+        when(outboxRepository.findAfter(0, 3L, 3)).thenReturn(List.of(event(4, createdAt)));
+
+        outboxService.relay();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), sink.received().stream().map(OutboxMessage::eventId).toList());
+        verify(outboxRepository).saveOffset("memory", 3L);
+        verify(outboxRepository).saveOffset("memory", 4L);
+    }
+
+    @Test
+    void relay_WhenBehindMaxLag_ShouldRelayCatchUpBatches() {
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(1);
+        when(outboxRepository.lockOffset("memory")).thenReturn(0L, 3L);
+        when(outboxRepository.findAfter(0, 0L, 3)).thenReturn(List.of(event(1, createdAt), event(2, createdAt), event(3, createdAt)));
+        when(outboxRepository.findAfter(0, 3L, 10)).thenReturn(List.of(event(4, createdAt), event(5, createdAt)));
+
+        outboxService.relay();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sink.received().stream().map(OutboxMessage::eventId).toList());
+        verify(outboxRepository).saveOffset("memory", 5L);
+        assertTrue(meterRegistry.get("bankinc.outbox.lag.millis").gauge().value() >= 60_000);
+    }
+
+    @Test
+    void relay_ShouldWaitForRecentGapAndRecordExpiredOne() {
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxRepository.lockOffset("memory")).thenReturn(0L, 1L, 3L);
+        when(outboxRepository.findAfter(0, 0L, 3)).thenReturn(List.of(event(1, now), event(3, now)));
+
+        outboxService.relay();
+
+        assertEquals(List.of(1L), sink.received().stream().map(OutboxMessage::eventId).toList());
+        verify(outboxRepository).saveOffset("memory", 1L);
+
+        when(outboxRepository.findAfter(0, 1L, 3)).thenReturn(List.of(event(3, now.minusMinutes(1))));
+
+        outboxService.relay();
+
+        assertEquals(List.of(1L, 3L), sink.received().stream().map(OutboxMessage::eventId).toList());
+        verify(outboxRepository).saveOffset("memory", 3L);
+        verify(outboxRepository).recordGaps(eq("memory"), eq(List.of(2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relay_WhenSkippedEventCommitsLate_ShouldDeliverItOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxRepository.lockOffset("memory")).thenReturn(3L);
+        when(outboxRepository.findSkipped(0, "memory")).thenReturn(List.of(event(2, now.minusMinutes(1))));
+        when(outboxRepository.findAfter(0, 3L, 3)).thenReturn(List.of(event(4, now)));
+
+        outboxService.relay();
+
+        assertEquals(List.of(2L, 4L), sink.received().stream().map(OutboxMessage::eventId).toList());
+        verify(outboxRepository).deleteGaps("memory", List.of(2L));
+        verify(outboxRepository).deleteGapsSkippedBefore(eq("memory"), any(LocalDateTime.class));
+        verify(outboxRepository).saveOffset("memory", 4L);
+    }
+
+    @Test
+    void relay_ShouldSkipShardRelayedByAnotherNode() {
+        when(outboxRepository.lockOffset("memory")).thenReturn(null);
+
+        outboxService.relay();
+
+        verify(outboxRepository, never()).findAfter(anyInt(), anyLong(), anyInt());
+        verify(outboxRepository, never()).saveOffset(anyString(), anyLong());
+        assertTrue(sink.received().isEmpty());
+    }
+
+    private static OutboxMessage event(long eventId, LocalDateTime createdAt) {
+        return new OutboxMessage(0, eventId, 1020301234567890L, "PURCHASE", "{}", createdAt);
+    }
+}
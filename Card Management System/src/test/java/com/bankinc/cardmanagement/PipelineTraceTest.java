@@ -0,0 +1,113 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.jfr.FlightRecordingEndpoint;
+import com.bankinc.cardmanagement.common.jfr.FlightRecordingProperties;
+import com.bankinc.cardmanagement.common.jfr.PipelineTrace;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineTraceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void stage_ShouldRecordEveryStageWithTheOutcomeOfTheTransaction() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("bankinc.PipelineStage");
+            recording.start();
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                PipelineTrace trace = PipelineTrace.start(PipelineTrace.Operation.PURCHASE, "1020301234567890");
+                trace.stage(PipelineTrace.Stage.CARD_LOOKUP);
+                trace.stage(PipelineTrace.Stage.VALIDATION);
+                TransactionSynchronizationUtils.invokeAfterCompletion(
+                        TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            recording.stop();
+            Path file = directory.resolve("trace.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(2, events.size());
+        assertEquals("CARD_LOOKUP", events.get(0).getString("stage"));
+        assertEquals("OK", events.get(0).getString("outcome"));
+        assertEquals("VALIDATION", events.get(1).getString("stage"));
+        assertEquals("ROLLED_BACK", events.get(1).getString("outcome"));
+        assertEquals("PURCHASE", events.get(1).getString("operation"));
+        assertEquals("102030", events.get(1).getString("productId"));
+    }
+
+    @Test
+    void card_ShouldSetTheProductOfTheLookupAndLaterStages() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("bankinc.PipelineStage");
+            recording.start();
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                PipelineTrace trace = PipelineTrace.start(PipelineTrace.Operation.ANNULMENT, null);
+                trace.stage(PipelineTrace.Stage.TRANSACTION_LOOKUP);
+                trace.card("4050601234567890");
+                trace.stage(PipelineTrace.Stage.VALIDATION);
+                TransactionSynchronizationUtils.invokeAfterCompletion(
+                        TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            recording.stop();
+            Path file = directory.resolve("trace.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(2, events.size());
+        assertEquals("405060", events.get(0).getString("productId"));
+        assertEquals("405060", events.get(1).getString("productId"));
+    }
+
+    @Test
+    void start_ShouldTraceNothingWithoutRecording() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            PipelineTrace trace = PipelineTrace.start(PipelineTrace.Operation.RECHARGE, "1020301234567890");
+            trace.stage(PipelineTrace.Stage.CARD_LOOKUP);
+
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void endpoint_ShouldStartDumpAndStopRecording() throws Exception {
+        FlightRecordingProperties properties = new FlightRecordingProperties();
+        properties.setDirectory(directory.toString());
+        FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(properties);
+
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.dump().getStatus());
+        assertEquals("RUNNING", endpoint.start().getBody().state());
+        WebEndpointResponse<Resource> dump = endpoint.dump();
+        assertEquals(WebEndpointResponse.STATUS_OK, dump.getStatus());
+        assertTrue(dump.getBody().getFile().length() > 0);
+        assertEquals(WebEndpointResponse.STATUS_OK, endpoint.stop().getStatus());
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.stop().getStatus());
+    }
+}
@@ -0,0 +1,118 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.transaction.application.service.PurchaseJournalServiceImpl;
+import com.bankinc.cardmanagement.transaction.domain.model.DeclinedPurchase;
+import com.bankinc.cardmanagement.transaction.domain.repository.DeclinedPurchaseRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.JournalCheckpointRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionDomainService;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionIdGenerator;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.PurchaseJournalProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.TransactionIdProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PurchaseJournalServiceImplTest {
+
+    private static final long CARD = 1020300000000001L;
+
+    private CardRepository cardRepository;
+    private TransactionRepository transactionRepository;
+    private DeclinedPurchaseRepository declinedPurchaseRepository;
+    private PurchaseJournalServiceImpl purchaseJournalService;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cardRepository = mock(CardRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        declinedPurchaseRepository = mock(DeclinedPurchaseRepository.class);
+        JournalCheckpointRepository checkpointRepository = mock(JournalCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+        PurchaseJournalProperties properties = new PurchaseJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        purchaseJournalService = new PurchaseJournalServiceImpl(cardRepository, transactionRepository, checkpointRepository,
+                declinedPurchaseRepository, new TransactionDomainService(),
+                new TransactionFactory(new TransactionIdGenerator(new TransactionIdProperties(), new ClusterProperties())),
+                new ShardRouter(new ShardingProperties()), mock(ApplicationEventPublisher.class), properties,
+                mock(PlatformTransactionManager.class),
+                new ClusterMembership(new ClusterProperties(), mock(ApplicationEventPublisher.class)));
+        purchaseJournalService.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        purchaseJournalService.close();
+    }
+
+    @Test
+    void makePurchase_ShouldCountJournaledPurchasesAgainstTheBalance() {
+        when(cardRepository.findByCardNumber(CARD)).thenAnswer(invocation -> Optional.of(card(1000)));
+
+        purchaseJournalService.makePurchase(request(600));
+
+        assertThrows(InsufficientBalanceException.class, () -> purchaseJournalService.makePurchase(request(600)));
+    }
+
+    @Test
+    void applyJournal_WhenBalanceDroppedSinceThePurchase_ShouldRecordItAsDeclined() {
+        when(cardRepository.findByCardNumber(CARD)).thenAnswer(invocation -> Optional.of(card(1000)));
+        purchaseJournalService.makePurchase(request(800));
+        // A fee charged in the meantime, outside the journal.
+        Card locked = card(500);
+        when(cardRepository.findByCardNumberInOrderByCardNumberAsc(any())).thenReturn(List.of(locked));
+
+        purchaseJournalService.applyJournal();
+
+        assertEquals(500, locked.getBalance());
+        verify(transactionRepository).saveAll(List.of());
+        verify(declinedPurchaseRepository).saveAll(argThat(declined -> {
+            DeclinedPurchase purchase = declined.iterator().next();
+            return purchase.getCardNumber() == CARD && purchase.getAmount() == 800
+                    && purchase.getSource() == DeclinedPurchase.Source.PURCHASE_JOURNAL
+                    && purchase.getReason().equals("Insufficient balance");
+        }));
+        // No longer pending, so the whole balance read from the database is available again.
+        purchaseJournalService.makePurchase(request(1000));
+    }
+
+    private static Card card(long balance) {
+        Card card = new Card(CARD, "Holder", LocalDate.now().plusYears(1));
+        card.setActive(true);
+        card.setBalance(balance);
+        return card;
+    }
+
+    private static PurchaseRequestDTO request(long price) {
+        PurchaseRequestDTO request = new PurchaseRequestDTO();
+        request.setCardId(Long.toString(CARD));
+        request.setPrice(price);
+        return request;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.transaction.domain.model.JournaledPurchase;
+import com.bankinc.cardmanagement.transaction.domain.repository.PurchaseJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseJournalTest {
+
+    private static final long CARD = 1020300000000001L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ShouldMakeConcurrentPurchasesDurableInSequenceOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (PurchaseJournal journal = new PurchaseJournal(directory, 1 << 20, 16)) {
+            List<Future<Long>> sequences = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                sequences.add(executor.submit(() -> {
+                    long sequence = journal.append(CARD, 100, System.currentTimeMillis());
+                    journal.awaitDurable(sequence);
+                    return sequence;
+                }));
+            }
+            for (Future<Long> sequence : sequences) {
+                sequence.get();
+            }
+
+            List<JournaledPurchase> unapplied = journal.unapplied(Integer.MAX_VALUE);
+            assertEquals(200, unapplied.size());
+            for (int i = 0; i < unapplied.size(); i++) {
+                assertEquals(i, unapplied.get(i).sequence());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void recovery_ShouldReturnOnlyUnappliedPurchasesAndDropTornTail() throws IOException {
+        try (PurchaseJournal journal = new PurchaseJournal(directory, 1 << 20, 16)) {
+            for (int i = 0; i < 5; i++) {
+                journal.awaitDurable(journal.append(CARD, i, i));
+            }
+            journal.markApplied(2);
+        }
+        Path segment = segments().get(0);
+        Files.write(segment, new byte[13], StandardOpenOption.APPEND);
+
+        try (PurchaseJournal journal = new PurchaseJournal(directory, 1 << 20, 16)) {
+            assertEquals(List.of(new JournaledPurchase(3, CARD, 3, 3L), new JournaledPurchase(4, CARD, 4, 4L)),
+                    journal.unapplied(10));
+            assertEquals(5, journal.append(CARD, 500, 5L));
+        }
+    }
+
+    @Test
+    void markApplied_ShouldReclaimFullyAppliedSegments() throws IOException {
+        // Every flush fills a segment, so each durable purchase rolls over to a new one.
+        try (PurchaseJournal journal = new PurchaseJournal(directory, PurchaseJournal.RECORD_SIZE, 16)) {
+            for (int i = 0; i < 4; i++) {
+                journal.awaitDurable(journal.append(CARD, 100, i));
+            }
+            assertEquals(5, segments().size());
+
+            journal.markApplied(2);
+
+            assertEquals(2, segments().size());
+            assertEquals(1, journal.backlog());
+        }
+    }
+
+    @Test
+    void recovery_ShouldConvertAmountsOfRecordsWrittenInMajorUnits() throws IOException {
+        try (PurchaseJournal journal = new PurchaseJournal(directory, 1 << 20, 16)) {
+            journal.awaitDurable(journal.append(CARD, 0, 1L));
+        }
+        // Rewrite the record as journals did before amounts were kept in cents.
+        Path segment = segments().get(0);
+        ByteBuffer record = ByteBuffer.wrap(Files.readAllBytes(segment));
+        record.putDouble(16, 12.34);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, 32);
+        record.putInt(32, (int) crc.getValue()).putInt(36, 0);
+        Files.write(segment, record.array());
+
+        try (PurchaseJournal journal = new PurchaseJournal(directory, 1 << 20, 16)) {
+            assertEquals(List.of(new JournaledPurchase(0, CARD, 1234, 1L)), journal.unapplied(10));
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitBodyAdvice;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitExceededException;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitInterceptor;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitProperties;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimitRegistry;
+import com.bankinc.cardmanagement.common.ratelimit.RateLimiter;
+import com.bankinc.cardmanagement.card.application.controller.CardController;
+import com.bankinc.cardmanagement.transaction.application.controller.TransactionController;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        RateLimitProperties.Endpoint balance = new RateLimitProperties.Endpoint();
+        balance.setClient(limit(3, 1));
+        balance.setCard(limit(2, 1));
+        properties.getEndpoints().put("balance", balance);
+        RateLimitProperties.Endpoint purchase = new RateLimitProperties.Endpoint();
+        purchase.setCard(limit(1, 1));
+        properties.getEndpoints().put("purchase", purchase);
+    }
+
+    @Test
+    void acquire_ShouldRejectOnceTheBurstIsSpent() {
+        RateLimiter<String> limiter = new RateLimiter<>("test", limit(2, 0.5), 10, Counter.builder("test").register(meterRegistry));
+
+        limiter.acquire("client-1");
+        limiter.acquire("client-1");
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-1"));
+        limiter.acquire("client-2");
+
+        assertEquals(2, ex.getLimit());
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("test").count());
+    }
+
+    @Test
+    void acquire_WhenFullOfDrainingBuckets_ShouldKeepThemAndChargeNewKeysToTheFallback() {
+        RateLimiter<String> limiter = new RateLimiter<>("test", limit(1, 0.001), 3, Counter.builder("test").register(meterRegistry));
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("client-" + i);
+        }
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-3"));
+        for (int i = 3; i < 10; i++) {
+            String key = "client-" + i;
+            assertThrows(RateLimitExceededException.class, () -> limiter.acquire(key, "client-0"));
+        }
+
+        assertEquals(3, limiter.size());
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client-0"));
+        assertEquals(0, limiter.evictFull());
+    }
+
+    @Test
+    void acquire_WhenFull_ShouldMakeRoomFromRefilledBuckets() throws InterruptedException {
+        RateLimiter<String> limiter = new RateLimiter<>("test", limit(1, 1000), 2, Counter.builder("test").register(meterRegistry));
+        limiter.acquire("client-0");
+        limiter.acquire("client-1");
+
+        Thread.sleep(5);
+        limiter.acquire("client-2");
+
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void evictFull_ShouldDropRefilledBuckets() throws InterruptedException {
+        RateLimiter<String> limiter = new RateLimiter<>("test", limit(1, 1000), 10, Counter.builder("test").register(meterRegistry));
+        limiter.acquire("client-1");
+
+        Thread.sleep(5);
+
+        assertEquals(1, limiter.evictFull());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void preHandle_ShouldLimitByClientAndByCardInPath() throws NoSuchMethodException {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimitRegistry(properties, meterRegistry), properties);
+        HandlerMethod handler = new HandlerMethod(mock(CardController.class), CardController.class.getMethod("getBalance", long.class));
+
+        assertTrue(interceptor.preHandle(balanceRequest("a", "1020301234567890"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(balanceRequest("a", "1020301234567890"), new MockHttpServletResponse(), handler));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(balanceRequest("b", "1020301234567890"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(balanceRequest("a", "1020301234567891"), new MockHttpServletResponse(), handler));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(balanceRequest("a", "1020301234567892"), new MockHttpServletResponse(), handler));
+        assertEquals(1.0, meterRegistry.get("bankinc.rate.limit.rejected").tag("endpoint", "balance").tag("key", "card").counter().count());
+        assertEquals(1.0, meterRegistry.get("bankinc.rate.limit.rejected").tag("endpoint", "balance").tag("key", "client").counter().count());
+    }
+
+    @Test
+    void afterBodyRead_ShouldLimitByCardInBody() throws NoSuchMethodException {
+        RateLimitBodyAdvice advice = new RateLimitBodyAdvice(new RateLimitRegistry(properties, meterRegistry));
+        Method method = TransactionController.class.getMethod("makePurchase", PurchaseRequestDTO.class);
+        MethodParameter parameter = new MethodParameter(method, 0);
+        PurchaseRequestDTO purchase = new PurchaseRequestDTO();
+        purchase.setCardId("1020301234567890");
+        PurchaseRequestDTO invalid = new PurchaseRequestDTO();
+        invalid.setCardId("not a card");
+
+        assertTrue(advice.supports(parameter, PurchaseRequestDTO.class, null));
+        assertSame(purchase, advice.afterBodyRead(purchase, null, parameter, PurchaseRequestDTO.class, null));
+        assertThrows(RateLimitExceededException.class,
+                () -> advice.afterBodyRead(purchase, null, parameter, PurchaseRequestDTO.class, null));
+        assertSame(invalid, advice.afterBodyRead(invalid, null, parameter, PurchaseRequestDTO.class, null));
+    }
+
+    private MockHttpServletRequest balanceRequest(String clientId, String cardId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/card/balance/" + cardId);
+        request.addHeader(properties.getClientHeader(), clientId);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("cardId", cardId));
+        return request;
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
@@ -0,0 +1,109 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.settlement.domain.model.SettlementRecord;
+import com.bankinc.cardmanagement.settlement.domain.repository.SettlementFiles;
+import com.bankinc.cardmanagement.settlement.infrastructure.dto.SettlementFileDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementFilesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService writers;
+
+    @BeforeEach
+    void setUp() {
+        writers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdownNow();
+    }
+
+    @Test
+    void finish_ShouldWriteOneFixedWidthFilePerProductWithControlTotals() throws Exception {
+        List<SettlementFileDTO> summaries;
+        // A buffer of three lines forces several writes per file.
+        try (SettlementFiles files = new SettlementFiles(tempDir, DAY, LocalDateTime.of(2026, 10, 19, 0, 30), 3 * SettlementFiles.LINE_LENGTH, 2, writers)) {
+            for (int i = 1; i <= 10; i++) {
+                files.write(record(SettlementRecord.Type.PURCHASE, i, 1020300000000000L + i, 1234));
+            }
+            files.write(record(SettlementRecord.Type.ANNULMENT, 3, 1020300000000003L, 1234));
+            files.write(record(SettlementRecord.Type.PURCHASE, 11, 4050600000000001L, 50));
+            summaries = files.finish();
+        }
+
+        assertEquals(2, summaries.size());
+        SettlementFileDTO first = summaries.get(0);
+        assertEquals("102030", first.getProductId());
+        assertEquals(11, first.getRecords());
+        assertEquals(12340, first.getPurchaseTotal());
+        assertEquals(1234, first.getAnnulmentTotal());
+
+        Path file = tempDir.resolve("settlement-102030-20261018.dat");
+        assertEquals(file.toString(), first.getFile());
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        assertEquals(13, lines.size());
+        for (String line : lines) {
+            assertEquals(SettlementFiles.LINE_LENGTH - 1, line.length());
+        }
+        assertTrue(lines.get(0).startsWith("H1020302026101820261019003000"));
+        assertEquals("DP" + "0000000000000000001" + "1020300000000001" + "000000000001234" + "20261018103000",
+                lines.get(1).substring(0, 66));
+        assertTrue(lines.get(11).startsWith("DA0000000000000000003"));
+
+        CRC32 crc = new CRC32();
+        for (String line : lines.subList(1, 12)) {
+            crc.update((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        String checksum = String.format("%08X", crc.getValue());
+        assertEquals(checksum, first.getChecksum());
+        assertEquals("T" + "102030" + "000000000011" + "000000000000012340" + "000000000000001234" + checksum,
+                lines.get(12).substring(0, 63));
+
+        assertTrue(Files.exists(tempDir.resolve("settlement-405060-20261018.dat")));
+        try (var remaining = Files.list(tempDir)) {
+            assertTrue(remaining.noneMatch(path -> path.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    void close_WithoutFinish_ShouldDeleteUnfinishedFiles() throws Exception {
+        try (SettlementFiles files = new SettlementFiles(tempDir, DAY, LocalDateTime.now(), 4096, 2, writers)) {
+            files.write(record(SettlementRecord.Type.PURCHASE, 1, 1020300000000001L, 100));
+        }
+
+        try (var remaining = Files.list(tempDir)) {
+            assertEquals(0, remaining.count());
+        }
+    }
+
+    private static SettlementRecord record(SettlementRecord.Type type, long transactionId, long cardNumber, long amount) {
+        SettlementRecord record = new SettlementRecord();
+        record.setType(type);
+        record.setTransactionId(transactionId);
+        record.setCardNumber(cardNumber);
+        record.setAmount(amount);
+        record.setOccurredAt(LocalDateTime.of(2026, 10, 18, 10, 30));
+        return record;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.sharding.ShardContext;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        List<ShardingProperties.Shard> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shards.add(new ShardingProperties.Shard());
+        }
+        properties.setShards(shards);
+        shardRouter = new ShardRouter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.clear();
+    }
+
+    @Test
+    void shardForCard_ShouldBeStableAndWithinRange() {
+        int[] cardsPerShard = new int[4];
+        for (int i = 0; i < 4000; i++) {
+            long cardNumber = 1020300000000000L + i;
+            int shard = shardRouter.shardForCard(cardNumber);
+            assertEquals(shard, shardRouter.shardForCard(cardNumber));
+            cardsPerShard[shard]++;
+        }
+        for (int count : cardsPerShard) {
+            assertTrue(count > 800, "Cards of one product should spread across every shard");
+        }
+    }
+
+    @Test
+    void routeByCard_ShouldSelectShardForCurrentThread() {
+        int shard = shardRouter.routeByCard(1020300452299684L);
+        assertEquals(shard, ShardContext.current());
+    }
+
+    @Test
+    void externalTransactionId_ShouldRoundTripShardAndLocalId() {
+        long externalId = shardRouter.externalTransactionId(12345L, 3);
+
+        assertEquals(3, shardRouter.shardOfTransaction(externalId));
+        assertEquals(12345L, shardRouter.localTransactionId(externalId));
+        assertEquals(3, shardRouter.routeByTransaction(externalId));
+        assertEquals(3, ShardContext.current());
+    }
+
+    @Test
+    void externalTransactionId_WhenShardingDisabled_ShouldKeepLocalId() {
+        ShardRouter singleShard = new ShardRouter(new ShardingProperties());
+
+        assertEquals(0, singleShard.shardForCard(1020300452299684L));
+        assertEquals(42L, singleShard.externalTransactionId(42L, 0));
+        assertEquals(42L, singleShard.localTransactionId(42L));
+    }
+}
@@ -0,0 +1,166 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.cluster.ClusterMembership;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.fraud.application.service.FraudService;
+import com.bankinc.cardmanagement.standin.application.service.StandInServiceImpl;
+import com.bankinc.cardmanagement.standin.domain.model.AuthorizationSnapshot;
+import com.bankinc.cardmanagement.standin.domain.repository.AuthorizationSnapshotRepository;
+import com.bankinc.cardmanagement.standin.domain.repository.StandInJournal;
+import com.bankinc.cardmanagement.standin.infrastructure.config.StandInProperties;
+import com.bankinc.cardmanagement.transaction.application.service.PurchaseJournalService;
+import com.bankinc.cardmanagement.transaction.application.service.TransactionService;
+import com.bankinc.cardmanagement.transaction.domain.model.DeclinedPurchase;
+import com.bankinc.cardmanagement.transaction.domain.model.JournalCheckpoint;
+import com.bankinc.cardmanagement.transaction.domain.repository.DeclinedPurchaseRepository;
+import com.bankinc.cardmanagement.transaction.domain.repository.JournalCheckpointRepository;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequestDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StandInServiceImplTest {
+
+    private static final long CARD = 1020300000000001L;
+
+    @TempDir
+    Path directory;
+
+    private TransactionService transactionService;
+    private DeclinedPurchaseRepository declinedPurchaseRepository;
+    private JournalCheckpointRepository checkpointRepository;
+    private ShardRouter shardRouter;
+    private StandInServiceImpl standInService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        long today = LocalDate.now().toEpochDay();
+        ByteBuffer snapshot = ByteBuffer.allocate(AuthorizationSnapshot.HEADER_SIZE + AuthorizationSnapshot.RECORD_SIZE);
+        AuthorizationSnapshot.writeHeader(snapshot, 0, 1, System.currentTimeMillis());
+        AuthorizationSnapshot.writeRecord(snapshot, CARD, 30000, (int) today + 30, true, false);
+        Files.write(directory.resolve("snapshot-0.bin"), snapshot.array());
+        // A purchase approved before a restart, still waiting for the database.
+        try (StandInJournal journal = new StandInJournal(directory)) {
+            journal.append(CARD, 1000, System.currentTimeMillis());
+        }
+
+        transactionService = mock(TransactionService.class);
+        when(transactionService.makePurchase(any())).thenReturn(new TransactionResponseDTO(1L, 1000, LocalDateTime.now(), false));
+        declinedPurchaseRepository = mock(DeclinedPurchaseRepository.class);
+        checkpointRepository = mock(JournalCheckpointRepository.class);
+        when(checkpointRepository.findById("stand-in:node-1")).thenReturn(Optional.empty());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ClusterMembership clusterMembership = mock(ClusterMembership.class);
+        when(clusterMembership.getNodeId()).thenReturn("node-1");
+        FraudService fraudService = mock(FraudService.class);
+        when(fraudService.screen(anyLong(), anyLong(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        shardRouter = spy(new ShardRouter(new ShardingProperties()));
+        StandInProperties properties = new StandInProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        standInService = new StandInServiceImpl(transactionService, mock(PurchaseJournalService.class), fraudService,
+                declinedPurchaseRepository, checkpointRepository, mock(AuthorizationSnapshotRepository.class), shardRouter,
+                properties, transactionManager, clusterMembership);
+        standInService.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        standInService.close();
+    }
+
+    @Test
+    void replayJournal_WhilePurchaseIsAuthorizedOffline_ShouldReplayItBeforeGoingOnline() throws Exception {
+        assertTrue(standInService.isOffline());
+        // Holds the offline authorization after it saw stand-in mode and before it is journaled.
+        AtomicBoolean hold = new AtomicBoolean(true);
+        CountDownLatch authorizing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (hold.getAndSet(false)) {
+                authorizing.countDown();
+                release.await();
+            }
+            return invocation.callRealMethod();
+        }).when(shardRouter).shardForCard(CARD);
+
+        CompletableFuture<TransactionResponseDTO> purchase = CompletableFuture.supplyAsync(() -> standInService.makePurchase(request(2000)));
+        assertTrue(authorizing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> replay = CompletableFuture.runAsync(standInService::replayJournal);
+        Thread.sleep(200);
+        assertFalse(replay.isDone());
+
+        release.countDown();
+        assertNull(purchase.get(5, TimeUnit.SECONDS).getTransactionId());
+        replay.get(5, TimeUnit.SECONDS);
+
+        assertFalse(standInService.isOffline());
+        verify(transactionService).makePurchase(argThat(request -> request.getPrice() == 1000));
+        verify(transactionService).makePurchase(argThat(request -> request.getPrice() == 2000));
+    }
+
+    @Test
+    void replayJournal_WhenPurchaseIsDeclined_ShouldRecordItForSettlement() {
+        when(transactionService.makePurchase(any())).thenThrow(new InsufficientBalanceException("Insufficient balance"));
+
+        standInService.replayJournal();
+
+        assertFalse(standInService.isOffline());
+        verify(declinedPurchaseRepository).save(argThat(declined -> declined.getCardNumber() == CARD
+                && declined.getAmount() == 1000 && declined.getSource() == DeclinedPurchase.Source.STAND_IN
+                && declined.getReason().equals("Insufficient balance")));
+    }
+
+    @Test
+    void replayJournal_ShouldAdvanceCheckpointWithThePurchase() {
+        standInService.replayJournal();
+
+        verify(transactionService).makePurchase(argThat(request -> request.getPrice() == 1000));
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getNodeId().equals("stand-in:node-1")
+                && checkpoint.getAppliedSequence() == 0));
+    }
+
+    @Test
+    void replayJournal_WhenPurchaseWasReplayedBeforeCrash_ShouldSkipIt() {
+        JournalCheckpoint checkpoint = new JournalCheckpoint("stand-in:node-1");
+        checkpoint.setAppliedSequence(0);
+        when(checkpointRepository.findById("stand-in:node-1")).thenReturn(Optional.of(checkpoint));
+
+        standInService.replayJournal();
+
+        assertFalse(standInService.isOffline());
+        verify(transactionService, never()).makePurchase(any());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    private static PurchaseRequestDTO request(long price) {
+        PurchaseRequestDTO request = new PurchaseRequestDTO();
+        request.setCardId(Long.toString(CARD));
+        request.setPrice(price);
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.domain.model.Card;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
+import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every storage engine must share, run against each by a subclass.
+ */
+abstract class StorageContractTest {
+
+    protected static final long CARD = 1020301234567890L;
+
+    protected abstract CardStore cardStore();
+
+    protected abstract TransactionStore transactionStore();
+
+    protected Card newCard(long cardNumber) {
+        return new Card(cardNumber, "Ana María Núñez", LocalDate.of(2029, 10, 31));
+    }
+
+    protected Transaction newTransaction(long transactionId, Card card, long amount) {
+        Transaction transaction = new Transaction(card, amount, LocalDateTime.of(2026, 10, 19, 12, 30, 15, 123_456_789));
+        transaction.setTransactionId(transactionId);
+        return transaction;
+    }
+
+    @Test
+    void saveCard_ShouldAssignIdAndReadBackEveryField() {
+        Card card = cardStore().save(newCard(CARD));
+
+        assertNotNull(card.getCardId());
+        Card stored = cardStore().findByCardNumber(CARD).orElseThrow();
+        assertEquals(card.getCardId(), stored.getCardId());
+        assertEquals("Ana María Núñez", stored.getHolderName());
+        assertEquals(LocalDate.of(2029, 10, 31), stored.getExpirationDate());
+        assertFalse(stored.isActive());
+        assertFalse(stored.isBlocked());
+        assertEquals(0, stored.getBalance());
+        assertTrue(cardStore().findByCardNumber(CARD + 1).isEmpty());
+    }
+
+    @Test
+    void saveCard_ShouldUpdateExistingCard() {
+        Card card = cardStore().save(newCard(CARD));
+        card.setActive(true);
+        card.setBlocked(true);
+        card.setBalance(12550);
+        card.setHolderName(null);
+        cardStore().save(card);
+
+        Card stored = cardStore().findByCardNumber(CARD).orElseThrow();
+        assertEquals(card.getCardId(), stored.getCardId());
+        assertTrue(stored.isActive());
+        assertTrue(stored.isBlocked());
+        assertEquals(12550, stored.getBalance());
+        assertNull(stored.getHolderName());
+    }
+
+    @Test
+    void saveCard_ShouldRejectNewCardWithExistingNumber() {
+        Card card = cardStore().save(newCard(CARD));
+        Card other = cardStore().save(newCard(CARD + 1));
+
+        assertNotEquals(card.getCardId(), other.getCardId());
+        assertThrows(DataIntegrityViolationException.class, () -> cardStore().save(newCard(CARD)));
+    }
+
+    @Test
+    void saveTransaction_ShouldReadBackWithCurrentCard() {
+        Card card = cardStore().save(newCard(CARD));
+        transactionStore().save(newTransaction(7L, card, 4025));
+        card.setBalance(5975);
+        cardStore().save(card);
+
+        Transaction stored = transactionStore().findById(7L).orElseThrow();
+        assertEquals(TransactionType.PURCHASE, stored.getType());
+        assertEquals(4025, stored.getAmount());
+        assertEquals(LocalDateTime.of(2026, 10, 19, 12, 30, 15, 123_456_789), stored.getTransactionDate());
+        assertFalse(stored.isAnnulled());
+        assertNull(stored.getAnnulledAt());
+        assertEquals(CARD, stored.getCard().getCardNumber());
+        assertEquals(5975, stored.getCard().getBalance());
+        assertTrue(transactionStore().findById(8L).isEmpty());
+    }
+
+    @Test
+    void saveTransaction_ShouldUpdateExistingTransaction() {
+        Card card = cardStore().save(newCard(CARD));
+        transactionStore().save(newTransaction(7L, card, 4025));
+        Transaction transaction = transactionStore().findById(7L).orElseThrow();
+        LocalDateTime annulledAt = LocalDateTime.of(2026, 10, 19, 13, 0);
+        transaction.setAnnulled(true);
+        transaction.setAnnulledAt(annulledAt);
+        transactionStore().save(transaction);
+
+        Transaction stored = transactionStore().findById(7L).orElseThrow();
+        assertTrue(stored.isAnnulled());
+        assertEquals(annulledAt, stored.getAnnulledAt());
+        assertFalse(stored.isNew());
+    }
+}
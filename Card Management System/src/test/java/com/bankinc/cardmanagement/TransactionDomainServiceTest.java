@@ -2,11 +2,14 @@ package com.bankinc.cardmanagement;
 
 import com.bankinc.cardmanagement.card.domain.model.Card;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardBlockedException;
+import com.bankinc.cardmanagement.card.infrastructure.exception.CardExpiredException;
 import com.bankinc.cardmanagement.transaction.domain.service.TransactionDomainService;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.InsufficientBalanceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -27,7 +30,7 @@ class TransactionDomainServiceTest {
         when(card.isBlocked()).thenReturn(false);
 
         CardBlockedException exception = assertThrows(CardBlockedException.class, () -> {
-            transactionDomainService.validateForPurchase(card, 100.0);
+            transactionDomainService.validateForPurchase(card, 10000);
         });
 
         assertEquals("Card is not active or is blocked", exception.getMessage());
@@ -39,41 +42,68 @@ class TransactionDomainServiceTest {
         when(card.isBlocked()).thenReturn(true);
 
         CardBlockedException exception = assertThrows(CardBlockedException.class, () -> {
-            transactionDomainService.validateForPurchase(card, 100.0);
+            transactionDomainService.validateForPurchase(card, 10000);
         });
 
         assertEquals("Card is not active or is blocked", exception.getMessage());
     }
 
+    @Test
+    void validateForPurchase_CardIsExpired_ShouldThrowCardExpiredException() {
+        when(card.isActive()).thenReturn(true);
+        when(card.isBlocked()).thenReturn(false);
+        when(card.getExpirationDate()).thenReturn(LocalDate.now().minusDays(1));
+        when(card.getBalance()).thenReturn(50000L);
+
+        CardExpiredException exception = assertThrows(CardExpiredException.class, () -> {
+            transactionDomainService.validateForPurchase(card, 10000);
+        });
+
+        assertEquals("Card is expired", exception.getMessage());
+    }
+
     @Test
     void validateForPurchase_InsufficientBalance_ShouldThrowInsufficientBalanceException() {
         when(card.isActive()).thenReturn(true);
         when(card.isBlocked()).thenReturn(false);
-        when(card.getBalance()).thenReturn(50.0);
+        when(card.getBalance()).thenReturn(5000L);
 
         InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class, () -> {
-            transactionDomainService.validateForPurchase(card, 100.0);
+            transactionDomainService.validateForPurchase(card, 10000);
         });
 
         assertEquals("Insufficient balance", exception.getMessage());
     }
 
+    @Test
+    void validateForPurchase_Declined_ShouldThrowWithoutStackTrace() {
+        when(card.isActive()).thenReturn(true);
+        when(card.isBlocked()).thenReturn(false);
+        when(card.getBalance()).thenReturn(5000L);
+
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class, () -> {
+            transactionDomainService.validateForPurchase(card, 10000);
+        });
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
     @Test
     void validateForPurchase_ValidCard_ShouldNotThrowException() {
         when(card.isActive()).thenReturn(true);
         when(card.isBlocked()).thenReturn(false);
-        when(card.getBalance()).thenReturn(100.0);
+        when(card.getBalance()).thenReturn(10000L);
 
         assertDoesNotThrow(() -> {
-            transactionDomainService.validateForPurchase(card, 100.0);
+            transactionDomainService.validateForPurchase(card, 10000);
         });
     }
 
     @Test
     void deductBalance_ShouldDeductCorrectAmount() {
-        when(card.getBalance()).thenReturn(200.0);
-        transactionDomainService.deductBalance(card, 100.0);
+        when(card.getBalance()).thenReturn(20000L);
+        transactionDomainService.deductBalance(card, 10000);
 
-        verify(card).setBalance(100.0);
+        verify(card).setBalance(10000);
     }
 }
@@ -0,0 +1,123 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.common.cluster.ClusterProperties;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.transaction.domain.service.TransactionIdGenerator;
+import com.bankinc.cardmanagement.transaction.infrastructure.config.TransactionIdProperties;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    @Test
+    void next_ShouldIncreaseAndCarryShardAndTime() {
+        TransactionIdProperties properties = new TransactionIdProperties();
+        properties.setNodeId(5);
+        TransactionIdGenerator generator = new TransactionIdGenerator(properties, new ClusterProperties());
+        Instant before = Instant.now().minusMillis(1);
+
+        long previous = 0;
+        // More IDs than fit in a millisecond, so the sequence overflows.
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.next(3);
+            assertTrue(id > previous);
+            assertTrue(TransactionIds.isGenerated(id));
+            assertEquals(3, TransactionIds.shard(id));
+            previous = id;
+        }
+
+        Instant createdAt = TransactionIds.createdAt(previous);
+        assertFalse(createdAt.isBefore(before));
+        assertTrue(createdAt.isBefore(Instant.now().plus(Duration.ofMillis(100))));
+    }
+
+    @Test
+    void next_ShouldBeUniqueAcrossThreads() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(new TransactionIdProperties(), new ClusterProperties());
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(threads.submit(() -> {
+                    long[] ids = new long[20_000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.next(0);
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<long[]> result : results) {
+                for (long id : result.get()) {
+                    assertTrue(unique.add(id), "Duplicate transaction ID " + id);
+                }
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void shardRouter_ShouldRouteGeneratedIdsByTheirShardAndKeepDatabaseIds() {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        for (int i = 0; i < 4; i++) {
+            shardingProperties.getShards().add(new ShardingProperties.Shard());
+        }
+        ShardRouter shardRouter = new ShardRouter(shardingProperties);
+        long id = new TransactionIdGenerator(new TransactionIdProperties(), new ClusterProperties()).next(2);
+
+        assertEquals(id, shardRouter.externalTransactionId(id, 2));
+        assertEquals(id, shardRouter.localTransactionId(id));
+        assertEquals(2, shardRouter.shardOfTransaction(id));
+
+        long databaseId = shardRouter.externalTransactionId(12345L, 3);
+        assertFalse(TransactionIds.isGenerated(databaseId));
+        assertEquals(3, shardRouter.shardOfTransaction(databaseId));
+        assertEquals(12345L, shardRouter.localTransactionId(databaseId));
+    }
+
+    @Test
+    void constructor_ShouldRejectNodeOutOfRange() {
+        TransactionIdProperties properties = new TransactionIdProperties();
+        properties.setNodeId(TransactionIds.MAX_NODES);
+
+        assertThrows(IllegalStateException.class, () -> new TransactionIdGenerator(properties, new ClusterProperties()));
+    }
+
+    @Test
+    void constructor_WhenClusterIsEnabledWithoutNodeId_ShouldTakeThePositionOfTheNode() {
+        assertEquals(1, TransactionIds.node(new TransactionIdGenerator(new TransactionIdProperties(), cluster("node-2")).next(0)));
+        assertThrows(IllegalStateException.class, () -> new TransactionIdGenerator(new TransactionIdProperties(), cluster("node-3")));
+
+        TransactionIdProperties properties = new TransactionIdProperties();
+        properties.setNodeId(7);
+        assertEquals(7, TransactionIds.node(new TransactionIdGenerator(properties, cluster("node-3")).next(0)));
+    }
+
+    private static ClusterProperties cluster(String nodeId) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId(nodeId);
+        for (String id : List.of("node-1", "node-2")) {
+            ClusterProperties.Node node = new ClusterProperties.Node();
+            node.setId(id);
+            node.setUrl("http://" + id + ":8080");
+            properties.getNodes().add(node);
+        }
+        return properties;
+    }
+}
@@ -1,12 +1,13 @@
 package com.bankinc.cardmanagement;
 
 import com.bankinc.cardmanagement.card.domain.model.Card;
-import com.bankinc.cardmanagement.card.domain.repository.CardRepository;
+import com.bankinc.cardmanagement.card.domain.repository.CardStore;
 import com.bankinc.cardmanagement.card.domain.service.CardDomainService;
 import com.bankinc.cardmanagement.card.infrastructure.exception.CardNotFoundException;
 import com.bankinc.cardmanagement.transaction.application.service.TransactionServiceImpl;
 import com.bankinc.cardmanagement.transaction.domain.model.Transaction;
-import com.bankinc.cardmanagement.transaction.domain.repository.TransactionRepository;
+import com.bankinc.cardmanagement.transaction.domain.model.TransactionType;
+import com.bankinc.cardmanagement.transaction.domain.repository.TransactionStore;
 import com.bankinc.cardmanagement.transaction.domain.service.TransactionDomainService;
 import com.bankinc.cardmanagement.transaction.domain.service.TransactionFactory;
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.AnulationRequestDTO;
@@ -14,13 +15,20 @@ import com.bankinc.cardmanagement.transaction.infrastructure.dto.PurchaseRequest
 import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionAlreadyAnnulledException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionAnnulationPeriodExceededException;
+import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionNotAnnullableException;
 import com.bankinc.cardmanagement.transaction.infrastructure.exception.TransactionNotFoundException;
+import com.bankinc.cardmanagement.transaction.infrastructure.util.TransactionIds;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -30,13 +38,13 @@ import static org.mockito.Mockito.*;
 public class TransactionServiceImplTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private TransactionStore transactionStore;
 
     @Mock
     private TransactionFactory transactionFactory;
 
     @Mock
-    private CardRepository cardRepository;
+    private CardStore cardStore;
 
 
     @InjectMocks
@@ -48,6 +56,12 @@ public class TransactionServiceImplTest {
     @Mock
     private CardDomainService cardDomainService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
     private Card card;
 
     private Transaction transaction;
@@ -60,23 +74,24 @@ public class TransactionServiceImplTest {
 
         purchaseRequest = new PurchaseRequestDTO();
         purchaseRequest.setCardId("1234500000000000");
-        purchaseRequest.setPrice(50.00);
+        purchaseRequest.setPrice(5000);
 
         transaction = new Transaction();
         transaction.setTransactionId(1L);
-        transaction.setAmount(50.00);
+        transaction.setAmount(5000);
         transaction.setTransactionDate(LocalDateTime.now());
         transaction.setAnnulled(false);
 
         card = new Card();
-        card.setBalance(100.0);
+        card.setCardNumber(1234500000000000L);
+        card.setBalance(10000);
         transaction.setCard(card);
 
     }
 
     @Test
     public void testMakePurchaseSuccess() {
-        when(cardRepository.findByCardNumber(purchaseRequest.getCardId())).thenReturn(Optional.of(card));
+        when(cardStore.findByCardNumber(Long.parseLong(purchaseRequest.getCardId()))).thenReturn(Optional.of(card));
 
         doNothing().when(transactionDomainService).validateForPurchase(card, purchaseRequest.getPrice());
         doNothing().when(transactionDomainService).deductBalance(card, purchaseRequest.getPrice());
@@ -89,8 +104,8 @@ public class TransactionServiceImplTest {
 
         when(transactionFactory.createTransaction(card, purchaseRequest.getPrice())).thenReturn(transaction);
 
-        when(transactionRepository.save(transaction)).thenReturn(transaction);
-        when(cardRepository.save(card)).thenReturn(card);
+        when(transactionStore.save(transaction)).thenReturn(transaction);
+        when(cardStore.save(card)).thenReturn(card);
 
         TransactionResponseDTO response = transactionService.makePurchase(purchaseRequest);
 
@@ -99,30 +114,30 @@ public class TransactionServiceImplTest {
         assertEquals(transaction.getTransactionDate(), response.getTransactionDate());
         assertEquals(transaction.isAnnulled(), response.isAnnulled());
 
-        verify(cardRepository, times(1)).findByCardNumber(purchaseRequest.getCardId());
+        verify(cardStore, times(1)).findByCardNumber(Long.parseLong(purchaseRequest.getCardId()));
         verify(transactionDomainService, times(1)).validateForPurchase(card, purchaseRequest.getPrice());
         verify(transactionDomainService, times(1)).deductBalance(card, purchaseRequest.getPrice());
-        verify(transactionRepository, times(1)).save(transaction);
-        verify(cardRepository, times(1)).save(card);
+        verify(transactionStore, times(1)).save(transaction);
+        verify(cardStore, times(1)).save(card);
     }
 
     @Test
     public void testMakePurchaseCardNotFound() {
-        when(cardRepository.findByCardNumber(purchaseRequest.getCardId())).thenReturn(Optional.empty());
+        when(cardStore.findByCardNumber(Long.parseLong(purchaseRequest.getCardId()))).thenReturn(Optional.empty());
 
         CardNotFoundException exception = assertThrows(CardNotFoundException.class, () -> transactionService.makePurchase(purchaseRequest));
 
         assertEquals("Card not found", exception.getMessage());
 
-        verify(transactionDomainService, never()).validateForPurchase(any(Card.class), anyDouble());
-        verify(transactionDomainService, never()).deductBalance(any(Card.class), anyDouble());
-        verify(transactionRepository, never()).save(any(Transaction.class));
-        verify(cardRepository, never()).save(any(Card.class));
+        verify(transactionDomainService, never()).validateForPurchase(any(Card.class), anyLong());
+        verify(transactionDomainService, never()).deductBalance(any(Card.class), anyLong());
+        verify(transactionStore, never()).save(any(Transaction.class));
+        verify(cardStore, never()).save(any(Card.class));
     }
 
     @Test
     public void testGetTransactionSuccess() {
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+        when(transactionStore.findById(1L)).thenReturn(Optional.of(transaction));
 
         TransactionResponseDTO response = transactionService.getTransaction("1");
 
@@ -132,89 +147,139 @@ public class TransactionServiceImplTest {
         assertEquals(transaction.getTransactionDate(), response.getTransactionDate());
         assertEquals(transaction.isAnnulled(), response.isAnnulled());
 
-        verify(transactionRepository, times(1)).findById(1L);
+        verify(transactionStore, times(1)).findById(1L);
     }
 
     @Test
     public void testGetTransactionNotFound() {
         String transactionId = "1";
-        when(transactionRepository.findById(Long.valueOf(transactionId))).thenReturn(Optional.empty());
+        when(transactionStore.findById(Long.valueOf(transactionId))).thenReturn(Optional.empty());
 
         TransactionNotFoundException exception = assertThrows(TransactionNotFoundException.class, () -> transactionService.getTransaction(transactionId));
 
         assertEquals("Transaction not found", exception.getMessage());
 
-        verify(transactionRepository, times(1)).findById(Long.valueOf(transactionId));
+        verify(transactionStore, times(1)).findById(Long.valueOf(transactionId));
     }
 
 
     @Test
     public void testAnnulTransactionSuccess() {
         AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setCardId("1234500000000000");
         request.setTransactionId("1");
 
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+        when(transactionStore.findById(1L)).thenReturn(Optional.of(transaction));
 
         transactionService.annulTransaction(request);
 
         assertTrue(transaction.isAnnulled());
+        assertNotNull(transaction.getAnnulledAt());
 
-        verify(transactionRepository, times(1)).findById(1L);
-        verify(transactionRepository, times(1)).save(transaction);
+        verify(transactionStore, times(1)).findById(1L);
+        verify(transactionStore, times(1)).save(transaction);
         verify(cardDomainService, times(1)).addBalance(transaction.getCard(), transaction.getAmount());
-        verify(cardRepository, times(1)).save(transaction.getCard());
+        verify(cardStore, times(1)).save(transaction.getCard());
     }
 
     @Test
     public void testAnnulTransactionNotFound() {
         AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setCardId("1234500000000000");
         request.setTransactionId("1");
 
-        when(transactionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(transactionStore.findById(1L)).thenReturn(Optional.empty());
 
         TransactionNotFoundException exception = assertThrows(TransactionNotFoundException.class, () -> transactionService.annulTransaction(request));
         assertEquals("Transaction not found", exception.getMessage());
 
-        verify(transactionRepository, times(1)).findById(1L);
-        verify(transactionRepository, never()).save(any());
+        verify(transactionStore, times(1)).findById(1L);
+        verify(transactionStore, never()).save(any());
+    }
+
+    @Test
+    public void testAnnulTransactionOfAnotherCard() {
+        AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setCardId("9999900000000000");
+        request.setTransactionId("1");
+
+        when(transactionStore.findById(1L)).thenReturn(Optional.of(transaction));
+
+        TransactionNotFoundException exception = assertThrows(TransactionNotFoundException.class, () -> transactionService.annulTransaction(request));
+        assertEquals("Transaction not found", exception.getMessage());
+
+        assertFalse(transaction.isAnnulled());
+        verify(transactionStore, never()).save(any());
+        verify(cardStore, never()).save(any());
     }
 
     @Test
     public void testAnnulTransactionAlreadyAnnulled() {
         AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setCardId("1234500000000000");
         request.setTransactionId("1");
 
         Transaction transaction = new Transaction();
         transaction.setTransactionId(1L);
+        transaction.setCard(card);
         transaction.setAnnulled(true); // Transacción ya anulada
 
-        when(transactionRepository.findById(Long.valueOf(request.getTransactionId()))).thenReturn(Optional.of(transaction));
+        when(transactionStore.findById(Long.valueOf(request.getTransactionId()))).thenReturn(Optional.of(transaction));
 
         TransactionAlreadyAnnulledException exception = assertThrows(TransactionAlreadyAnnulledException.class, () -> transactionService.annulTransaction(request));
 
         assertEquals("Transaction already annulled", exception.getMessage());
 
-        verify(transactionRepository, times(1)).findById(Long.valueOf(request.getTransactionId()));
+        verify(transactionStore, times(1)).findById(Long.valueOf(request.getTransactionId()));
     }
 
     @Test
     public void testAnnulTransactionPeriodExceeded() {
         AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setCardId("1234500000000000");
         request.setTransactionId("1");
 
         Transaction transaction = new Transaction();
         transaction.setTransactionId(1L);
+        transaction.setCard(card);
         transaction.setAnnulled(false);
         transaction.setTransactionDate(LocalDateTime.now().minusDays(1));
 
-        when(transactionRepository.findById(Long.valueOf(request.getTransactionId()))).thenReturn(Optional.of(transaction));
+        when(transactionStore.findById(Long.valueOf(request.getTransactionId()))).thenReturn(Optional.of(transaction));
 
         TransactionAnnulationPeriodExceededException exception = assertThrows(TransactionAnnulationPeriodExceededException.class, () -> transactionService.annulTransaction(request));
 
         assertEquals("Transaction can only be annulled within 24 hours", exception.getMessage());
 
-        verify(transactionRepository, times(1)).findById(Long.valueOf(request.getTransactionId()));
+        verify(transactionStore, times(1)).findById(Long.valueOf(request.getTransactionId()));
     }
 
+    @Test
+    public void testAnnulTransactionPeriodExceededByGeneratedId() {
+        long createdAt = System.currentTimeMillis() - TransactionIds.EPOCH_MILLIS - Duration.ofHours(25).toMillis();
+        AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setTransactionId(String.valueOf(TransactionIds.compose(createdAt, 0, 0, 0)));
+
+        TransactionAnnulationPeriodExceededException exception = assertThrows(TransactionAnnulationPeriodExceededException.class, () -> transactionService.annulTransaction(request));
+
+        assertEquals("Transaction can only be annulled within 24 hours", exception.getMessage());
+        verify(transactionStore, never()).findById(anyLong());
+    }
 
+    @Test
+    public void testAnnulTransactionRecharge() {
+        AnulationRequestDTO request = new AnulationRequestDTO();
+        request.setCardId("1234500000000000");
+        request.setTransactionId("1");
+
+        transaction.setType(TransactionType.RECHARGE);
+        when(transactionStore.findById(1L)).thenReturn(Optional.of(transaction));
+
+        TransactionNotAnnullableException exception = assertThrows(TransactionNotAnnullableException.class, () -> transactionService.annulTransaction(request));
+
+        assertEquals("Only purchases can be annulled", exception.getMessage());
+        assertFalse(transaction.isAnnulled());
+        verify(transactionStore, never()).save(any());
+        verify(cardDomainService, never()).addBalance(any(Card.class), anyLong());
+    }
 }
@@ -0,0 +1,98 @@
+package com.bankinc.cardmanagement;
+
+import com.bankinc.cardmanagement.card.application.service.CardService;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardBalanceResponseDTO;
+import com.bankinc.cardmanagement.card.infrastructure.dto.CardNumberResponseDTO;
+import com.bankinc.cardmanagement.common.sharding.ShardRouter;
+import com.bankinc.cardmanagement.common.sharding.ShardingProperties;
+import com.bankinc.cardmanagement.common.warmup.WarmUpProperties;
+import com.bankinc.cardmanagement.common.warmup.WarmUpReport;
+import com.bankinc.cardmanagement.common.warmup.WarmUpRunner;
+import com.bankinc.cardmanagement.transaction.application.service.TransactionService;
+import com.bankinc.cardmanagement.transaction.infrastructure.dto.TransactionResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WarmUpRunnerTest {
+
+    private CardService cardService;
+    private TransactionService transactionService;
+    private DataSource dataSource;
+    private Connection connection;
+    private PlatformTransactionManager transactionManager;
+    private TransactionStatus transactionStatus;
+    private WarmUpProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private WarmUpRunner warmUpRunner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        cardService = mock(CardService.class);
+        transactionService = mock(TransactionService.class);
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        transactionManager = mock(PlatformTransactionManager.class);
+        transactionStatus = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        ObjectProvider<DataSource> dataSourceProvider = mock(ObjectProvider.class);
+        when(dataSourceProvider.getIfAvailable()).thenReturn(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+
+        properties = new WarmUpProperties();
+        properties.setPrimeConnections(3);
+        properties.setRoundSize(5);
+        properties.setMaxRounds(2);
+        properties.setStableRounds(1);
+        properties.setTolerance(1000.0);
+        properties.setMaxDuration(Duration.ofSeconds(30));
+        warmUpRunner = new WarmUpRunner(cardService, transactionService, new ShardRouter(new ShardingProperties()),
+                dataSourceProvider, new ObjectMapper().findAndRegisterModules(), mock(Validator.class), properties,
+                transactionManager, meterRegistry);
+
+        when(cardService.generateCardNumber("999999")).thenReturn(new CardNumberResponseDTO("9999990000000001"));
+        when(cardService.getBalance(9999990000000001L)).thenReturn(new CardBalanceResponseDTO(10_000));
+        TransactionResponseDTO purchase = new TransactionResponseDTO(7L, 1_000, LocalDateTime.now(), false);
+        when(transactionService.makePurchase(any())).thenReturn(purchase);
+        when(transactionService.getTransaction("7")).thenReturn(purchase);
+    }
+
+    @Test
+    void warmUp_ShouldRunRolledBackLifecyclesUntilLatencyConverges() throws Exception {
+        WarmUpReport report = warmUpRunner.warmUp();
+
+        assertTrue(report.converged());
+        assertEquals(10, report.iterations());
+        assertTrue(report.firstRoundMeanMicros() > 0);
+        verify(connection, times(3)).isValid(1);
+        verify(connection, times(3)).close();
+        verify(transactionService, times(10)).annulTransaction(any());
+        verify(transactionStatus, times(10)).setRollbackOnly();
+        assertEquals(10, meterRegistry.timer("bankinc.warmup.iteration").count());
+    }
+
+    @Test
+    void run_WhenLifecycleFails_ShouldStartCold() {
+        when(transactionService.makePurchase(any())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        assertDoesNotThrow(() -> warmUpRunner.run(null));
+
+        verify(transactionService, never()).annulTransaction(any());
+    }
+}